@@ -2,10 +2,15 @@ package org.ovirt.engine.core.bll;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
 
@@ -16,11 +21,14 @@ import javax.inject.Inject;
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.ovirt.engine.core.bll.interfaces.BackendInternal;
 import org.ovirt.engine.core.bll.job.ExecutionHandler;
+import org.ovirt.engine.core.bll.scheduling.SchedulingManager;
 import org.ovirt.engine.core.common.AuditLogType;
 import org.ovirt.engine.core.common.BackendService;
 import org.ovirt.engine.core.common.action.ActionType;
 import org.ovirt.engine.core.common.action.RunVmParams;
+import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.Snapshot;
+import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.errors.EngineMessage;
@@ -29,7 +37,9 @@ import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogable;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableImpl;
+import org.ovirt.engine.core.dao.ClusterDao;
 import org.ovirt.engine.core.dao.SnapshotDao;
+import org.ovirt.engine.core.dao.VmDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.utils.lock.EngineLock;
 import org.ovirt.engine.core.utils.lock.LockManager;
@@ -89,6 +99,15 @@ public abstract class AutoStartVmsRunner implements BackendService {
     @Inject
     private SnapshotDao snapshotDao;
 
+    @Inject
+    private VmDao vmDao;
+
+    @Inject
+    private ClusterDao clusterDao;
+
+    @Inject
+    private SchedulingManager schedulingManager;
+
     @Inject
     @ThreadPools(ThreadPools.ThreadPoolType.EngineScheduledThreadPool)
     private ManagedScheduledExecutorService executor;
@@ -136,6 +155,7 @@ public abstract class AutoStartVmsRunner implements BackendService {
 
     private void startFailedAutoStartVmsImpl() {
         LinkedList<AutoStartVmToRestart> vmsToRemove = new LinkedList<>();
+        Map<AutoStartVmToRestart, EngineLock> vmsToRun = new LinkedHashMap<>();
         final DateTime iterationStartTime = DateTime.getNow();
         final Date nextTimeOfRetryToRun = iterationStartTime.addSeconds(RETRY_TO_RUN_AUTO_START_VM_INTERVAL);
         final Date delayedTimeOfRetryToRun = iterationStartTime.addSeconds(DELAY_TO_RUN_AUTO_START_VM_INTERVAL);
@@ -178,23 +198,81 @@ public abstract class AutoStartVmsRunner implements BackendService {
                 continue;
             }
 
-            if (runVm(vmId, runVmLock)) {
-                // the VM reached WaitForLunch, so from now on this job is not responsible
-                // to auto start it, future failures will be detected by the monitoring
-                vmsToRemove.add(autoStartVmToRestart);
-            } else {
-                logFailedAttemptToRestartVm(vmId);
+            vmsToRun.put(autoStartVmToRestart, runVmLock);
+        }
 
-                if (!autoStartVmToRestart.scheduleNextTimeToRun(nextTimeOfRetryToRun)) {
-                    // if we could not schedule the next time to run the VM, it means
-                    // that we reached the maximum number of tried so don't try anymore
+        Map<Guid, Guid> placements = new HashMap<>();
+        Map<Guid, VM> placedVms = new HashMap<>();
+        try {
+            placeVms(vmsToRun.keySet(), placements, placedVms);
+            for (Map.Entry<AutoStartVmToRestart, EngineLock> entry : vmsToRun.entrySet()) {
+                AutoStartVmToRestart autoStartVmToRestart = entry.getKey();
+                Guid vmId = autoStartVmToRestart.getVmId();
+                VM placedVm = placedVms.remove(vmId);
+                if (placedVm != null) {
+                    // RunVm adds the pending resources again on the host it was placed on
+                    schedulingManager.clearPendingVm(placedVm.getStaticData());
+                }
+
+                if (runVm(vmId, placements.get(vmId), entry.getValue())) {
+                    // the VM reached WaitForLunch, so from now on this job is not responsible
+                    // to auto start it, future failures will be detected by the monitoring
                     vmsToRemove.add(autoStartVmToRestart);
-                    logFailureToRestartVm(vmId);
+                } else {
+                    logFailedAttemptToRestartVm(vmId);
+
+                    if (!autoStartVmToRestart.scheduleNextTimeToRun(nextTimeOfRetryToRun)) {
+                        // if we could not schedule the next time to run the VM, it means
+                        // that we reached the maximum number of tried so don't try anymore
+                        vmsToRemove.add(autoStartVmToRestart);
+                        logFailureToRestartVm(vmId);
+                    }
                 }
             }
+        } finally {
+            // the placements of the VMs that were not run must not hold the resources of their hosts
+            placedVms.values().forEach(vm -> schedulingManager.clearPendingVm(vm.getStaticData()));
+            autoStartVmsToRestart.removeAll(vmsToRemove);
         }
+    }
 
-        autoStartVmsToRestart.removeAll(vmsToRemove);
+    /**
+     * Places the VMs of every cluster on its hosts in one scheduling pass, so that each VM is then run on the host
+     * it was placed on and its own scheduling checks only that host. The pending resources a placement adds are
+     * released when the VM itself is run, so that they are not counted twice, while the VMs that are run after it
+     * still see them. The VMs that could not be placed, for example because their hosts still need to free memory,
+     * are run without a destination and scheduled by RunVm as usual.
+     *
+     * @param placements - filled with the host each placed VM should run on, keyed by the VM ID
+     * @param placedVms - filled with the placed VMs, keyed by their IDs
+     */
+    private void placeVms(Collection<AutoStartVmToRestart> vmsToRun,
+            Map<Guid, Guid> placements,
+            Map<Guid, VM> placedVms) {
+        Map<Guid, List<VM>> vmsByCluster = new LinkedHashMap<>();
+        for (AutoStartVmToRestart autoStartVmToRestart : vmsToRun) {
+            VM vm = vmDao.get(autoStartVmToRestart.getVmId());
+            if (vm != null) {
+                vmsByCluster.computeIfAbsent(vm.getClusterId(), clusterId -> new ArrayList<>()).add(vm);
+            }
+        }
+
+        vmsByCluster.forEach((clusterId, vms) -> {
+            Cluster cluster = clusterDao.get(clusterId);
+            if (cluster == null) {
+                return;
+            }
+            Map<Guid, Optional<Guid>> hostsByVm = schedulingManager.scheduleBatch(cluster,
+                    vms,
+                    Collections.emptyList(),
+                    Collections.emptyList(),
+                    new HashMap<>(),
+                    null);
+            vms.forEach(vm -> hostsByVm.getOrDefault(vm.getId(), Optional.empty()).ifPresent(hostId -> {
+                placements.put(vm.getId(), hostId);
+                placedVms.put(vm.getId(), vm);
+            }));
+        });
     }
 
     /**
@@ -252,10 +330,12 @@ public abstract class AutoStartVmsRunner implements BackendService {
         return vmDynamicDao;
     }
 
-    private boolean runVm(Guid vmId, EngineLock lock) {
+    private boolean runVm(Guid vmId, Guid destinationVdsId, EngineLock lock) {
+        RunVmParams runVmParams = new RunVmParams(vmId);
+        runVmParams.setDestinationVdsId(destinationVdsId);
         return backend.runInternalAction(
                 ActionType.RunVm,
-                new RunVmParams(vmId),
+                runVmParams,
                 ExecutionHandler.createInternalJobContext(lock)).getSucceeded();
     }
 
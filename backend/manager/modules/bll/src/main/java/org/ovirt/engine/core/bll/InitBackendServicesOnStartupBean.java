@@ -67,6 +67,8 @@ public class InitBackendServicesOnStartupBean implements InitBackendServicesOnSt
     public void create() {
 
         try {
+            // Tracks the database modifications of all the services started below
+            serviceLoader.load(SearchChangeGenerations.class);
             // This must be done before starting to sample the hosts status from VDSM since the sampling will turn such host from Reboot to NonResponsive
             serviceLoader.load(PmHealthCheckManager.class);
             serviceLoader.load(EngineBackupAwarenessManager.class);
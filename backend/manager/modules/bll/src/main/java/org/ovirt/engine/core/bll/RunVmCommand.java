@@ -173,9 +173,12 @@ public class RunVmCommand<T extends RunVmParams> extends RunVmCommandBase<T>
     }
 
     protected List<Guid> getPredefinedVdsIdListToRunOn() {
-        // This API needs to be preserved to allow RunOnce overrides,
-        // but the Preferred host filtering needs to be done in a Policy Unit
+        // destination VDS ID has priority over the dedicated VDS,
+        // the Preferred host filtering needs to be done in a Policy Unit
         // only to allow the user to disable it.
+        if (getParameters().getDestinationVdsId() != null) {
+            return Collections.singletonList(getParameters().getDestinationVdsId());
+        }
         return Collections.emptyList();
     }
 
@@ -1281,7 +1284,7 @@ public class RunVmCommand<T extends RunVmParams> extends RunVmCommandBase<T>
      * Initial white list for scheduler (empty == all hosts)
      */
     protected List<Guid> getVdsWhiteList() {
-        return Collections.emptyList();
+        return getPredefinedVdsIdListToRunOn();
     }
 
     /**
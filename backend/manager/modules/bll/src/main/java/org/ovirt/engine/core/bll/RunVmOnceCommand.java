@@ -1,7 +1,6 @@
 package org.ovirt.engine.core.bll;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 import javax.inject.Inject;
@@ -133,17 +132,6 @@ public class RunVmOnceCommand<T extends RunVmOnceParams> extends RunVmCommand<T>
         }
     }
 
-    @Override
-    protected List<Guid> getPredefinedVdsIdListToRunOn() {
-        // destination VDS ID has priority over the dedicated VDS
-        if (getParameters().getDestinationVdsId() != null){
-            List<Guid> destIdList = new LinkedList<>();
-            destIdList.add(getParameters().getDestinationVdsId());
-            return destIdList;
-        }
-        return super.getPredefinedVdsIdListToRunOn();
-    }
-
     @Override
     protected CreateVDSCommandParameters buildCreateVmParameters() {
         CreateVDSCommandParameters createVmParams = super.buildCreateVmParameters();
@@ -205,14 +193,6 @@ public class RunVmOnceCommand<T extends RunVmOnceParams> extends RunVmCommand<T>
         return list;
     }
 
-    @Override
-    protected List<Guid> getVdsWhiteList() {
-        if (getPredefinedVdsIdListToRunOn().size() > 0){
-            return getPredefinedVdsIdListToRunOn();
-        }
-        return super.getVdsWhiteList();
-    }
-
     @Override
     protected void initVm() {
         super.initVm();
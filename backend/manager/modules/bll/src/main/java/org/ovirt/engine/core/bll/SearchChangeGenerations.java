@@ -0,0 +1,207 @@
+package org.ovirt.engine.core.bll;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.transaction.RollbackException;
+import javax.transaction.Synchronization;
+import javax.transaction.SystemException;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+
+import org.ovirt.engine.core.common.BackendService;
+import org.ovirt.engine.core.common.interfaces.SearchType;
+import org.ovirt.engine.core.dal.dbbroker.SimpleJdbcCallsHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a change generation per search type, so a periodic refresh of a list can tell whether the entities it
+ * displays may have changed since its last results, without running the search again.
+ *
+ * The generations are moved by every database modification made through {@link SimpleJdbcCallsHandler}, according to
+ * the tables its procedure name refers to. A modification that is not known to affect only some of the types moves
+ * the generations of all of them, the modifications of the statistics and other runtime data no list displays move
+ * nothing. A change made in a transaction is reported again once the transaction completes, so a search that ran
+ * before the commit does not keep the generation of the change.
+ *
+ * The generations start from the time the engine started, so a generation a client got before a restart is never
+ * current after it.
+ *
+ * The types whose results depend on data kept outside the engine database or changed without being reported are not
+ * tracked and are always searched again. These are the directory users and the quota usage, and the VMs and hosts,
+ * whose lists show the statistics and the lock state that change on almost every refresh.
+ */
+@Singleton
+public class SearchChangeGenerations implements BackendService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchChangeGenerations.class);
+
+    /** The generation of a type that is not tracked **/
+    public static final long UNTRACKED = -1;
+
+    private static final Set<SearchType> UNTRACKED_TYPES = EnumSet.of(
+            SearchType.DirectoryUser,
+            SearchType.DirectoryGroup,
+            SearchType.Session,
+            SearchType.Quota,
+            SearchType.VM,
+            SearchType.VDS);
+
+    private static final Set<SearchType> ALL_TYPES =
+            Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.copyOf(UNTRACKED_TYPES)));
+
+    /**
+     * The types affected by the modifications whose procedure names contain one of the fragments, the first matching
+     * rule wins. The names are compared in lower case and without underscores.
+     */
+    private static final List<ModificationRule> RULES = Arrays.asList(
+            new ModificationRule(EnumSet.of(SearchType.GlusterVolume, SearchType.Cluster),
+                    "gluster"),
+            new ModificationRule(EnumSet.of(SearchType.AuditLog),
+                    "auditlog"),
+            new ModificationRule(EnumSet.of(SearchType.VmPools),
+                    "vmdynamic"),
+            new ModificationRule(EnumSet.of(SearchType.Disk),
+                    "diskimagedynamic"),
+            new ModificationRule(EnumSet.of(SearchType.StorageDomain, SearchType.StoragePool),
+                    "storagedomaindynamic"),
+            new ModificationRule(EnumSet.noneOf(SearchType.class),
+                    "statistics",
+                    "vmguestagentinterface",
+                    "guestagentstatus",
+                    "vmjobs",
+                    "vdsdynamic",
+                    "commandentit",
+                    "commandassociatedentit",
+                    "asynctask",
+                    "entitysnapshot",
+                    "enginesession"),
+            new ModificationRule(EnumSet.of(SearchType.Job),
+                    "job",
+                    "step"));
+
+    /** The generation every type starts from, taken from the start time so it differs from the previous runs **/
+    private static final long INITIAL_GENERATION = System.currentTimeMillis() << 20;
+
+    private final AtomicLongArray generations = new AtomicLongArray(SearchType.values().length);
+
+    /** The types changed by the running transactions, to be reported again once they complete **/
+    private final ConcurrentMap<Transaction, Set<SearchType>> changedInTransactions = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Set<SearchType>> typesByProcedure = new ConcurrentHashMap<>();
+
+    @Inject
+    private SimpleJdbcCallsHandler callsHandler;
+
+    @Inject
+    private TransactionManager transactionManager;
+
+    @PostConstruct
+    void init() {
+        for (int i = 0; i < generations.length(); i++) {
+            generations.set(i, INITIAL_GENERATION);
+        }
+        callsHandler.setModificationListener(this::modified);
+    }
+
+    /**
+     * Returns the change generation of the type, or {@link #UNTRACKED} when its changes are not tracked
+     */
+    public long getGeneration(SearchType type) {
+        return UNTRACKED_TYPES.contains(type) ? UNTRACKED : generations.get(type.ordinal());
+    }
+
+    void modified(String procedureName) {
+        Set<SearchType> types = typesByProcedure.computeIfAbsent(procedureName, SearchChangeGenerations::typesOf);
+        if (!types.isEmpty()) {
+            changed(types);
+        }
+    }
+
+    private void changed(Set<SearchType> types) {
+        increment(types);
+        Transaction transaction = currentTransaction();
+        if (transaction != null) {
+            changedInTransactions.compute(transaction, (tx, changed) -> {
+                if (changed == null) {
+                    if (!registerCompletion(tx)) {
+                        return null;
+                    }
+                    changed = EnumSet.noneOf(SearchType.class);
+                }
+                changed.addAll(types);
+                return changed;
+            });
+        }
+    }
+
+    private void increment(Set<SearchType> types) {
+        types.forEach(type -> generations.incrementAndGet(type.ordinal()));
+    }
+
+    protected Transaction currentTransaction() {
+        try {
+            return transactionManager.getTransaction();
+        } catch (SystemException e) {
+            log.debug("Failed to get the current transaction: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean registerCompletion(Transaction transaction) {
+        try {
+            transaction.registerSynchronization(new Synchronization() {
+
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    Set<SearchType> changed = changedInTransactions.remove(transaction);
+                    if (changed != null) {
+                        increment(changed);
+                    }
+                }
+            });
+            return true;
+        } catch (RollbackException | SystemException | IllegalStateException e) {
+            // the transaction is completing, the changes were already reported when they were made
+            log.debug("Failed to register to the completion of the current transaction: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    static Set<SearchType> typesOf(String procedureName) {
+        String name = procedureName.toLowerCase().replace("_", "");
+        return RULES.stream()
+                .filter(rule -> rule.matches(name))
+                .findFirst()
+                .map(rule -> rule.types)
+                .orElse(ALL_TYPES);
+    }
+
+    private static class ModificationRule {
+        private final Set<SearchType> types;
+        private final List<String> fragments;
+
+        ModificationRule(Set<SearchType> types, String... fragments) {
+            this.types = Collections.unmodifiableSet(types);
+            this.fragments = Arrays.asList(fragments);
+        }
+
+        boolean matches(String name) {
+            return fragments.stream().anyMatch(name::contains);
+        }
+    }
+}
@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -56,7 +55,6 @@ import org.ovirt.engine.core.common.queries.QueryParametersBase;
 import org.ovirt.engine.core.common.queries.QueryType;
 import org.ovirt.engine.core.common.queries.SearchParameters;
 import org.ovirt.engine.core.compat.DateTime;
-import org.ovirt.engine.core.compat.TimeSpan;
 import org.ovirt.engine.core.compat.Version;
 import org.ovirt.engine.core.dao.AuditLogDao;
 import org.ovirt.engine.core.dao.ClusterDao;
@@ -86,7 +84,6 @@ import org.ovirt.engine.core.utils.lock.EngineLock;
 import org.ovirt.engine.core.utils.lock.LockManager;
 
 public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<P> {
-    private static final Map<String, QueryData> queriesCache = new HashMap<>();
     public static final String LDAP = "LDAP";
 
     @Inject
@@ -165,6 +162,12 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
     private LockManager lockManager;
     @Inject
     private HostLocking hostLocking;
+    @Inject
+    private SearchQueryCache searchQueryCache;
+    @Inject
+    private SearchResultsCoalescer searchResultsCoalescer;
+    @Inject
+    private SearchChangeGenerations searchChangeGenerations;
 
     public SearchQuery(P parameters, EngineContext engineContext) {
         super(parameters, engineContext);
@@ -172,6 +175,30 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
 
     @Override
     protected void executeQueryCommand() {
+        List<? extends Queryable> returnValue;
+        if (getParameters().getPeriodicRefresh()) {
+            // read before searching, so a change made during the search is seen by the next refresh
+            long changeGeneration = searchChangeGenerations.getGeneration(getParameters().getSearchTypeValue());
+            getQueryReturnValue().setChangeGeneration(changeGeneration);
+            if (changeGeneration != SearchChangeGenerations.UNTRACKED
+                    && changeGeneration == getParameters().getChangeGeneration()) {
+                getQueryReturnValue().setUnchanged(true);
+                return;
+            }
+            returnValue = searchResultsCoalescer.search(getParameters(),
+                    getParameters().isFiltered() ? getUserID() : null,
+                    changeGeneration,
+                    () -> {
+                        List<? extends Queryable> found = search();
+                        return getQueryReturnValue().getExceptionString() == null ? found : null;
+                    });
+        } else {
+            returnValue = search();
+        }
+        getQueryReturnValue().setReturnValue(returnValue);
+    }
+
+    private List<? extends Queryable> search() {
         List<? extends Queryable> returnValue = new ArrayList<>();
         switch (getParameters().getSearchTypeValue()) {
         case VM:
@@ -244,7 +271,7 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
             log.error("Search object type not handled: {}", getParameters().getSearchTypeValue());
             break;
         }
-        getQueryReturnValue().setReturnValue(returnValue);
+        return returnValue;
     }
 
     private List<VM> searchVmsFromDb() {
@@ -462,8 +489,6 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
     private QueryData initQueryData(boolean useCache) {
         final String ASTR = "*";
         QueryData data = null;
-        boolean isExistsValue = false;
-        boolean IsFromYesterday = false;
         boolean isSafe = false;
         String searchKey = "";
         try {
@@ -471,32 +496,30 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
                 throw new RuntimeException(String.format("Illegal max count value for query : %s", getParameters().getMaxCount()));
             }
             String searchText = getParameters().getSearchPattern();
-            // do not cache expressions with '*' since it is translated to specific IDs that might be changed
-            useCache = useCache && !searchText.contains(ASTR);
+            // do not cache expressions with '*' since it is translated to specific IDs that might be changed, nor
+            // the pages by key, which are rarely repeated
+            useCache = useCache && !searchText.contains(ASTR) && !getParameters().isKeysetPaging();
             if (useCache) {
                 // first lets check the cache of queries.
-                searchKey = String.format("%1$s,%2$s,%3$s", searchText, getParameters().getMaxCount(), getParameters().getCaseSensitive());
-                data = queriesCache.get(searchKey);
-                isExistsValue = data != null;
-
-                if (isExistsValue) {
-                    TimeSpan span = DateTime.getNow().subtract(new Date(data.getDate()));
-                    if (span.Days >= 1) {
-                        IsFromYesterday = true;
-                    }
-                }
+                searchKey = String.format("%1$s,%2$s,%3$s,%4$s,%5$s",
+                        getParameters().getSearchTypeValue(),
+                        searchText,
+                        getParameters().getMaxCount(),
+                        getParameters().getCaseSensitive(),
+                        getParameters().getSearchFrom());
+                data = searchQueryCache.getQuery(searchKey);
             }
-            // query not in cache or the cached entry is too old, process the
-            // search text.
-            if (!isExistsValue || IsFromYesterday) {
+            // query not in cache or the cached entry expired, process the search text.
+            if (data == null) {
                 log.debug("ResourceManager::searchBusinessObjects(''{}'') - entered", searchText);
                 final char AT='@';
                 String queryAuthz = null;
                 String queryNamespace = null;
                 ISyntaxChecker curSyntaxChecker;
                 Matcher m = adSearchPattern.matcher(searchText);
+                boolean isDirectorySearch = m.matches();
                 // checks if this is a AD query, if it is, verify given profile and namespace and pass the query
-                if (m.matches()) {
+                if (isDirectorySearch) {
                     final String COLON = ":";
                     String prefix = m.group("prefix");
                     searchText =  m.group("content");
@@ -536,13 +559,17 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
                 } else {
                     curSyntaxChecker = SyntaxCheckerFactory.createBackendSyntaxChecker(LDAP);
                 }
-                SyntaxContainer searchObj = curSyntaxChecker.analyzeSyntaxState(searchText, true);
+                // the profiles and namespaces of directory searches may change, only analyze the others once
+                SyntaxContainer searchObj = analyzeSyntaxState(curSyntaxChecker, searchText, !isDirectorySearch);
                 // set the case-sensitive flag
                 searchObj.setCaseSensitive(getParameters().getCaseSensitive());
                 // If a number > maxValue is given then maxValue will be used
                 searchObj.setMaxCount(Math.min(Integer.MAX_VALUE, getParameters().getMaxCount()));
                 // setting FromSearch value
                 searchObj.setSearchFrom(getParameters().getSearchFrom());
+                searchObj.setKeysetPaging(getParameters().isKeysetPaging());
+                searchObj.setSearchAfter(getParameters().getSearchAfterSortValue(),
+                        getParameters().getSearchAfterId());
                 if (searchObj.getError() != SyntaxError.NO_ERROR) {
                     int startPos = searchObj.getErrorStartPos();
                     int endPos = searchObj.getErrorEndPos();
@@ -578,8 +605,8 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
                 // statically, therefore , in order to reflect changes in the parent tree
                 // we should not rely on the cached query in such case and have to build the
                 // query from scratch.
-                if (!containsStaticInValues(data.getQuery())) {
-                    queriesCache.put(searchKey, data);
+                if (useCache && !containsStaticInValues(data.getQuery())) {
+                    searchQueryCache.putQuery(searchKey, data);
                 }
             }
         } catch (SearchEngineIllegalCharacterException e) {
@@ -596,6 +623,18 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
         return data;
     }
 
+    private SyntaxContainer analyzeSyntaxState(ISyntaxChecker syntaxChecker, String searchText, boolean useCache) {
+        String syntaxKey = getParameters().getSearchTypeValue() + "," + searchText;
+        SyntaxContainer searchObj = useCache ? searchQueryCache.getSyntaxContainer(syntaxKey) : null;
+        if (searchObj == null) {
+            searchObj = syntaxChecker.analyzeSyntaxState(searchText, true);
+            if (useCache && searchObj.getError() == SyntaxError.NO_ERROR && searchObj.getvalid()) {
+                searchQueryCache.putSyntaxContainer(syntaxKey, searchObj);
+            }
+        }
+        return searchObj;
+    }
+
     protected String getDefaultAuthz() {
         return AuthenticationProfileRepository.getInstance().getProfiles().get(0).getName();
     }
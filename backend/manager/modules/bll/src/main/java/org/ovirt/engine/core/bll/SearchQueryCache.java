@@ -0,0 +1,197 @@
+package org.ovirt.engine.core.bll;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.ovirt.engine.core.aaa.QueryData;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.searchbackend.SyntaxContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the compiled searches of {@link SearchQuery}, so repeated searches, like the periodic refreshes of the UI
+ * lists, neither analyze the search text nor generate the SQL again.
+ *
+ * Two caches are kept, both bounded to {@link ConfigValues#SearchQueryCacheSize} entries, evicting the least recently
+ * used ones, and expiring entries after {@link ConfigValues#SearchQueryCacheTimeToLiveInSeconds}:
+ * <ul>
+ * <li>the generated queries, by search type, text and paging parameters</li>
+ * <li>the analyzed search texts, by search type and text, so searches that differ only by their paging parameters
+ * only generate the SQL</li>
+ * </ul>
+ */
+@Singleton
+public class SearchQueryCache implements SearchQueryCacheMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchQueryCache.class);
+
+    private BoundedCache<String, QueryData> queries;
+    private BoundedCache<String, SyntaxContainer> syntaxContainers;
+
+    private MBeanServer platformMBeanServer;
+    private ObjectName objectName;
+
+    public SearchQueryCache() {
+    }
+
+    SearchQueryCache(int maxSize, long timeToLiveMillis) {
+        createCaches(maxSize, timeToLiveMillis);
+    }
+
+    @PostConstruct
+    public void init() {
+        createCaches(Config.<Integer> getValue(ConfigValues.SearchQueryCacheSize),
+                TimeUnit.SECONDS.toMillis(Config.<Integer> getValue(ConfigValues.SearchQueryCacheTimeToLiveInSeconds)));
+        registerInJMX();
+    }
+
+    private void createCaches(int maxSize, long timeToLiveMillis) {
+        // queries are immutable, syntax containers are copied since the searches set their paging parameters
+        queries = new BoundedCache<>("queries", maxSize, timeToLiveMillis, UnaryOperator.identity());
+        syntaxContainers = new BoundedCache<>("syntax", maxSize, timeToLiveMillis, SyntaxContainer::new);
+    }
+
+    private void registerInJMX() {
+        try {
+            objectName = new ObjectName("SearchQueryCache:type=" + this.getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during registration of Monitoring into JMX:" + e);
+        }
+    }
+
+    @PreDestroy
+    public void unregisterFromJMX() {
+        try {
+            platformMBeanServer.unregisterMBean(objectName);
+        } catch (Exception e) {
+            log.debug("Problem during unregistration of Monitoring into JMX: {}", e);
+        }
+    }
+
+    public QueryData getQuery(String key) {
+        return queries.get(key);
+    }
+
+    public void putQuery(String key, QueryData query) {
+        queries.put(key, query);
+    }
+
+    /**
+     * Returns a copy of the cached analyzed search text, which the caller can modify
+     */
+    public SyntaxContainer getSyntaxContainer(String key) {
+        return syntaxContainers.get(key);
+    }
+
+    public void putSyntaxContainer(String key, SyntaxContainer syntaxContainer) {
+        syntaxContainers.put(key, syntaxContainer);
+    }
+
+    @Override
+    public List<String> showCacheStatistics() {
+        return Arrays.asList(queries.toString(), syntaxContainers.toString());
+    }
+
+    @Override
+    public void clear() {
+        queries.clear();
+        syntaxContainers.clear();
+    }
+
+    private static class BoundedCache<K, V> {
+
+        private final String name;
+        private final long timeToLiveMillis;
+        private final UnaryOperator<V> copier;
+        private final Map<K, Entry<V>> entries;
+
+        private long hits;
+        private long misses;
+        private long evictions;
+        private long expirations;
+
+        public BoundedCache(String name, int maxSize, long timeToLiveMillis, UnaryOperator<V> copier) {
+            this.name = name;
+            this.timeToLiveMillis = timeToLiveMillis;
+            this.copier = copier;
+            this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    if (size() > maxSize) {
+                        evictions++;
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        public V get(K key) {
+            Entry<V> entry;
+            synchronized (this) {
+                entry = entries.get(key);
+                if (entry != null && System.currentTimeMillis() - entry.created >= timeToLiveMillis) {
+                    entries.remove(key);
+                    expirations++;
+                    entry = null;
+                }
+                if (entry == null) {
+                    misses++;
+                    return null;
+                }
+                hits++;
+            }
+            return copier.apply(entry.value);
+        }
+
+        public void put(K key, V value) {
+            Entry<V> entry = new Entry<>(copier.apply(value), System.currentTimeMillis());
+            synchronized (this) {
+                entries.put(key, entry);
+            }
+        }
+
+        public synchronized void clear() {
+            entries.clear();
+        }
+
+        @Override
+        public synchronized String toString() {
+            long requests = hits + misses;
+            return String.format("Cache %s: size %d, hits %d, misses %d, hit rate %d%%, evictions %d, expirations %d",
+                    name,
+                    entries.size(),
+                    hits,
+                    misses,
+                    requests == 0 ? 0 : hits * 100 / requests,
+                    evictions,
+                    expirations);
+        }
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+        private final long created;
+
+        public Entry(V value, long created) {
+            this.value = value;
+            this.created = created;
+        }
+    }
+}
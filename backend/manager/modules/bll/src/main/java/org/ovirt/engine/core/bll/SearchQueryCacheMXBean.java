@@ -0,0 +1,19 @@
+package org.ovirt.engine.core.bll;
+
+import java.util.List;
+
+/**
+ * The following interface is used as interface for JMX bean
+ */
+public interface SearchQueryCacheMXBean {
+
+    /**
+     * The following method will return the size, hits and misses of the compiled search caches
+     */
+    List<String> showCacheStatistics();
+
+    /**
+     * The following method will allow to drop the cached searches via JMX console
+     */
+    void clear();
+}
@@ -0,0 +1,79 @@
+package org.ovirt.engine.core.bll;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import javax.inject.Singleton;
+
+import org.ovirt.engine.core.common.businessentities.Queryable;
+import org.ovirt.engine.core.common.queries.SearchParameters;
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * Coalesces the periodic refreshes of the UI lists, so the users looking at the same list do not run the same search
+ * several times at once.
+ *
+ * Identical refreshes that arrive while the search is running wait for its results instead of running it again. The
+ * results are not kept once the search ends, the next refresh runs the search again, so the results are never older
+ * than the running search. Searches of a filtered user are only shared with the refreshes of the same user, and
+ * searches are only shared with the refreshes that arrive before the searched type changes again, so the shared
+ * results are never older than the change generation the refresh read.
+ */
+@Singleton
+public class SearchResultsCoalescer {
+
+    private final ConcurrentMap<String, CompletableFuture<List<? extends Queryable>>> running =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Returns the results of an identical search that is running, otherwise runs the search.
+     *
+     * @param userId
+     *            the user whose permissions filter the search, or {@code null} for unfiltered searches
+     * @param changeGeneration
+     *            the change generation of the searched type read before the search
+     * @param search
+     *            runs the search, returns {@code null} when its results must not be shared, e.g. when the search
+     *            text is invalid, in which case an empty list is returned
+     */
+    public List<? extends Queryable> search(SearchParameters parameters,
+            Guid userId,
+            long changeGeneration,
+            Supplier<List<? extends Queryable>> search) {
+        String key = String.format("%1$s,%2$s,%3$s,%4$s,%5$s,%6$s,%7$s,%8$s,%9$s,%10$s",
+                parameters.getSearchTypeValue(),
+                parameters.getSearchPattern(),
+                parameters.getMaxCount(),
+                parameters.getCaseSensitive(),
+                parameters.getSearchFrom(),
+                parameters.isKeysetPaging(),
+                parameters.getSearchAfterSortValue(),
+                parameters.getSearchAfterId(),
+                userId,
+                changeGeneration);
+        CompletableFuture<List<? extends Queryable>> ownSearch = new CompletableFuture<>();
+        CompletableFuture<List<? extends Queryable>> runningSearch = running.putIfAbsent(key, ownSearch);
+
+        if (runningSearch != null) {
+            List<? extends Queryable> shared = runningSearch.join();
+            return shared != null ? shared : orEmpty(search.get());
+        }
+
+        List<? extends Queryable> found = null;
+        try {
+            found = search.get();
+            return orEmpty(found);
+        } finally {
+            running.remove(key, ownSearch);
+            ownSearch.complete(found);
+        }
+    }
+
+    private static List<? extends Queryable> orEmpty(List<? extends Queryable> found) {
+        return found != null ? found : Collections.emptyList();
+    }
+}
@@ -2,13 +2,16 @@ package org.ovirt.engine.core.bll.lock;
 
 import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -35,7 +38,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * The following class an implementation of internal locking mechanism
+ * The following class an implementation of internal locking mechanism. The lock table is striped by key, so an
+ * {@link EngineLock} only contends with locks whose keys are mapped to the same stripes, and a release only wakes
+ * the threads waiting on keys of the released stripes
  */
 @Startup
 @Singleton(name = "LockManager")
@@ -45,17 +50,23 @@ import org.slf4j.LoggerFactory;
 public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBean {
 
     private static final Pair<Boolean, Set<String>> LOCK_INSERT_SUCCESS_RESULT = new Pair<>(Boolean.TRUE, Collections.<String>emptySet());
-    /** A map which is contains all internal representation of locks **/
-    private final Map<String, InternalLockView> locks = new HashMap<>();
-    /** A lock which is used to synchronized acquireLock(), acquireLockWait() and releaseLock() operations **/
-    private final Lock globalLock = new ReentrantLock();
-    /** A condition which is used in order to notify for waiting threads that some lock was released**/
-    private final Condition releasedLock = globalLock.newCondition();
+    /** Number of stripes the lock table is divided to, must be a power of two **/
+    private static final int STRIPES_COUNT = 256;
+    /** A map which is contains all internal representation of locks, a key is only modified under its stripe lock **/
+    private final Map<String, InternalLockView> locks = new ConcurrentHashMap<>();
+    /** Stripes which are used to synchronize acquireLock(), acquireLockWait() and releaseLock() operations per key **/
+    private final LockStripe[] stripes = new LockStripe[STRIPES_COUNT];
 
     private MBeanServer platformMBeanServer;
     private ObjectName objectName = null;
     private static final Logger log = LoggerFactory.getLogger(InMemoryLockManager.class);
 
+    public InMemoryLockManager() {
+        for (int i = 0; i < STRIPES_COUNT; i++) {
+            stripes[i] = new LockStripe();
+        }
+    }
+
     @PostConstruct
     public void registerInJMX() {
         try {
@@ -79,11 +90,12 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
     @Override
     public Pair<Boolean, Set<String>> acquireLock(EngineLock lock) {
         log.debug("Before acquiring lock '{}'", lock);
-        globalLock.lock();
+        List<LockStripe> lockStripes = getStripes(lock);
+        lockStripes(lockStripes);
         try {
             return acquireLockInternal(lock);
         } finally {
-            globalLock.unlock();
+            unlockStripes(lockStripes);
         }
     }
 
@@ -91,16 +103,26 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
     public void acquireLockWait(EngineLock lock) {
         log.debug("Before acquiring and wait lock '{}'", lock);
         validateLockForAcquireAndWait(lock);
-        globalLock.lock();
+        List<LockStripe> lockStripes = getStripes(lock);
         try {
-            while (!acquireLockInternal(lock).getFirst()) {
+            while (true) {
+                LockStripe conflictingStripe;
+                long releaseGeneration;
+                lockStripes(lockStripes);
+                try {
+                    if (acquireLockInternal(lock).getFirst()) {
+                        return;
+                    }
+                    conflictingStripe = getStripe(getConflictingKey(lock));
+                    releaseGeneration = conflictingStripe.releaseGeneration;
+                } finally {
+                    unlockStripes(lockStripes);
+                }
                 log.info("Failed to acquire lock and wait lock '{}'", lock);
-                releasedLock.await();
+                conflictingStripe.awaitRelease(releaseGeneration);
             }
         } catch (InterruptedException ignore) {
 
-        } finally {
-            globalLock.unlock();
         }
     }
 
@@ -114,7 +136,8 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
     @Override
     public void releaseLock(EngineLock lock) {
         log.debug("Before releasing a lock '{}'", lock);
-        globalLock.lock();
+        List<LockStripe> lockStripes = getStripes(lock);
+        lockStripes(lockStripes);
         try {
             if (lock.getSharedLocks() != null) {
                 lock.getSharedLocks().entrySet().stream().forEach(entry ->
@@ -124,21 +147,22 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
                 lock.getExclusiveLocks().entrySet().stream().forEach(entry ->
                     releaseExclusiveLock(buildHashMapKey(entry)));
             }
-            releasedLock.signalAll();
+            lockStripes.forEach(LockStripe::signalRelease);
         } finally {
-            globalLock.unlock();
+            unlockStripes(lockStripes);
         }
     }
 
     @Override
     public void clear() {
         log.warn("Cleaning all in memory locks");
-        globalLock.lock();
+        List<LockStripe> lockStripes = Arrays.asList(stripes);
+        lockStripes(lockStripes);
         try {
             locks.clear();
-            releasedLock.signalAll();
+            lockStripes.forEach(LockStripe::signalRelease);
         } finally {
-            globalLock.unlock();
+            unlockStripes(lockStripes);
         }
     }
 
@@ -147,7 +171,8 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
         log.warn("The following lock is going to be released via external call, lockId '{}', error message can be"
                 + " left for shared lock",
                 lockId);
-        globalLock.lock();
+        LockStripe stripe = getStripe(lockId);
+        stripe.lock.lock();
         try {
             InternalLockView lock = locks.get(lockId);
             if (lock == null) {
@@ -159,9 +184,9 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
             } else {
                 releaseSharedLock(lockId, null);
             }
-            releasedLock.signalAll();
+            stripe.signalRelease();
         } finally {
-            globalLock.unlock();
+            stripe.lock.unlock();
         }
         log.warn("Lock '{}' was released via external call", lockId);
         return true;
@@ -170,15 +195,50 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
     @Override
     public List<String> showAllLocks() {
         log.debug("All in memory locks will be shown");
-        globalLock.lock();
+        List<LockStripe> lockStripes = Arrays.asList(stripes);
+        lockStripes(lockStripes);
         try {
             return locks.entrySet().stream().map(this::createLockDescription).collect(Collectors.toList());
         } finally {
-            globalLock.unlock();
+            unlockStripes(lockStripes);
             log.debug("All in memory locks were shown");
         }
     }
 
+    /**
+     * Returns the stripes guarding all the keys of the given lock, ordered by their index so that they are always
+     * taken in the same order and two overlapping locks can not deadlock each other
+     */
+    private List<LockStripe> getStripes(EngineLock lock) {
+        SortedSet<Integer> indexes = new TreeSet<>();
+        if (lock.getSharedLocks() != null) {
+            lock.getSharedLocks().entrySet().forEach(entry -> indexes.add(getStripeIndex(buildHashMapKey(entry))));
+        }
+        if (lock.getExclusiveLocks() != null) {
+            lock.getExclusiveLocks().entrySet().forEach(entry -> indexes.add(getStripeIndex(buildHashMapKey(entry))));
+        }
+        return indexes.stream().map(index -> stripes[index]).collect(Collectors.toList());
+    }
+
+    private LockStripe getStripe(String key) {
+        return stripes[getStripeIndex(key)];
+    }
+
+    private int getStripeIndex(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES_COUNT - 1);
+    }
+
+    private void lockStripes(List<LockStripe> lockStripes) {
+        lockStripes.forEach(stripe -> stripe.lock.lock());
+    }
+
+    private void unlockStripes(List<LockStripe> lockStripes) {
+        for (int i = lockStripes.size() - 1; i >= 0; i--) {
+            lockStripes.get(i).lock.unlock();
+        }
+    }
+
     private String createLockDescription(Entry<String, InternalLockView> e) {
         return "The object id is : " + e.getKey() + ' ' + e.getValue();
     }
@@ -228,6 +288,30 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
         return LOCK_INSERT_SUCCESS_RESULT;
     }
 
+    /**
+     * Returns the first key of the given lock which is held in a way that prevents the lock from being acquired
+     */
+    private String getConflictingKey(EngineLock lock) {
+        if (lock.getSharedLocks() != null) {
+            for (Entry<String, Pair<String, String>> entry : lock.getSharedLocks().entrySet()) {
+                String key = buildHashMapKey(entry);
+                InternalLockView internalLockView = locks.get(key);
+                if (internalLockView != null && internalLockView.getExclusive()) {
+                    return key;
+                }
+            }
+        }
+        if (lock.getExclusiveLocks() != null) {
+            for (Entry<String, Pair<String, String>> entry : lock.getExclusiveLocks().entrySet()) {
+                String key = buildHashMapKey(entry);
+                if (locks.containsKey(key)) {
+                    return key;
+                }
+            }
+        }
+        throw new IllegalStateException("No conflicting key was found for lock " + lock);
+    }
+
     /**
      * The following method should insert an "shared" internal lock
      * @param message
@@ -299,12 +383,20 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
 
     @Override
     public LockInfo getLockInfo(String key) {
-        InternalLockView internalLockView = locks.get(key);
-        if (internalLockView == null) {
-            return null;
+        LockStripe stripe = getStripe(key);
+        InternalLockView internalLockView;
+        Set<String> messages;
+        stripe.lock.lock();
+        try {
+            internalLockView = locks.get(key);
+            if (internalLockView == null) {
+                return null;
+            }
+            messages = internalLockView.getMessages();
+        } finally {
+            stripe.lock.unlock();
         }
 
-        Set<String> messages = internalLockView.getMessages();
         messages.remove(EngineMessage.ACTION_TYPE_FAILED_OBJECT_LOCKED.name());
         if (messages.isEmpty()) {
             // EngineMessage.ACTION_TYPE_FAILED_OBJECT_LOCKED should only be used for
@@ -323,6 +415,38 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
                 .anyMatch(entry -> getLockInfo(buildHashMapKey(entry)) != null);
     }
 
+    /**
+     * The following class represents a single stripe of the lock table. All the changes of keys that are mapped to
+     * the stripe are done while holding its lock, and waiters for these keys are notified via its condition
+     */
+    private static class LockStripe {
+
+        private final Lock lock = new ReentrantLock();
+        /** A condition which is used in order to notify waiting threads that some lock of the stripe was released **/
+        private final Condition releasedLock = lock.newCondition();
+        /** Incremented on every release, so waiters would not miss a release that happened before they awaited **/
+        private long releaseGeneration;
+
+        /**
+         * Should be called while holding the stripe lock
+         */
+        public void signalRelease() {
+            releaseGeneration++;
+            releasedLock.signalAll();
+        }
+
+        public void awaitRelease(long generation) throws InterruptedException {
+            lock.lock();
+            try {
+                while (releaseGeneration == generation) {
+                    releasedLock.await();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
     /**
      * The following class represents different locks which are kept inside InMemoryLockManager
      */
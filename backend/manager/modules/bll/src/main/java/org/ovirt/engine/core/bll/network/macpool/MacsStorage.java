@@ -1,7 +1,8 @@
 package org.ovirt.engine.core.bll.network.macpool;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 import org.apache.commons.lang.Validate;
@@ -10,10 +11,23 @@ import org.ovirt.engine.core.common.errors.EngineException;
 
 class MacsStorage {
     private final boolean allowDuplicates;
-    private List<Range> ranges = new LinkedList<>();
+    private List<Range> ranges = new ArrayList<>();
     private ObjectCounter<Long> customMacs;
     private int startIndexForEmptyRangeSearch = 0;
 
+    /**
+     * the ranges sorted by their first MAC along with their first and last MACs, so the range including a MAC is
+     * found by a binary search. Overlapping ranges are searched in the order they were added instead, so the first
+     * added range including a MAC keeps being the one used.
+     */
+    private Range[] rangesByStart = new Range[0];
+    private long[] rangeStarts = new long[0];
+    private long[] rangeEnds = new long[0];
+    private boolean rangesOverlap;
+
+    private int availableMacsCount;
+    private int totalNumberOfMacs;
+
     public MacsStorage(boolean allowDuplicates) {
         this.allowDuplicates = allowDuplicates;
         customMacs = new ObjectCounter<>(this.allowDuplicates);
@@ -25,9 +39,27 @@ class MacsStorage {
 
     Range addRange(Range range) {
         ranges.add(range);
+        availableMacsCount += range.getAvailableCount();
+        totalNumberOfMacs += range.getNumberOfMacsInRange();
+        indexRanges();
         return range;
     }
 
+    private void indexRanges() {
+        rangesByStart = ranges.toArray(new Range[ranges.size()]);
+        Arrays.sort(rangesByStart, Comparator.comparingLong(Range::getRangeStart));
+        rangeStarts = new long[rangesByStart.length];
+        rangeEnds = new long[rangesByStart.length];
+        rangesOverlap = false;
+        for (int i = 0; i < rangesByStart.length; i++) {
+            rangeStarts[i] = rangesByStart[i].getRangeStart();
+            rangeEnds[i] = rangesByStart[i].getRangeEnd();
+            if (i > 0 && rangeStarts[i] <= rangeEnds[i - 1]) {
+                rangesOverlap = true;
+            }
+        }
+    }
+
     public boolean useMac(long mac) {
         return useMac(mac, allowDuplicates);
     }
@@ -37,7 +69,10 @@ class MacsStorage {
         if (range == null) {
             return customMacs.increase(mac, allowDuplicates);
         } else {
-            return range.use(mac, allowDuplicates);
+            int availableCount = range.getAvailableCount();
+            boolean used = range.use(mac, allowDuplicates);
+            availableMacsCount += range.getAvailableCount() - availableCount;
+            return used;
         }
     }
 
@@ -55,7 +90,9 @@ class MacsStorage {
         if (range == null) {
             customMacs.decrease(mac);
         } else {
+            int availableCount = range.getAvailableCount();
             range.freeMac(mac);
+            availableMacsCount += range.getAvailableCount() - availableCount;
         }
     }
 
@@ -82,6 +119,7 @@ class MacsStorage {
             final List<Long> allocatedMacs = rangeWithAvailableMac.allocateMacs(allocatingMacsCount);
 
             remainingMacs -= allocatedMacs.size();
+            this.availableMacsCount -= allocatedMacs.size();
             result.addAll(allocatedMacs);
         }
 
@@ -113,28 +151,29 @@ class MacsStorage {
     }
 
     public int getAvailableMacsCount() {
-        int count = 0;
-        for (Range range : ranges) {
-            count += range.getAvailableCount();
-        }
-        return count;
+        return availableMacsCount;
     }
 
     public int getTotalNumberOfMacs() {
-        int count = 0;
-        for (Range range : ranges) {
-            count += range.getNumberOfMacsInRange();
-        }
-        return count;
+        return totalNumberOfMacs;
     }
 
     private Range findIncludingRange(long mac) {
-        for (Range range : ranges) {
-            if (range.contains(mac)) {
-                return range;
+        if (rangesOverlap) {
+            for (Range range : ranges) {
+                if (range.contains(mac)) {
+                    return range;
+                }
             }
+            return null;
         }
-        return null;
+
+        int index = Arrays.binarySearch(rangeStarts, mac);
+        if (index < 0) {
+            // the range starting right before the MAC is the only one that can include it
+            index = -index - 2;
+        }
+        return index >= 0 && mac <= rangeEnds[index] ? rangesByStart[index] : null;
     }
 
     boolean isMacInRange(Long mac) {
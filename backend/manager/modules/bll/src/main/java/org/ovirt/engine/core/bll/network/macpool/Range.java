@@ -17,7 +17,17 @@ class Range {
     private final ObjectCounter<Integer> macDuplicityCount = new ObjectCounter<>(true);
     private int availableMacsCount;
 
-    private BitSet usedMacs;
+    /**
+     * bit per MAC of the range, set when the MAC is used. The bits of the last word beyond the range are set, so they
+     * are never found as unused.
+     */
+    private final long[] usedMacs;
+
+    /**
+     * bit per word of {@link #usedMacs}, set when the word contains an unused MAC, so the search for an unused MAC
+     * skips the runs of used MACs without visiting their words.
+     */
+    private final BitSet wordsWithUnusedMac;
     private int startingLocationWhenSearchingForUnusedMac = 0;
 
     public Range(long rangeStart, long rangeEnd) {
@@ -32,7 +42,23 @@ class Range {
         numberOfMacsInRange = (int) numberOfMacsLong;
 
         this.availableMacsCount = numberOfMacsInRange;
-        this.usedMacs = new BitSet(numberOfMacsInRange);
+
+        int numberOfWords = (int) ((numberOfMacsLong + Long.SIZE - 1) / Long.SIZE);
+        this.usedMacs = new long[numberOfWords];
+        int macsInLastWord = numberOfMacsInRange % Long.SIZE;
+        if (macsInLastWord != 0) {
+            usedMacs[numberOfWords - 1] = -1L << macsInLastWord;
+        }
+        this.wordsWithUnusedMac = new BitSet(numberOfWords);
+        wordsWithUnusedMac.set(0, numberOfWords);
+    }
+
+    public long getRangeStart() {
+        return rangeStart;
+    }
+
+    public long getRangeEnd() {
+        return rangeEnd;
     }
 
     public boolean contains(long mac) {
@@ -59,9 +85,9 @@ class Range {
         checkIfMacIsFromWithinRange(mac);
         int arrayIndex = macToArrayIndex(mac);
 
-        if (!usedMacs.get(arrayIndex)) {
+        if (!isUsed(arrayIndex)) {
             availableMacsCount--;
-            usedMacs.set(arrayIndex, true);
+            setUsed(arrayIndex);
             return true;
         }
 
@@ -76,16 +102,34 @@ class Range {
         return (int) (mac - rangeStart);
     }
 
+    private boolean isUsed(int arrayIndex) {
+        return (usedMacs[arrayIndex / Long.SIZE] & (1L << arrayIndex)) != 0;
+    }
+
+    private void setUsed(int arrayIndex) {
+        int word = arrayIndex / Long.SIZE;
+        usedMacs[word] |= 1L << arrayIndex;
+        if (usedMacs[word] == -1L) {
+            wordsWithUnusedMac.clear(word);
+        }
+    }
+
+    private void setUnused(int arrayIndex) {
+        int word = arrayIndex / Long.SIZE;
+        usedMacs[word] &= ~(1L << arrayIndex);
+        wordsWithUnusedMac.set(word);
+    }
+
     public boolean isAllocated(long mac) {
         checkIfMacIsFromWithinRange(mac);
-        return usedMacs.get(macToArrayIndex(mac));
+        return isUsed(macToArrayIndex(mac));
     }
 
     public void freeMac(long mac) {
         checkIfMacIsFromWithinRange(mac);
 
         int arrayIndex = macToArrayIndex(mac);
-        if (!usedMacs.get(arrayIndex)) {
+        if (!isUsed(arrayIndex)) {
             return;
         }
 
@@ -93,7 +137,7 @@ class Range {
         if (duplicatesExist) {
             macDuplicityCount.decrease(arrayIndex);
         } else {
-            usedMacs.set(arrayIndex, false);
+            setUnused(arrayIndex);
             availableMacsCount++;
         }
     }
@@ -125,14 +169,30 @@ class Range {
     }
 
     private long findUnusedMac() {
-        int index = usedMacs.nextClearBit(startingLocationWhenSearchingForUnusedMac);
-        boolean notFound = index == numberOfMacsInRange;
+        int index = findUnusedArrayIndex(startingLocationWhenSearchingForUnusedMac);
+        boolean notFound = index < 0;
         if (notFound) {
-            index = usedMacs.nextClearBit(0);
+            index = findUnusedArrayIndex(0);
         }
         startingLocationWhenSearchingForUnusedMac = (index + 1) % numberOfMacsInRange;
 
         return rangeStart + index;
     }
 
+    /**
+     * @return the first index of an unused MAC not lower than the given one, or -1 if there is no such MAC
+     */
+    private int findUnusedArrayIndex(int fromIndex) {
+        int word = fromIndex / Long.SIZE;
+        long unusedMacsInWord = ~usedMacs[word] & (-1L << fromIndex);
+        while (unusedMacsInWord == 0) {
+            word = wordsWithUnusedMac.nextSetBit(word + 1);
+            if (word < 0) {
+                return -1;
+            }
+            unusedMacsInWord = ~usedMacs[word];
+        }
+        return word * Long.SIZE + Long.numberOfTrailingZeros(unusedMacsInWord);
+    }
+
 }
@@ -0,0 +1,25 @@
+package org.ovirt.engine.core.bll.network.vm;
+
+import javax.inject.Inject;
+
+import org.ovirt.engine.core.bll.QueriesCommandBase;
+import org.ovirt.engine.core.bll.context.EngineContext;
+import org.ovirt.engine.core.common.queries.IdsQueryParameters;
+import org.ovirt.engine.core.dao.network.VmNetworkInterfaceDao;
+
+/**
+ * Returns the interfaces of many VMs at once, e.g. for following the NICs of a list of VMs in the API
+ */
+public class GetVmInterfacesByVmIdsQuery<P extends IdsQueryParameters> extends QueriesCommandBase<P> {
+    @Inject
+    private VmNetworkInterfaceDao vmNetworkInterfaceDao;
+
+    public GetVmInterfacesByVmIdsQuery(P parameters, EngineContext engineContext) {
+        super(parameters, engineContext);
+    }
+
+    @Override
+    protected void executeQueryCommand() {
+        getQueryReturnValue().setReturnValue(vmNetworkInterfaceDao.getAllForVms(getParameters().getIds()));
+    }
+}
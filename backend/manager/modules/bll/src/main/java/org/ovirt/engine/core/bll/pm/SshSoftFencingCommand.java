@@ -120,7 +120,7 @@ public class SshSoftFencingCommand<T extends VdsActionParameters> extends VdsCom
         long sleepInterval = TimeUnit.SECONDS.toMillis(
                 Config.<Long> getValue(ConfigValues.VdsRefreshRate));
         while (vdsManager.isHostInGracePeriod(true)) {
-            if (vdsManager.getCopyVds().getStatus() == VDSStatus.Up) {
+            if (vdsManager.getStatus() == VDSStatus.Up) {
                 // host became Up during grace period
                 return true;
             }
@@ -5,9 +5,14 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.concurrent.ManagedScheduledExecutorService;
@@ -41,10 +46,22 @@ import org.slf4j.LoggerFactory;
 
 @Singleton
 public class QuotaManager implements BackendService {
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private static final int QUOTA_LOCK_STRIPES = 64;
+
     private final Logger log = LoggerFactory.getLogger(QuotaManager.class);
-    private Map<Guid, Map<Guid, Quota>> storagePoolQuotaMap = new HashMap<>();
-    private Map<Guid, Guid> storagePoolDefaultQuotaIdMap = new HashMap<>();
+
+    /**
+     * The cached quotas and default quota ids of the storage pools. Both maps are concurrent, and are replaced as a
+     * whole when the cache is rebuilt from the DB, so looking quotas up never waits for a rebuild.
+     */
+    private volatile Map<Guid, Map<Guid, Quota>> storagePoolQuotaMap = new ConcurrentHashMap<>();
+    private volatile Map<Guid, Guid> storagePoolDefaultQuotaIdMap = new ConcurrentHashMap<>();
+
+    /**
+     * The usage of a cached quota is read and changed only under the lock of its stripe, so consumptions of different
+     * quotas run in parallel, while the validation and the update of the usage of a single quota stay atomic.
+     */
+    private final Lock[] quotaLocks = createQuotaLocks();
 
     private final List<Integer> nonCountableQutoaVmStatusesList = new ArrayList<>();
 
@@ -83,19 +100,12 @@ public class QuotaManager implements BackendService {
     }
 
     public void removeQuotaFromCache(Guid storagePoolId, List<Guid> quotaList) {
-        lock.writeLock().lock();
-        try {
-            if (!storagePoolQuotaMap.containsKey(storagePoolId)) {
-                return;
-            }
-            synchronized (storagePoolQuotaMap.get(storagePoolId)) {
-                Map<Guid, Quota> map = storagePoolQuotaMap.get(storagePoolId);
-                for (Guid quotaId : quotaList) {
-                    map.remove(quotaId);
-                }
-            }
-        } finally {
-            lock.writeLock().unlock();
+        Map<Guid, Quota> map = storagePoolQuotaMap.get(storagePoolId);
+        if (map == null) {
+            return;
+        }
+        for (Guid quotaId : quotaList) {
+            map.remove(quotaId);
         }
     }
 
@@ -104,36 +114,39 @@ public class QuotaManager implements BackendService {
     }
 
     public void removeStoragePoolFromCache(Guid storagePoolId) {
-        lock.writeLock().lock();
-        try {
-            storagePoolQuotaMap.remove(storagePoolId);
-            storagePoolDefaultQuotaIdMap.remove(storagePoolId);
-        } finally {
-            lock.writeLock().unlock();
-        }
+        storagePoolQuotaMap.remove(storagePoolId);
+        storagePoolDefaultQuotaIdMap.remove(storagePoolId);
     }
 
-    private void addStoragePoolToCache(Guid storagePoolId) {
-        if (storagePoolQuotaMap.containsKey(storagePoolId)) {
-            return;
+    /**
+     * @return the cached quotas of the storage pool, after adding the storage pool to the cache if it is not there
+     */
+    private Map<Guid, Quota> addStoragePoolToCache(Guid storagePoolId) {
+        Map<Guid, Quota> quotaMap = storagePoolQuotaMap.get(storagePoolId);
+        if (quotaMap != null) {
+            return quotaMap;
         }
 
-        storagePoolQuotaMap.put(storagePoolId, new HashMap<>());
+        // the default quota id is cached first, so it is there for everyone who finds the storage pool in the cache
         Quota defaultQuota = getQuotaDao().getDefaultQuotaForStoragePool(storagePoolId);
         storagePoolDefaultQuotaIdMap.put(storagePoolId, defaultQuota.getId());
+        return storagePoolQuotaMap.computeIfAbsent(storagePoolId, id -> new ConcurrentHashMap<>());
     }
 
-    private void addStoragePoolToCacheWithLock(Guid storagePoolId) {
-        if (storagePoolQuotaMap.containsKey(storagePoolId)) {
-            return;
+    private static Lock[] createQuotaLocks() {
+        Lock[] locks = new Lock[QUOTA_LOCK_STRIPES];
+        for (int i = 0; i < QUOTA_LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
         }
+        return locks;
+    }
 
-        lock.writeLock().lock();
-        try {
-            addStoragePoolToCache(storagePoolId);
-        } finally {
-            lock.writeLock().unlock();
-        }
+    private static int getQuotaStripe(Guid quotaId) {
+        return (Objects.hashCode(quotaId) & Integer.MAX_VALUE) % QUOTA_LOCK_STRIPES;
+    }
+
+    private Lock getQuotaLock(Guid quotaId) {
+        return quotaLocks[getQuotaStripe(quotaId)];
     }
 
     /**
@@ -203,24 +216,46 @@ public class QuotaManager implements BackendService {
             throw new InvalidQuotaParametersException("Null storage pool passed to QuotaManager");
         }
 
-        addStoragePoolToCacheWithLock(storagePool.getId());
+        addStoragePoolToCache(storagePool.getId());
 
         QuotaManagerAuditLogger auditLogger = new QuotaManagerAuditLogger(command, auditLogDirector);
 
-        lock.readLock().lock();
-        try {
-            if (command.getStoragePool().getQuotaEnforcementType() != QuotaEnforcementTypeEnum.DISABLED) {
-                synchronized (storagePoolQuotaMap.get(storagePool.getId())) {
-                    return consumeQuotaParameters(params, command, auditLogger);
-                }
+        if (command.getStoragePool().getQuotaEnforcementType() != QuotaEnforcementTypeEnum.DISABLED) {
+            List<Lock> locks = lockQuotas(params, storagePool.getId());
+            try {
+                return consumeQuotaParameters(params, command, auditLogger);
+            } finally {
+                locks.forEach(Lock::unlock);
             }
-        } finally {
-            lock.readLock().unlock();
         }
 
         return true;
     }
 
+    /**
+     * Locks the stripes of the quotas consumed by the parameters, always in the same order so commands consuming
+     * several quotas do not deadlock.
+     *
+     * @return the acquired locks
+     */
+    private List<Lock> lockQuotas(List<QuotaConsumptionParameter> parameters, Guid storagePoolId) {
+        SortedSet<Integer> stripes = new TreeSet<>();
+        for (QuotaConsumptionParameter param : parameters) {
+            // Use default quota if the id is empty
+            if (Guid.isNullOrEmpty(param.getQuotaGuid())) {
+                param.setQuotaGuid(storagePoolDefaultQuotaIdMap.get(storagePoolId));
+            }
+            stripes.add(getQuotaStripe(param.getQuotaGuid()));
+        }
+
+        List<Lock> locks = new ArrayList<>(stripes.size());
+        for (int stripe : stripes) {
+            quotaLocks[stripe].lock();
+            locks.add(quotaLocks[stripe]);
+        }
+        return locks;
+    }
+
     /**
      * Get Quota by Id. If in cache - get from cache. else get from Dao and add to cache.
      *
@@ -229,16 +264,19 @@ public class QuotaManager implements BackendService {
      * @return - found quota. null if not found.
      */
     private Quota fetchQuotaFromCache(Guid quotaId, Guid storagePoolId) throws InvalidQuotaParametersException {
-        Map<Guid, Quota> quotaMap = storagePoolQuotaMap.get(storagePoolId);
+        Map<Guid, Quota> quotaMap = addStoragePoolToCache(storagePoolId);
 
-        Quota quota = quotaMap.get(quotaId);
+        Quota quota = quotaId == null ? null : quotaMap.get(quotaId);
         // if quota was not found in cache - look for it in DB
         if (quota == null) {
             quota = getQuotaDao().getById(quotaId);
             if (quota != null) {
-                // cache in quota map
+                // cache in quota map, unless another thread has just cached it
                 if (storagePoolId.equals(quota.getStoragePoolId())) {
-                    quotaMap.put(quotaId, quota);
+                    Quota cachedQuota = quotaMap.putIfAbsent(quotaId, quota);
+                    if (cachedQuota != null) {
+                        quota = cachedQuota;
+                    }
                 } else {
                     throw new InvalidQuotaParametersException(
                             String.format("Quota %s does not match storage pool %s", quotaId.toString()
@@ -256,48 +294,22 @@ public class QuotaManager implements BackendService {
      *            quota list
      */
     public void updateUsage(List<Quota> quotaList) {
-        List<Quota> needToCache = new ArrayList<>();
-
         if (quotaList == null) {
             return;
         }
 
-        lock.readLock().lock();
-        try {
-            for (Quota quotaExternal : quotaList) {
-                // look for the quota in the cache
-                Map<Guid, Quota> quotaMap = storagePoolQuotaMap.get(quotaExternal.getStoragePoolId());
-                Quota quota = null;
-                if (quotaMap != null) {
-                    quota = quotaMap.get(quotaExternal.getId());
-                }
-
-                // if quota not in cache look for it in DB and add it to cache
-                if (quota == null) {
-                    needToCache.add(quotaExternal);
-                } else {
+        // quotas that are not in the cache are looked for in DB and added to cache
+        for (Quota quotaExternal : quotaList) {
+            Quota quota = fetchQuotaFromCache(quotaExternal.getId(), quotaExternal.getStoragePoolId());
+            if (quota != null) {
+                Lock quotaLock = getQuotaLock(quota.getId());
+                quotaLock.lock();
+                try {
                     copyUsageData(quota, quotaExternal);
+                } finally {
+                    quotaLock.unlock();
                 }
             }
-        } finally {
-            lock.readLock().unlock();
-        }
-
-        // if some of the quota are not in cache and need to be cached
-        if (!needToCache.isEmpty()) {
-            lock.writeLock().lock();
-            try {
-                for (Quota quotaExternal : needToCache) {
-                    addStoragePoolToCache(quotaExternal.getStoragePoolId());
-
-                    Quota quota = fetchQuotaFromCache(quotaExternal.getId(), quotaExternal.getStoragePoolId());
-                    if (quota != null) {
-                        copyUsageData(quota, quotaExternal);
-                    }
-                }
-            } finally {
-                lock.writeLock().unlock();
-            }
         }
     }
 
@@ -348,49 +360,25 @@ public class QuotaManager implements BackendService {
      */
     public Map<Guid, QuotaUsagePerUser> generatePerUserUsageReport(List<Quota> quotaIdsList) {
         Map<Guid, QuotaUsagePerUser> quotaPerUserUsageEntityMap = new HashMap<>();
-        List<Quota> needToCache = new ArrayList<>();
 
         if (quotaIdsList != null) {
-            lock.readLock().lock();
-            try {
-                for (Quota quotaExternal : quotaIdsList) {
-                    // look for the quota in the cache
-                    Map<Guid, Quota> quotaMap = storagePoolQuotaMap.get(quotaExternal.getStoragePoolId());
-                    Quota quota = null;
-                    if (quotaMap != null) {
-                        quota = quotaMap.get(quotaExternal.getId());
-                    }
-
-                    // if quota not in cache look for it in DB and add it to cache
-                    if (quota == null) {
-                        needToCache.add(quotaExternal);
-                    } else {
-                        QuotaUsagePerUser usagePerUser = addQuotaEntry(quota);
-                        if (usagePerUser != null) {
-                            quotaPerUserUsageEntityMap.put(quota.getId(), usagePerUser);
-                        }
-                    }
+            // quotas that are not in the cache are looked for in DB and added to cache
+            for (Quota quotaExternal : quotaIdsList) {
+                Quota quota = fetchQuotaFromCache(quotaExternal.getId(), quotaExternal.getStoragePoolId());
+                if (quota == null) {
+                    continue;
                 }
-            } finally {
-                lock.readLock().unlock();
-            }
 
-            if (!needToCache.isEmpty()) {
-                lock.writeLock().lock();
+                QuotaUsagePerUser usagePerUser;
+                Lock quotaLock = getQuotaLock(quota.getId());
+                quotaLock.lock();
                 try {
-                    for (Quota quotaExternal : needToCache) {
-                        // look for the quota in the cache again (it may have been added by now)
-                        addStoragePoolToCache(quotaExternal.getStoragePoolId());
-
-                        Quota quota = fetchQuotaFromCache(quotaExternal.getId(), quotaExternal.getStoragePoolId());
-
-                        QuotaUsagePerUser usagePerUser = addQuotaEntry(quota);
-                        if (usagePerUser != null) {
-                            quotaPerUserUsageEntityMap.put(quota.getId(), usagePerUser);
-                        }
-                    }
+                    usagePerUser = addQuotaEntry(quota);
                 } finally {
-                    lock.writeLock().unlock();
+                    quotaLock.unlock();
+                }
+                if (usagePerUser != null) {
+                    quotaPerUserUsageEntityMap.put(quota.getId(), usagePerUser);
                 }
             }
         }
@@ -492,27 +480,21 @@ public class QuotaManager implements BackendService {
             return;
         }
 
-        Map<Guid, Map<Guid, Quota>> newStoragePoolQuotaMap = new HashMap<>();
-        Map<Guid, Guid> newDefaultQuotaIdMap = new HashMap<>();
+        Map<Guid, Map<Guid, Quota>> newStoragePoolQuotaMap = new ConcurrentHashMap<>();
+        Map<Guid, Guid> newDefaultQuotaIdMap = new ConcurrentHashMap<>();
 
         for (Quota quota : allQuotaIncludingConsumption) {
-            if (!newStoragePoolQuotaMap.containsKey(quota.getStoragePoolId())) {
-                newStoragePoolQuotaMap.put(quota.getStoragePoolId(), new HashMap<>());
-            }
-            newStoragePoolQuotaMap.get(quota.getStoragePoolId()).put(quota.getId(), quota);
+            newStoragePoolQuotaMap.computeIfAbsent(quota.getStoragePoolId(), id -> new ConcurrentHashMap<>())
+                    .put(quota.getId(), quota);
 
             if (quota.isDefault()) {
                 newDefaultQuotaIdMap.put(quota.getStoragePoolId(), quota.getId());
             }
         }
 
-        lock.writeLock().lock();
-        try {
-            storagePoolQuotaMap = newStoragePoolQuotaMap;
-            storagePoolDefaultQuotaIdMap = newDefaultQuotaIdMap;
-        } finally {
-            lock.writeLock().unlock();
-        }
+        // the new maps are swapped in without blocking the commands that consume quota meanwhile
+        storagePoolDefaultQuotaIdMap = newDefaultQuotaIdMap;
+        storagePoolQuotaMap = newStoragePoolQuotaMap;
         long timeEnd = System.currentTimeMillis();
         log.info("Quota Cache updated. ({} msec)", timeEnd-timeStart);
     }
@@ -521,13 +503,8 @@ public class QuotaManager implements BackendService {
         int quotaCount = getQuotaDao().getQuotaCount();
         int cacheCount = 0;
 
-        lock.readLock().lock();
-        try {
-            for(Map<Guid, Quota> quotaMap : storagePoolQuotaMap.values()) {
-                cacheCount += quotaMap.size();
-            }
-        } finally {
-            lock.readLock().unlock();
+        for(Map<Guid, Quota> quotaMap : storagePoolQuotaMap.values()) {
+            cacheCount += quotaMap.size();
         }
 
         return cacheCount < quotaCount * Config.<Integer> getValue(ConfigValues.MinimumPercentageToUpdateQuotaCache)/100;
@@ -545,7 +522,7 @@ public class QuotaManager implements BackendService {
 
     public Guid getDefaultQuotaId(Guid storagePoolId) {
         if (!storagePoolDefaultQuotaIdMap.containsKey(storagePoolId)) {
-            addStoragePoolToCacheWithLock(storagePoolId);
+            addStoragePoolToCache(storagePoolId);
         }
 
         return storagePoolDefaultQuotaIdMap.get(storagePoolId);
@@ -603,11 +580,7 @@ public class QuotaManager implements BackendService {
         Map<Pair<Guid, Guid>, StorageRequest> storageRequests = new HashMap<>();
 
         for (QuotaConsumptionParameter param: parameters) {
-            // Use default quota if the id is empty
-            if(Guid.isNullOrEmpty(param.getQuotaGuid())) {
-                param.setQuotaGuid(storagePoolDefaultQuotaIdMap.get(command.getStoragePoolId()));
-            }
-
+            // The default quota was already set by lockQuotas() if the id is empty
             Quota quota = fetchQuotaFromCache(param.getQuotaGuid(), command.getStoragePoolId());
             if (quota == null) {
                 log.error("The quota id '{}' is not found in backend and DB.", param.getQuotaGuid());
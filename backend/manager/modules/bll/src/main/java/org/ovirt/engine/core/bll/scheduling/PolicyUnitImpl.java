@@ -126,6 +126,11 @@ public abstract class PolicyUnitImpl {
         return Guid.createGuidFromString(unit.guid());
     }
 
+    public boolean isHostIndependent() {
+        SchedulingUnit unit = getClass().getAnnotation(SchedulingUnit.class);
+        return unit != null && unit.hostIndependent();
+    }
+
     protected Set<PolicyUnitParameter> getParameters() {
         SchedulingUnit unit = getClass().getAnnotation(SchedulingUnit.class);
         if (unit.parameters().length == 0) {
@@ -0,0 +1,105 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the time spent by every policy unit while scheduling, so the slow units can be found via JMX
+ */
+@Singleton
+public class PolicyUnitsStatistics implements PolicyUnitsStatisticsMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PolicyUnitsStatistics.class);
+
+    public static final String FILTER = "filter";
+    public static final String SCORE = "score";
+
+    private final Map<String, UnitStatistics> statistics = new ConcurrentHashMap<>();
+
+    private MBeanServer platformMBeanServer;
+    private ObjectName objectName;
+
+    @PostConstruct
+    public void registerInJMX() {
+        try {
+            objectName = new ObjectName("PolicyUnitsStatistics:type=" + this.getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during registration of Monitoring into JMX:" + e);
+        }
+    }
+
+    @PreDestroy
+    public void unregisterFromJMX() {
+        try {
+            platformMBeanServer.unregisterMBean(objectName);
+        } catch (Exception e) {
+            log.debug("Problem during unregistration of Monitoring into JMX: {}", e);
+        }
+    }
+
+    /**
+     * Records a single invocation of the policy unit
+     * @param unit - the policy unit that was invoked
+     * @param operation - {@link #FILTER} or {@link #SCORE}
+     * @param durationNanos - time spent in the invocation
+     */
+    public void record(PolicyUnitImpl unit, String operation, long durationNanos) {
+        statistics.computeIfAbsent(unit.getPolicyUnit().getName() + ' ' + operation, key -> new UnitStatistics())
+                .record(durationNanos);
+    }
+
+    @Override
+    public List<String> showPolicyUnitsStatistics() {
+        return statistics.entrySet()
+                .stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> "Policy unit " + e.getKey() + ": " + e.getValue())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void clear() {
+        statistics.clear();
+    }
+
+    private static class UnitStatistics {
+
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        public void record(long durationNanos) {
+            invocations.increment();
+            totalNanos.add(durationNanos);
+            maxNanos.accumulate(durationNanos);
+        }
+
+        @Override
+        public String toString() {
+            long count = invocations.sum();
+            long total = totalNanos.sum();
+            return String.format("invocations %d, total %d ms, average %d us, max %d us",
+                    count,
+                    TimeUnit.NANOSECONDS.toMillis(total),
+                    count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(total / count),
+                    TimeUnit.NANOSECONDS.toMicros(maxNanos.get()));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import java.util.List;
+
+/**
+ * The following interface is used as interface for JMX bean
+ */
+public interface PolicyUnitsStatisticsMXBean {
+
+    /**
+     * The following method will return the invocation count and the time spent by every policy unit
+     */
+    List<String> showPolicyUnitsStatistics();
+
+    /**
+     * The following method will allow to reset the collected statistics via JMX console
+     */
+    void clear();
+}
@@ -15,7 +15,11 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -90,6 +94,8 @@ public class SchedulingManager implements BackendService {
     private static final Logger log = LoggerFactory.getLogger(SchedulingManager.class);
     private static final String HIGH_UTILIZATION = "HighUtilization";
     private static final String LOW_UTILIZATION = "LowUtilization";
+    /** Minimal number of hosts a single parallel task filters, smaller parts are not worth the overhead **/
+    private static final int MIN_HOSTS_PER_PARALLEL_TASK = 16;
 
     @Inject
     private AuditLogDirector auditLogDirector;
@@ -126,6 +132,8 @@ public class SchedulingManager implements BackendService {
     @Inject
     @ThreadPools(ThreadPools.ThreadPoolType.EngineScheduledThreadPool)
     private ManagedScheduledExecutorService executor;
+    @Inject
+    private PolicyUnitsStatistics policyUnitsStatistics;
 
     private PendingResourceManager pendingResourceManager;
 
@@ -174,6 +182,14 @@ public class SchedulingManager implements BackendService {
         pendingResourceManager = new PendingResourceManager(resourceManager);
     }
 
+    /**
+     * @return the number of tasks the policy units are split to when run in parallel on the engine thread pool, 1 when
+     * they should run sequentially. It is read on every use, so a reloaded value applies to the next scheduling.
+     */
+    private static int getPolicyUnitsParallelism() {
+        return Math.max(1, Config.<Integer>getValue(ConfigValues.SchedulerParallelism));
+    }
+
     private void loadExternalScheduler() {
         if (Config.<Boolean>getValue(ConfigValues.ExternalSchedulerEnabled)) {
             log.info("Starting external scheduler discovery thread");
@@ -316,6 +332,15 @@ public class SchedulingManager implements BackendService {
             return details;
         }
 
+        /**
+         * Adds the reasons and details collected by a result of other hosts
+         */
+        private void merge(SchedulingResult other) {
+            filteredOutReasons.putAll(other.filteredOutReasons);
+            hostNames.putAll(other.hostNames);
+            other.details.getMessages().forEach(details::addMessages);
+        }
+
     }
 
     public Optional<Guid> schedule(Cluster cluster,
@@ -331,39 +356,8 @@ public class SchedulingManager implements BackendService {
             log.debug("Scheduling started, correlation Id: {}", correlationId);
             checkAllowOverbooking(cluster);
             lockCluster(cluster.getId());
-            List<VDS> vdsList = vdsDao
-                    .getAllForClusterWithStatus(cluster.getId(), VDSStatus.Up);
-            vdsList = removeBlacklistedHosts(vdsList, hostBlackList);
-            vdsList = keepOnlyWhitelistedHosts(vdsList, hostWhiteList);
-            refreshCachedPendingValues(vdsList);
-            subtractRunningVmResources(cluster, vm, vdsList);
-            ClusterPolicy policy = policyMap.get(cluster.getClusterPolicyId());
-            Map<String, String> parameters = createClusterPolicyParameters(cluster);
-
-            vdsList =
-                    runFilters(policy.getFilters(),
-                            cluster,
-                            vdsList,
-                            vm,
-                            parameters,
-                            policy.getFilterPositionMap(),
-                            messages,
-                            runVmDelayer,
-                            true,
-                            correlationId);
-
-            if (vdsList.isEmpty()) {
-                return Optional.empty();
-            }
-
-            Optional<Guid> bestHost = selectBestHost(cluster, vm, destHostIdList, vdsList, policy, parameters);
-            if (bestHost.isPresent() && !bestHost.get().equals(vm.getRunOnVds())) {
-                Guid bestHostId = bestHost.get();
-                addPendingResources(vm, bestHostId);
-                markVfsAsUsedByVm(vm, bestHostId);
-            }
-
-            return bestHost;
+            List<VDS> vdsList = loadHosts(cluster, hostBlackList, hostWhiteList);
+            return scheduleVm(cluster, vm, vdsList, destHostIdList, messages, runVmDelayer, correlationId);
         } catch (InterruptedException e) {
             log.error("scheduling interrupted, correlation Id: {}: {}", correlationId, e.getMessage());
             log.debug("Exception: ", e);
@@ -375,6 +369,111 @@ public class SchedulingManager implements BackendService {
         }
     }
 
+    /**
+     * Schedules several VMs of the same cluster in one pass. The hosts and their pending resources are loaded and
+     * the cluster is locked only once, then the VMs are placed one after another. After every placement the pending
+     * resources of the selected host are refreshed in the loaded hosts, so the following VMs see the capacity left
+     * on it, the same as if they were scheduled one by one.
+     * The filters are run without waiting for the hosts to free memory, like in
+     * {@link #canSchedule(Cluster, VM, List, List, List)}.
+     *
+     * @param vms - VMs to schedule, all of them must belong to the cluster and must not be running
+     * @param messages - filled with the messages for every VM that could not be scheduled, keyed by the VM id
+     * @return the selected host of every VM, keyed by the VM id in the order of the given VMs
+     */
+    public Map<Guid, Optional<Guid>> scheduleBatch(Cluster cluster,
+            List<VM> vms,
+            List<Guid> hostBlackList,
+            List<Guid> hostWhiteList,
+            Map<Guid, List<String>> messages,
+            String correlationId) {
+        Map<Guid, Optional<Guid>> result = new LinkedHashMap<>();
+        prepareClusterLock(cluster.getId());
+        try {
+            log.debug("Batch scheduling of {} VMs started, correlation Id: {}", vms.size(), correlationId);
+            checkAllowOverbooking(cluster);
+            lockCluster(cluster.getId());
+            List<VDS> vdsList = loadHosts(cluster, hostBlackList, hostWhiteList);
+            Map<Guid, VDS> vdsById = vdsList.stream().collect(Collectors.toMap(VDS::getId, vds -> vds));
+
+            for (VM vm : vms) {
+                List<String> vmMessages = new ArrayList<>();
+                Optional<Guid> bestHost = scheduleVm(cluster,
+                        vm,
+                        new ArrayList<>(vdsList),
+                        Collections.emptyList(),
+                        vmMessages,
+                        noWaitingVmDelayer,
+                        correlationId);
+                result.put(vm.getId(), bestHost);
+                if (bestHost.isPresent()) {
+                    refreshCachedPendingValues(Collections.singletonList(vdsById.get(bestHost.get())));
+                } else {
+                    messages.put(vm.getId(), vmMessages);
+                }
+            }
+        } catch (InterruptedException e) {
+            log.error("batch scheduling interrupted, correlation Id: {}: {}", correlationId, e.getMessage());
+            log.debug("Exception: ", e);
+            vms.forEach(vm -> result.putIfAbsent(vm.getId(), Optional.empty()));
+        } finally {
+            releaseCluster(cluster.getId());
+
+            log.debug("Batch scheduling ended, correlation Id: {}", correlationId);
+        }
+        return result;
+    }
+
+    private List<VDS> loadHosts(Cluster cluster, List<Guid> hostBlackList, List<Guid> hostWhiteList) {
+        List<VDS> vdsList = vdsDao
+                .getAllForClusterWithStatus(cluster.getId(), VDSStatus.Up);
+        vdsList = removeBlacklistedHosts(vdsList, hostBlackList);
+        vdsList = keepOnlyWhitelistedHosts(vdsList, hostWhiteList);
+        refreshCachedPendingValues(vdsList);
+        return vdsList;
+    }
+
+    /**
+     * Selects the best host for the VM out of the given hosts and adds the VM's pending resources to it.
+     * Should be called while holding the cluster lock.
+     */
+    private Optional<Guid> scheduleVm(Cluster cluster,
+            VM vm,
+            List<VDS> vdsList,
+            List<Guid> destHostIdList,
+            List<String> messages,
+            RunVmDelayer runVmDelayer,
+            String correlationId) {
+        subtractRunningVmResources(cluster, vm, vdsList);
+        ClusterPolicy policy = policyMap.get(cluster.getClusterPolicyId());
+        Map<String, String> parameters = createClusterPolicyParameters(cluster);
+
+        vdsList =
+                runFilters(policy.getFilters(),
+                        cluster,
+                        vdsList,
+                        vm,
+                        parameters,
+                        policy.getFilterPositionMap(),
+                        messages,
+                        runVmDelayer,
+                        true,
+                        correlationId);
+
+        if (vdsList.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Optional<Guid> bestHost = selectBestHost(cluster, vm, destHostIdList, vdsList, policy, parameters);
+        if (bestHost.isPresent() && !bestHost.get().equals(vm.getRunOnVds())) {
+            Guid bestHostId = bestHost.get();
+            addPendingResources(vm, bestHostId);
+            markVfsAsUsedByVm(vm, bestHostId);
+        }
+
+        return bestHost;
+    }
+
     private void addPendingResources(VM vm, Guid hostId) {
         getPendingResourceManager().addPending(new PendingCpuCores(hostId, vm, vm.getNumOfCpus()));
         getPendingResourceManager().addPending(new PendingMemory(hostId, vm, vmOverheadCalculator.getStaticOverheadInMb(vm)));
@@ -589,11 +688,7 @@ public class SchedulingManager implements BackendService {
             List<Guid> vdsBlackList,
             List<Guid> vdsWhiteList,
             List<String> messages) {
-        List<VDS> vdsList = vdsDao
-                .getAllForClusterWithStatus(cluster.getId(), VDSStatus.Up);
-        vdsList = removeBlacklistedHosts(vdsList, vdsBlackList);
-        vdsList = keepOnlyWhitelistedHosts(vdsList, vdsWhiteList);
-        refreshCachedPendingValues(vdsList);
+        List<VDS> vdsList = loadHosts(cluster, vdsBlackList, vdsWhiteList);
         subtractRunningVmResources(cluster, vm, vdsList);
         ClusterPolicy policy = policyMap.get(cluster.getClusterPolicyId());
         Map<String, String> parameters = createClusterPolicyParameters(cluster);
@@ -722,13 +817,150 @@ public class SchedulingManager implements BackendService {
             RunVmDelayer runVmDelayer,
             String correlationId,
             SchedulingResult result) {
+        int index = 0;
+        while (index < filters.size() && !hostList.isEmpty()) {
+            int end = index;
+            while (end < filters.size() && filters.get(end).isHostIndependent()) {
+                end++;
+            }
+
+            int tasksCount = getParallelTasksCount(hostList.size());
+            if (end > index && tasksCount > 1) {
+                // A sequence of host independent filters, run it over parts of the host list in parallel
+                hostList = runInternalFiltersInParallel(filters.subList(index, end),
+                        cluster,
+                        hostList,
+                        vm,
+                        parameters,
+                        runVmDelayer,
+                        correlationId,
+                        result,
+                        tasksCount);
+            } else {
+                end = Math.max(end, index + 1);
+                hostList = runInternalFiltersSequentially(filters.subList(index, end),
+                        cluster,
+                        hostList,
+                        vm,
+                        parameters,
+                        runVmDelayer,
+                        correlationId,
+                        result);
+            }
+            index = end;
+        }
+        return hostList;
+    }
+
+    private int getParallelTasksCount(int hostsCount) {
+        return Math.min(getPolicyUnitsParallelism(), hostsCount / MIN_HOSTS_PER_PARALLEL_TASK);
+    }
+
+    /**
+     * Runs the jobs on the engine thread pool, so the policy units run on managed threads like the rest of the
+     * engine code, and returns their results in the same order. The first job runs on the calling thread, as do the
+     * jobs that haven't started by the time their results are needed, e.g. when the pool is busy, so the scheduling
+     * never waits for free threads.
+     */
+    private static <T> List<T> runInParallel(List<Callable<T>> jobs) {
+        List<FutureTask<T>> tasks = jobs.stream().map(FutureTask::new).collect(Collectors.toList());
+        for (int i = 1; i < tasks.size(); i++) {
+            try {
+                ThreadPoolUtil.execute(tasks.get(i));
+            } catch (RejectedExecutionException e) {
+                // run on the calling thread below
+            }
+        }
+
+        List<T> results = new ArrayList<>();
+        for (FutureTask<T> task : tasks) {
+            // does nothing if the task has already started
+            task.run();
+            results.add(getResult(task));
+        }
+        return results;
+    }
+
+    private static <T> T getResult(FutureTask<T> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Splits the host list to parts that are filtered in parallel, the results are merged in the order of the
+     * original list, so they are the same as if the filters ran sequentially
+     */
+    private List<VDS> runInternalFiltersInParallel(List<PolicyUnitImpl> filters,
+            Cluster cluster,
+            List<VDS> hostList,
+            VM vm,
+            Map<String, String> parameters,
+            RunVmDelayer runVmDelayer,
+            String correlationId,
+            SchedulingResult result,
+            int tasksCount) {
+        filters.forEach(filterPolicyUnit -> filterPolicyUnit.setRunVmDelayer(runVmDelayer));
+
+        int partSize = (hostList.size() + tasksCount - 1) / tasksCount;
+        List<SchedulingResult> partResults = new ArrayList<>();
+        List<Callable<List<VDS>>> jobs = new ArrayList<>();
+        for (int from = 0; from < hostList.size(); from += partSize) {
+            List<VDS> part = new ArrayList<>(hostList.subList(from, Math.min(from + partSize, hostList.size())));
+            SchedulingResult partResult = new SchedulingResult();
+            partResults.add(partResult);
+            jobs.add(() -> runInternalFiltersSequentially(filters,
+                    cluster,
+                    part,
+                    vm,
+                    parameters,
+                    null,
+                    correlationId,
+                    partResult));
+        }
+
+        List<List<VDS>> partHosts = runInParallel(jobs);
+        List<VDS> filteredHosts = new ArrayList<>();
+        for (int i = 0; i < partHosts.size(); i++) {
+            filteredHosts.addAll(partHosts.get(i));
+            result.merge(partResults.get(i));
+        }
+        return filteredHosts;
+    }
+
+    /**
+     * @param runVmDelayer - set to the filters before running them, unless null
+     */
+    private List<VDS> runInternalFiltersSequentially(List<PolicyUnitImpl> filters,
+            Cluster cluster,
+            List<VDS> hostList,
+            VM vm,
+            Map<String, String> parameters,
+            RunVmDelayer runVmDelayer,
+            String correlationId,
+            SchedulingResult result) {
         for (PolicyUnitImpl filterPolicyUnit : filters) {
             if (hostList.isEmpty()) {
                 break;
             }
-            filterPolicyUnit.setRunVmDelayer(runVmDelayer);
+            if (runVmDelayer != null) {
+                filterPolicyUnit.setRunVmDelayer(runVmDelayer);
+            }
             List<VDS> currentHostList = new ArrayList<>(hostList);
+            long start = System.nanoTime();
             hostList = filterPolicyUnit.filter(cluster, hostList, vm, parameters, result.getDetails());
+            policyUnitsStatistics.record(filterPolicyUnit, PolicyUnitsStatistics.FILTER, System.nanoTime() - start);
             logFilterActions(currentHostList,
                     toIdSet(hostList),
                     EngineMessage.VAR__FILTERTYPE__INTERNAL,
@@ -835,11 +1067,41 @@ public class SchedulingManager implements BackendService {
             VM vm,
             Map<String, String> parameters) {
 
-        for (Pair<PolicyUnitImpl, Integer> pair : functions) {
-            List<Pair<Guid, Integer>> scoreResult = pair.getFirst().score(cluster, hostList, vm, parameters);
-            for (Pair<Guid, Integer> result : scoreResult) {
-                selector.record(pair.getFirst().getGuid(), result.getFirst(), result.getSecond());
+        if (functions.size() > 1 && getPolicyUnitsParallelism() > 1) {
+            // Every function scores the same hosts, run them in parallel and record the results in the same order
+            List<List<Pair<Guid, Integer>>> scores = runInParallel(functions.stream()
+                    .map(pair -> (Callable<List<Pair<Guid, Integer>>>) () ->
+                            runInternalFunction(pair.getFirst(), cluster, hostList, vm, parameters))
+                    .collect(Collectors.toList()));
+            for (int i = 0; i < functions.size(); i++) {
+                recordScores(selector, functions.get(i).getFirst(), scores.get(i));
             }
+            return;
+        }
+
+        for (Pair<PolicyUnitImpl, Integer> pair : functions) {
+            recordScores(selector,
+                    pair.getFirst(),
+                    runInternalFunction(pair.getFirst(), cluster, hostList, vm, parameters));
+        }
+    }
+
+    private List<Pair<Guid, Integer>> runInternalFunction(PolicyUnitImpl function,
+            Cluster cluster,
+            List<VDS> hostList,
+            VM vm,
+            Map<String, String> parameters) {
+        long start = System.nanoTime();
+        try {
+            return function.score(cluster, hostList, vm, parameters);
+        } finally {
+            policyUnitsStatistics.record(function, PolicyUnitsStatistics.SCORE, System.nanoTime() - start);
+        }
+    }
+
+    private void recordScores(SelectorInstance selector, PolicyUnitImpl function, List<Pair<Guid, Integer>> scores) {
+        for (Pair<Guid, Integer> result : scores) {
+            selector.record(function.getGuid(), result.getFirst(), result.getSecond());
         }
     }
 
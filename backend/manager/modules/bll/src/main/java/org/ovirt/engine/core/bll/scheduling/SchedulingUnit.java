@@ -15,4 +15,10 @@ public @interface SchedulingUnit {
     PolicyUnitType type() default PolicyUnitType.FILTER;
     String description() default "";
     PolicyUnitParameter[] parameters() default {};
+    /**
+     * A filter is host independent when it decides about every host without looking at the other
+     * hosts it got and keeps the order of the hosts. Such filter can run in parallel over parts of
+     * the host list.
+     */
+    boolean hostIndependent() default false;
 }
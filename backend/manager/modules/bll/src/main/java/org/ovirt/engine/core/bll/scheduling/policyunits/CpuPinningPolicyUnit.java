@@ -30,7 +30,8 @@ import org.slf4j.LoggerFactory;
         guid = "6d636bf6-a35c-4f9d-b68d-0731f731cddc",
         name = "CpuPinning",
         type = PolicyUnitType.FILTER,
-        description = "Filters out hosts which do not satisfy a VMs cpu pinning constraints"
+        description = "Filters out hosts which do not satisfy a VMs cpu pinning constraints",
+        hostIndependent = true
 )
 public class CpuPinningPolicyUnit extends PolicyUnitImpl {
 
@@ -28,7 +28,8 @@ import org.slf4j.LoggerFactory;
         guid = "728a21f1-f97e-4d32-bc3e-b3cc49756abb",
         name = "HostDevice",
         description = "Filters out hosts not supporting VM required host devices",
-        type = PolicyUnitType.FILTER
+        type = PolicyUnitType.FILTER,
+        hostIndependent = true
 )
 public class HostDeviceFilterPolicyUnit extends PolicyUnitImpl {
 
@@ -21,7 +21,8 @@ import org.slf4j.LoggerFactory;
         guid = "e659c871-0bf1-4ccc-b748-f28f5d08dffd",
         name = "HA",
         description = "Runs the hosted engine VM only on hosts with a positive score",
-        type = PolicyUnitType.FILTER
+        type = PolicyUnitType.FILTER,
+        hostIndependent = true
 )
 public class HostedEngineHAClusterFilterPolicyUnit extends PolicyUnitImpl {
     private static final Logger log = LoggerFactory.getLogger(HostedEngineHAClusterFilterPolicyUnit.class);
@@ -23,7 +23,8 @@ import org.slf4j.LoggerFactory;
         guid = "84e6ddee-ab0d-42dd-82f0-c298889db567",
         name = "InClusterUpgrade",
         description = "Filter out all hosts which run an older OS version than the host the vm is currently running on.",
-        type = PolicyUnitType.FILTER
+        type = PolicyUnitType.FILTER,
+        hostIndependent = true
 )
 public class InClusterUpgradeFilterPolicyUnit extends PolicyUnitImpl {
     private static final Logger log = LoggerFactory.getLogger(InClusterUpgradeFilterPolicyUnit.class);
@@ -26,7 +26,8 @@ import org.slf4j.LoggerFactory;
         guid = "e659c871-0bf1-4ccc-b748-f28f5d08ddda",
         name = "Migration",
         description = "Prevent migration to the same host.",
-        type = PolicyUnitType.FILTER
+        type = PolicyUnitType.FILTER,
+        hostIndependent = true
 )
 public class MigrationPolicyUnit extends PolicyUnitImpl {
     private static final Logger log = LoggerFactory.getLogger(MigrationPolicyUnit.class);
@@ -0,0 +1,23 @@
+package org.ovirt.engine.core.bll.storage.disk;
+
+import javax.inject.Inject;
+
+import org.ovirt.engine.core.bll.QueriesCommandBase;
+import org.ovirt.engine.core.bll.context.EngineContext;
+import org.ovirt.engine.core.common.queries.IdsQueryParameters;
+import org.ovirt.engine.core.dao.DiskVmElementDao;
+
+public class GetDiskVmElementsByVmIdsQuery<P extends IdsQueryParameters> extends QueriesCommandBase<P> {
+
+    @Inject
+    private DiskVmElementDao diskVmElementDao;
+
+    public GetDiskVmElementsByVmIdsQuery(P parameters, EngineContext engineContext) {
+        super(parameters, engineContext);
+    }
+
+    @Override
+    protected void executeQueryCommand() {
+        getQueryReturnValue().setReturnValue(diskVmElementDao.getAllForVms(getParameters().getIds()));
+    }
+}
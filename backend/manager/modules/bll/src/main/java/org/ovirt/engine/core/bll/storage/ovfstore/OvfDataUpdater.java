@@ -55,8 +55,9 @@ public class OvfDataUpdater implements BackendService {
     }
 
     protected void performOvfUpdateForDomain(Guid storagePoolId, Guid domainId) {
-        backend.runInternalAction(ActionType.ProcessOvfUpdateForStorageDomain,
-                new ProcessOvfUpdateParameters(storagePoolId, domainId));
+        ProcessOvfUpdateParameters parameters = new ProcessOvfUpdateParameters(storagePoolId, domainId);
+        parameters.setSkipUpToDateOvfStores(true);
+        backend.runInternalAction(ActionType.ProcessOvfUpdateForStorageDomain, parameters);
     }
 
     protected ActionReturnValue performOvfUpdateForStoragePool(Guid storagePoolId) {
@@ -9,6 +9,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -20,7 +21,7 @@ import org.ovirt.engine.core.bll.storage.disk.image.DisksFilter;
 import org.ovirt.engine.core.bll.utils.ClusterUtils;
 import org.ovirt.engine.core.bll.utils.VmDeviceUtils;
 import org.ovirt.engine.core.common.businessentities.VM;
-import org.ovirt.engine.core.common.businessentities.VmDeviceId;
+import org.ovirt.engine.core.common.businessentities.VmDevice;
 import org.ovirt.engine.core.common.businessentities.VmTemplate;
 import org.ovirt.engine.core.common.businessentities.aaa.DbUser;
 import org.ovirt.engine.core.common.businessentities.storage.BaseDisk;
@@ -95,16 +96,22 @@ public class OvfUpdateProcessHelper {
      */
     public String buildMetadataDictionaryForTemplate(VmTemplate template,
                                                         Map<Guid, KeyValuePairCompat<String, List<Guid>>> metaDictionary) {
-        List<DiskImage> allTemplateImages = template.getDiskList();
+        String templateMeta = generateTemplateMetadata(template);
+        metaDictionary.put(template.getId(), new KeyValuePairCompat<>(
+                templateMeta, template.getDiskList().stream().map(BaseDisk::getId).collect(Collectors.toList())));
+        return templateMeta;
+    }
+
+    /**
+     * Generates the given template metadata
+     */
+    public String generateTemplateMetadata(VmTemplate template) {
         Set<DbUser> dbUsers = new HashSet<>(dbUserDao.getAllForTemplate(template.getId()));
         FullEntityOvfData fullEntityOvfData = new FullEntityOvfData(template);
         fullEntityOvfData.setDbUsers(dbUsers);
-        fullEntityOvfData.setDiskImages(allTemplateImages);
+        fullEntityOvfData.setDiskImages(template.getDiskList());
         ovfHelper.populateUserToRoles(fullEntityOvfData, template.getId());
-        String templateMeta = generateVmTemplateMetadata(fullEntityOvfData);
-        metaDictionary.put(template.getId(), new KeyValuePairCompat<>(
-                templateMeta, allTemplateImages.stream().map(BaseDisk::getId).collect(Collectors.toList())));
-        return templateMeta;
+        return generateVmTemplateMetadata(fullEntityOvfData);
     }
 
     /**
@@ -112,6 +119,18 @@ public class OvfUpdateProcessHelper {
      */
     public void loadVmData(VM vm) {
         vmDeviceUtils.setVmDevices(vm.getStaticData());
+        loadVmInterfacesAndTemplateName(vm);
+    }
+
+    /**
+     * Loads additional need vm data for it's ovf, using the given devices of the vm that were read in advance
+     */
+    public void loadVmData(VM vm, List<VmDevice> devices) {
+        vmDeviceUtils.setVmDevices(vm.getStaticData(), devices);
+        loadVmInterfacesAndTemplateName(vm);
+    }
+
+    private void loadVmInterfacesAndTemplateName(VM vm) {
         if (vm.getInterfaces().isEmpty()) {
             vm.setInterfaces(vmNetworkInterfaceDao.getAllForVm(vm.getId()));
         }
@@ -133,9 +152,17 @@ public class OvfUpdateProcessHelper {
             allVmImages.addAll(diskImageDao.getAllSnapshotsForLeaf(diskImage.getImageId()));
         }
 
+        if (allVmImages.isEmpty()) {
+            return allVmImages;
+        }
+
+        Set<Guid> diskIds = allVmImages.stream().map(BaseDisk::getId).collect(Collectors.toSet());
+        Map<Guid, DiskVmElement> diskVmElements = diskVmElementDao.getAllDiskVmElementsByDisksIds(diskIds)
+                .stream()
+                .filter(dve -> vm.getId().equals(dve.getVmId()))
+                .collect(Collectors.toMap(DiskVmElement::getDiskId, Function.identity()));
         for (DiskImage disk : allVmImages) {
-            DiskVmElement dve = diskVmElementDao.get(new VmDeviceId(disk.getId(), vm.getId()));
-            disk.setDiskVmElements(Collections.singletonList(dve));
+            disk.setDiskVmElements(Collections.singletonList(diskVmElements.get(disk.getId())));
         }
 
         return allVmImages;
@@ -146,6 +173,19 @@ public class OvfUpdateProcessHelper {
      */
     public void loadTemplateData(VmTemplate template) {
         vmDeviceUtils.setVmDevices(template);
+        loadTemplateInterfaces(template);
+    }
+
+    /**
+     * Loads additional need template data for it's ovf, using the given devices of the template that were read in
+     * advance
+     */
+    public void loadTemplateData(VmTemplate template, List<VmDevice> devices) {
+        vmDeviceUtils.setVmDevices(template, devices);
+        loadTemplateInterfaces(template);
+    }
+
+    private void loadTemplateInterfaces(VmTemplate template) {
         if (template.getInterfaces() == null || template.getInterfaces().isEmpty()) {
             template.setInterfaces(vmNetworkInterfaceDao.getAllForTemplate(template.getId()));
         }
@@ -0,0 +1,125 @@
+package org.ovirt.engine.core.bll.storage.ovfstore;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.ovirt.engine.core.common.businessentities.StoragePool;
+import org.ovirt.engine.core.compat.Guid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the progress of the OVF update of every Data Center, so a slow update can be followed via JMX
+ */
+@Singleton
+public class OvfUpdateStatistics implements OvfUpdateStatisticsMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OvfUpdateStatistics.class);
+
+    private final Map<Guid, UpdateProgress> progresses = new ConcurrentHashMap<>();
+
+    private MBeanServer platformMBeanServer;
+    private ObjectName objectName;
+
+    @PostConstruct
+    public void registerInJMX() {
+        try {
+            objectName = new ObjectName("OvfUpdateStatistics:type=" + this.getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during registration of Monitoring into JMX:" + e);
+        }
+    }
+
+    @PreDestroy
+    public void unregisterFromJMX() {
+        try {
+            platformMBeanServer.unregisterMBean(objectName);
+        } catch (Exception e) {
+            log.debug("Problem during unregistration of Monitoring into JMX: {}", e);
+        }
+    }
+
+    /**
+     * Starts recording a new OVF update of the given Data Center, replacing the progress of its previous update
+     */
+    public void updateStarted(StoragePool pool) {
+        progresses.put(pool.getId(), new UpdateProgress(pool.getName()));
+    }
+
+    /**
+     * Records VMs/templates that were found to need an OVF update
+     */
+    public void itemsToUpdate(Guid poolId, int count) {
+        getProgress(poolId).toUpdate.add(count);
+    }
+
+    /**
+     * Records the VMs/templates whose OVF was generated and the ones that were skipped, e.g. since they are locked
+     */
+    public void itemsProcessed(Guid poolId, int generated, int skipped) {
+        UpdateProgress progress = getProgress(poolId);
+        progress.generated.add(generated);
+        progress.skipped.add(skipped);
+    }
+
+    public void updateFinished(Guid poolId) {
+        getProgress(poolId).finishTime = System.nanoTime();
+    }
+
+    private UpdateProgress getProgress(Guid poolId) {
+        return progresses.computeIfAbsent(poolId, id -> new UpdateProgress(id.toString()));
+    }
+
+    @Override
+    public List<String> showOvfUpdateProgress() {
+        return progresses.values()
+                .stream()
+                .sorted(Comparator.comparing(progress -> progress.poolName))
+                .map(progress -> "Data Center " + progress.poolName + ": " + progress)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void clear() {
+        progresses.clear();
+    }
+
+    private static class UpdateProgress {
+
+        private final String poolName;
+        private final long startTime = System.nanoTime();
+        private final LongAdder toUpdate = new LongAdder();
+        private final LongAdder generated = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private volatile long finishTime;
+
+        public UpdateProgress(String poolName) {
+            this.poolName = poolName;
+        }
+
+        @Override
+        public String toString() {
+            long finish = finishTime;
+            return String.format("%s, to update %d, generated %d, skipped %d, took %d ms",
+                    finish == 0 ? "in progress" : "finished",
+                    toUpdate.sum(),
+                    generated.sum(),
+                    skipped.sum(),
+                    TimeUnit.NANOSECONDS.toMillis((finish == 0 ? System.nanoTime() : finish) - startTime));
+        }
+    }
+}
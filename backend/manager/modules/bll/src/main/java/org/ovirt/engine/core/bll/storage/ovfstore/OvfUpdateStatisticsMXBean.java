@@ -0,0 +1,19 @@
+package org.ovirt.engine.core.bll.storage.ovfstore;
+
+import java.util.List;
+
+/**
+ * The following interface is used as interface for JMX bean
+ */
+public interface OvfUpdateStatisticsMXBean {
+
+    /**
+     * The following method will return the progress of the last OVF update of every Data Center
+     */
+    List<String> showOvfUpdateProgress();
+
+    /**
+     * The following method will allow to reset the collected statistics via JMX console
+     */
+    void clear();
+}
@@ -1,8 +1,12 @@
 package org.ovirt.engine.core.bll.storage.ovfstore;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -220,12 +224,17 @@ public class ProcessOvfUpdateForStorageDomainCommand<T extends ProcessOvfUpdateP
         }
     }
 
-    private byte[] buildOvfInfoFileByteArray(List<Guid> vmAndTemplatesIds) {
-        ByteArrayOutputStream bufferedOutputStream = new ByteArrayOutputStream();
+    /**
+     * Writes the OVF store of the domain to the given file. The OVFs are read from the database a page at a time and
+     * written right away, so the memory used does not depend on the number of VMs and templates in the domain.
+     */
+    private void buildOvfInfoFile(List<Guid> vmAndTemplatesIds,
+            List<OvfEntityData> unregisteredOvfData,
+            File ovfInfoFile) {
         Set<Guid> processedIds = new HashSet<>();
 
-        try (InMemoryTar inMemoryTar = new InMemoryTar(bufferedOutputStream)) {
-            inMemoryTar.addTarEntry(generateInfoFileData().getBytes(),
+        try (InMemoryTar tar = new InMemoryTar(new BufferedOutputStream(new FileOutputStream(ovfInfoFile)))) {
+            tar.addTarEntry(generateInfoFileData().getBytes(),
                     OvfInfoFileConstants.InfoFileName);
             Map<String, Object> metaDataForEntities = generateMetaDataFile(vmAndTemplatesIds);
             int i = 0;
@@ -237,26 +246,24 @@ public class ProcessOvfUpdateForStorageDomainCommand<T extends ProcessOvfUpdateP
 
                 List<Pair<Guid, String>> ovfs = vmAndTemplatesGenerationsDao.loadOvfDataForIds(idsToProcess);
                 if (!ovfs.isEmpty()) {
-                    processedIds.addAll(buildFilesForOvfs(ovfs, inMemoryTar));
+                    processedIds.addAll(buildFilesForOvfs(ovfs, tar));
                 }
             }
 
-            List<Pair<Guid, String>> unprocessedOvfData = retrieveUnprocessedUnregisteredOvfData(processedIds, metaDataForEntities);
-            inMemoryTar.addTarEntry(buildJson(metaDataForEntities, true).getBytes(), OvfInfoFileConstants.MetaDataFileName);
-            buildFilesForOvfs(unprocessedOvfData, inMemoryTar);
+            List<Pair<Guid, String>> unprocessedOvfData =
+                    retrieveUnprocessedUnregisteredOvfData(unregisteredOvfData, processedIds, metaDataForEntities);
+            tar.addTarEntry(buildJson(metaDataForEntities, true).getBytes(), OvfInfoFileConstants.MetaDataFileName);
+            buildFilesForOvfs(unprocessedOvfData, tar);
         } catch (Exception e) {
-            throw new RuntimeException(String.format("Exception while building in memory tar of the OVFs of domain %s",
+            throw new RuntimeException(String.format("Exception while building the tar of the OVFs of domain %s",
                     getParameters().getStorageDomainId()), e);
         }
-
-        return bufferedOutputStream.toByteArray();
     }
 
-    private List<Pair<Guid, String>> retrieveUnprocessedUnregisteredOvfData(Set<Guid> processedIds,
+    private List<Pair<Guid, String>> retrieveUnprocessedUnregisteredOvfData(List<OvfEntityData> ovfList,
+            Set<Guid> processedIds,
             Map<String, Object> metaDataForEntities) {
         Map<String, Object> statusMap = (Map<String, Object>) metaDataForEntities.get(OvfInfoFileConstants.VmStatus);
-        List<OvfEntityData> ovfList = unregisteredOVFDataDao.getAllForStorageDomainByEntityType(
-                getParameters().getStorageDomainId(), null);
         List<Pair<Guid, String>> ovfData = new LinkedList<>();
         for (OvfEntityData ovfEntityData : ovfList) {
             if (!processedIds.contains(ovfEntityData.getEntityId())) {
@@ -282,15 +289,68 @@ public class ProcessOvfUpdateForStorageDomainCommand<T extends ProcessOvfUpdateP
 
         vmAndTemplatesIds.addAll(vmStaticDao.getVmAndTemplatesIdsWithoutAttachedImageDisks(getParameters().getStoragePoolId(), false));
 
-        byte[] bytes = buildOvfInfoFileByteArray(vmAndTemplatesIds);
+        List<OvfEntityData> unregisteredOvfData = unregisteredOVFDataDao.getAllForStorageDomainByEntityType(
+                getParameters().getStorageDomainId(), null);
+
+        // changes of the unregistered OVFs do not mark the OVF stores as outdated, so the stores of a domain that has
+        // such OVFs are always written
+        boolean upToDateOvfStoreExists = getParameters().isSkipUpToDateOvfStores()
+                && unregisteredOvfData.isEmpty()
+                && removeUpToDateOvfStores(vmAndTemplatesIds);
+        if (domainOvfStoresInfoForUpdate.isEmpty()) {
+            log.info("The OVF stores of domain '{}' are up to date, skipping their update",
+                    getParameters().getStorageDomainId());
+            return true;
+        }
+
+        File ovfInfoFile = createOvfInfoFile();
+        try {
+            buildOvfInfoFile(vmAndTemplatesIds, unregisteredOvfData, ovfInfoFile);
+            return updateOvfStores(ovfInfoFile, vmAndTemplatesIds, upToDateOvfStoreExists);
+        } finally {
+            if (!ovfInfoFile.delete()) {
+                log.warn("Failed to delete the temporary OVF store file '{}'", ovfInfoFile);
+            }
+        }
+    }
+
+    private File createOvfInfoFile() {
+        try {
+            return File.createTempFile("ovf-store-" + getParameters().getStorageDomainId(), ".tar");
+        } catch (IOException e) {
+            throw new RuntimeException("Exception while creating the temporary OVF store file", e);
+        }
+    }
+
+    /**
+     * Removes the OVF stores that already hold the current OVFs of the domain: the stores that were updated with the
+     * same VMs and templates and were not marked as outdated since, which happens once the OVF generation of any of
+     * them changes.
+     *
+     * @return {@code true} if any of the OVF stores is up to date
+     */
+    private boolean removeUpToDateOvfStores(List<Guid> vmAndTemplatesIds) {
+        Set<Guid> ids = new HashSet<>(vmAndTemplatesIds);
+        return domainOvfStoresInfoForUpdate.removeIf(pair -> isUpToDate(pair.getFirst(), ids));
+    }
+
+    private static boolean isUpToDate(StorageDomainOvfInfo storageDomainOvfInfo, Set<Guid> vmAndTemplatesIds) {
+        return storageDomainOvfInfo.getStatus() == StorageDomainOvfInfoStatus.UPDATED
+                && storageDomainOvfInfo.getLastUpdated() != null
+                && storageDomainOvfInfo.getStoredOvfIds() != null
+                && vmAndTemplatesIds.equals(new HashSet<>(storageDomainOvfInfo.getStoredOvfIds()));
+    }
 
+    private boolean updateOvfStores(File ovfInfoFile,
+            List<Guid> vmAndTemplatesIds,
+            boolean upToDateOvfStoreExists) {
         Pair<StorageDomainOvfInfo, DiskImage> lastOvfStoreForUpdate = domainOvfStoresInfoForUpdate.getLast();
 
         // means that the last ovf store was never updated, if it was - we don't want to update
         // it within the loop unless some other ovf store was updated successfully (we use it as best effort backup so
         // we'll
-        // possibly have some ovf data on storage)
-        if (lastOvfStoreForUpdate.getFirst().getLastUpdated() != null) {
+        // possibly have some ovf data on storage). An up to date ovf store already serves as such a backup.
+        if (lastOvfStoreForUpdate.getFirst().getLastUpdated() != null && !upToDateOvfStoreExists) {
             domainOvfStoresInfoForUpdate.removeLast();
         } else {
             lastOvfStoreForUpdate = null;
@@ -301,7 +361,7 @@ public class ProcessOvfUpdateForStorageDomainCommand<T extends ProcessOvfUpdateP
 
         for (Pair<StorageDomainOvfInfo, DiskImage> pair : domainOvfStoresInfoForUpdate) {
             shouldUpdateLastOvfStore |=
-                    performOvfUpdateForDomain(bytes,
+                    performOvfUpdateForDomain(ovfInfoFile,
                             pair.getFirst(),
                             pair.getSecond(),
                             vmAndTemplatesIds);
@@ -310,7 +370,7 @@ public class ProcessOvfUpdateForStorageDomainCommand<T extends ProcessOvfUpdateP
         // if we successfully updated any ovf store, we can attempt to also update the one we kept for best effort
         // backup (if we did)
         if (shouldUpdateLastOvfStore && lastOvfStoreForUpdate != null) {
-            performOvfUpdateForDomain(bytes,
+            performOvfUpdateForDomain(ovfInfoFile,
                     lastOvfStoreForUpdate.getFirst(),
                     lastOvfStoreForUpdate.getSecond(),
                     vmAndTemplatesIds);
@@ -344,7 +404,7 @@ public class ProcessOvfUpdateForStorageDomainCommand<T extends ProcessOvfUpdateP
         runVdsCommand(VDSCommandType.SetVolumeDescription, vdsCommandParameters);
     }
 
-    private boolean performOvfUpdateForDomain(byte[] ovfData,
+    private boolean performOvfUpdateForDomain(File ovfInfoFile,
             StorageDomainOvfInfo storageDomainOvfInfo,
             DiskImage ovfDisk,
             List<Guid> vmAndTemplatesIds) {
@@ -364,20 +424,20 @@ public class ProcessOvfUpdateForStorageDomainCommand<T extends ProcessOvfUpdateP
 
             storageDomainOvfInfoDao.update(storageDomainOvfInfo);
 
-            ByteArrayInputStream byteArrayInputStream =
-                    new ByteArrayInputStream(ovfData);
-
-            Long size = Long.valueOf(ovfData.length);
-            UploadStreamParameters uploadStreamParameters =
-                    new UploadStreamParameters(storagePoolId, storageDomainId,
-                            diskId, volumeId, byteArrayInputStream,
-                            size);
-
-            uploadStreamParameters.setParentCommand(getActionType());
-            uploadStreamParameters.setParentParameters(getParameters());
-            uploadStreamParameters.setEndProcedure(EndProcedure.COMMAND_MANAGED);
-            ActionReturnValue actionReturnValue =
-                    runInternalActionWithTasksContext(ActionType.UploadStream, uploadStreamParameters);
+            Long size = ovfInfoFile.length();
+            ActionReturnValue actionReturnValue;
+            try (InputStream inputStream = new BufferedInputStream(new FileInputStream(ovfInfoFile))) {
+                UploadStreamParameters uploadStreamParameters =
+                        new UploadStreamParameters(storagePoolId, storageDomainId,
+                                diskId, volumeId, inputStream,
+                                size);
+
+                uploadStreamParameters.setParentCommand(getActionType());
+                uploadStreamParameters.setParentParameters(getParameters());
+                uploadStreamParameters.setEndProcedure(EndProcedure.COMMAND_MANAGED);
+                actionReturnValue =
+                        runInternalActionWithTasksContext(ActionType.UploadStream, uploadStreamParameters);
+            }
             if (actionReturnValue.getSucceeded()) {
                 storageDomainOvfInfo.setStatus(StorageDomainOvfInfoStatus.UPDATED);
                 storageDomainOvfInfo.setStoredOvfIds(vmAndTemplatesIds);
@@ -387,7 +447,7 @@ public class ProcessOvfUpdateForStorageDomainCommand<T extends ProcessOvfUpdateP
                 storageDomainOvfInfoDao.update(storageDomainOvfInfo);
                 return true;
             }
-        } catch (EngineException e) {
+        } catch (EngineException | IOException e) {
             log.warn("failed to update domain '{}' ovf store disk '{}'", storageDomainId, diskId);
         }
 
@@ -460,11 +520,11 @@ public class ProcessOvfUpdateForStorageDomainCommand<T extends ProcessOvfUpdateP
         }
     }
 
-    protected Set<Guid> buildFilesForOvfs(List<Pair<Guid, String>> ovfs, InMemoryTar inMemoryTar) throws Exception {
+    protected Set<Guid> buildFilesForOvfs(List<Pair<Guid, String>> ovfs, InMemoryTar tar) throws Exception {
         Set<Guid> addedOvfIds = new HashSet<>();
         for (Pair<Guid, String> pair : ovfs) {
             if (pair.getSecond() != null) {
-                inMemoryTar.addTarEntry(pair.getSecond().getBytes(), pair.getFirst() + ".ovf");
+                tar.addTarEntry(pair.getSecond().getBytes(), pair.getFirst() + ".ovf");
                 addedOvfIds.add(pair.getFirst());
             }
         }
@@ -8,7 +8,11 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
@@ -32,9 +36,11 @@ import org.ovirt.engine.core.common.businessentities.StorageDomainStatus;
 import org.ovirt.engine.core.common.businessentities.StoragePool;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.businessentities.VMStatus;
+import org.ovirt.engine.core.common.businessentities.VmDevice;
 import org.ovirt.engine.core.common.businessentities.VmTemplate;
 import org.ovirt.engine.core.common.businessentities.VmTemplateStatus;
 import org.ovirt.engine.core.common.businessentities.aaa.DbUser;
+import org.ovirt.engine.core.common.businessentities.storage.BaseDisk;
 import org.ovirt.engine.core.common.businessentities.storage.DiskImage;
 import org.ovirt.engine.core.common.businessentities.storage.FullEntityOvfData;
 import org.ovirt.engine.core.common.businessentities.storage.ImageStatus;
@@ -56,9 +62,11 @@ import org.ovirt.engine.core.dao.StorageDomainOvfInfoDao;
 import org.ovirt.engine.core.dao.StorageServerConnectionDao;
 import org.ovirt.engine.core.dao.VmAndTemplatesGenerationsDao;
 import org.ovirt.engine.core.dao.VmDao;
+import org.ovirt.engine.core.dao.VmDeviceDao;
 import org.ovirt.engine.core.dao.VmStaticDao;
 import org.ovirt.engine.core.dao.VmTemplateDao;
 import org.ovirt.engine.core.dao.scheduling.AffinityGroupDao;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 
 @NonTransactiveCommandAttribute
 @InternalCommandAttribute
@@ -94,8 +102,13 @@ public class ProcessOvfUpdateForStoragePoolCommand <T extends ProcessOvfUpdatePa
     private DbUserDao dbUserDao;
     @Inject
     private OvfHelper ovfHelper;
+    @Inject
+    private VmDeviceDao vmDeviceDao;
+    @Inject
+    private OvfUpdateStatistics ovfUpdateStatistics;
 
     private int itemsCountPerUpdate;
+    private int ovfUpdateParallelism;
     private List<Guid> proccessedIdsInfo;
     private List<Long> proccessedOvfGenerationsInfo;
     private List<String> proccessedOvfConfigurationsInfo;
@@ -111,8 +124,21 @@ public class ProcessOvfUpdateForStoragePoolCommand <T extends ProcessOvfUpdatePa
     @Override
     protected void executeCommand() {
         itemsCountPerUpdate = Config.getValue(ConfigValues.OvfItemsCountPerUpdate);
+        ovfUpdateParallelism = Config.getValue(ConfigValues.OvfUpdateParallelism);
         proccessedDomains = new HashSet<>();
         StoragePool pool = getStoragePool();
+        ovfUpdateStatistics.updateStarted(pool);
+        try {
+            updateOvfsOfStoragePool(pool);
+        } finally {
+            ovfUpdateStatistics.updateFinished(pool.getId());
+        }
+
+        getReturnValue().setActionReturnValue(proccessedDomains);
+        setSucceeded(true);
+    }
+
+    private void updateOvfsOfStoragePool(StoragePool pool) {
         proccessDomainsForOvfUpdate(pool);
 
         log.info("Attempting to update VM OVFs in Data Center '{}'", pool.getName());
@@ -131,9 +157,6 @@ public class ProcessOvfUpdateForStoragePoolCommand <T extends ProcessOvfUpdatePa
         removeOvfForTemplatesAndVmsOfStoragePool(pool);
 
         log.info("Successfully removed unneeded template/vm OVFs in Data Center '{}'", pool.getName());
-
-        getReturnValue().setActionReturnValue(proccessedDomains);
-        setSucceeded(true);
     }
 
     @Override
@@ -177,6 +200,7 @@ public class ProcessOvfUpdateForStoragePoolCommand <T extends ProcessOvfUpdatePa
     protected void updateOvfForVmsOfStoragePool(StoragePool pool) {
         Guid poolId = pool.getId();
         List<Guid> vmsIdsForUpdate = vmAndTemplatesGenerationsDao.getVmsIdsForOvfUpdate(poolId);
+        ovfUpdateStatistics.itemsToUpdate(poolId, vmsIdsForUpdate.size());
         int i = 0;
         while (i < vmsIdsForUpdate.size()) {
             int size = Math.min(itemsCountPerUpdate, vmsIdsForUpdate.size() - i);
@@ -234,28 +258,27 @@ public class ProcessOvfUpdateForStoragePoolCommand <T extends ProcessOvfUpdatePa
      * Creates and returns a map containing valid templates metadata
      */
     protected Map<Guid, KeyValuePairCompat<String, List<Guid>>> populateTemplatesMetadataForOvfUpdate(List<Guid> idsToProcess) {
-        Map<Guid, KeyValuePairCompat<String, List<Guid>>> vmsAndTemplateMetadata = new HashMap<>();
-        List<VmTemplate> templates = vmTemplateDao.getVmTemplatesByIds(idsToProcess);
-
-        for (VmTemplate template : templates) {
-            if (VmTemplateStatus.Locked != template.getStatus()) {
-                updateTemplateDisksFromDb(template);
-                boolean verifyDisksNotLocked = verifyImagesStatus(template.getDiskList());
-                if (verifyDisksNotLocked) {
-                    ovfUpdateProcessHelper.loadTemplateData(template);
-                    Long currentDbGeneration = vmStaticDao.getDbGeneration(template.getId());
-                    // currentDbGeneration can be null in case that the template was deleted during the run of OvfDataUpdater.
-                    if (currentDbGeneration != null && template.getDbGeneration() == currentDbGeneration) {
-                        proccessedOvfConfigurationsInfo.add(ovfUpdateProcessHelper.buildMetadataDictionaryForTemplate(template, vmsAndTemplateMetadata));
-                        proccessedIdsInfo.add(template.getId());
-                        proccessedOvfGenerationsInfo.add(template.getDbGeneration());
-                        proccessDisksDomains(template.getDiskList());
-                    }
-                }
+        List<VmTemplate> templates = vmTemplateDao.getVmTemplatesByIds(idsToProcess)
+                .stream()
+                .filter(template -> VmTemplateStatus.Locked != template.getStatus())
+                .collect(Collectors.toList());
+        Map<Guid, List<VmDevice>> devices = getDevicesByEntityId(templates, VmTemplate::getId);
+
+        List<GeneratedOvf> generatedOvfs = generateOvfs(templates, template -> {
+            updateTemplateDisksFromDb(template);
+            if (!verifyImagesStatus(template.getDiskList())) {
+                return null;
             }
-        }
-
-        return vmsAndTemplateMetadata;
+            ovfUpdateProcessHelper.loadTemplateData(template,
+                    devices.getOrDefault(template.getId(), Collections.emptyList()));
+            return new GeneratedOvf(template.getId(),
+                    template.getDbGeneration(),
+                    ovfUpdateProcessHelper.generateTemplateMetadata(template),
+                    template.getDiskList(),
+                    template.getDiskList());
+        });
+
+        return collectGeneratedOvfs(idsToProcess.size(), generatedOvfs, "template");
     }
 
     protected void updateTemplateDisksFromDb(VmTemplate template) {
@@ -277,6 +300,7 @@ public class ProcessOvfUpdateForStoragePoolCommand <T extends ProcessOvfUpdatePa
     protected void updateOvfForTemplatesOfStoragePool(StoragePool pool) {
         Guid poolId = pool.getId();
         List<Guid> templateIdsForUpdate = vmAndTemplatesGenerationsDao.getVmTemplatesIdsForOvfUpdate(poolId);
+        ovfUpdateStatistics.itemsToUpdate(poolId, templateIdsForUpdate.size());
         int i = 0;
         while (i < templateIdsForUpdate.size()) {
             int size = Math.min(templateIdsForUpdate.size() - i, itemsCountPerUpdate);
@@ -320,56 +344,128 @@ public class ProcessOvfUpdateForStoragePoolCommand <T extends ProcessOvfUpdatePa
      * Create and returns map contains valid vms metadata
      */
     protected Map<Guid, KeyValuePairCompat<String, List<Guid>>> populateVmsMetadataForOvfUpdate(List<Guid> idsToProcess) {
-        Map<Guid, KeyValuePairCompat<String, List<Guid>>> vmsAndTemplateMetadata = new HashMap<>();
-        List<VM> vms = vmDao.getVmsByIds(idsToProcess);
-        for (VM vm : vms) {
-            if (VMStatus.ImageLocked != vm.getStatus()) {
-                updateVmDisksFromDb(vm);
-                if (!verifyImagesStatus(vm.getDiskList())) {
-                    continue;
-                }
-                ArrayList<DiskImage> vmImages = ovfUpdateProcessHelper.getVmImagesFromDb(vm);
-                if (!verifyImagesStatus(vmImages)) {
-                    continue;
-                }
-                vm.setSnapshots(snapshotDao.getAllWithConfiguration(vm.getId()));
-                if (!verifySnapshotsStatus(vm.getSnapshots())) {
-                    continue;
-                }
+        List<VM> vms = vmDao.getVmsByIds(idsToProcess)
+                .stream()
+                .filter(vm -> VMStatus.ImageLocked != vm.getStatus())
+                .collect(Collectors.toList());
+        Map<Guid, List<VmDevice>> devices = getDevicesByEntityId(vms, VM::getId);
+        Map<Guid, List<Snapshot>> snapshots = vms.isEmpty() ? Collections.emptyMap() :
+                snapshotDao.getAllWithConfiguration(vms.stream().map(VM::getId).collect(Collectors.toList()))
+                        .stream()
+                        .collect(Collectors.groupingBy(Snapshot::getVmId));
+
+        List<GeneratedOvf> generatedOvfs = generateOvfs(vms, vm -> {
+            updateVmDisksFromDb(vm);
+            if (!verifyImagesStatus(vm.getDiskList())) {
+                return null;
+            }
+            ArrayList<DiskImage> vmImages = ovfUpdateProcessHelper.getVmImagesFromDb(vm);
+            if (!verifyImagesStatus(vmImages)) {
+                return null;
+            }
+            vm.setSnapshots(snapshots.getOrDefault(vm.getId(), new ArrayList<>()));
+            if (!verifySnapshotsStatus(vm.getSnapshots())) {
+                return null;
+            }
 
-                ovfUpdateProcessHelper.loadVmData(vm);
-                Long currentDbGeneration = vmStaticDao.getDbGeneration(vm.getId());
-                if (currentDbGeneration == null) {
-                    log.warn("currentDbGeneration of VM (name: '{}', id: '{}') is null, probably because the VM was deleted during the run of OvfDataUpdater.",
-                            vm.getName(),
-                            vm.getId());
-                    continue;
-                }
-                if (vm.getStaticData().getDbGeneration() == currentDbGeneration) {
-                    List<LunDisk> lunDisks = DisksFilter.filterLunDisks(vm.getDiskMap().values());
-                    for (LunDisk lun : lunDisks) {
-                        lun.getLun().setLunConnections(storageServerConnectionDao.getAllForLun(lun.getLun().getId()));
-                    }
-
-                    List<AffinityGroup> affinityGroups = affinityGroupDao.getAllAffinityGroupsByVmId(vm.getId());
-                    List<Label> affinityLabels = labelDao.getAllByEntityIds(Collections.singletonList(vm.getId()));
-                    Set<DbUser> dbUsers = new HashSet<>(dbUserDao.getAllForVm(vm.getId()));
-                    FullEntityOvfData fullEntityOvfData = new FullEntityOvfData(vm);
-                    fullEntityOvfData.setDiskImages(vmImages);
-                    fullEntityOvfData.setLunDisks(lunDisks);
-                    fullEntityOvfData.setAffinityGroups(affinityGroups);
-                    fullEntityOvfData.setAffinityLabels(affinityLabels);
-                    fullEntityOvfData.setDbUsers(dbUsers);
-                    ovfHelper.populateUserToRoles(fullEntityOvfData, vm.getId());
-                    proccessedOvfConfigurationsInfo.add(ovfUpdateProcessHelper.buildMetadataDictionaryForVm(vm,
-                            vmsAndTemplateMetadata,
-                            fullEntityOvfData));
-                    proccessedIdsInfo.add(vm.getId());
-                    proccessedOvfGenerationsInfo.add(vm.getStaticData().getDbGeneration());
-                    proccessDisksDomains(vm.getDiskList());
-                }
+            ovfUpdateProcessHelper.loadVmData(vm, devices.getOrDefault(vm.getId(), Collections.emptyList()));
+            List<LunDisk> lunDisks = DisksFilter.filterLunDisks(vm.getDiskMap().values());
+            for (LunDisk lun : lunDisks) {
+                lun.getLun().setLunConnections(storageServerConnectionDao.getAllForLun(lun.getLun().getId()));
+            }
+
+            List<AffinityGroup> affinityGroups = affinityGroupDao.getAllAffinityGroupsByVmId(vm.getId());
+            List<Label> affinityLabels = labelDao.getAllByEntityIds(Collections.singletonList(vm.getId()));
+            Set<DbUser> dbUsers = new HashSet<>(dbUserDao.getAllForVm(vm.getId()));
+            FullEntityOvfData fullEntityOvfData = new FullEntityOvfData(vm);
+            fullEntityOvfData.setDiskImages(vmImages);
+            fullEntityOvfData.setLunDisks(lunDisks);
+            fullEntityOvfData.setAffinityGroups(affinityGroups);
+            fullEntityOvfData.setAffinityLabels(affinityLabels);
+            fullEntityOvfData.setDbUsers(dbUsers);
+            ovfHelper.populateUserToRoles(fullEntityOvfData, vm.getId());
+            return new GeneratedOvf(vm.getId(),
+                    vm.getStaticData().getDbGeneration(),
+                    ovfUpdateProcessHelper.generateVmMetadata(vm, fullEntityOvfData),
+                    vm.getDiskMap().values(),
+                    vm.getDiskList());
+        });
+
+        return collectGeneratedOvfs(idsToProcess.size(), generatedOvfs, "VM");
+    }
+
+    private <E> Map<Guid, List<VmDevice>> getDevicesByEntityId(List<E> entities, Function<E, Guid> idGetter) {
+        if (entities.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return vmDeviceDao.getVmDevicesByVmIds(entities.stream().map(idGetter).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.groupingBy(VmDevice::getVmId));
+    }
+
+    /**
+     * Generates the OVFs of the given VMs/templates by up to {@link ConfigValues#OvfUpdateParallelism} threads, each
+     * of them handles a consecutive part of the entities.
+     *
+     * @param generator generates the OVF of a single entity, or returns {@code null} if the entity is skipped
+     * @return the generated OVFs, in the order of the given entities
+     */
+    private <E> List<GeneratedOvf> generateOvfs(List<E> entities, Function<E, GeneratedOvf> generator) {
+        int parallelism = Math.max(1, Math.min(ovfUpdateParallelism, entities.size()));
+        if (parallelism == 1) {
+            return generateOvfsOfPart(entities, generator);
+        }
+
+        int partSize = (entities.size() + parallelism - 1) / parallelism;
+        List<Callable<List<GeneratedOvf>>> tasks = new ArrayList<>(parallelism);
+        for (int i = 0; i < entities.size(); i += partSize) {
+            List<E> part = entities.subList(i, Math.min(i + partSize, entities.size()));
+            tasks.add(() -> generateOvfsOfPart(part, generator));
+        }
+        return ThreadPoolUtil.invokeAll(tasks)
+                .stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    private <E> List<GeneratedOvf> generateOvfsOfPart(List<E> entities, Function<E, GeneratedOvf> generator) {
+        return entities.stream()
+                .map(generator)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Adds the generated OVFs of VMs/templates that were not changed while their OVFs were generated to the processed
+     * info and returns them as a metadata map.
+     */
+    private Map<Guid, KeyValuePairCompat<String, List<Guid>>> collectGeneratedOvfs(int processedCount,
+            List<GeneratedOvf> generatedOvfs,
+            String entityType) {
+        Map<Guid, KeyValuePairCompat<String, List<Guid>>> vmsAndTemplateMetadata = new HashMap<>();
+        Map<Guid, Long> currentDbGenerations = generatedOvfs.isEmpty() ? Collections.emptyMap() :
+                vmStaticDao.getDbGenerations(generatedOvfs.stream().map(ovf -> ovf.id).collect(Collectors.toList()));
+        for (GeneratedOvf generatedOvf : generatedOvfs) {
+            Long currentDbGeneration = currentDbGenerations.get(generatedOvf.id);
+            // currentDbGeneration can be null in case that the vm/template was deleted during the run of OvfDataUpdater.
+            if (currentDbGeneration == null) {
+                log.warn("currentDbGeneration of {} '{}' is null, probably because it was deleted during the run of OvfDataUpdater.",
+                        entityType,
+                        generatedOvf.id);
+                continue;
+            }
+            if (generatedOvf.dbGeneration == currentDbGeneration) {
+                vmsAndTemplateMetadata.put(generatedOvf.id,
+                        new KeyValuePairCompat<>(generatedOvf.ovf, generatedOvf.diskIds));
+                proccessedOvfConfigurationsInfo.add(generatedOvf.ovf);
+                proccessedIdsInfo.add(generatedOvf.id);
+                proccessedOvfGenerationsInfo.add(generatedOvf.dbGeneration);
+                proccessDisksDomains(generatedOvf.disks);
             }
         }
+        ovfUpdateStatistics.itemsProcessed(getStoragePool().getId(),
+                vmsAndTemplateMetadata.size(),
+                processedCount - vmsAndTemplateMetadata.size());
         return vmsAndTemplateMetadata;
     }
 
@@ -393,6 +489,30 @@ public class ProcessOvfUpdateForStoragePoolCommand <T extends ProcessOvfUpdatePa
         proccessedOvfConfigurationsInfo = new LinkedList<>();
     }
 
+    /**
+     * The OVF of a single VM/template, generated for the VM/template as it was in the given db generation
+     */
+    private static class GeneratedOvf {
+
+        private final Guid id;
+        private final long dbGeneration;
+        private final String ovf;
+        private final List<Guid> diskIds;
+        private final List<DiskImage> disks;
+
+        public GeneratedOvf(Guid id,
+                long dbGeneration,
+                String ovf,
+                Collection<? extends BaseDisk> allDisks,
+                List<DiskImage> disks) {
+            this.id = id;
+            this.dbGeneration = dbGeneration;
+            this.ovf = ovf;
+            this.diskIds = allDisks.stream().map(BaseDisk::getId).collect(Collectors.toList());
+            this.disks = disks;
+        }
+    }
+
     @Override
     protected LockProperties applyLockProperties(LockProperties lockProperties) {
         return lockProperties.withScope(LockProperties.Scope.Execution).withWait(true);
@@ -6,17 +6,20 @@ class CallbackTiming {
     // Total delay between callback executions
     private long initialDelay;
 
-    // Remaining delay to next callback execution
-    private long remainingDelay;
+    // The time of the next callback execution, as returned by System.nanoTime()
+    private long nextExecutionTime;
     private CommandCallback callback;
 
     // the end-time, where the callback shouldn't wait for the event any longer and change to polling mode
     private long waitOnEventEndTime;
 
+    // whether the callback is being executed, and whether it was woken up while being executed
+    private boolean executing;
+    private boolean wakeUpRequested;
+
     public CallbackTiming(CommandCallback callback, long executionDelay) {
         this.callback = callback;
         this.initialDelay = executionDelay;
-        this.remainingDelay = executionDelay;
     }
 
     public long getInitialDelay() {
@@ -27,8 +30,12 @@ class CallbackTiming {
         this.initialDelay = initialDelay;
     }
 
-    public long getRemainingDelay() {
-        return remainingDelay;
+    public long getNextExecutionTime() {
+        return nextExecutionTime;
+    }
+
+    public void setNextExecutionTime(long nextExecutionTime) {
+        this.nextExecutionTime = nextExecutionTime;
     }
 
     public void setWaitOnEventEndTime(long waitOnEventEndTime) {
@@ -39,8 +46,20 @@ class CallbackTiming {
         return waitOnEventEndTime;
     }
 
-    public void setRemainingDelay(long remainingDelay) {
-        this.remainingDelay = remainingDelay;
+    public boolean isExecuting() {
+        return executing;
+    }
+
+    public void setExecuting(boolean executing) {
+        this.executing = executing;
+    }
+
+    public boolean isWakeUpRequested() {
+        return wakeUpRequested;
+    }
+
+    public void setWakeUpRequested(boolean wakeUpRequested) {
+        this.wakeUpRequested = wakeUpRequested;
     }
 
     public CommandCallback getCallback() {
@@ -75,6 +75,7 @@ public class CoCoEventSubscriber extends EventSubscriber {
             if (commandEntityFromCache != null) {
                 commandEntityFromCache.setWaitingForEvent(false);
             }
+            commandsRepository.wakeUpCallback(cmdId);
         }
     }
 }
@@ -1,15 +1,19 @@
 package org.ovirt.engine.core.bll.tasks;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import javax.annotation.PostConstruct;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.enterprise.concurrent.ManagedScheduledExecutorService;
 import javax.inject.Inject;
 
@@ -32,6 +36,10 @@ public class CommandCallbacksPoller implements BackendService {
     @ThreadPools(ThreadPools.ThreadPoolType.EngineScheduledThreadPool)
     private ManagedScheduledExecutorService executor;
 
+    @Inject
+    @ThreadPools(ThreadPools.ThreadPoolType.CoCo)
+    private ManagedExecutorService callbacksExecutor;
+
     private static final Logger log = LoggerFactory.getLogger(CommandCallbacksPoller.class);
     private long pollingRate;
 
@@ -42,16 +50,28 @@ public class CommandCallbacksPoller implements BackendService {
 
     private int repeatEndMethodsOnFailMaxRetries;
 
+    private CallbacksLane[] lanes;
+
+    private final AtomicBoolean dispatchRequested = new AtomicBoolean();
+
     @PostConstruct
     private void init() {
         log.info("Start initializing {}", getClass().getSimpleName());
         pollingRate = Config.<Long>getValue(ConfigValues.AsyncCommandPollingLoopInSeconds);
         repeatEndMethodsOnFailMaxRetries = Config.<Integer>getValue(ConfigValues.RepeatEndMethodsOnFailMaxRetries);
+        lanes = IntStream.range(0, Config.<Integer>getValue(ConfigValues.CoCoCallbackLanes))
+                .mapToObj(i -> new CallbacksLane())
+                .toArray(CallbacksLane[]::new);
+        commandsRepository.setCallbacksWakeUpListener(this::requestDispatch);
         initCommandExecutor();
         executor.scheduleWithFixedDelay(this::invokeCallbackMethods,
                 pollingRate,
                 pollingRate,
                 TimeUnit.SECONDS);
+        executor.scheduleWithFixedDelay(this::markExpiredCommandsAsFailure,
+                1,
+                1,
+                TimeUnit.MINUTES);
         log.info("Finished initializing {}", getClass().getSimpleName());
     }
 
@@ -102,6 +122,16 @@ public class CommandCallbacksPoller implements BackendService {
         return new ArrayList<>(commandsRepository.getChildCommandIds(cmdId));
     }
 
+    /**
+     * Requests the callbacks which were woken up to be dispatched without waiting for the next polling, requests
+     * which arrive before the pending dispatch starts are served by it.
+     */
+    private void requestDispatch() {
+        if (dispatchRequested.compareAndSet(false, true)) {
+            executor.execute(this::invokeCallbackMethods);
+        }
+    }
+
     private void invokeCallbackMethods() {
         try {
             invokeCallbackMethodsImpl();
@@ -112,78 +142,105 @@ public class CommandCallbacksPoller implements BackendService {
     }
 
     private void invokeCallbackMethodsImpl() {
-        Iterator<Entry<Guid, CallbackTiming>> iterator = commandsRepository.getCallbacksTiming().entrySet().iterator();
-        while (iterator.hasNext()) {
-            Entry<Guid, CallbackTiming> entry = iterator.next();
-
-            Guid cmdId = entry.getKey();
-            CallbackTiming callbackTiming = entry.getValue();
-            CommandEntity commandEntity = commandsRepository.getCommandEntity(cmdId);
-            CorrelationIdTracker.setCorrelationId(commandEntity != null
-                    ? commandEntity.getCommandParameters().getCorrelationId() : null);
-            if (commandEntity != null && updateCommandWaitingForEvent(commandEntity, callbackTiming)) {
-                continue;
-            }
+        dispatchRequested.set(false);
+        for (Guid cmdId : commandsRepository.pollDueCallbacks()) {
+            getLane(cmdId).submit(cmdId);
+        }
+    }
 
-            // Decrement counter; execute if it reaches 0
-            callbackTiming.setRemainingDelay(callbackTiming.getRemainingDelay() - pollingRate);
-            if (callbackTiming.getRemainingDelay() > 0) {
-                continue;
-            }
+    /**
+     * The callbacks of commands that share the same root command are invoked by the same lane, so they are never
+     * invoked concurrently and the order in which they became due is kept.
+     */
+    private CallbacksLane getLane(Guid cmdId) {
+        CommandEntity commandEntity = commandsRepository.getCommandEntity(cmdId);
+        Guid laneKey = commandEntity != null && !Guid.isNullOrEmpty(commandEntity.getRootCommandId())
+                ? commandEntity.getRootCommandId()
+                : cmdId;
+        return lanes[Math.floorMod(laneKey.hashCode(), lanes.length)];
+    }
 
-            CommandCallback callback = callbackTiming.getCallback();
-            CommandStatus status = commandsRepository.getCommandStatus(cmdId);
-            boolean runCallbackAgain = false;
-            boolean errorInCallback = false;
-            try {
-                switch (status) {
-                    case FAILED:
-                    case SUCCEEDED:
-                        runCallbackAgain = endCallback(cmdId, callback, status);
-                        break;
-                    case ACTIVE:
-                        if (commandEntity != null && commandEntity.isExecuted()) {
-                            callback.doPolling(cmdId, getChildCommandIds(cmdId));
-                        }
-                        break;
-                    case EXECUTION_FAILED:
-                        if (callback.pollOnExecutionFailed()) {
-                            callback.doPolling(cmdId, getChildCommandIds(cmdId));
-                        }
-                        break;
-                    default:
-                        break;
-                }
-            } catch (Exception ex) {
-                errorInCallback = true;
-                handleError(ex, status, cmdId);
-            } finally {
-                if ((CommandStatus.FAILED == status || (CommandStatus.SUCCEEDED == status && !errorInCallback))
-                        && !runCallbackAgain) {
-                    commandsRepository.updateCallbackNotified(cmdId);
-                    iterator.remove();
-                    CommandEntity cmdEntity = commandsRepository.getCommandEntity(entry.getKey());
-                    if (cmdEntity != null) {
-                        // When a child finishes, its parent's callback should execute shortly thereafter
-                        CallbackTiming rootCmdContainer =
-                                commandsRepository.getCallbackTiming(cmdEntity.getRootCommandId());
-                        if (rootCmdContainer != null) {
-                            rootCmdContainer.setInitialDelay(pollingRate);
-                            rootCmdContainer.setRemainingDelay(pollingRate);
-                        }
+    private void invokeCallback(Guid cmdId) {
+        try {
+            invokeCallbackImpl(cmdId);
+        } catch (Throwable t) {
+            log.error("Exception in invokeCallbackMethods: {}", ExceptionUtils.getRootCauseMessage(t));
+            log.debug("Exception", t);
+            commandsRepository.scheduleCallback(cmdId, pollingRate);
+        } finally {
+            CorrelationIdTracker.setCorrelationId(null);
+        }
+    }
+
+    private void invokeCallbackImpl(Guid cmdId) {
+        CallbackTiming callbackTiming = commandsRepository.getCallbackTiming(cmdId);
+        if (callbackTiming == null) {
+            return;
+        }
+
+        CommandEntity commandEntity = commandsRepository.getCommandEntity(cmdId);
+        CorrelationIdTracker.setCorrelationId(commandEntity != null
+                ? commandEntity.getCommandParameters().getCorrelationId() : null);
+        if (commandEntity != null && updateCommandWaitingForEvent(commandEntity, callbackTiming)) {
+            // the arrival of the event wakes the callback up
+            long remainingWait = callbackTiming.getWaitOnEventEndTime() - System.currentTimeMillis();
+            commandsRepository.scheduleCallback(cmdId,
+                    Math.max(pollingRate, TimeUnit.MILLISECONDS.toSeconds(remainingWait) + 1));
+            return;
+        }
+
+        CommandCallback callback = callbackTiming.getCallback();
+        CommandStatus status = commandsRepository.getCommandStatus(cmdId);
+        boolean runCallbackAgain = false;
+        boolean errorInCallback = false;
+        try {
+            switch (status) {
+                case FAILED:
+                case SUCCEEDED:
+                    runCallbackAgain = endCallback(cmdId, callback, status);
+                    break;
+                case ACTIVE:
+                    if (commandEntity != null && commandEntity.isExecuted()) {
+                        callback.doPolling(cmdId, getChildCommandIds(cmdId));
                     }
-                } else if (status != commandsRepository.getCommandStatus(cmdId)) {
-                    callbackTiming.setInitialDelay(pollingRate);
-                    callbackTiming.setRemainingDelay(pollingRate);
-                } else {
-                    long maxDelay = Config.<Long>getValue(ConfigValues.AsyncCommandPollingRateInSeconds);
-                    callbackTiming.setInitialDelay(Math.min(maxDelay, callbackTiming.getInitialDelay() * 2));
-                    callbackTiming.setRemainingDelay(callbackTiming.getInitialDelay());
+                    break;
+                case EXECUTION_FAILED:
+                    if (callback.pollOnExecutionFailed()) {
+                        callback.doPolling(cmdId, getChildCommandIds(cmdId));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (Exception ex) {
+            errorInCallback = true;
+            handleError(ex, status, cmdId);
+        } finally {
+            if ((CommandStatus.FAILED == status || (CommandStatus.SUCCEEDED == status && !errorInCallback))
+                    && !runCallbackAgain) {
+                commandsRepository.updateCallbackNotified(cmdId);
+                commandsRepository.removeFromCallbackMap(cmdId);
+                CommandEntity cmdEntity = commandsRepository.getCommandEntity(cmdId);
+                if (cmdEntity != null) {
+                    // When a child finishes, its parent's callback should execute right away
+                    commandsRepository.wakeUpCallback(cmdEntity.getRootCommandId());
                 }
+            } else if (status != commandsRepository.getCommandStatus(cmdId)) {
+                commandsRepository.resetCallbackBackOff(cmdId, pollingRate);
+            } else {
+                commandsRepository.backOffCallback(cmdId,
+                        Config.<Long>getValue(ConfigValues.AsyncCommandPollingRateInSeconds));
             }
         }
-        CorrelationIdTracker.setCorrelationId(null);
-        commandsRepository.markExpiredCommandsAsFailure();
+    }
+
+    private void markExpiredCommandsAsFailure() {
+        try {
+            commandsRepository.markExpiredCommandsAsFailure();
+        } catch (Throwable t) {
+            log.error("Exception in markExpiredCommandsAsFailure: {}", ExceptionUtils.getRootCauseMessage(t));
+            log.debug("Exception", t);
+        }
     }
 
     private void handleError(Exception ex, CommandStatus status, Guid cmdId) {
@@ -250,4 +307,35 @@ public class CommandCallbacksPoller implements BackendService {
         }
         return false;
     }
+
+    /**
+     * Invokes the callbacks submitted to it one at a time, in the order they were submitted, on the thread pool of the
+     * command coordinator.
+     */
+    private class CallbacksLane {
+        private final Queue<Guid> cmdIds = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        void submit(Guid cmdId) {
+            cmdIds.add(cmdId);
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    callbacksExecutor.execute(this::drain);
+                } catch (RejectedExecutionException ex) {
+                    log.warn("The callbacks thread pool is exhausted, invoking the callbacks on the polling thread");
+                    drain();
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                Guid cmdId;
+                while ((cmdId = cmdIds.poll()) != null) {
+                    invokeCallback(cmdId);
+                }
+                draining.set(false);
+            } while (!cmdIds.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
 }
@@ -2,52 +2,121 @@ package org.ovirt.engine.core.bll.tasks;
 
 import java.io.Serializable;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+import javax.annotation.PostConstruct;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.transaction.Transaction;
 
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang.exception.ExceptionUtils;
 import org.ovirt.engine.core.common.businessentities.CommandAssociatedEntity;
 import org.ovirt.engine.core.common.businessentities.CommandEntity;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.compat.CommandStatus;
 import org.ovirt.engine.core.compat.DateTime;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dao.CommandEntityDao;
+import org.ovirt.engine.core.utils.threadpool.ThreadPools;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
-
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the commands in memory. The parameters and the return values of the commands, which are most of their size,
+ * are not read at startup and are dropped once a command has ended for
+ * {@link ConfigValues#CommandEntityPayloadCacheInMinutes}, they are read from the database when they are accessed.
+ */
 @Singleton
 public class CommandsCacheImpl implements CommandsCache {
 
-    private Map<Guid, CommandEntity> commandMap;
+    private static final Logger log = LoggerFactory.getLogger(CommandsCacheImpl.class);
+
+    private final Map<Guid, CommandEntity> commandMap;
+    private final Map<Guid, Long> endTimes = new ConcurrentHashMap<>();
     private volatile boolean cacheInitialized;
     private Object LOCK = new Object();
 
     @Inject
     private CommandEntityDao commandEntityDao;
 
+    @Inject
+    @ThreadPools(ThreadPools.ThreadPoolType.EngineScheduledThreadPool)
+    private ManagedScheduledExecutorService executor;
+
     public CommandsCacheImpl() {
-        commandMap = new HashMap<>();
+        commandMap = new ConcurrentHashMap<>();
+    }
+
+    @PostConstruct
+    void init() {
+        executor.scheduleWithFixedDelay(this::unloadEndedCommandsPayload, 1, 1, TimeUnit.MINUTES);
     }
 
     private void initializeCache() {
         if (!cacheInitialized) {
             synchronized(LOCK) {
                 if (!cacheInitialized) {
-                    List<CommandEntity> cmdEntities = commandEntityDao.getAll();
-                    for (CommandEntity cmdEntity : cmdEntities) {
+                    commandEntityDao.forEachWithoutPayload(cmdEntity -> {
+                        cmdEntity.unloadPayload(payloadLoader(cmdEntity.getId()));
                         commandMap.put(cmdEntity.getId(), cmdEntity);
-                    }
+                        trackEnd(cmdEntity);
+                    });
                     cacheInitialized = true;
                 }
             }
         }
     }
 
+    private Supplier<CommandEntity> payloadLoader(Guid commandId) {
+        return () -> commandEntityDao.get(commandId);
+    }
+
+    private void unloadEndedCommandsPayload() {
+        try {
+            if (!cacheInitialized) {
+                return;
+            }
+            long cutoff = System.currentTimeMillis()
+                    - TimeUnit.MINUTES.toMillis(Config.<Integer>getValue(ConfigValues.CommandEntityPayloadCacheInMinutes));
+            endTimes.forEach((commandId, endTime) -> {
+                CommandEntity cmdEntity = commandMap.get(commandId);
+                if (endTime <= cutoff && cmdEntity != null && cmdEntity.isPayloadLoaded()) {
+                    cmdEntity.unloadPayload(payloadLoader(commandId));
+                }
+            });
+        } catch (Throwable t) {
+            log.error("Exception in unloadEndedCommandsPayload: {}", ExceptionUtils.getRootCauseMessage(t));
+            log.debug("Exception", t);
+        }
+    }
+
+    /**
+     * Records when the cache saw the command end, the commands that ended before the cache was initialized are
+     * considered to end at that time
+     */
+    private void trackEnd(CommandEntity cmdEntity) {
+        if (isEnded(cmdEntity)) {
+            endTimes.putIfAbsent(cmdEntity.getId(), System.currentTimeMillis());
+        } else {
+            endTimes.remove(cmdEntity.getId());
+        }
+    }
+
+    private static boolean isEnded(CommandEntity cmdEntity) {
+        return cmdEntity.isCallbackNotified()
+                || cmdEntity.getCommandStatus() == CommandStatus.ENDED_SUCCESSFULLY
+                || cmdEntity.getCommandStatus() == CommandStatus.ENDED_WITH_FAILURE;
+    }
+
     @Override
     public Set<Guid> keySet() {
         initializeCache();
@@ -63,12 +132,14 @@ public class CommandsCacheImpl implements CommandsCache {
     @Override
     public void remove(final Guid commandId) {
         commandMap.remove(commandId);
+        endTimes.remove(commandId);
         commandEntityDao.remove(commandId);
     }
 
     @Override
     public void put(final CommandEntity cmdEntity) {
         commandMap.put(cmdEntity.getId(), cmdEntity);
+        trackEnd(cmdEntity);
         saveOrUpdateWithoutTransaction(cmdEntity);
     }
 
@@ -84,7 +155,13 @@ public class CommandsCacheImpl implements CommandsCache {
         final CommandEntity cmdEntity = get(commandId);
         if (cmdEntity != null) {
             cmdEntity.setCommandStatus(status);
-            saveOrUpdateWithoutTransaction(cmdEntity);
+            trackEnd(cmdEntity);
+            if (cmdEntity.isPayloadLoaded()) {
+                saveOrUpdateWithoutTransaction(cmdEntity);
+            } else {
+                // there are no changes in memory but the status, no need to read the payload in order to write it back
+                updateStatusWithoutTransaction(commandId, status);
+            }
         }
     }
 
@@ -117,11 +194,23 @@ public class CommandsCacheImpl implements CommandsCache {
         }
     }
 
+    private void updateStatusWithoutTransaction(Guid commandId, CommandStatus status) {
+        Transaction transaction = TransactionSupport.suspend();
+        try {
+            commandEntityDao.updateStatus(commandId, status);
+        } finally {
+            if (transaction != null) {
+                TransactionSupport.resume(transaction);
+            }
+        }
+    }
+
     @Override
     public void updateCallbackNotified(final Guid commandId) {
         CommandEntity cmdEntity = get(commandId);
         if (cmdEntity != null) {
             cmdEntity.setCallbackNotified(true);
+            trackEnd(cmdEntity);
             commandEntityDao.updateNotified(commandId);
         }
     }
@@ -11,6 +11,8 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -41,6 +43,8 @@ public class CommandsRepository {
 
     private static final Logger log = LoggerFactory.getLogger(CommandsRepository.class);
     private final ConcurrentMap<Guid, CallbackTiming> callbacksTiming;
+    private final DelayQueue<ScheduledCallback> scheduledCallbacks;
+    private volatile Runnable callbacksWakeUpListener = () -> {};
     private final CommandsCache commandsCache;
     private final CommandContextsCache contextsCache;
     private final ConcurrentHashMap<Guid, List<Guid>> childHierarchy;
@@ -56,6 +60,7 @@ public class CommandsRepository {
         this.contextsCache = contextsCache;
 
         callbacksTiming = new ConcurrentHashMap<>();
+        scheduledCallbacks = new DelayQueue<>();
         childHierarchy = new ConcurrentHashMap<>();
         subscriptions = new ConcurrentHashMap<>();
         LOCK = new Object();
@@ -109,7 +114,137 @@ public class CommandsRepository {
     }
 
     public void addToCallbackMap(Guid commandId, CallbackTiming callbackTiming) {
-        callbacksTiming.put(commandId, callbackTiming);
+        synchronized (callbackTiming) {
+            callbacksTiming.put(commandId, callbackTiming);
+            scheduleCallback(commandId, callbackTiming, callbackTiming.getInitialDelay());
+        }
+    }
+
+    public void removeFromCallbackMap(Guid commandId) {
+        callbacksTiming.remove(commandId);
+    }
+
+    /**
+     * Sets the listener which is notified whenever a callback is woken up and is due for execution before the next
+     * polling of the callbacks.
+     */
+    public void setCallbacksWakeUpListener(Runnable callbacksWakeUpListener) {
+        this.callbacksWakeUpListener = callbacksWakeUpListener;
+    }
+
+    /**
+     * Schedules the next execution of the callback of the command once its current execution is over. If the callback
+     * was woken up during the execution it is due right away.
+     *
+     * @param commandId
+     *            the id of the command whose callback was executed
+     * @param delayInSeconds
+     *            the delay of the next execution
+     */
+    public void scheduleCallback(Guid commandId, long delayInSeconds) {
+        CallbackTiming callbackTiming = getCallbackTiming(commandId);
+        if (callbackTiming == null) {
+            return;
+        }
+
+        boolean wokenUp;
+        synchronized (callbackTiming) {
+            wokenUp = callbackTiming.isWakeUpRequested();
+            callbackTiming.setExecuting(false);
+            callbackTiming.setWakeUpRequested(false);
+            scheduleCallback(commandId, callbackTiming, wokenUp ? 0 : delayInSeconds);
+        }
+        if (wokenUp) {
+            callbacksWakeUpListener.run();
+        }
+    }
+
+    /**
+     * Schedules the next execution of the callback of the command once its current execution is over, with the given
+     * delay, which the following back-offs start from.
+     */
+    public void resetCallbackBackOff(Guid commandId, long delayInSeconds) {
+        CallbackTiming callbackTiming = getCallbackTiming(commandId);
+        if (callbackTiming == null) {
+            return;
+        }
+
+        synchronized (callbackTiming) {
+            callbackTiming.setInitialDelay(delayInSeconds);
+            scheduleCallback(commandId, delayInSeconds);
+        }
+    }
+
+    /**
+     * Schedules the next execution of the callback of the command once its current execution is over, doubling its
+     * delay up to the given maximum. The delay isn't doubled if the callback was woken up during the execution, as
+     * the wake-up has reset it.
+     */
+    public void backOffCallback(Guid commandId, long maxDelayInSeconds) {
+        CallbackTiming callbackTiming = getCallbackTiming(commandId);
+        if (callbackTiming == null) {
+            return;
+        }
+
+        synchronized (callbackTiming) {
+            if (!callbackTiming.isWakeUpRequested()) {
+                callbackTiming.setInitialDelay(Math.min(maxDelayInSeconds, callbackTiming.getInitialDelay() * 2));
+            }
+            scheduleCallback(commandId, callbackTiming.getInitialDelay());
+        }
+    }
+
+    /**
+     * Makes the callback of the command due right away and resets its back-off, a callback which is being executed
+     * is executed again right after.
+     */
+    public void wakeUpCallback(Guid commandId) {
+        CallbackTiming callbackTiming = getCallbackTiming(commandId);
+        if (callbackTiming == null) {
+            return;
+        }
+
+        synchronized (callbackTiming) {
+            callbackTiming.setInitialDelay(Config.<Long>getValue(ConfigValues.AsyncCommandPollingLoopInSeconds));
+            if (callbackTiming.isExecuting()) {
+                callbackTiming.setWakeUpRequested(true);
+                return;
+            }
+            if (callbackTiming.getNextExecutionTime() - System.nanoTime() <= 0) {
+                return;
+            }
+            scheduleCallback(commandId, callbackTiming, 0);
+        }
+        callbacksWakeUpListener.run();
+    }
+
+    /**
+     * Returns the commands whose callbacks are due for execution and marks them as being executed, each of them has
+     * to be rescheduled by {@link #scheduleCallback(Guid, long)} or removed once its execution is over.
+     */
+    public List<Guid> pollDueCallbacks() {
+        List<Guid> dueCallbacks = new ArrayList<>();
+        ScheduledCallback scheduledCallback;
+        while ((scheduledCallback = scheduledCallbacks.poll()) != null) {
+            CallbackTiming callbackTiming = scheduledCallback.callbackTiming;
+            synchronized (callbackTiming) {
+                // entries of callbacks which were removed, rescheduled or are being executed are stale
+                if (callbacksTiming.get(scheduledCallback.commandId) != callbackTiming
+                        || callbackTiming.isExecuting()
+                        || callbackTiming.getNextExecutionTime() != scheduledCallback.executionTime) {
+                    continue;
+                }
+                callbackTiming.setExecuting(true);
+            }
+            dueCallbacks.add(scheduledCallback.commandId);
+        }
+        return dueCallbacks;
+    }
+
+    private void scheduleCallback(Guid commandId, CallbackTiming callbackTiming, long delayInSeconds) {
+        long executionTime = System.nanoTime() + TimeUnit.SECONDS.toNanos(delayInSeconds);
+        callbackTiming.setNextExecutionTime(executionTime);
+        scheduledCallbacks.add(new ScheduledCallback(commandId, callbackTiming, executionTime));
     }
 
     public void persistCommand(CommandEntity cmdEntity, CommandContext cmdContext) {
@@ -155,7 +290,17 @@ public class CommandsRepository {
     }
 
     public void updateCommandStatus(final Guid commandId, final CommandStatus status) {
+        CommandEntity cmdEntity = getCommandEntity(commandId);
+        CommandStatus previousStatus = cmdEntity != null ? cmdEntity.getCommandStatus() : null;
         commandsCache.updateCommandStatus(commandId, status);
+        if (cmdEntity != null && previousStatus != status) {
+            // the callbacks of the command and of the commands waiting for it should not wait for their next polling
+            wakeUpCallback(commandId);
+            wakeUpCallback(cmdEntity.getParentCommandId());
+            if (!Objects.equals(cmdEntity.getRootCommandId(), cmdEntity.getParentCommandId())) {
+                wakeUpCallback(cmdEntity.getRootCommandId());
+            }
+        }
     }
 
     private CommandBase<?> retrieveCommand(CommandEntity cmdEntity, CommandContext cmdContext) {
@@ -268,10 +413,6 @@ public class CommandsRepository {
         return Collections.emptyList();
     }
 
-    public ConcurrentMap<Guid, CallbackTiming> getCallbacksTiming() {
-        return callbacksTiming;
-    }
-
     public void persistCommandAssociatedEntities(Collection<CommandAssociatedEntity> cmdAssociatedEntities) {
         commandsCache.persistCommandAssociatedEntities(cmdAssociatedEntities);
     }
@@ -370,4 +511,26 @@ public class CommandsRepository {
             subscriber.cancel();
         }
     }
+
+    private static class ScheduledCallback implements Delayed {
+        private final Guid commandId;
+        private final CallbackTiming callbackTiming;
+        private final long executionTime;
+
+        private ScheduledCallback(Guid commandId, CallbackTiming callbackTiming, long executionTime) {
+            this.commandId = commandId;
+            this.callbackTiming = callbackTiming;
+            this.executionTime = executionTime;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(executionTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(executionTime - ((ScheduledCallback) other).executionTime, 0);
+        }
+    }
 }
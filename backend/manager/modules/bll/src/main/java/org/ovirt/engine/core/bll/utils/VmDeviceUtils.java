@@ -1286,6 +1286,23 @@ public class VmDeviceUtils {
         vmBase.setManagedDeviceMap(vmManagedDeviceMap);
     }
 
+    /**
+     * Set the given devices, that were read in advance, as the managed and unmanaged devices of the VM/template
+     */
+    public void setVmDevices(VmBase vmBase, List<VmDevice> devices) {
+        List<VmDevice> unmanagedDevices = new ArrayList<>();
+        Map<Guid, VmDevice> vmManagedDeviceMap = new HashMap<>();
+        for (VmDevice device : devices) {
+            if (device.isManaged()) {
+                vmManagedDeviceMap.put(device.getDeviceId(), device);
+            } else {
+                unmanagedDevices.add(device);
+            }
+        }
+        vmBase.setUnmanagedDeviceList(unmanagedDevices);
+        vmBase.setManagedDeviceMap(vmManagedDeviceMap);
+    }
+
     /**
      * Check if the given device is disk or network interface device.
      */
@@ -0,0 +1,114 @@
+package org.ovirt.engine.core.bll;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.ovirt.engine.core.common.interfaces.SearchType;
+import org.ovirt.engine.core.dal.dbbroker.SimpleJdbcCallsHandler;
+
+@ExtendWith(MockitoExtension.class)
+public class SearchChangeGenerationsTest {
+
+    @Mock
+    private SimpleJdbcCallsHandler callsHandler;
+
+    @Mock
+    private TransactionManager transactionManager;
+
+    @Mock
+    private Transaction transaction;
+
+    @InjectMocks
+    private SearchChangeGenerations generations;
+
+    private long initialGeneration;
+
+    @BeforeEach
+    public void setUp() {
+        generations.init();
+        initialGeneration = generations.getGeneration(SearchType.VmTemplate);
+    }
+
+    private void assertMoved(long times, SearchType type) {
+        assertEquals(initialGeneration + times, generations.getGeneration(type));
+    }
+
+    @Test
+    public void testGenerationsStartFromTheStartTime() {
+        assertNotEquals(0, initialGeneration);
+        assertEquals(initialGeneration, generations.getGeneration(SearchType.AuditLog));
+    }
+
+    @Test
+    public void testModificationMovesTheTypesOfItsTables() {
+        generations.modified("UpdateVmDynamicStatus");
+
+        assertMoved(1, SearchType.VmPools);
+        assertMoved(0, SearchType.Cluster);
+        assertMoved(0, SearchType.AuditLog);
+        assertMoved(0, SearchType.VmTemplate);
+    }
+
+    @Test
+    public void testUnknownModificationMovesAllTypes() {
+        generations.modified("UpdateVmTemplate");
+
+        assertMoved(1, SearchType.VmPools);
+        assertMoved(1, SearchType.VmTemplate);
+        assertMoved(1, SearchType.AuditLog);
+    }
+
+    @Test
+    public void testModificationOfNoSearchedTableMovesNothing() {
+        generations.modified("InsertOrUpdateCommandEntity");
+        generations.modified("UpdateVdsStatistics");
+        generations.modified("UpdateVmStatistics");
+        generations.modified("UpdateVdsDynamic");
+
+        assertMoved(0, SearchType.Cluster);
+        assertMoved(0, SearchType.Job);
+    }
+
+    @Test
+    public void testUntrackedTypes() {
+        generations.modified("UpdateUser");
+
+        assertEquals(SearchChangeGenerations.UNTRACKED, generations.getGeneration(SearchType.Quota));
+        assertEquals(SearchChangeGenerations.UNTRACKED, generations.getGeneration(SearchType.DirectoryUser));
+        assertEquals(SearchChangeGenerations.UNTRACKED, generations.getGeneration(SearchType.Session));
+        assertEquals(SearchChangeGenerations.UNTRACKED, generations.getGeneration(SearchType.VM));
+        assertEquals(SearchChangeGenerations.UNTRACKED, generations.getGeneration(SearchType.VDS));
+        assertMoved(1, SearchType.DBUser);
+    }
+
+    @Test
+    public void testChangeInTransactionMovedAgainOnCompletion() throws Exception {
+        when(transactionManager.getTransaction()).thenReturn(transaction);
+
+        generations.modified("InsertAuditLog");
+        generations.modified("UpdateAuditLogDeleted");
+        assertMoved(2, SearchType.AuditLog);
+
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transaction, times(1)).registerSynchronization(synchronization.capture());
+        synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+
+        assertMoved(3, SearchType.AuditLog);
+        assertMoved(0, SearchType.VmPools);
+    }
+}
@@ -0,0 +1,78 @@
+package org.ovirt.engine.core.bll;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.aaa.QueryData;
+import org.ovirt.engine.core.searchbackend.SyntaxContainer;
+import org.ovirt.engine.core.searchbackend.SyntaxObjectType;
+
+public class SearchQueryCacheTest {
+
+    private static QueryData query(String sql) {
+        return new QueryData(sql, System.currentTimeMillis(), null, null);
+    }
+
+    @Test
+    public void testQueryHit() {
+        SearchQueryCache cache = new SearchQueryCache(10, 60000);
+        QueryData data = query("select 1");
+        cache.putQuery("key", data);
+
+        assertSame(data, cache.getQuery("key"));
+        assertNull(cache.getQuery("other"));
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        SearchQueryCache cache = new SearchQueryCache(2, 60000);
+        cache.putQuery("a", query("a"));
+        cache.putQuery("b", query("b"));
+        cache.getQuery("a");
+        cache.putQuery("c", query("c"));
+
+        assertNull(cache.getQuery("b"));
+        assertEquals("a", cache.getQuery("a").getQuery());
+        assertEquals("c", cache.getQuery("c").getQuery());
+    }
+
+    @Test
+    public void testExpires() {
+        SearchQueryCache cache = new SearchQueryCache(10, 0);
+        cache.putQuery("key", query("select 1"));
+
+        assertNull(cache.getQuery("key"));
+    }
+
+    @Test
+    public void testSyntaxContainerIsCopied() {
+        SearchQueryCache cache = new SearchQueryCache(10, 60000);
+        SyntaxContainer analyzed = new SyntaxContainer("Vms:");
+        analyzed.addSyntaxObject(SyntaxObjectType.SEARCH_OBJECT, "Vms", 0, 3);
+        analyzed.setvalid(true);
+        cache.putSyntaxContainer("key", analyzed);
+        analyzed.setMaxCount(5);
+
+        SyntaxContainer first = cache.getSyntaxContainer("key");
+        first.setMaxCount(10);
+        SyntaxContainer second = cache.getSyntaxContainer("key");
+
+        assertNotSame(first, second);
+        assertEquals(0, second.getMaxCount());
+        assertEquals(analyzed.getSearchObjectStr(), second.getSearchObjectStr());
+        assertTrue(second.getvalid());
+    }
+
+    @Test
+    public void testClear() {
+        SearchQueryCache cache = new SearchQueryCache(10, 60000);
+        cache.putQuery("key", query("select 1"));
+        cache.clear();
+
+        assertNull(cache.getQuery("key"));
+    }
+}
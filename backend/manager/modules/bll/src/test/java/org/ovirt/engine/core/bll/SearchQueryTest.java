@@ -1,20 +1,27 @@
 package org.ovirt.engine.core.bll;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.matches;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.ovirt.engine.core.bll.quota.QuotaManager;
@@ -91,6 +98,12 @@ public class SearchQueryTest extends AbstractQueryTest<SearchParameters, SearchQ
     private LockManager lockManager;
     @Mock
     private HostLocking hostLocking;
+    @Mock
+    private SearchChangeGenerations searchChangeGenerations;
+    @Spy
+    private SearchResultsCoalescer searchResultsCoalescer = new SearchResultsCoalescer();
+    @Spy
+    private SearchQueryCache searchQueryCache = new SearchQueryCache(100, TimeUnit.DAYS.toMillis(1));
 
     List<Disk> diskImageResultList = new ArrayList<>();
     List<Quota> quotaResultList = new ArrayList<>();
@@ -392,6 +405,45 @@ public class SearchQueryTest extends AbstractQueryTest<SearchParameters, SearchQ
         assertEquals(diskImageResultList, getQuery().getQueryReturnValue().getReturnValue());
     }
 
+    @Test
+    public void testPeriodicRefreshNotSearchedWhenUnchanged() {
+        when(getQueryParameters().getSearchPattern()).thenReturn("Disks" + CommonConstants.QUERY_RETURN_TYPE_SEPARATOR);
+        when(getQueryParameters().getSearchTypeValue()).thenReturn(SearchType.Disk);
+        when(getQueryParameters().getPeriodicRefresh()).thenReturn(true);
+        when(getQueryParameters().getChangeGeneration()).thenReturn(5L);
+        when(searchChangeGenerations.getGeneration(SearchType.Disk)).thenReturn(5L);
+        getQuery().executeQueryCommand();
+
+        assertTrue(getQuery().getQueryReturnValue().isUnchanged());
+        assertNull(getQuery().getQueryReturnValue().getReturnValue());
+        verify(diskDao, never()).getAllWithQuery(anyString());
+    }
+
+    @Test
+    public void testPeriodicRefreshSearchedWhenChanged() {
+        when(getQueryParameters().getSearchPattern()).thenReturn("Disks" + CommonConstants.QUERY_RETURN_TYPE_SEPARATOR);
+        when(getQueryParameters().getSearchTypeValue()).thenReturn(SearchType.Disk);
+        when(getQueryParameters().getPeriodicRefresh()).thenReturn(true);
+        when(getQueryParameters().getChangeGeneration()).thenReturn(5L);
+        when(searchChangeGenerations.getGeneration(SearchType.Disk)).thenReturn(6L);
+        getQuery().executeQueryCommand();
+
+        assertEquals(diskImageResultList, getQuery().getQueryReturnValue().getReturnValue());
+        assertEquals(6L, getQuery().getQueryReturnValue().getChangeGeneration());
+    }
+
+    @Test
+    public void testPeriodicRefreshOfUntrackedTypeAlwaysSearched() {
+        when(getQueryParameters().getSearchPattern()).thenReturn("Disks" + CommonConstants.QUERY_RETURN_TYPE_SEPARATOR);
+        when(getQueryParameters().getSearchTypeValue()).thenReturn(SearchType.Disk);
+        when(getQueryParameters().getPeriodicRefresh()).thenReturn(true);
+        when(getQueryParameters().getChangeGeneration()).thenReturn(SearchChangeGenerations.UNTRACKED);
+        when(searchChangeGenerations.getGeneration(SearchType.Disk)).thenReturn(SearchChangeGenerations.UNTRACKED);
+        getQuery().executeQueryCommand();
+
+        assertEquals(diskImageResultList, getQuery().getQueryReturnValue().getReturnValue());
+    }
+
     @Test
     public void testGetAllVMSearch() {
         when(getQueryParameters().getSearchPattern()).thenReturn("VM" + CommonConstants.QUERY_RETURN_TYPE_SEPARATOR);
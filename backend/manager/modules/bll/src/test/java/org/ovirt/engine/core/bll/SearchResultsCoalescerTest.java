@@ -0,0 +1,120 @@
+package org.ovirt.engine.core.bll;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.common.businessentities.Queryable;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.interfaces.SearchType;
+import org.ovirt.engine.core.common.queries.SearchParameters;
+import org.ovirt.engine.core.compat.Guid;
+
+public class SearchResultsCoalescerTest {
+
+    private final AtomicInteger searches = new AtomicInteger();
+
+    private Supplier<List<? extends Queryable>> search() {
+        return () -> {
+            searches.incrementAndGet();
+            List<VM> vms = new ArrayList<>();
+            vms.add(new VM());
+            return vms;
+        };
+    }
+
+    private static SearchParameters parameters(String text) {
+        return new SearchParameters(text, SearchType.VM);
+    }
+
+    @Test
+    public void testSearchedAgainOnceFinished() {
+        SearchResultsCoalescer coalescer = new SearchResultsCoalescer();
+        List<? extends Queryable> first = coalescer.search(parameters("Vms:"), null, 0, search());
+
+        assertNotSame(first, coalescer.search(parameters("Vms:"), null, 0, search()));
+        assertEquals(2, searches.get());
+    }
+
+    @Test
+    public void testFailedSearchReturnsEmptyList() {
+        SearchResultsCoalescer coalescer = new SearchResultsCoalescer();
+
+        assertTrue(coalescer.search(parameters("Vms: ="), null, 0, () -> null).isEmpty());
+    }
+
+    @Test
+    public void testConcurrentSearchesCoalesced() throws Exception {
+        SearchResultsCoalescer coalescer = new SearchResultsCoalescer();
+        CountDownLatch searching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<? extends Queryable>> first = executor.submit(() -> coalescer.search(parameters("Vms:"),
+                    null,
+                    0,
+                    () -> {
+                        searching.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return search().get();
+                    }));
+            searching.await();
+            Future<List<? extends Queryable>> second =
+                    executor.submit(() -> coalescer.search(parameters("Vms:"), null, 0, search()));
+            release.countDown();
+
+            assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+            assertEquals(1, searches.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentDifferentSearchesNotCoalesced() throws Exception {
+        SearchResultsCoalescer coalescer = new SearchResultsCoalescer();
+        CountDownLatch searching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<? extends Queryable>> first = executor.submit(() -> coalescer.search(parameters("Vms:"),
+                    null,
+                    0,
+                    () -> {
+                        searching.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return search().get();
+                    }));
+            searching.await();
+            coalescer.search(parameters("Vms: status=up"), null, 0, search());
+            coalescer.search(parameters("Vms:"), Guid.newGuid(), 0, search());
+            coalescer.search(parameters("Vms:"), null, 1, search());
+            release.countDown();
+            first.get(10, TimeUnit.SECONDS);
+
+            assertEquals(4, searches.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -7,6 +7,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -122,4 +124,25 @@ public class InMemoryLockManagerTest {
         lockManager.clear();
         assertTrue(lockManager.showAllLocks().isEmpty());
     }
+
+    @Test
+    public void checkAcquireLockWaitIsReleased() throws InterruptedException {
+        assertTrue(lockManager.acquireLock(lockLock1).getFirst());
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            lockManager.acquireLockWait(failLockLock);
+            acquired.countDown();
+        });
+        waiter.start();
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+        assertTrue(lockManager.acquireLock(lockLock2).getFirst());
+        lockManager.releaseLock(lockLock2);
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+        lockManager.releaseLock(lockLock1);
+        assertTrue(acquired.await(10, TimeUnit.SECONDS));
+        waiter.join();
+        assertEquals(1, lockManager.showAllLocks().size());
+        lockManager.releaseLock(failLockLock);
+        assertTrue(lockManager.showAllLocks().isEmpty());
+    }
 }
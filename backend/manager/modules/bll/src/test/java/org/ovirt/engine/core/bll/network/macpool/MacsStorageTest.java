@@ -57,6 +57,48 @@ public class MacsStorageTest {
         assertThat(macsStorage.containsDuplicates(), is(false));
     }
 
+    @Test
+    public void testMacsAreLookedUpInRangesAddedInAnyOrder() {
+        MacsStorage macsStorage = new MacsStorage(false);
+        macsStorage.addRange(200, 299);
+        macsStorage.addRange(0, 99);
+        macsStorage.addRange(100, 109);
+
+        assertThat(macsStorage.getTotalNumberOfMacs(), is(210));
+        assertThat(macsStorage.isMacInRange(0L), is(true));
+        assertThat(macsStorage.isMacInRange(109L), is(true));
+        assertThat(macsStorage.isMacInRange(110L), is(false));
+        assertThat(macsStorage.isMacInRange(299L), is(true));
+        assertThat(macsStorage.isMacInRange(300L), is(false));
+
+        assertThat(macsStorage.useMac(105L), is(true));
+        assertThat(macsStorage.useMac(150L), is(true));
+        assertThat(macsStorage.isMacInUse(105L), is(true));
+        assertThat(macsStorage.isMacInUse(150L), is(true));
+        assertThat(macsStorage.getAvailableMacsCount(), is(209));
+
+        assertThat(macsStorage.allocateAvailableMacs(109).size(), is(109));
+        assertThat(macsStorage.getAvailableMacsCount(), is(100));
+        macsStorage.freeMac(105L);
+        macsStorage.freeMac(150L);
+        assertThat(macsStorage.isMacInUse(105L), is(false));
+        assertThat(macsStorage.isMacInUse(150L), is(false));
+        assertThat(macsStorage.getAvailableMacsCount(), is(101));
+    }
+
+    @Test
+    public void testMacIsUsedInFirstAddedOverlappingRange() {
+        MacsStorage macsStorage = new MacsStorage(false);
+        Range laterRange = new Range(0, 99);
+        Range firstRange = macsStorage.addRange(50, 149);
+        macsStorage.addRange(laterRange);
+
+        assertThat(macsStorage.useMac(60L), is(true));
+        assertThat(firstRange.isAllocated(60L), is(true));
+        assertThat(laterRange.isAllocated(60L), is(false));
+        assertThat(macsStorage.getAvailableMacsCount(), is(199));
+    }
+
     private void assertReturnedRange(List<Range> ranges, MacsStorage macsStorage, List<Integer> expectedRangeIndices) {
 
         for (int expectedRangeIndex : expectedRangeIndices) {
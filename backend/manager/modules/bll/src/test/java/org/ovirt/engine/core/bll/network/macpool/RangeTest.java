@@ -169,6 +169,32 @@ public class RangeTest {
         }
     }
 
+    /**
+     * test that the search for unused MACs skips the words of used MACs, wraps around and never returns the padding
+     * bits beyond the end of the range.
+     */
+    @Test
+    public void testAllocateMacsInMostlyUsedRange() {
+        Range range = new Range(0, 1000);
+        List<Long> unusedMacs = Arrays.asList(3L, 64L, 130L, 700L, 1000L);
+        for (long mac = 0; mac <= 1000; mac++) {
+            if (!unusedMacs.contains(mac)) {
+                range.use(mac, false);
+            }
+        }
+        range.freeMac(130);
+        range.use(130, false);
+        range.freeMac(130);
+
+        assertThat(range.getAvailableCount(), is(unusedMacs.size()));
+        assertThat(range.allocateMacs(unusedMacs.size()), is(unusedMacs));
+        assertThat(range.getAvailableCount(), is(0));
+
+        range.freeMac(64);
+        range.freeMac(3);
+        assertThat(range.allocateMacs(2), is(Arrays.asList(3L, 64L)));
+    }
+
     /***
      *
      * method obtains mac from pool, assert expectation, and return it back.
@@ -0,0 +1,36 @@
+package org.ovirt.engine.core.bll.network.vm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.ovirt.engine.core.bll.AbstractQueryTest;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkInterface;
+import org.ovirt.engine.core.common.queries.IdsQueryParameters;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.network.VmNetworkInterfaceDao;
+
+/** A test case for {@link GetVmInterfacesByVmIdsQuery} */
+public class GetVmInterfacesByVmIdsQueryTest
+        extends AbstractQueryTest<IdsQueryParameters, GetVmInterfacesByVmIdsQuery<IdsQueryParameters>> {
+    @Mock
+    private VmNetworkInterfaceDao daoMock;
+
+    @Test
+    public void testExecuteQuery() {
+        List<Guid> vmIds = Arrays.asList(Guid.newGuid(), Guid.newGuid());
+        List<VmNetworkInterface> interfaces = Collections.singletonList(new VmNetworkInterface());
+        when(params.getIds()).thenReturn(vmIds);
+        when(daoMock.getAllForVms(vmIds)).thenReturn(interfaces);
+
+        GetVmInterfacesByVmIdsQuery<?> query = getQuery();
+        query.executeQueryCommand();
+
+        assertEquals(interfaces, query.getQueryReturnValue().getReturnValue());
+    }
+}
@@ -1,6 +1,7 @@
 package org.ovirt.engine.core.bll.quota;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -10,9 +11,15 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -434,6 +441,43 @@ public class QuotaManagerTest {
         assertAuditLogNotWritten();
     }
 
+    @Test
+    public void testConsumptionOfOtherQuotaDoesNotWait() throws Exception {
+        // the ids fall in different lock stripes
+        Quota quota1 = mockBasicQuota();
+        quota1.setId(new Guid("00000000-0000-0000-0000-000000000001"));
+        quota1.setGlobalQuotaStorage(getQuotaStorage(100, 10));
+        Quota quota2 = mockBasicQuota();
+        quota2.setId(new Guid("00000000-0000-0000-0000-000000000002"));
+        quota2.setGlobalQuotaStorage(getQuotaStorage(100, 10));
+        when(quotaDao.getById(quota2.getId())).thenReturn(quota2);
+
+        // the consumption of the first quota is stuck while loading the quota
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch loaded = new CountDownLatch(1);
+        when(quotaDao.getById(quota1.getId())).thenAnswer(invocation -> {
+            loading.countDown();
+            loaded.await();
+            return quota1;
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> firstConsumption = executor.submit(() -> quotaManager.consume(command,
+                    Collections.singletonList(createStorageConsumption(quota1.getId(), 1d))));
+            loading.await();
+
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertTrue(quotaManager.consume(command,
+                    Collections.singletonList(createStorageConsumption(quota2.getId(), 1d)))));
+
+            loaded.countDown();
+            assertTrue(firstConsumption.get(10, TimeUnit.SECONDS));
+        } finally {
+            loaded.countDown();
+            executor.shutdownNow();
+        }
+        assertEmptyValidateMessage();
+    }
+
     /**
      * Mock a basic quota. Only the basic data (Id, name, threshold, grace...) is set.
      *
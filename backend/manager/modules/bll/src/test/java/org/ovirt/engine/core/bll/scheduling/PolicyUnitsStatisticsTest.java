@@ -0,0 +1,43 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.bll.scheduling.policyunits.CPUPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.HostedEngineMemoryReservationFilterPolicyUnit;
+
+public class PolicyUnitsStatisticsTest {
+
+    private PolicyUnitsStatistics statistics = new PolicyUnitsStatistics();
+
+    @Test
+    public void testRecord() {
+        PolicyUnitImpl unit = new CPUPolicyUnit(null, null);
+        statistics.record(unit, PolicyUnitsStatistics.FILTER, TimeUnit.MILLISECONDS.toNanos(2));
+        statistics.record(unit, PolicyUnitsStatistics.FILTER, TimeUnit.MILLISECONDS.toNanos(4));
+        statistics.record(unit, PolicyUnitsStatistics.SCORE, TimeUnit.MILLISECONDS.toNanos(1));
+
+        List<String> lines = statistics.showPolicyUnitsStatistics();
+        assertEquals(2, lines.size());
+        assertEquals("Policy unit CPU filter: invocations 2, total 6 ms, average 3000 us, max 4000 us", lines.get(0));
+        assertEquals("Policy unit CPU score: invocations 1, total 1 ms, average 1000 us, max 1000 us", lines.get(1));
+    }
+
+    @Test
+    public void testClear() {
+        statistics.record(new CPUPolicyUnit(null, null), PolicyUnitsStatistics.FILTER, 1);
+        statistics.clear();
+        assertTrue(statistics.showPolicyUnitsStatistics().isEmpty());
+    }
+
+    @Test
+    public void testHostIndependent() {
+        assertTrue(new CPUPolicyUnit(null, null).isHostIndependent());
+        assertFalse(new HostedEngineMemoryReservationFilterPolicyUnit(null, null).isHostIndependent());
+    }
+}
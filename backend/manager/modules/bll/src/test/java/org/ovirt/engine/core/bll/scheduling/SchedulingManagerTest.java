@@ -0,0 +1,562 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.bll.network.host.VfScheduler;
+import org.ovirt.engine.core.bll.scheduling.external.ExternalSchedulerDiscovery;
+import org.ovirt.engine.core.bll.scheduling.policyunits.RankSelectorPolicyUnit;
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VDSStatus;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigCommon;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.errors.EngineMessage;
+import org.ovirt.engine.core.common.scheduling.ClusterPolicy;
+import org.ovirt.engine.core.common.scheduling.PerHostMessages;
+import org.ovirt.engine.core.common.scheduling.PolicyUnit;
+import org.ovirt.engine.core.common.scheduling.PolicyUnitType;
+import org.ovirt.engine.core.common.scheduling.VmOverheadCalculator;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.VdsDao;
+import org.ovirt.engine.core.dao.scheduling.ClusterPolicyDao;
+import org.ovirt.engine.core.dao.scheduling.PolicyUnitDao;
+import org.ovirt.engine.core.utils.ExecutorServiceExtension;
+import org.ovirt.engine.core.utils.InjectorExtension;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+import org.ovirt.engine.core.vdsbroker.ResourceManager;
+import org.ovirt.engine.core.vdsbroker.VdsManager;
+
+@ExtendWith({MockitoExtension.class, MockConfigExtension.class, InjectorExtension.class, ExecutorServiceExtension.class})
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class SchedulingManagerTest {
+    private static final int HOST_CPUS = 2;
+
+    private static final Guid POLICY_ID = Guid.newGuid();
+    private static final Guid FILTER_ID = Guid.newGuid();
+    private static final Guid HOST_A = new Guid("087fc690-de02-11e4-8830-0800200c9a66");
+    private static final Guid HOST_B = new Guid("087fc691-de02-11e4-8830-0800200c9a66");
+
+    /** Enough hosts to split the host independent filters to several parallel tasks of at least 16 hosts */
+    private static final int MANY_HOSTS_COUNT = 64;
+    private static final List<Guid> MANY_HOSTS = IntStream.range(0, MANY_HOSTS_COUNT)
+            .mapToObj(i -> Guid.newGuid())
+            .collect(Collectors.toList());
+    private static final Guid FILTERING_POLICY_ID = Guid.newGuid();
+    private static final Guid REJECTING_POLICY_ID = Guid.newGuid();
+    private static final Guid MODULO_3_0_ID = Guid.newGuid();
+    private static final Guid MODULO_3_1_ID = Guid.newGuid();
+    private static final Guid MODULO_3_2_ID = Guid.newGuid();
+    private static final Guid MODULO_5_1_ID = Guid.newGuid();
+    private static final Guid FIRST_HOST_ID = Guid.newGuid();
+    private static final Guid INDEX_SCORE_ID = Guid.newGuid();
+    private static final Guid SHUFFLED_SCORE_ID = Guid.newGuid();
+
+    @Mock
+    private VdsDao vdsDao;
+    @Mock
+    private ClusterPolicyDao clusterPolicyDao;
+    @Mock
+    private PolicyUnitDao policyUnitDao;
+    @Mock
+    private ExternalSchedulerDiscovery exSchedulerDiscovery;
+    @Mock
+    private ResourceManager resourceManager;
+    @Mock
+    private PolicyUnitsStatistics policyUnitsStatistics;
+    @Mock
+    private VmOverheadCalculator vmOverheadCalculator;
+    @Mock
+    private VfScheduler vfScheduler;
+
+    @InjectMocks
+    private SchedulingManager schedulingManager;
+
+    private Cluster cluster;
+
+    /** The pending vCPUs the filter saw on every host, in the order it was called */
+    private final List<Map<Guid, Integer>> seenPendingCpus = new ArrayList<>();
+
+    /** The number of calls of the host independent filters, they are called for every part of the hosts */
+    private final AtomicInteger moduloFilterCalls = new AtomicInteger();
+
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(
+                MockConfigDescriptor.of(ConfigValues.SchedulerParallelism, 1),
+                MockConfigDescriptor.of(ConfigValues.ExternalSchedulerEnabled, false),
+                MockConfigDescriptor.of(ConfigValues.EnableVdsLoadBalancing, false),
+                MockConfigDescriptor.of(ConfigValues.SchedulerAllowOverBooking, false)
+        );
+    }
+
+    @BeforeEach
+    public void setUp() {
+        when(resourceManager.getVdsManager(any())).thenReturn(mock(VdsManager.class));
+
+        ClusterPolicy policy = new ClusterPolicy();
+        policy.setId(POLICY_ID);
+        policy.setName("test");
+        policy.setFilters(Collections.singletonList(FILTER_ID));
+        when(clusterPolicyDao.getAll(anyMap())).thenReturn(Collections.singletonList(policy));
+
+        cluster = new Cluster();
+        cluster.setId(Guid.newGuid());
+        cluster.setClusterPolicyId(POLICY_ID);
+
+        // every scheduling loads fresh hosts, as they would be read from the database
+        when(vdsDao.getAllForClusterWithStatus(eq(cluster.getId()), eq(VDSStatus.Up)))
+                .thenAnswer(invocation -> Arrays.asList(host(HOST_A), host(HOST_B)));
+
+        schedulingManager.init();
+        schedulingManager.getPolicyUnitsMap().put(FILTER_ID, new CpuCapacityFilter());
+    }
+
+    private static VDS host(Guid id) {
+        VDS host = new VDS();
+        host.setId(id);
+        host.setVdsName(id.toString());
+        return host;
+    }
+
+    private static VM vm() {
+        VM vm = new VM();
+        vm.setId(Guid.newGuid());
+        vm.setNumOfSockets(HOST_CPUS);
+        vm.setCpuPerSocket(1);
+        vm.setThreadsPerCpu(1);
+        return vm;
+    }
+
+    private Optional<Guid> schedule(VM vm, List<String> messages) {
+        return schedulingManager.schedule(cluster,
+                vm,
+                Collections.emptyList(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                messages,
+                null,
+                null);
+    }
+
+    @Test
+    public void testSeveralVmsSeePendingResourcesOfPreviousOnes() {
+        List<String> messages = new ArrayList<>();
+
+        assertEquals(Optional.of(HOST_A), schedule(vm(), messages));
+        assertEquals(Optional.of(HOST_B), schedule(vm(), messages));
+        assertTrue(messages.isEmpty());
+
+        assertEquals(0, (int) seenPendingCpus.get(0).get(HOST_A));
+        assertEquals(0, (int) seenPendingCpus.get(0).get(HOST_B));
+        assertEquals(HOST_CPUS, (int) seenPendingCpus.get(1).get(HOST_A));
+        assertEquals(0, (int) seenPendingCpus.get(1).get(HOST_B));
+    }
+
+    @Test
+    public void testVmNotScheduledWhenPendingResourcesFillTheHosts() {
+        List<String> messages = new ArrayList<>();
+        schedule(vm(), messages);
+        schedule(vm(), messages);
+
+        assertFalse(schedule(vm(), messages).isPresent());
+        assertTrue(messages.contains(EngineMessage.SCHEDULING_ALL_HOSTS_FILTERED_OUT.name()));
+        assertEquals(HOST_CPUS, (int) seenPendingCpus.get(2).get(HOST_A));
+        assertEquals(HOST_CPUS, (int) seenPendingCpus.get(2).get(HOST_B));
+    }
+
+    @Test
+    public void testClearedPendingResourcesAreReleased() {
+        VM first = vm();
+        schedule(first, new ArrayList<>());
+        // the internal policy units share the pending resources of the scheduling manager
+        schedulingManager.getPolicyUnitsMap()
+                .get(InternalPolicyUnits.getGuid(RankSelectorPolicyUnit.class))
+                .getPendingResourceManager()
+                .clearVm(first);
+
+        assertEquals(Optional.of(HOST_A), schedule(vm(), new ArrayList<>()));
+        assertEquals(0, (int) seenPendingCpus.get(1).get(HOST_A));
+    }
+
+    @Test
+    public void testBatchLoadsHostsOnceAndSeesPendingResourcesOfPreviousVms() {
+        VM first = vm();
+        VM second = vm();
+        VM third = vm();
+        Map<Guid, List<String>> messages = new HashMap<>();
+
+        Map<Guid, Optional<Guid>> placements = schedulingManager.scheduleBatch(cluster,
+                Arrays.asList(first, second, third),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                messages,
+                null);
+
+        verify(vdsDao, times(1)).getAllForClusterWithStatus(cluster.getId(), VDSStatus.Up);
+        assertEquals(Arrays.asList(first.getId(), second.getId(), third.getId()),
+                new ArrayList<>(placements.keySet()));
+        assertEquals(Optional.of(HOST_A), placements.get(first.getId()));
+        assertEquals(Optional.of(HOST_B), placements.get(second.getId()));
+        assertFalse(placements.get(third.getId()).isPresent());
+
+        assertEquals(0, (int) seenPendingCpus.get(0).get(HOST_A));
+        assertEquals(HOST_CPUS, (int) seenPendingCpus.get(1).get(HOST_A));
+        assertEquals(0, (int) seenPendingCpus.get(1).get(HOST_B));
+        assertEquals(HOST_CPUS, (int) seenPendingCpus.get(2).get(HOST_A));
+        assertEquals(HOST_CPUS, (int) seenPendingCpus.get(2).get(HOST_B));
+
+        assertEquals(Collections.singleton(third.getId()), messages.keySet());
+        assertTrue(messages.get(third.getId()).contains(EngineMessage.SCHEDULING_ALL_HOSTS_FILTERED_OUT.name()));
+    }
+
+    @Test
+    public void testBatchPlacementsAreSeenBySingleScheduling() {
+        schedulingManager.scheduleBatch(cluster,
+                Collections.singletonList(vm()),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                new HashMap<>(),
+                null);
+
+        assertEquals(Optional.of(HOST_B), schedule(vm(), new ArrayList<>()));
+        assertEquals(HOST_CPUS, (int) seenPendingCpus.get(1).get(HOST_A));
+    }
+
+    @Test
+    public void testParallelFilteringKeepsTheSequentialHostList() {
+        useManyHosts(FILTERING_POLICY_ID);
+
+        initWithParallelism(1);
+        List<String> sequentialMessages = new ArrayList<>();
+        List<Guid> sequentialHosts = toIds(schedulingManager.canSchedule(cluster,
+                vm(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                sequentialMessages));
+        assertEquals(2, moduloFilterCalls.get());
+
+        initWithParallelism(4);
+        List<String> parallelMessages = new ArrayList<>();
+        List<Guid> parallelHosts = toIds(schedulingManager.canSchedule(cluster,
+                vm(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                parallelMessages));
+        assertTrue(moduloFilterCalls.get() > 2);
+
+        assertFalse(sequentialHosts.isEmpty());
+        assertEquals(sequentialHosts, parallelHosts);
+        assertTrue(sequentialMessages.isEmpty());
+        assertTrue(parallelMessages.isEmpty());
+    }
+
+    @Test
+    public void testParallelFilteringKeepsTheSequentialPerHostMessages() {
+        useManyHosts(REJECTING_POLICY_ID);
+
+        initWithParallelism(1);
+        List<String> sequentialMessages = new ArrayList<>();
+        assertTrue(schedulingManager.canSchedule(cluster,
+                vm(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                sequentialMessages).isEmpty());
+        assertEquals(3, moduloFilterCalls.get());
+
+        initWithParallelism(4);
+        List<String> parallelMessages = new ArrayList<>();
+        assertTrue(schedulingManager.canSchedule(cluster,
+                vm(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                parallelMessages).isEmpty());
+        assertTrue(moduloFilterCalls.get() > 3);
+
+        assertEquals(EngineMessage.SCHEDULING_ALL_HOSTS_FILTERED_OUT.name(), parallelMessages.get(0));
+        assertEquals(sequentialMessages.size(), parallelMessages.size());
+        Set<List<String>> sequentialReasons = perHostReasons(sequentialMessages);
+        assertEquals(MANY_HOSTS_COUNT + 1, sequentialReasons.size());
+        assertEquals(sequentialReasons, perHostReasons(parallelMessages));
+    }
+
+    @Test
+    public void testParallelScoringKeepsTheSequentialWeightOrder() {
+        useManyHosts(FILTERING_POLICY_ID);
+
+        initWithParallelism(1);
+        List<Guid> sequentialOrder = weightOrder(5);
+
+        initWithParallelism(4);
+        List<Guid> parallelOrder = weightOrder(5);
+
+        assertEquals(5, new HashSet<>(sequentialOrder).size());
+        assertEquals(sequentialOrder, parallelOrder);
+    }
+
+    @Test
+    public void testParallelismReadOnEveryScheduling() {
+        useManyHosts(FILTERING_POLICY_ID);
+        initWithParallelism(1);
+        schedulingManager.canSchedule(cluster,
+                vm(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                new ArrayList<>());
+        assertEquals(2, moduloFilterCalls.get());
+
+        // a reloaded value applies without initializing the scheduling manager again
+        setParallelism(4);
+        moduloFilterCalls.set(0);
+        schedulingManager.canSchedule(cluster,
+                vm(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                new ArrayList<>());
+        assertTrue(moduloFilterCalls.get() > 2);
+    }
+
+    /**
+     * Makes the cluster use the given policy of the parallel tests, over {@link #MANY_HOSTS}
+     */
+    private void useManyHosts(Guid policyId) {
+        ClusterPolicy filteringPolicy = new ClusterPolicy();
+        filteringPolicy.setId(FILTERING_POLICY_ID);
+        filteringPolicy.setName("filtering");
+        // the host dependent filter splits the host independent ones to two runs
+        filteringPolicy.setFilters(Arrays.asList(MODULO_3_0_ID, FIRST_HOST_ID, MODULO_5_1_ID));
+        filteringPolicy.setFunctions(Arrays.asList(new Pair<>(INDEX_SCORE_ID, 1), new Pair<>(SHUFFLED_SCORE_ID, 2)));
+
+        ClusterPolicy rejectingPolicy = new ClusterPolicy();
+        rejectingPolicy.setId(REJECTING_POLICY_ID);
+        rejectingPolicy.setName("rejecting");
+        rejectingPolicy.setFilters(Arrays.asList(MODULO_3_0_ID, MODULO_3_1_ID, MODULO_3_2_ID));
+
+        when(clusterPolicyDao.getAll(anyMap())).thenReturn(Arrays.asList(filteringPolicy, rejectingPolicy));
+        when(vdsDao.getAllForClusterWithStatus(eq(cluster.getId()), eq(VDSStatus.Up)))
+                .thenAnswer(invocation -> MANY_HOSTS.stream()
+                        .map(SchedulingManagerTest::host)
+                        .collect(Collectors.toList()));
+        cluster.setClusterPolicyId(policyId);
+    }
+
+    /**
+     * Reinitializes the scheduling manager to run the policy units in the given number of tasks
+     */
+    private void initWithParallelism(int parallelism) {
+        setParallelism(parallelism);
+        schedulingManager.init();
+
+        Map<Guid, PolicyUnitImpl> policyUnits = schedulingManager.getPolicyUnitsMap();
+        policyUnits.put(MODULO_3_0_ID, new ModuloFilter(MODULO_3_0_ID, 3, 0));
+        policyUnits.put(MODULO_3_1_ID, new ModuloFilter(MODULO_3_1_ID, 3, 1));
+        policyUnits.put(MODULO_3_2_ID, new ModuloFilter(MODULO_3_2_ID, 3, 2));
+        policyUnits.put(MODULO_5_1_ID, new ModuloFilter(MODULO_5_1_ID, 5, 1));
+        policyUnits.put(FIRST_HOST_ID, new FirstHostFilter());
+        policyUnits.put(INDEX_SCORE_ID, new IndexScore(INDEX_SCORE_ID, 1));
+        policyUnits.put(SHUFFLED_SCORE_ID, new IndexScore(SHUFFLED_SCORE_ID, 7));
+        moduloFilterCalls.set(0);
+    }
+
+    private static void setParallelism(int parallelism) {
+        doReturn(parallelism).when(Config.getConfigUtils())
+                .getValue(ConfigValues.SchedulerParallelism, ConfigCommon.defaultConfigurationVersion);
+    }
+
+    /**
+     * Schedules VMs one after another, every time without the hosts selected before
+     */
+    private List<Guid> weightOrder(int hostsCount) {
+        List<Guid> selected = new ArrayList<>();
+        for (int i = 0; i < hostsCount; i++) {
+            VM vm = vm();
+            Optional<Guid> host = schedulingManager.schedule(cluster,
+                    vm,
+                    new ArrayList<>(selected),
+                    Collections.emptyList(),
+                    Collections.emptyList(),
+                    new ArrayList<>(),
+                    null,
+                    null);
+            assertTrue(host.isPresent());
+            selected.add(host.get());
+            schedulingManager.clearPendingVm(vm.getStaticData());
+        }
+        return selected;
+    }
+
+    private static List<Guid> toIds(List<VDS> hosts) {
+        return hosts.stream().map(VDS::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * Splits the messages to the lines of every filtered out host, the hosts are listed in no particular order
+     */
+    private static Set<List<String>> perHostReasons(List<String> messages) {
+        List<List<String>> reasons = new ArrayList<>();
+        List<String> reason = new ArrayList<>();
+        reasons.add(reason);
+        for (String message : messages) {
+            if (message.equals(EngineMessage.VAR__FILTERTYPE__INTERNAL.name())) {
+                reason = new ArrayList<>();
+                reasons.add(reason);
+            }
+            reason.add(message);
+        }
+        return new HashSet<>(reasons);
+    }
+
+    private static int indexOf(VDS host) {
+        return MANY_HOSTS.indexOf(host.getId());
+    }
+
+    /**
+     * Filters out the hosts of {@link #MANY_HOSTS} whose index gives the remainder, with a detail message
+     */
+    @SchedulingUnit(
+            guid = "c4d6f0b8-3a4e-4d5f-9b1a-6f0f4a3c2d10",
+            name = "Modulo",
+            hostIndependent = true
+    )
+    private class ModuloFilter extends PolicyUnitImpl {
+        private final int divisor;
+        private final int remainder;
+
+        public ModuloFilter(Guid id, int divisor, int remainder) {
+            super(createPolicyUnit(id, "Modulo" + divisor + "_" + remainder, PolicyUnitType.FILTER), null);
+            this.divisor = divisor;
+            this.remainder = remainder;
+        }
+
+        @Override
+        public List<VDS> filter(Cluster cluster,
+                List<VDS> hosts,
+                VM vm,
+                Map<String, String> parameters,
+                PerHostMessages messages) {
+            moduloFilterCalls.incrementAndGet();
+            List<VDS> kept = new ArrayList<>();
+            for (VDS host : hosts) {
+                if (indexOf(host) % divisor == remainder) {
+                    messages.addMessage(host.getId(), String.format("$%1$s %2$d", "index", indexOf(host)));
+                } else {
+                    kept.add(host);
+                }
+            }
+            return kept;
+        }
+    }
+
+    /**
+     * Filters out the first host it gets, so it depends on the other hosts and runs over all of them
+     */
+    private class FirstHostFilter extends PolicyUnitImpl {
+
+        public FirstHostFilter() {
+            super(createPolicyUnit(FIRST_HOST_ID, "FirstHost", PolicyUnitType.FILTER), null);
+        }
+
+        @Override
+        public List<VDS> filter(Cluster cluster,
+                List<VDS> hosts,
+                VM vm,
+                Map<String, String> parameters,
+                PerHostMessages messages) {
+            return new ArrayList<>(hosts.subList(1, hosts.size()));
+        }
+    }
+
+    /**
+     * Scores the hosts of {@link #MANY_HOSTS} by their index multiplied by the factor, modulo the hosts count
+     */
+    private static class IndexScore extends PolicyUnitImpl {
+        private final int factor;
+
+        public IndexScore(Guid id, int factor) {
+            super(createPolicyUnit(id, "IndexScore" + factor, PolicyUnitType.WEIGHT), null);
+            this.factor = factor;
+        }
+
+        @Override
+        protected Guid getGuid() {
+            return getPolicyUnit().getId();
+        }
+
+        @Override
+        public List<Pair<Guid, Integer>> score(Cluster cluster, List<VDS> hosts, VM vm, Map<String, String> parameters) {
+            return hosts.stream()
+                    .map(host -> new Pair<>(host.getId(), indexOf(host) * factor % MANY_HOSTS_COUNT))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Keeps the hosts whose pending vCPUs leave room for the VM, out of {@link #HOST_CPUS} per host
+     */
+    private class CpuCapacityFilter extends PolicyUnitImpl {
+
+        public CpuCapacityFilter() {
+            super(createPolicyUnit(), null);
+        }
+
+        @Override
+        public List<VDS> filter(Cluster cluster,
+                List<VDS> hosts,
+                VM vm,
+                Map<String, String> parameters,
+                PerHostMessages messages) {
+            seenPendingCpus.add(hosts.stream().collect(Collectors.toMap(VDS::getId, VDS::getPendingVcpusCount)));
+            return hosts.stream()
+                    .filter(host -> host.getPendingVcpusCount() + vm.getNumOfCpus() <= HOST_CPUS)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static PolicyUnit createPolicyUnit() {
+        return createPolicyUnit(FILTER_ID, "CpuCapacity", PolicyUnitType.FILTER);
+    }
+
+    private static PolicyUnit createPolicyUnit(Guid id, String name, PolicyUnitType type) {
+        PolicyUnit policyUnit = new PolicyUnit();
+        policyUnit.setId(id);
+        policyUnit.setName(name);
+        policyUnit.setInternal(true);
+        policyUnit.setEnabled(true);
+        policyUnit.setPolicyUnitType(type);
+        return policyUnit;
+    }
+}
@@ -0,0 +1,166 @@
+package org.ovirt.engine.core.bll.storage.ovfstore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.ovirt.engine.core.bll.BaseCommandTest;
+import org.ovirt.engine.core.common.action.ActionReturnValue;
+import org.ovirt.engine.core.common.action.ActionType;
+import org.ovirt.engine.core.common.action.ProcessOvfUpdateParameters;
+import org.ovirt.engine.core.common.businessentities.OvfEntityData;
+import org.ovirt.engine.core.common.businessentities.StorageDomainOvfInfo;
+import org.ovirt.engine.core.common.businessentities.StorageDomainOvfInfoStatus;
+import org.ovirt.engine.core.common.businessentities.VMStatus;
+import org.ovirt.engine.core.common.businessentities.VmEntityType;
+import org.ovirt.engine.core.common.businessentities.storage.DiskImage;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.common.vdscommands.VDSReturnValue;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.DiskDao;
+import org.ovirt.engine.core.dao.StorageDomainDao;
+import org.ovirt.engine.core.dao.StorageDomainOvfInfoDao;
+import org.ovirt.engine.core.dao.StoragePoolDao;
+import org.ovirt.engine.core.dao.UnregisteredOVFDataDao;
+import org.ovirt.engine.core.dao.VmAndTemplatesGenerationsDao;
+import org.ovirt.engine.core.dao.VmDynamicDao;
+import org.ovirt.engine.core.dao.VmStaticDao;
+import org.ovirt.engine.core.vdsbroker.VDSBrokerFrontend;
+
+public class ProcessOvfUpdateForStorageDomainCommandTest extends BaseCommandTest {
+
+    private static final Guid POOL_ID = Guid.newGuid();
+    private static final Guid DOMAIN_ID = Guid.newGuid();
+    private static final Guid VM_ID = Guid.newGuid();
+
+    @Spy
+    @InjectMocks
+    private ProcessOvfUpdateForStorageDomainCommand<ProcessOvfUpdateParameters> command =
+            new ProcessOvfUpdateForStorageDomainCommand<>(new ProcessOvfUpdateParameters(POOL_ID, DOMAIN_ID), null);
+
+    @Mock
+    private StoragePoolDao storagePoolDao;
+    @Mock
+    private StorageDomainOvfInfoDao storageDomainOvfInfoDao;
+    @Mock
+    private DiskDao diskDao;
+    @Mock
+    private StorageDomainDao storageDomainDao;
+    @Mock
+    private VmStaticDao vmStaticDao;
+    @Mock
+    private VmDynamicDao vmDynamicDao;
+    @Mock
+    private VmAndTemplatesGenerationsDao vmAndTemplatesGenerationsDao;
+    @Mock
+    private UnregisteredOVFDataDao unregisteredOVFDataDao;
+    @Mock
+    private VDSBrokerFrontend vdsBroker;
+
+    private StorageDomainOvfInfo ovfStore1;
+    private StorageDomainOvfInfo ovfStore2;
+
+    @BeforeEach
+    public void setUp() {
+        ovfStore1 = mockOvfStore(new Date(0L));
+        ovfStore2 = mockOvfStore(new Date(1L));
+        doReturn(new ArrayList<>(Arrays.asList(ovfStore1, ovfStore2))).when(storageDomainOvfInfoDao)
+                .getAllForDomain(DOMAIN_ID);
+        doReturn(new ArrayList<>(Collections.singletonList(VM_ID))).when(storageDomainDao)
+                .getVmAndTemplatesIdsByStorageDomainId(DOMAIN_ID, false, false);
+        doReturn(new ArrayList<>()).when(vmStaticDao).getVmAndTemplatesIdsWithoutAttachedImageDisks(POOL_ID, false);
+        doReturn(Collections.singletonList(new Pair<>(VM_ID, "ovf"))).when(vmAndTemplatesGenerationsDao)
+                .loadOvfDataForIds(any());
+        doReturn(Collections.emptyList()).when(unregisteredOVFDataDao)
+                .getAllForStorageDomainByEntityType(DOMAIN_ID, null);
+        doReturn(new VDSReturnValue()).when(vdsBroker).runVdsCommand(any(), any());
+
+        ActionReturnValue uploaded = new ActionReturnValue();
+        uploaded.setSucceeded(true);
+        doReturn(uploaded).when(command).runInternalActionWithTasksContext(eq(ActionType.UploadStream), any());
+    }
+
+    private StorageDomainOvfInfo mockOvfStore(Date lastUpdated) {
+        DiskImage ovfDisk = new DiskImage();
+        ovfDisk.setId(Guid.newGuid());
+        ovfDisk.setImageId(Guid.newGuid());
+        ovfDisk.setStoragePoolId(POOL_ID);
+        ovfDisk.setStorageIds(new ArrayList<>(Collections.singletonList(DOMAIN_ID)));
+        doReturn(ovfDisk).when(diskDao).get(ovfDisk.getId());
+        return new StorageDomainOvfInfo(DOMAIN_ID,
+                Collections.singletonList(VM_ID),
+                ovfDisk.getId(),
+                StorageDomainOvfInfoStatus.UPDATED,
+                lastUpdated);
+    }
+
+    private void initCommand(boolean skipUpToDateOvfStores) {
+        command.getParameters().setSkipUpToDateOvfStores(skipUpToDateOvfStores);
+        command.init();
+    }
+
+    @Test
+    public void upToDateOvfStoreSkippedOnPeriodicUpdate() {
+        initCommand(true);
+
+        assertTrue(command.updateOvfStoreContent());
+        verify(command, never()).runInternalActionWithTasksContext(eq(ActionType.UploadStream), any());
+        verify(storageDomainOvfInfoDao, never()).update(any());
+        assertEquals(new Date(0L), ovfStore1.getLastUpdated());
+        assertEquals(new Date(1L), ovfStore2.getLastUpdated());
+    }
+
+    @Test
+    public void upToDateOvfStoreUpdatedWhenForced() {
+        initCommand(false);
+
+        assertTrue(command.updateOvfStoreContent());
+        verify(command, times(2)).runInternalActionWithTasksContext(eq(ActionType.UploadStream), any());
+        assertNotEquals(new Date(0L), ovfStore1.getLastUpdated());
+        assertNotEquals(new Date(1L), ovfStore2.getLastUpdated());
+    }
+
+    @Test
+    public void outdatedOvfStoreUpdatedOnPeriodicUpdate() {
+        ovfStore1.setStatus(StorageDomainOvfInfoStatus.OUTDATED);
+        initCommand(true);
+
+        assertTrue(command.updateOvfStoreContent());
+        // the up to date store serves as the backup, so the outdated one is updated right away
+        verify(command).runInternalActionWithTasksContext(eq(ActionType.UploadStream), any());
+        assertEquals(StorageDomainOvfInfoStatus.UPDATED, ovfStore1.getStatus());
+        assertNotEquals(new Date(0L), ovfStore1.getLastUpdated());
+        assertEquals(new Date(1L), ovfStore2.getLastUpdated());
+    }
+
+    @Test
+    public void ovfStoreOfDomainWithUnregisteredOvfsUpdatedOnPeriodicUpdate() {
+        OvfEntityData unregistered = new OvfEntityData();
+        unregistered.setEntityId(Guid.newGuid());
+        unregistered.setEntityType(VmEntityType.VM);
+        unregistered.setOvfData("unregistered ovf");
+        unregistered.setStatus(VMStatus.Down);
+        doReturn(Collections.singletonList(unregistered)).when(unregisteredOVFDataDao)
+                .getAllForStorageDomainByEntityType(DOMAIN_ID, null);
+        initCommand(true);
+
+        assertTrue(command.updateOvfStoreContent());
+        verify(command, times(2)).runInternalActionWithTasksContext(eq(ActionType.UploadStream), any());
+    }
+}
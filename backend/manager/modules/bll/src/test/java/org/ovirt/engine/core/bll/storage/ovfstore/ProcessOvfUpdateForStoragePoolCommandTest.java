@@ -19,6 +19,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -63,16 +64,19 @@ import org.ovirt.engine.core.dao.StorageDomainOvfInfoDao;
 import org.ovirt.engine.core.dao.StoragePoolDao;
 import org.ovirt.engine.core.dao.VmAndTemplatesGenerationsDao;
 import org.ovirt.engine.core.dao.VmDao;
+import org.ovirt.engine.core.dao.VmDeviceDao;
 import org.ovirt.engine.core.dao.VmStaticDao;
 import org.ovirt.engine.core.dao.VmTemplateDao;
 import org.ovirt.engine.core.dao.scheduling.AffinityGroupDao;
+import org.ovirt.engine.core.utils.ExecutorServiceExtension;
 import org.ovirt.engine.core.utils.MockConfigDescriptor;
 import org.ovirt.engine.core.utils.MockConfigExtension;
 
-@ExtendWith(MockConfigExtension.class)
+@ExtendWith({ MockConfigExtension.class, ExecutorServiceExtension.class })
 @MockitoSettings(strictness = Strictness.LENIENT)
 public class ProcessOvfUpdateForStoragePoolCommandTest extends BaseCommandTest {
     private static final int ITEMS_COUNT_PER_UPDATE = 100;
+    private static final int OVF_UPDATE_PARALLELISM = 4;
 
     @Spy
     @InjectMocks
@@ -115,6 +119,12 @@ public class ProcessOvfUpdateForStoragePoolCommandTest extends BaseCommandTest {
     @Mock
     private OvfHelper ovfHelper;
 
+    @Mock
+    private VmDeviceDao vmDeviceDao;
+
+    @Spy
+    private OvfUpdateStatistics ovfUpdateStatistics = new OvfUpdateStatistics();
+
     @Spy
     @InjectMocks
     private OvfUpdateProcessHelper ovfUpdateProcessHelper;
@@ -129,7 +139,8 @@ public class ProcessOvfUpdateForStoragePoolCommandTest extends BaseCommandTest {
     public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
         return Stream.of(
             MockConfigDescriptor.of(ConfigValues.StorageDomainOvfStoreCount, 1),
-            MockConfigDescriptor.of(ConfigValues.OvfItemsCountPerUpdate, ITEMS_COUNT_PER_UPDATE)
+            MockConfigDescriptor.of(ConfigValues.OvfItemsCountPerUpdate, ITEMS_COUNT_PER_UPDATE),
+            MockConfigDescriptor.of(ConfigValues.OvfUpdateParallelism, OVF_UPDATE_PARALLELISM)
         );
     }
 
@@ -141,11 +152,14 @@ public class ProcessOvfUpdateForStoragePoolCommandTest extends BaseCommandTest {
         // mock ovf data updater methods
         doNothing().when(ovfUpdateProcessHelper).loadTemplateData(any());
         doNothing().when(ovfUpdateProcessHelper).loadVmData(any());
+        doNothing().when(ovfUpdateProcessHelper).loadTemplateData(any(), any());
+        doNothing().when(ovfUpdateProcessHelper).loadVmData(any(), any());
         doNothing().when(command).updateVmDisksFromDb(any());
         doNothing().when(command).updateTemplateDisksFromDb(any());
 
         // dao related mocks.
         doReturn(1L).when(vmStaticDao).getDbGeneration(any());
+        mockDbGenerations(1L);
         doReturn(pool1).when(command).getStoragePool();
 
         mockAnswers();
@@ -158,6 +172,7 @@ public class ProcessOvfUpdateForStoragePoolCommandTest extends BaseCommandTest {
         templates = new HashMap<>();
         pool1 = new StoragePool();
         pool1.setId(Guid.newGuid());
+        pool1.setName("pool1");
         pool1.setStatus(StoragePoolStatus.Maintenance);
 
         performStoragePoolInitOps(pool1);
@@ -176,6 +191,13 @@ public class ProcessOvfUpdateForStoragePoolCommandTest extends BaseCommandTest {
         }
     }
 
+    private void mockDbGenerations(long dbGeneration) {
+        doAnswer(invocation -> {
+            Collection<Guid> ids = (Collection<Guid>) invocation.getArguments()[0];
+            return ids.stream().collect(Collectors.toMap(Function.identity(), id -> dbGeneration));
+        }).when(vmStaticDao).getDbGenerations(any());
+    }
+
     private void mockAnswers() {
         doAnswer(invocation -> {
             VM vm = (VM) invocation.getArguments()[0];
@@ -395,6 +417,7 @@ public class ProcessOvfUpdateForStoragePoolCommandTest extends BaseCommandTest {
 
         verifyCorrectOvfDataUpdaterRun(idsThatNeededToBeUpdated);
         verifyOvfUpdatedForSupportedPools(Collections.singletonList(pool1.getId()), Collections.emptyMap());
+        verifyOvfUpdateProgress(2 * size, 2 * size, 0);
     }
 
     private void executeCommand() {
@@ -440,6 +463,7 @@ public class ProcessOvfUpdateForStoragePoolCommandTest extends BaseCommandTest {
         executeCommand();
         verify(command, never()).performOvfUpdate(any());
         verifyCorrectOvfDataUpdaterRun(Collections.emptyList());
+        verifyOvfUpdateProgress(2 * size, 0, 2 * size);
     }
 
     @Test
@@ -468,6 +492,14 @@ public class ProcessOvfUpdateForStoragePoolCommandTest extends BaseCommandTest {
         needToBeUpdated.addAll(templatesGuids);
         verifyCorrectOvfDataUpdaterRun(needToBeUpdated);
         verifyOvfUpdatedForSupportedPools(Collections.emptyList(), Collections.emptyMap());
+        verifyOvfUpdateProgress(2 * size, 2 * size, 0);
+    }
+
+    private void verifyOvfUpdateProgress(int toUpdate, int generated, int skipped) {
+        List<String> progress = ovfUpdateStatistics.showOvfUpdateProgress();
+        assertEquals(1, progress.size());
+        assertTrue(progress.get(0).startsWith(String.format("Data Center %s: finished, to update %d, generated %d, skipped %d,",
+                pool1.getName(), toUpdate, generated, skipped)), progress.get(0));
     }
 
     private int numberOfTimesToBeCalled(int size, boolean isBothVmAndTemplates) {
@@ -540,6 +572,7 @@ public class ProcessOvfUpdateForStoragePoolCommandTest extends BaseCommandTest {
         initTestForPool(pool1, vmGuids, templatesGuids, removedGuids);
 
         doReturn(2L).when(vmStaticDao).getDbGeneration(any());
+        mockDbGenerations(2L);
 
         executeCommand();
 
@@ -0,0 +1,148 @@
+package org.ovirt.engine.core.bll.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.transaction.TransactionManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.ovirt.engine.core.common.action.ActionParametersBase;
+import org.ovirt.engine.core.common.action.ActionReturnValue;
+import org.ovirt.engine.core.common.businessentities.CommandEntity;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.CommandStatus;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.CommandEntityDao;
+import org.ovirt.engine.core.utils.InjectedMock;
+import org.ovirt.engine.core.utils.InjectorExtension;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+
+@ExtendWith({ MockitoExtension.class, MockConfigExtension.class, InjectorExtension.class })
+public class CommandsCacheImplTest {
+
+    private static final Guid COMMAND_ID = Guid.newGuid();
+
+    @Mock
+    private CommandEntityDao commandEntityDao;
+
+    @Mock
+    private ManagedScheduledExecutorService executor;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    @InjectedMock
+    public TransactionManager transactionManager;
+
+    @InjectMocks
+    private CommandsCacheImpl commandsCache;
+
+    private CommandEntity persisted;
+
+    private Runnable unloadEndedCommandsPayload;
+
+    @BeforeEach
+    public void setUp() {
+        persisted = new CommandEntity();
+        persisted.setId(COMMAND_ID);
+        persisted.setCommandStatus(CommandStatus.ENDED_SUCCESSFULLY);
+        persisted.setCommandParameters(new ActionParametersBase());
+        persisted.setReturnValue(new ActionReturnValue());
+
+        doAnswer(invocation -> {
+            CommandEntity metadata = new CommandEntity();
+            metadata.setId(COMMAND_ID);
+            metadata.setCommandStatus(persisted.getCommandStatus());
+            invocation.<Consumer<CommandEntity>> getArgument(0).accept(metadata);
+            return null;
+        }).when(commandEntityDao).forEachWithoutPayload(any());
+
+        commandsCache.init();
+        ArgumentCaptor<Runnable> job = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).scheduleWithFixedDelay(job.capture(), anyLong(), anyLong(), any());
+        unloadEndedCommandsPayload = job.getValue();
+    }
+
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(MockConfigDescriptor.of(ConfigValues.CommandEntityPayloadCacheInMinutes, 0));
+    }
+
+    @Test
+    public void payloadIsNotReadOnStartup() {
+        CommandEntity cmdEntity = commandsCache.get(COMMAND_ID);
+
+        assertEquals(CommandStatus.ENDED_SUCCESSFULLY, cmdEntity.getCommandStatus());
+        assertFalse(cmdEntity.isPayloadLoaded());
+        verify(commandEntityDao, never()).get(any());
+    }
+
+    @Test
+    public void payloadIsReadOnceOnFirstAccess() {
+        when(commandEntityDao.get(COMMAND_ID)).thenReturn(persisted);
+        CommandEntity cmdEntity = commandsCache.get(COMMAND_ID);
+
+        assertSame(persisted.getCommandParameters(), cmdEntity.getCommandParameters());
+        assertSame(persisted.getReturnValue(), cmdEntity.getReturnValue());
+        assertTrue(cmdEntity.isPayloadLoaded());
+        verify(commandEntityDao, times(1)).get(COMMAND_ID);
+    }
+
+    @Test
+    public void setterKeepsTheRestOfThePayload() {
+        when(commandEntityDao.get(COMMAND_ID)).thenReturn(persisted);
+        CommandEntity cmdEntity = commandsCache.get(COMMAND_ID);
+
+        ActionParametersBase parameters = new ActionParametersBase();
+        cmdEntity.setCommandParameters(parameters);
+
+        assertSame(parameters, cmdEntity.getCommandParameters());
+        assertSame(persisted.getReturnValue(), cmdEntity.getReturnValue());
+    }
+
+    @Test
+    public void payloadOfEndedCommandIsUnloaded() {
+        when(commandEntityDao.get(COMMAND_ID)).thenReturn(persisted);
+        CommandEntity cmdEntity = commandsCache.get(COMMAND_ID);
+        cmdEntity.getCommandParameters();
+
+        unloadEndedCommandsPayload.run();
+
+        assertFalse(cmdEntity.isPayloadLoaded());
+    }
+
+    @Test
+    public void payloadOfRunningCommandIsKept() {
+        commandsCache.get(COMMAND_ID);
+        CommandEntity running = new CommandEntity();
+        running.setId(Guid.newGuid());
+        running.setCommandStatus(CommandStatus.ACTIVE);
+        running.setCommandParameters(new ActionParametersBase());
+        commandsCache.put(running);
+
+        unloadEndedCommandsPayload.run();
+        assertTrue(running.isPayloadLoaded());
+
+        commandsCache.updateCommandStatus(running.getId(), CommandStatus.ENDED_SUCCESSFULLY);
+        unloadEndedCommandsPayload.run();
+        assertFalse(running.isPayloadLoaded());
+    }
+}
@@ -0,0 +1,146 @@
+package org.ovirt.engine.core.bll.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.bll.tasks.interfaces.CommandCallback;
+import org.ovirt.engine.core.bll.tasks.interfaces.CommandContextsCache;
+import org.ovirt.engine.core.common.businessentities.CommandEntity;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.CommandStatus;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+
+@ExtendWith({ MockitoExtension.class, MockConfigExtension.class })
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class CommandsRepositoryTest {
+
+    private static final long POLLING_RATE = 1L;
+
+    @Mock
+    private CommandsCache commandsCache;
+
+    @Mock
+    private CommandContextsCache contextsCache;
+
+    private CommandsRepository commandsRepository;
+    private int wakeUps;
+
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(MockConfigDescriptor.of(ConfigValues.AsyncCommandPollingLoopInSeconds, POLLING_RATE));
+    }
+
+    @BeforeEach
+    public void setUp() {
+        commandsRepository = new CommandsRepository(commandsCache, contextsCache);
+        commandsRepository.setCallbacksWakeUpListener(() -> wakeUps++);
+        doAnswer(invocation -> {
+            commandsCache.get(invocation.getArgument(0)).setCommandStatus(invocation.getArgument(1));
+            return null;
+        }).when(commandsCache).updateCommandStatus(any(), any());
+    }
+
+    @Test
+    public void callbackIsNotDueBeforeItsDelay() {
+        Guid cmdId = addCallback(null, 10);
+
+        assertTrue(commandsRepository.pollDueCallbacks().isEmpty());
+        assertNotNull(commandsRepository.getCallbackTiming(cmdId));
+    }
+
+    @Test
+    public void wokenUpCallbackIsDueOnce() {
+        Guid cmdId = addCallback(null, 10);
+
+        commandsRepository.wakeUpCallback(cmdId);
+
+        assertEquals(Collections.singletonList(cmdId), commandsRepository.pollDueCallbacks());
+        assertTrue(commandsRepository.pollDueCallbacks().isEmpty());
+        assertEquals(1, wakeUps);
+        assertEquals(POLLING_RATE, commandsRepository.getCallbackTiming(cmdId).getInitialDelay());
+    }
+
+    @Test
+    public void callbackWokenUpWhileExecutingIsDueRightAfter() {
+        Guid cmdId = addCallback(null, 0);
+        assertEquals(Collections.singletonList(cmdId), commandsRepository.pollDueCallbacks());
+
+        commandsRepository.wakeUpCallback(cmdId);
+        assertTrue(commandsRepository.pollDueCallbacks().isEmpty());
+
+        commandsRepository.scheduleCallback(cmdId, 10);
+        assertEquals(Collections.singletonList(cmdId), commandsRepository.pollDueCallbacks());
+    }
+
+    @Test
+    public void callbackBacksOffUpToMaxDelay() {
+        Guid cmdId = addCallback(null, 0);
+        commandsRepository.getCallbackTiming(cmdId).setInitialDelay(1);
+        commandsRepository.pollDueCallbacks();
+
+        commandsRepository.backOffCallback(cmdId, 3);
+        assertEquals(2, commandsRepository.getCallbackTiming(cmdId).getInitialDelay());
+        commandsRepository.getCallbackTiming(cmdId).setExecuting(true);
+        commandsRepository.backOffCallback(cmdId, 3);
+        assertEquals(3, commandsRepository.getCallbackTiming(cmdId).getInitialDelay());
+    }
+
+    @Test
+    public void callbackWokenUpWhileExecutingIsNotBackedOff() {
+        Guid cmdId = addCallback(null, 0);
+        commandsRepository.getCallbackTiming(cmdId).setInitialDelay(8);
+        assertEquals(Collections.singletonList(cmdId), commandsRepository.pollDueCallbacks());
+
+        commandsRepository.wakeUpCallback(cmdId);
+        commandsRepository.backOffCallback(cmdId, 60);
+
+        assertEquals(POLLING_RATE, commandsRepository.getCallbackTiming(cmdId).getInitialDelay());
+        assertEquals(Collections.singletonList(cmdId), commandsRepository.pollDueCallbacks());
+    }
+
+    @Test
+    public void removedCallbackIsNotDue() {
+        Guid cmdId = addCallback(null, 0);
+
+        commandsRepository.removeFromCallbackMap(cmdId);
+
+        assertTrue(commandsRepository.pollDueCallbacks().isEmpty());
+    }
+
+    @Test
+    public void statusChangeOfChildWakesUpParent() {
+        Guid parentId = addCallback(null, 10);
+        Guid childId = addCallback(parentId, 10);
+
+        commandsRepository.updateCommandStatus(childId, CommandStatus.SUCCEEDED);
+
+        assertEquals(2, commandsRepository.pollDueCallbacks().size());
+    }
+
+    private Guid addCallback(Guid parentId, long delay) {
+        CommandEntity cmdEntity = new CommandEntity();
+        cmdEntity.setId(Guid.newGuid());
+        cmdEntity.setParentCommandId(parentId);
+        cmdEntity.setRootCommandId(parentId == null ? cmdEntity.getId() : parentId);
+        cmdEntity.setCommandStatus(CommandStatus.ACTIVE);
+        when(commandsCache.get(cmdEntity.getId())).thenReturn(cmdEntity);
+        commandsRepository.addToCallbackMap(cmdEntity.getId(), new CallbackTiming(mock(CommandCallback.class), delay));
+        return cmdEntity.getId();
+    }
+}
@@ -4,6 +4,7 @@ import org.ovirt.engine.core.compat.Guid;
 
 public class ProcessOvfUpdateParameters extends StorageDomainParametersBase {
     private boolean skipDomainChecks;
+    private boolean skipUpToDateOvfStores;
     private OvfUpdateStep ovfUpdateStep;
 
     public ProcessOvfUpdateParameters() {
@@ -22,6 +23,19 @@ public class ProcessOvfUpdateParameters extends StorageDomainParametersBase {
         this.skipDomainChecks = skipDomainChecks;
     }
 
+    /**
+     * Whether the OVF stores that already hold the current OVFs of the domain are left as they are. Only the periodic
+     * update sets it, the updates requested by the user or done before the domain goes away always write all the
+     * stores.
+     */
+    public boolean isSkipUpToDateOvfStores() {
+        return skipUpToDateOvfStores;
+    }
+
+    public void setSkipUpToDateOvfStores(boolean skipUpToDateOvfStores) {
+        this.skipUpToDateOvfStores = skipUpToDateOvfStores;
+    }
+
 
     public OvfUpdateStep getOvfUpdateStep() {
         return ovfUpdateStep;
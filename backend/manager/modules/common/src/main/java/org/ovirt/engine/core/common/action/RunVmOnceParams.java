@@ -21,7 +21,6 @@ public class RunVmOnceParams extends RunVmParams {
     private String sysPrepUserName;
     private String sysPrepPassword;
     private VmInit vmInit;
-    private Guid destinationVdsId;
     private Set<GraphicsType> runOnceGraphics;
     private DisplayType runOnceDisplayType;
 
@@ -63,7 +62,6 @@ public class RunVmOnceParams extends RunVmParams {
                 sysPrepUserName,
                 sysPrepPassword,
                 vmInit,
-                destinationVdsId,
                 customEmulatedMachine,
                 customCpuName,
                 customProperties,
@@ -94,7 +92,6 @@ public class RunVmOnceParams extends RunVmParams {
                 && Objects.equals(sysPrepUserName, other.sysPrepUserName)
                 && Objects.equals(sysPrepPassword, other.sysPrepPassword)
                 && Objects.equals(vmInit, other.vmInit)
-                && Objects.equals(destinationVdsId, other.destinationVdsId)
                 && Objects.equals(customEmulatedMachine, other.customEmulatedMachine)
                 && Objects.equals(customCpuName, other.customCpuName)
                 && Objects.equals(customProperties, other.customProperties)
@@ -147,14 +144,6 @@ public class RunVmOnceParams extends RunVmParams {
         this.vncKeyboardLayout = vncKeyboardLayout;
     }
 
-    public Guid getDestinationVdsId() {
-        return destinationVdsId;
-    }
-
-    public void setDestinationVdsId(Guid destinationVdsId) {
-        this.destinationVdsId = destinationVdsId;
-    }
-
     public Set<GraphicsType> getRunOnceGraphics() {
         return runOnceGraphics;
     }
@@ -35,6 +35,7 @@ public class RunVmParams extends VmOperationParameterBase {
     private Boolean runAsStateless;
     private boolean balloonEnabled;
     private boolean runInUnknownStatus;
+    private Guid destinationVdsId;
 
     private RunVmFlow cachedFlow;
 
@@ -62,7 +63,8 @@ public class RunVmParams extends VmOperationParameterBase {
                 && Objects.equals(floppyPath, other.floppyPath)
                 && initializationType == other.initializationType
                 && Objects.equals(runAsStateless, other.runAsStateless)
-                && balloonEnabled == other.balloonEnabled;
+                && balloonEnabled == other.balloonEnabled
+                && Objects.equals(destinationVdsId, other.destinationVdsId);
     }
 
     @Override
@@ -74,7 +76,8 @@ public class RunVmParams extends VmOperationParameterBase {
                 floppyPath,
                 initializationType,
                 runAsStateless,
-                balloonEnabled
+                balloonEnabled,
+                destinationVdsId
         );
     }
 
@@ -142,4 +145,12 @@ public class RunVmParams extends VmOperationParameterBase {
         this.runInUnknownStatus = runInUnknownStatus;
     }
 
+    public Guid getDestinationVdsId() {
+        return destinationVdsId;
+    }
+
+    public void setDestinationVdsId(Guid destinationVdsId) {
+        this.destinationVdsId = destinationVdsId;
+    }
+
 }
@@ -5,6 +5,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 import org.ovirt.engine.core.common.action.ActionParametersBase;
 import org.ovirt.engine.core.common.action.ActionReturnValue;
@@ -33,6 +34,9 @@ public class CommandEntity implements BusinessEntity<Guid> {
     private boolean waitingForEvent;
     private Map<String, Serializable> data;
 
+    // fetches the parameters and the return value of the command when they were not loaded along with the rest of it
+    private transient volatile Supplier<CommandEntity> payloadLoader;
+
     public CommandEntity() {
         commandStatus = CommandStatus.UNKNOWN;
         createdAt = new Date();
@@ -79,11 +83,13 @@ public class CommandEntity implements BusinessEntity<Guid> {
         this.createdAt = createdAt;
     }
 
-    public ActionParametersBase getCommandParameters() {
+    public synchronized ActionParametersBase getCommandParameters() {
+        loadPayload();
         return this.commandParameters;
     }
 
-    public void setCommandParameters(ActionParametersBase value) {
+    public synchronized void setCommandParameters(ActionParametersBase value) {
+        loadPayload();
         this.commandParameters = value;
     }
 
@@ -181,14 +187,45 @@ public class CommandEntity implements BusinessEntity<Guid> {
         return entity;
     }
 
-    public ActionReturnValue getReturnValue() {
+    public synchronized ActionReturnValue getReturnValue() {
+        loadPayload();
         return returnValue;
     }
 
-    public void setReturnValue(ActionReturnValue returnValue) {
+    public synchronized void setReturnValue(ActionReturnValue returnValue) {
+        loadPayload();
         this.returnValue = returnValue;
     }
 
+    public boolean isPayloadLoaded() {
+        return payloadLoader == null;
+    }
+
+    /**
+     * Drops the parameters and the return value of the command, they are fetched by the given loader when they are
+     * accessed next
+     */
+    public synchronized void unloadPayload(Supplier<CommandEntity> payloadLoader) {
+        this.commandParameters = null;
+        this.returnValue = null;
+        this.payloadLoader = payloadLoader;
+    }
+
+    /**
+     * Must be called holding the lock of the entity, so the payload can not be unloaded before it is read
+     */
+    private void loadPayload() {
+        Supplier<CommandEntity> loader = payloadLoader;
+        if (loader != null) {
+            CommandEntity loaded = loader.get();
+            if (loaded != null) {
+                commandParameters = loaded.commandParameters;
+                returnValue = loaded.returnValue;
+            }
+            payloadLoader = null;
+        }
+    }
+
     public boolean isExecuted() {
         return executed;
     }
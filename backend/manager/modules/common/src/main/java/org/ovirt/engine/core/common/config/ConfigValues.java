@@ -57,6 +57,21 @@ public enum ConfigValues {
 
     @TypeConverterAttribute(Long.class)
     VdsRefreshRate,
+
+    /**
+     * Whether the VMs reported by the getAllVmStats verb are decoded from the JSON tree of the response instead of
+     * being converted to maps first.
+     */
+    @TypeConverterAttribute(Boolean.class)
+    VmStatsStreamingDecoding,
+
+    /**
+     * Number of milliseconds the requests sent to a host right after another one are held for, so the ones sent
+     * meanwhile go to the host together as a single JSON-RPC batch. Zero sends every request on its own.
+     */
+    @TypeConverterAttribute(Integer.class)
+    JsonRpcBatchWindowInMillis,
+
     @TypeConverterAttribute(Long.class)
     AsyncTaskPollingRate,
 
@@ -85,17 +100,28 @@ public enum ConfigValues {
     @Reloadable
     @TypeConverterAttribute(Integer.class)
     AuditLogAgingThreshold,
+    @TypeConverterAttribute(Integer.class)
+    AuditLogAsyncQueueSize,
+    @TypeConverterAttribute(Integer.class)
+    AuditLogAsyncBatchSize,
+    @TypeConverterAttribute(Integer.class)
+    AuditLogAsyncIntervalInMillis,
     @Reloadable
     @TypeConverterAttribute(Integer.class)
     CoCoLifeInMinutes,
     @TypeConverterAttribute(Integer.class)
     CoCoWaitForEventInMinutes,
+    @TypeConverterAttribute(Integer.class)
+    CoCoCallbackLanes,
     @TypeConverterAttribute(Date.class)
     CommandEntityCleanupTime,
     @Reloadable
     @TypeConverterAttribute(Integer.class)
     CommandEntityAgingThreshold,
     @Reloadable
+    @TypeConverterAttribute(Integer.class)
+    CommandEntityPayloadCacheInMinutes,
+    @Reloadable
     @TypeConverterAttribute(String.class)
     VdsFenceType(ClientAccessLevel.Admin),
     @Reloadable
@@ -140,6 +166,10 @@ public enum ConfigValues {
     @Reloadable
     @TypeConverterAttribute(Integer.class)
     SearchResultsLimit(ClientAccessLevel.User),
+    @TypeConverterAttribute(Integer.class)
+    SearchQueryCacheSize,
+    @TypeConverterAttribute(Integer.class)
+    SearchQueryCacheTimeToLiveInSeconds,
     @Reloadable
     @TypeConverterAttribute(Integer.class)
     VDSAttemptsToResetCount,
@@ -205,6 +235,12 @@ public enum ConfigValues {
     @TypeConverterAttribute(Integer.class)
     NumberVmRefreshesBeforeSave,
     @TypeConverterAttribute(Integer.class)
+    NumberVmStatisticsRefreshesBeforeSave,
+    @TypeConverterAttribute(Integer.class)
+    StatisticsPersistenceIntervalInMillis,
+    @TypeConverterAttribute(Integer.class)
+    StatisticsPersistenceMaxPending,
+    @TypeConverterAttribute(Integer.class)
     NumberVdsRefreshesBeforeTryToStartUnknownVms,
     @TypeConverterAttribute(Integer.class)
     NumberVdsRefreshesBeforeRetryToStartUnknownVms,
@@ -474,6 +510,10 @@ public enum ConfigValues {
     @TypeConverterAttribute(Integer.class)
     OvfItemsCountPerUpdate,
 
+    @Reloadable
+    @TypeConverterAttribute(Integer.class)
+    OvfUpdateParallelism,
+
     @TypeConverterAttribute(String.class)
     DefaultWindowsTimeZone(ClientAccessLevel.Admin),
 
@@ -1138,6 +1178,10 @@ public enum ConfigValues {
     @TypeConverterAttribute(Integer.class)
     SchedulerOverBookingThreshold(ClientAccessLevel.Admin),
 
+    @Reloadable
+    @TypeConverterAttribute(Integer.class)
+    SchedulerParallelism,
+
     @TypeConverterAttribute(Boolean.class)
     GlusterSupportArbiterVolume,
 
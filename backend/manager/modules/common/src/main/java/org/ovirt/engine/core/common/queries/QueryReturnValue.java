@@ -21,6 +21,8 @@ public final class QueryReturnValue implements Serializable, HasCorrelationId {
     private String exceptionCode;
     private Object returnValue;
     private String correlationId;
+    private long changeGeneration = -1;
+    private boolean unchanged;
 
     @SuppressWarnings("unchecked")
     public <T> T getReturnValue() {
@@ -67,6 +69,29 @@ public final class QueryReturnValue implements Serializable, HasCorrelationId {
         succeeded = value;
     }
 
+    /**
+     * The change generation of the searched type the results were read at, -1 when it is not tracked
+     */
+    public long getChangeGeneration() {
+        return changeGeneration;
+    }
+
+    public void setChangeGeneration(long value) {
+        changeGeneration = value;
+    }
+
+    /**
+     * Whether the search was not run again, as nothing of the searched type changed since the change generation
+     * the caller already has results for
+     */
+    public boolean isUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(boolean value) {
+        unchanged = value;
+    }
+
     @Override
     public String getCorrelationId() {
         return correlationId;
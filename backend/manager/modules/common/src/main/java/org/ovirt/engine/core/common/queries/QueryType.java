@@ -106,7 +106,9 @@ public enum QueryType implements Serializable {
 
     // Vm Network
     GetVmInterfacesByVmId(QueryAuthType.User),
+    GetVmInterfacesByVmIds,
     GetVmGuestAgentInterfacesByVmId(QueryAuthType.User),
+    GetVmGuestAgentInterfacesByVmIds,
     GetVmInterfaceFilterParametersByVmInterfaceId(QueryAuthType.User),
     GetVmInterfaceFilterParameterById(QueryAuthType.User),
     ValidateVmMacs,
@@ -219,6 +221,7 @@ public enum QueryType implements Serializable {
 
     GetDiskVmElementById(QueryAuthType.User),
     GetDiskVmElementsByVmId(QueryAuthType.User),
+    GetDiskVmElementsByVmIds,
 
     // Users queries
     GetUserVmsByUserIdAndGroups(QueryAuthType.User),
@@ -13,6 +13,11 @@ public class SearchParameters extends QueryParametersBase implements Serializabl
     private int _maxCount;
     private long searchFrom;
     private boolean caseSensitive;
+    private boolean periodicRefresh;
+    private boolean keysetPaging;
+    private String searchAfterSortValue;
+    private String searchAfterId;
+    private long changeGeneration = -1;
 
     public SearchParameters() {
         this (null, SearchType.VM, true);
@@ -61,6 +66,67 @@ public class SearchParameters extends QueryParametersBase implements Serializabl
         caseSensitive = value;
     }
 
+    /**
+     * Whether the search is a periodic refresh of a list, which can share the results of an identical refresh that is
+     * running
+     */
+    public boolean getPeriodicRefresh() {
+        return periodicRefresh;
+    }
+
+    public void setPeriodicRefresh(boolean value) {
+        periodicRefresh = value;
+    }
+
+    /**
+     * Whether the results are paged by key rather than by page number: they are ordered by the default sort of the
+     * searched type and then by its primary key, and only the ones that follow the position set by
+     * {@link #setSearchAfter(String, String)} are returned, so the pages don't shift when entities are added or
+     * removed between them
+     */
+    public boolean isKeysetPaging() {
+        return keysetPaging;
+    }
+
+    public void setKeysetPaging(boolean value) {
+        keysetPaging = value;
+    }
+
+    public String getSearchAfterSortValue() {
+        return searchAfterSortValue;
+    }
+
+    public String getSearchAfterId() {
+        return searchAfterId;
+    }
+
+    /**
+     * Pages the results by key, returning the ones that follow the given result, the last one of the previous page
+     *
+     * @param sortValue
+     *            the value of the default sort column of the result, the same as its id for the types sorted by their
+     *            primary key
+     * @param id
+     *            the primary key of the result
+     */
+    public void setSearchAfter(String sortValue, String id) {
+        keysetPaging = true;
+        searchAfterSortValue = sortValue;
+        searchAfterId = id;
+    }
+
+    /**
+     * The change generation of the searched type the caller's results of the same search were read at, so the search
+     * is not run again when nothing of the type changed since, -1 when the caller has no such results
+     */
+    public long getChangeGeneration() {
+        return changeGeneration;
+    }
+
+    public void setChangeGeneration(long value) {
+        changeGeneration = value;
+    }
+
     @Override
     protected ToStringBuilder appendAttributes(ToStringBuilder tsb) {
         return super.appendAttributes(tsb)
@@ -68,6 +134,11 @@ public class SearchParameters extends QueryParametersBase implements Serializabl
                 .append("searchPattern", getSearchPattern())
                 .append("caseSensitive", getCaseSensitive())
                 .append("from", getSearchFrom())
-                .append("max", getMaxCount());
+                .append("max", getMaxCount())
+                .append("periodicRefresh", getPeriodicRefresh())
+                .append("keysetPaging", isKeysetPaging())
+                .append("searchAfterSortValue", getSearchAfterSortValue())
+                .append("searchAfterId", getSearchAfterId())
+                .append("changeGeneration", getChangeGeneration());
     }
 }
@@ -229,6 +229,7 @@ public enum VDSCommandType {
     FullList("org.ovirt.engine.core.vdsbroker.vdsbroker"),       // get a list of VMs with full data and statistics and devices
     GetVmStats("org.ovirt.engine.core.vdsbroker.vdsbroker"),     // get a VM with full data and statistics
     GetAllVmStats("org.ovirt.engine.core.vdsbroker.vdsbroker"),  // get a list of VMs with full data and statistics
+    GetAllVmStatsAsync("org.ovirt.engine.core.vdsbroker.vdsbroker"),
     HostDevListByCaps("org.ovirt.engine.core.vdsbroker"),        // get all host devices with passthrough information
     Destroy("org.ovirt.engine.core.vdsbroker.vdsbroker"),        // Clean a DOWN VM from the vms list
     SetDestroyOnReboot("org.ovirt.engine.core.vdsbroker.vdsbroker"),
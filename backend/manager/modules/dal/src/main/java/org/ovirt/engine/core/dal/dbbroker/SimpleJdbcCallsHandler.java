@@ -6,6 +6,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -28,6 +29,8 @@ public class SimpleJdbcCallsHandler {
     private final DbEngineDialect dialect;
     private final JdbcTemplate jdbcTemplate;
 
+    private volatile Consumer<String> modificationListener = procedureName -> {};
+
     @Inject
     public SimpleJdbcCallsHandler(
             DbEngineDialect dialect,
@@ -43,6 +46,20 @@ public class SimpleJdbcCallsHandler {
         SimpleJdbcCall createCall();
     }
 
+    /**
+     * Sets the listener told about the name of every modification procedure that was executed
+     */
+    public void setModificationListener(Consumer<String> modificationListener) {
+        this.modificationListener = Objects.requireNonNull(modificationListener);
+    }
+
+    /**
+     * Reports a modification made by a procedure that is not executed through this handler
+     */
+    public void reportModification(String procedureName) {
+        modificationListener.accept(procedureName);
+    }
+
     /**
      * Runs a set of stored procedure calls in a batch. Only useful for update procedures that return no value
      *
@@ -56,6 +73,7 @@ public class SimpleJdbcCallsHandler {
             throws DataAccessException {
 
         jdbcTemplate.execute(new BatchProcedureExecutionConnectionCallback(this, procName, executions));
+        reportModification(procName);
     }
 
     /**
@@ -73,12 +91,15 @@ public class SimpleJdbcCallsHandler {
     }
 
     public Map<String, Object> executeModification(final String procedureName, final MapSqlParameterSource paramSource) {
-        return executeImpl(procedureName, paramSource, createCallForModification(procedureName));
+        Map<String, Object> result = executeImpl(procedureName, paramSource, createCallForModification(procedureName));
+        reportModification(procedureName);
+        return result;
     }
 
     public int executeModificationReturnResult(final String procedureName, final MapSqlParameterSource paramSource) {
         Integer procedureResult = null;
         Map<String, Object> result = executeImpl(procedureName, paramSource, createCallForModification(procedureName));
+        reportModification(procedureName);
         if (!result.isEmpty()) {
             List<?> resultArray = (List<?>) result.values().iterator().next();
             if (resultArray != null && !resultArray.isEmpty()) {
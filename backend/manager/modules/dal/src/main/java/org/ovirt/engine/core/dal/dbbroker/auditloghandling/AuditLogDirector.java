@@ -1,25 +1,73 @@
 package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
 
+import java.lang.management.ManagementFactory;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import org.apache.commons.lang.StringUtils;
+import org.ovirt.engine.core.common.AuditLogSeverity;
 import org.ovirt.engine.core.common.AuditLogType;
 import org.ovirt.engine.core.common.businessentities.AuditLog;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.dao.AuditLogDao;
+import org.ovirt.engine.core.utils.threadpool.ThreadPools;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Writes the audit log events to the database.
+ *
+ * Events are queued, up to {@link ConfigValues#AuditLogAsyncQueueSize}, and written in batches of up to
+ * {@link ConfigValues#AuditLogAsyncBatchSize} events by a background job, so event storms do not slow the threads
+ * that log the events down. The events are written synchronously when their id is needed right away, i.e. external
+ * events which are looked up by the API right after they are logged and alerts which are deduplicated and removed by
+ * the {@link AlertDirector}, when the queue is full and when the queue is disabled by setting its size to 0.
+ */
 @Singleton
-public class AuditLogDirector {
+public class AuditLogDirector implements AuditLogDirectorMXBean {
     private static final Logger log = LoggerFactory.getLogger(AuditLogDirector.class);
     private static final int USERNAME_LENGTH = 255;
 
     @Inject
     private AuditLogDao auditLogDao;
+    @Inject
+    @ThreadPools(ThreadPools.ThreadPoolType.EngineScheduledThreadPool)
+    private ManagedScheduledExecutorService executor;
+
+    private BlockingQueue<AuditLog> queue;
+    private int batchSize;
+    private ScheduledFuture<?> writerJob;
+    /** Serializes the writes of the queued events, so they are written in the order they were logged */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedEvents = new LongAdder();
+    private final LongAccumulator maxBatchSize = new LongAccumulator(Math::max, 0);
+    private final LongAdder synchronousEvents = new LongAdder();
+    private final LongAdder overflowEvents = new LongAdder();
+    private final LongAdder droppedEvents = new LongAdder();
+
+    private MBeanServer platformMBeanServer;
+    private ObjectName objectName;
 
     public void log(AuditLogable auditLogable, AuditLogType logType) {
         log(auditLogable, logType, "");
@@ -28,6 +76,44 @@ public class AuditLogDirector {
     private AuditLogDirector() {
     }
 
+    @PostConstruct
+    void init() {
+        int queueSize = Config.<Integer> getValue(ConfigValues.AuditLogAsyncQueueSize);
+        if (queueSize > 0) {
+            queue = new LinkedBlockingQueue<>(queueSize);
+            batchSize = Config.<Integer> getValue(ConfigValues.AuditLogAsyncBatchSize);
+            int interval = Config.<Integer> getValue(ConfigValues.AuditLogAsyncIntervalInMillis);
+            writerJob = executor.scheduleWithFixedDelay(this::writeQueuedEvents,
+                    interval,
+                    interval,
+                    TimeUnit.MILLISECONDS);
+        }
+        registerInJMX();
+    }
+
+    private void registerInJMX() {
+        try {
+            objectName = new ObjectName("AuditLogDirector:type=" + this.getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during registration of Monitoring into JMX:" + e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (writerJob != null) {
+            writerJob.cancel(false);
+        }
+        flush();
+        try {
+            platformMBeanServer.unregisterMBean(objectName);
+        } catch (Exception e) {
+            log.debug("Problem during unregistration of Monitoring into JMX: {}", e);
+        }
+    }
+
     /**
      * Log an event with the given message
      *
@@ -65,11 +151,110 @@ public class AuditLogDirector {
         // truncate user name
         auditLog.setUserName(StringUtils.abbreviate(auditLog.getUserName(), USERNAME_LENGTH));
 
+        if (isWrittenSynchronously(auditLog)) {
+            synchronousEvents.increment();
+            save(auditLog);
+        } else if (!queue.offer(auditLog)) {
+            overflowEvents.increment();
+            save(auditLog);
+        }
+        return auditLog;
+    }
+
+    private boolean isWrittenSynchronously(AuditLog auditLog) {
+        return queue == null || auditLog.isExternal() || auditLog.getSeverity() == AuditLogSeverity.ALERT;
+    }
+
+    private void save(AuditLog auditLog) {
         TransactionSupport.executeInNewTransaction(() -> {
             auditLogDao.save(auditLog);
             return null;
         });
-        return auditLog;
+    }
+
+    private void writeQueuedEvents() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to save audit log events: {}", e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    /**
+     * Writes the queued events, should be called before modifying the events in the database so the modification
+     * is not overridden by events that were logged before it
+     */
+    public void flush() {
+        if (queue == null) {
+            return;
+        }
+
+        writeLock.lock();
+        try {
+            List<AuditLog> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                saveBatch(batch);
+                batch.clear();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void saveBatch(List<AuditLog> batch) {
+        try {
+            TransactionSupport.executeInNewTransaction(() -> {
+                auditLogDao.saveAllInBatch(batch);
+                return null;
+            });
+            batches.increment();
+            batchedEvents.add(batch.size());
+            maxBatchSize.accumulate(batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to save a batch of {} audit log events, saving them one by one: {}",
+                    batch.size(),
+                    e.getMessage());
+            log.debug("Exception", e);
+            batch.forEach(this::saveOrDrop);
+        }
+    }
+
+    private void saveOrDrop(AuditLog auditLog) {
+        try {
+            save(auditLog);
+        } catch (RuntimeException e) {
+            droppedEvents.increment();
+            log.error("Failed to save audit log event, dropping it: {}: {}", getMessageToLog(auditLog), e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    @Override
+    public List<String> showAuditLogStatistics() {
+        long batchCount = batches.sum();
+        long batchedCount = batchedEvents.sum();
+        return Arrays.asList(
+                String.format("Queue depth %d", queue == null ? 0 : queue.size()),
+                String.format("Batches %d, batched events %d, average batch size %d, max batch size %d",
+                        batchCount,
+                        batchedCount,
+                        batchCount == 0 ? 0 : batchedCount / batchCount,
+                        maxBatchSize.get()),
+                String.format("Synchronous events %d, overflow events %d, dropped events %d",
+                        synchronousEvents.sum(),
+                        overflowEvents.sum(),
+                        droppedEvents.sum()));
+    }
+
+    @Override
+    public void clear() {
+        batches.reset();
+        batchedEvents.reset();
+        maxBatchSize.reset();
+        synchronousEvents.reset();
+        overflowEvents.reset();
+        droppedEvents.reset();
     }
 
     private void logMessage(AuditLog auditLog) {
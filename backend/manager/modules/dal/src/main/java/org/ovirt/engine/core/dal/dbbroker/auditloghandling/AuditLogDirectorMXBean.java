@@ -0,0 +1,19 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import java.util.List;
+
+/**
+ * The following interface is used as interface for JMX bean
+ */
+public interface AuditLogDirectorMXBean {
+
+    /**
+     * The following method will return the queue depth, batch sizes and dropped events of the audit log writer
+     */
+    List<String> showAuditLogStatistics();
+
+    /**
+     * The following method will allow to reset the collected statistics via JMX console
+     */
+    void clear();
+}
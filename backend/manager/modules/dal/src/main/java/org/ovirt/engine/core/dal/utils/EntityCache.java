@@ -0,0 +1,193 @@
+package org.ovirt.engine.core.dal.utils;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import org.ovirt.engine.core.utils.transaction.TransactionCompletionListener;
+import org.ovirt.engine.core.utils.transaction.TransactionSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded, least recently used, read-through cache of the entities a DAO loads by id.
+ *
+ * The cached entities are never handed out, callers get copies of them so they can modify what they got as usual.
+ * The DAO has to invalidate an entity whenever it modifies it. When the modification is done within a transaction,
+ * the entity is not cached again until the transaction completes, so neither uncommitted nor rolled back data is
+ * served to others. An entity loaded while it was invalidated is not cached, so stale data loaded concurrently with
+ * a modification is never cached either.
+ *
+ * A disabled cache simply loads the entities.
+ */
+public class EntityCache<ID, T> {
+
+    private static final Logger log = LoggerFactory.getLogger(EntityCache.class);
+
+    private final String name;
+    private final boolean enabled;
+    private final UnaryOperator<T> copier;
+    private final Map<ID, T> entries;
+    /** The number of transactions in progress that modified the entity, by entity id */
+    private final Map<ID, Integer> modifiedInTransaction = new HashMap<>();
+    /** The number of transactions in progress that modified entities which cannot be told apart */
+    private int allModifiedInTransaction;
+    private long invalidations;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    EntityCache(String name, boolean enabled, int maxSize, UnaryOperator<T> copier) {
+        this.name = name;
+        this.enabled = enabled;
+        this.copier = copier;
+        this.entries = new LinkedHashMap<ID, T>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ID, T> eldest) {
+                if (size() > maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns a copy of the cached entity, loading it if it is not cached
+     * @param id - the id of the entity
+     * @param loader - loads the entity from the database
+     */
+    public T get(ID id, Function<ID, T> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+
+        long stamp;
+        T cached;
+        synchronized (this) {
+            cached = entries.get(id);
+            if (cached != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+            stamp = invalidations;
+        }
+
+        if (cached != null) {
+            return copier.apply(cached);
+        }
+
+        T loaded = loader.apply(id);
+        if (loaded != null) {
+            T copy = copier.apply(loaded);
+            synchronized (this) {
+                if (stamp == invalidations && allModifiedInTransaction == 0
+                        && !modifiedInTransaction.containsKey(id)) {
+                    entries.put(id, copy);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Invalidates the entity with the given id, should be called whenever it is modified
+     */
+    public void invalidate(ID id) {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (this) {
+            entries.remove(id);
+            invalidations++;
+        }
+        afterTransaction(() -> modifiedInTransaction.merge(id, 1, Integer::sum),
+                () -> modifiedInTransaction.computeIfPresent(id, (key, count) -> count == 1 ? null : count - 1),
+                () -> entries.remove(id));
+    }
+
+    /**
+     * Invalidates all the entities, should be called when entities are modified in a way that does not tell which
+     */
+    public void invalidateAll() {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (this) {
+            entries.clear();
+            invalidations++;
+        }
+        afterTransaction(() -> allModifiedInTransaction++,
+                () -> allModifiedInTransaction--,
+                entries::clear);
+    }
+
+    private void afterTransaction(Runnable begin, Runnable end, Runnable invalidate) {
+        if (!isInTransaction()) {
+            return;
+        }
+
+        synchronized (this) {
+            begin.run();
+        }
+        try {
+            TransactionSupport.registerRollbackHandler(new TransactionCompletionListener() {
+                @Override
+                public void onSuccess() {
+                    completed();
+                }
+
+                @Override
+                public void onRollback() {
+                    completed();
+                }
+
+                private void completed() {
+                    synchronized (EntityCache.this) {
+                        end.run();
+                        invalidate.run();
+                        invalidations++;
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // the transaction is most probably going to be rolled back, better not to cache the entity again
+            log.warn("Cannot track the completion of the transaction that modified a cached {}, "
+                    + "it will not be cached anymore: {}", name, e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    protected boolean isInTransaction() {
+        return TransactionSupport.current() != null;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        invalidations++;
+    }
+
+    @Override
+    public synchronized String toString() {
+        long requests = hits + misses;
+        return String.format("Cache %s: size %d, hits %d, misses %d, hit rate %d%%, evictions %d, invalidations %d",
+                name,
+                entries.size(),
+                hits,
+                misses,
+                requests == 0 ? 0 : hits * 100 / requests,
+                evictions,
+                invalidations);
+    }
+}
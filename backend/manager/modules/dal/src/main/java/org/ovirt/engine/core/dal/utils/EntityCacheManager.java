@@ -0,0 +1,152 @@
+package org.ovirt.engine.core.dal.utils;
+
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.commons.lang.SerializationUtils;
+import org.ovirt.engine.core.utils.EngineLocalConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates the entity caches of the DAOs and exposes their statistics via JMX.
+ *
+ * The caches are opt-in, they are enabled by ENGINE_DAO_CACHE_ENABLED and hold up to ENGINE_DAO_CACHE_SIZE entities
+ * each, as set in the engine local configuration.
+ */
+@Named
+@Singleton
+public class EntityCacheManager implements EntityCacheManagerMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EntityCacheManager.class);
+
+    private static final int DEFAULT_CACHE_SIZE = 1000;
+
+    private final Map<String, EntityCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    private boolean enabled;
+    private int cacheSize = DEFAULT_CACHE_SIZE;
+    private MBeanServer platformMBeanServer;
+    private ObjectName objectName;
+
+    @PostConstruct
+    private void init() {
+        loadConfig();
+        if (enabled) {
+            registerInJMX();
+        }
+    }
+
+    private void loadConfig() {
+        try {
+            EngineLocalConfig config = EngineLocalConfig.getInstance();
+            enabled = config.getBoolean("ENGINE_DAO_CACHE_ENABLED", false);
+            cacheSize = config.getInteger("ENGINE_DAO_CACHE_SIZE", DEFAULT_CACHE_SIZE);
+        } catch (Exception exception) {
+            log.warn("Can't load the configuration of the DAO entity caches, they are disabled. Error: {}",
+                    exception.getMessage());
+            log.debug("Exception", exception);
+        }
+    }
+
+    private void registerInJMX() {
+        try {
+            objectName = new ObjectName("EntityCacheManager:type=" + this.getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during registration of Monitoring into JMX:" + e);
+        }
+    }
+
+    @PreDestroy
+    public void unregisterFromJMX() {
+        if (objectName == null) {
+            return;
+        }
+
+        try {
+            platformMBeanServer.unregisterMBean(objectName);
+        } catch (Exception e) {
+            log.debug("Problem during unregistration of Monitoring into JMX: {}", e);
+        }
+    }
+
+    /**
+     * Creates the cache of the entities of the given type, which hands out copies of the cached entities
+     * made by serializing them
+     */
+    @SuppressWarnings("unchecked")
+    public <ID, T extends Serializable> EntityCache<ID, T> createCache(Class<T> entityType) {
+        return createCache(entityType, entity -> (T) SerializationUtils.clone(entity));
+    }
+
+    /**
+     * Creates the cache of the entities of the given type
+     * @param copier - makes the copies of the cached entities that are handed out
+     */
+    public <ID, T> EntityCache<ID, T> createCache(Class<T> entityType, UnaryOperator<T> copier) {
+        return createCache(entityType.getSimpleName(), copier);
+    }
+
+    /**
+     * Creates a cache that is not named after the type of its values, like a cache of values derived from several
+     * tables
+     * @param copier - makes the copies of the cached values that are handed out
+     */
+    public <ID, T> EntityCache<ID, T> createCache(String name, UnaryOperator<T> copier) {
+        EntityCache<ID, T> cache = new EntityCache<>(name, enabled, cacheSize, copier);
+        register(cache);
+        return cache;
+    }
+
+    /**
+     * Registers the cache, replacing the cache with the same name
+     */
+    void register(EntityCache<?, ?> cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    /**
+     * Invalidates all the cached entities of the given type
+     */
+    public void invalidateAll(Class<?> entityType) {
+        invalidateAll(entityType.getSimpleName());
+    }
+
+    /**
+     * Invalidates all the cached values of the cache with the given name
+     */
+    public void invalidateAll(String name) {
+        EntityCache<?, ?> cache = caches.get(name);
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    public List<String> showCacheStatistics() {
+        return caches.values()
+                .stream()
+                .map(EntityCache::toString)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void clear() {
+        caches.values().forEach(EntityCache::clear);
+    }
+}
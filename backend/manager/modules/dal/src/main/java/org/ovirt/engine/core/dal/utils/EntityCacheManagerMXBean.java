@@ -0,0 +1,19 @@
+package org.ovirt.engine.core.dal.utils;
+
+import java.util.List;
+
+/**
+ * The following interface is used as interface for JMX bean
+ */
+public interface EntityCacheManagerMXBean {
+
+    /**
+     * The following method will return the size, hit rate and evictions of every DAO entity cache
+     */
+    List<String> showCacheStatistics();
+
+    /**
+     * The following method will allow to empty all the DAO entity caches via JMX console
+     */
+    void clear();
+}
@@ -5,6 +5,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
@@ -21,6 +23,8 @@ import org.ovirt.engine.core.common.network.SwitchType;
 import org.ovirt.engine.core.common.scheduling.OptimizationType;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.DbFacadeUtils;
+import org.ovirt.engine.core.dal.utils.EntityCache;
+import org.ovirt.engine.core.dal.utils.EntityCacheManager;
 import org.ovirt.engine.core.utils.SerializationFactory;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SingleColumnRowMapper;
@@ -34,9 +38,19 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 @Singleton
 public class ClusterDaoImpl extends BaseDao implements ClusterDao {
 
+    @Inject
+    private EntityCacheManager entityCacheManager;
+
+    private EntityCache<Guid, Cluster> cache;
+
+    @PostConstruct
+    private void init() {
+        cache = entityCacheManager.createCache(Cluster.class);
+    }
+
     @Override
     public Cluster get(Guid id) {
-        return get(id, null, false);
+        return cache.get(id, key -> get(key, null, false));
     }
 
     @Override
@@ -130,11 +144,15 @@ public class ClusterDaoImpl extends BaseDao implements ClusterDao {
             cluster.setId(id);
         }
         getCallsHandler().executeModification("InsertCluster", getClusterParamSource(cluster));
+        cache.invalidate(id);
     }
 
     @Override
     public void update(Cluster cluster) {
         getCallsHandler().executeModification("UpdateCluster", getClusterParamSource(cluster));
+        cache.invalidate(cluster.getId());
+        // the data center of the cluster is a parent of its hosts and VMs
+        entityCacheManager.invalidateAll(PermissionDaoImpl.ENTITY_PERMISSIONS_CACHE);
     }
 
     @Override
@@ -143,6 +161,7 @@ public class ClusterDaoImpl extends BaseDao implements ClusterDao {
                 .addValue("cluster_id", id);
 
         getCallsHandler().executeModification("DeleteCluster", parameterSource);
+        cache.invalidate(id);
     }
 
     @Override
@@ -181,6 +200,7 @@ public class ClusterDaoImpl extends BaseDao implements ClusterDao {
                 .addValue("detect_emulated_machine", detectEmulatedMachine);
 
         getCallsHandler().executeModification("UpdateClusterEmulatedMachine", parameterSource);
+        cache.invalidate(clusterId);
     }
 
     @Override
@@ -3,6 +3,7 @@ package org.ovirt.engine.core.dao;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.ovirt.engine.core.common.businessentities.CommandAssociatedEntity;
 import org.ovirt.engine.core.common.businessentities.CommandEntity;
@@ -21,6 +22,13 @@ public interface CommandEntityDao extends GenericDao<CommandEntity, Guid> {
 
     void removeAllBeforeDate(Date cutoff);
 
+    /**
+     * Passes all the commands to the consumer one by one, without their parameters and return value which have to be
+     * fetched by {@link #get} when needed. The commands are read in pages ordered by their id, so only a page of them
+     * is held in memory at a time.
+     */
+    void forEachWithoutPayload(Consumer<CommandEntity> consumer);
+
     List<CommandEntity> getCmdEntitiesByParentCmdId(Guid parentId);
 
     List<Guid> getCommandIdsByEntity(Guid entityId);
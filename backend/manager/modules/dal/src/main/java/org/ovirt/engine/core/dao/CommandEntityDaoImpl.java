@@ -5,6 +5,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.function.Consumer;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -31,6 +32,8 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 @Singleton
 public class CommandEntityDaoImpl extends DefaultGenericDao<CommandEntity, Guid> implements CommandEntityDao {
 
+    static final int PAGE_SIZE = 1000;
+
     private static final RowMapper<Guid> idRowMapper = (rs, rowNum) -> getGuidDefaultEmpty(rs, "id");
 
     private static final RowMapper<CommandAssociatedEntity> coCoCmdEntityRowMapper = (rs, rowNum) -> {
@@ -41,7 +44,7 @@ public class CommandEntityDaoImpl extends DefaultGenericDao<CommandEntity, Guid>
         return entity;
     };
 
-    private static RowMapper<CommandEntity> mapper = (resultSet, rowNum) -> {
+    private static RowMapper<CommandEntity> metadataMapper = (resultSet, rowNum) -> {
         CommandEntity result = new CommandEntity();
         result.setEngineSessionSeqId(resultSet.getLong("engine_session_seq_id"));
         result.setUserId(Guid.createGuidFromString(resultSet.getString("user_id")));
@@ -52,8 +55,6 @@ public class CommandEntityDaoImpl extends DefaultGenericDao<CommandEntity, Guid>
         result.setCommandType(ActionType.forValue(resultSet.getInt("command_type")));
         result.setParentCommandId(Guid.createGuidFromString(resultSet.getString("parent_command_id")));
         result.setRootCommandId(Guid.createGuidFromString(resultSet.getString("root_command_id")));
-        result.setCommandParameters(deserializeParameters(resultSet.getString("command_parameters"), resultSet.getString("command_params_class")));
-        result.setReturnValue(deserializeReturnValue(resultSet.getString("return_value"), resultSet.getString("return_value_class")));
         result.setCommandStatus(getCommandStatus(resultSet.getString("status")));
         result.setExecuted(resultSet.getBoolean("executed"));
         result.setCallbackEnabled(resultSet.getBoolean("callback_enabled"));
@@ -62,6 +63,13 @@ public class CommandEntityDaoImpl extends DefaultGenericDao<CommandEntity, Guid>
         return result;
     };
 
+    private static RowMapper<CommandEntity> mapper = (resultSet, rowNum) -> {
+        CommandEntity result = metadataMapper.mapRow(resultSet, rowNum);
+        result.setCommandParameters(deserializeParameters(resultSet.getString("command_parameters"), resultSet.getString("command_params_class")));
+        result.setReturnValue(deserializeReturnValue(resultSet.getString("return_value"), resultSet.getString("return_value_class")));
+        return result;
+    };
+
     private MapSqlParameterMapper<CommandAssociatedEntity> cocoCmdEntityMapper = entity -> {
         CustomMapSqlParameterSource paramSource = getCustomMapSqlParameterSource();
         paramSource.addValue("command_id", entity.getCommandId()).
@@ -171,6 +179,24 @@ public class CommandEntityDaoImpl extends DefaultGenericDao<CommandEntity, Guid>
         getCallsHandler().executeModification("DeleteCommandEntitiesOlderThanDate", parameterSource);
     }
 
+    @Override
+    public void forEachWithoutPayload(Consumer<CommandEntity> consumer) {
+        Guid lastId = Guid.Empty;
+        List<CommandEntity> page;
+        do {
+            MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
+                    .addValue("after_command_id", lastId)
+                    .addValue("page_size", PAGE_SIZE);
+            page = getCallsHandler().executeReadList("GetMetadataFromCommandEntitiesPage",
+                    metadataMapper,
+                    parameterSource);
+            page.forEach(consumer);
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == PAGE_SIZE);
+    }
+
     @Override
     public List<CommandEntity> getCmdEntitiesByParentCmdId(Guid parentId) {
         MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
@@ -2,11 +2,13 @@ package org.ovirt.engine.core.dao;
 
 import java.util.List;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.ovirt.engine.core.common.businessentities.aaa.DbGroup;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.utils.EntityCacheManager;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
@@ -17,6 +19,9 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 @Singleton
 public class DbGroupDaoImpl extends BaseDao implements DbGroupDao {
 
+    @Inject
+    private EntityCacheManager entityCacheManager;
+
     @Override
     public DbGroup get(Guid id) {
         return getCallsHandler().executeRead("GetGroupById",
@@ -107,6 +112,7 @@ public class DbGroupDaoImpl extends BaseDao implements DbGroupDao {
                 .addValue("distinguishedname", group.getDistinguishedName())
                 .addValue("external_id", group.getExternalId())
                 .addValue("namespace", group.getNamespace()));
+        entityCacheManager.invalidateAll(PermissionDaoImpl.ENTITY_PERMISSIONS_CACHE);
     }
 
     @Override
@@ -115,6 +121,7 @@ public class DbGroupDaoImpl extends BaseDao implements DbGroupDao {
                 .addValue("id", id);
 
         getCallsHandler().executeModification("DeleteGroup", parameterSource);
+        entityCacheManager.invalidateAll(PermissionDaoImpl.ENTITY_PERMISSIONS_CACHE);
     }
 
     private static final RowMapper<DbGroup> dbGroupRowMapper = (rs, rowNum) -> {
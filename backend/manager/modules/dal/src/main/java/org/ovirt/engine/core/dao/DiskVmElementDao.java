@@ -62,6 +62,15 @@ public interface DiskVmElementDao extends GenericDao<DiskVmElement, VmDeviceId>
      */
     List<DiskVmElement> getAllForVm(Guid vmId, Guid userID, boolean isFiltered);
 
+    /**
+     * Retrieves all disk VM elements of the specified virtual machines.
+     *
+     * @param vmIds
+     *            the VM ids
+     * @return the list of disk VM elements
+     */
+    List<DiskVmElement> getAllForVms(Collection<Guid> vmIds);
+
     /**
      * Retrieves all disk VM elements for plugged disk attached to the specified virtual machine id.
      *
@@ -101,6 +101,12 @@ public class DiskVmElementDaoImpl extends DefaultGenericDao<DiskVmElement, VmDev
                 parameterSource);
     }
 
+    public List<DiskVmElement> getAllForVms(Collection<Guid> vmIds) {
+        return getCallsHandler().executeReadList("GetDiskVmElementsForVms",
+                diskVmElementRowMapper,
+                getCustomMapSqlParameterSource().addValue("vm_ids", createArrayOfUUIDs(vmIds)));
+    }
+
     public List<DiskVmElement> getAllPluggedToVm(Guid vmId) {
         MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource().addValue("vm_id", vmId);
         return getCallsHandler().executeReadList("GetDiskVmElementsPluggedToVm",
@@ -3,6 +3,7 @@ package org.ovirt.engine.core.dao;
 import java.util.LinkedList;
 import java.util.List;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
@@ -11,6 +12,7 @@ import org.ovirt.engine.core.common.businessentities.EngineSession;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.CustomMapSqlParameterSource;
 import org.ovirt.engine.core.dal.dbbroker.DbEngineDialect;
+import org.ovirt.engine.core.dal.utils.EntityCacheManager;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
@@ -21,6 +23,9 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 @Singleton
 public class EngineSessionDaoImpl extends BaseDao implements EngineSessionDao {
 
+    @Inject
+    private EntityCacheManager entityCacheManager;
+
     private static final RowMapper<EngineSession> engineSessionRowMapper = (rs, rowNum) -> {
         EngineSession session = new EngineSession();
         session.setId(rs.getLong("id"));
@@ -82,7 +87,10 @@ public class EngineSessionDaoImpl extends BaseDao implements EngineSessionDao {
     @Override
     public long save(EngineSession session) {
         EngineSessionParameterSource parameterSource = getEngineSessionParameterSource(session);
-        return ((Integer) getCallsHandler().executeModification("InsertEngineSession", parameterSource).get("id")).longValue();
+        long id = ((Integer) getCallsHandler().executeModification("InsertEngineSession", parameterSource).get("id")).longValue();
+        // the groups of the sessions of a user take part in the permission decisions on the user
+        entityCacheManager.invalidateAll(PermissionDaoImpl.ENTITY_PERMISSIONS_CACHE);
+        return id;
     }
 
     @Override
@@ -90,14 +98,18 @@ public class EngineSessionDaoImpl extends BaseDao implements EngineSessionDao {
         MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
                 .addValue("id", id);
 
-        return getCallsHandler().executeModificationReturnResult("DeleteEngineSession", parameterSource);
+        int removed = getCallsHandler().executeModificationReturnResult("DeleteEngineSession", parameterSource);
+        entityCacheManager.invalidateAll(PermissionDaoImpl.ENTITY_PERMISSIONS_CACHE);
+        return removed;
     }
 
     @Override
     public int removeAll() {
         MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource();
 
-        return getCallsHandler().executeModificationReturnResult("DeleteAllFromEngineSessions", parameterSource);
+        int removed = getCallsHandler().executeModificationReturnResult("DeleteAllFromEngineSessions", parameterSource);
+        entityCacheManager.invalidateAll(PermissionDaoImpl.ENTITY_PERMISSIONS_CACHE);
+        return removed;
     }
 
     @Override
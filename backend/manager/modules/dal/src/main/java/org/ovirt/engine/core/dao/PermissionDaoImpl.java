@@ -1,8 +1,14 @@
 package org.ovirt.engine.core.dao;
 
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.UnaryOperator;
 
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
@@ -13,6 +19,8 @@ import org.ovirt.engine.core.common.businessentities.RoleType;
 import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.utils.EntityCache;
+import org.ovirt.engine.core.dal.utils.EntityCacheManager;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
@@ -22,6 +30,39 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 @Named
 @Singleton
 public class PermissionDaoImpl extends BaseDao implements PermissionDao {
+
+    /**
+     * The name of the cache of the results of {@link #getEntityPermissions(Guid, ActionGroup, Guid, VdcObjectType)}.
+     * A result depends on the permissions, the action groups of the roles, the groups of the user's sessions and the
+     * parents of the entity, so the DAOs that modify any of them invalidate the whole cache.
+     */
+    public static final String ENTITY_PERMISSIONS_CACHE = "EntityPermissions";
+
+    /**
+     * The parents of disks and templates are looked up through their images, which are modified by every storage
+     * operation, so the decisions on them are not cached
+     */
+    private static final Set<VdcObjectType> UNCACHED_OBJECT_TYPES = EnumSet.of(VdcObjectType.Disk,
+            VdcObjectType.VmTemplate);
+
+    @Inject
+    private EntityCacheManager entityCacheManager;
+
+    private EntityCache<EntityPermissionsKey, Guid> entityPermissionsCache;
+
+    @PostConstruct
+    private void init() {
+        entityPermissionsCache = entityCacheManager.createCache(ENTITY_PERMISSIONS_CACHE, UnaryOperator.identity());
+    }
+
+    /**
+     * Replaces the cache of the results of {@link #getEntityPermissions(Guid, ActionGroup, Guid, VdcObjectType)},
+     * which has to be registered in the {@link EntityCacheManager} for the other DAOs to invalidate it
+     */
+    void setEntityPermissionsCache(EntityCache<EntityPermissionsKey, Guid> entityPermissionsCache) {
+        this.entityPermissionsCache = entityPermissionsCache;
+    }
+
     @Override
     public Permission get(Guid id) {
         MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
@@ -214,6 +255,22 @@ public class PermissionDaoImpl extends BaseDao implements PermissionDao {
     @Override
     public Guid getEntityPermissions(Guid adElementId, ActionGroup actionGroup, Guid objectId,
                                      VdcObjectType vdcObjectType) {
+        if (UNCACHED_OBJECT_TYPES.contains(vdcObjectType)) {
+            return loadEntityPermissions(adElementId, actionGroup, objectId, vdcObjectType);
+        }
+
+        // denials are cached as an empty id, as the cache does not hold missing entries
+        Guid permissionId = entityPermissionsCache.get(
+                new EntityPermissionsKey(adElementId, actionGroup, objectId, vdcObjectType),
+                key -> {
+                    Guid loaded = loadEntityPermissions(adElementId, actionGroup, objectId, vdcObjectType);
+                    return loaded != null ? loaded : Guid.Empty;
+                });
+        return Guid.Empty.equals(permissionId) ? null : permissionId;
+    }
+
+    private Guid loadEntityPermissions(Guid adElementId, ActionGroup actionGroup, Guid objectId,
+            VdcObjectType vdcObjectType) {
         MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource().addValue("user_id", adElementId)
                 .addValue("action_group_id", actionGroup.getId()).addValue("object_id", objectId).addValue(
                         "object_type_id", vdcObjectType.getValue());
@@ -254,6 +311,7 @@ public class PermissionDaoImpl extends BaseDao implements PermissionDao {
                         permission.getObjectType().getValue());
 
         getCallsHandler().executeModification("InsertPermission", parameterSource);
+        entityPermissionsCache.invalidateAll();
     }
 
     @Override
@@ -262,6 +320,7 @@ public class PermissionDaoImpl extends BaseDao implements PermissionDao {
                 .addValue("id", id);
 
         getCallsHandler().executeModification("DeletePermission", parameterSource);
+        entityPermissionsCache.invalidateAll();
     }
 
     @Override
@@ -269,6 +328,7 @@ public class PermissionDaoImpl extends BaseDao implements PermissionDao {
         MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
                 .addValue("id", id);
         getCallsHandler().executeModification("DeletePermissionsByEntityId", parameterSource);
+        entityPermissionsCache.invalidateAll();
     }
 
     @Override
@@ -299,4 +359,39 @@ public class PermissionDaoImpl extends BaseDao implements PermissionDao {
 
         return entity;
     };
+
+    static class EntityPermissionsKey {
+
+        private final Guid adElementId;
+        private final ActionGroup actionGroup;
+        private final Guid objectId;
+        private final VdcObjectType objectType;
+
+        EntityPermissionsKey(Guid adElementId, ActionGroup actionGroup, Guid objectId, VdcObjectType objectType) {
+            this.adElementId = adElementId;
+            this.actionGroup = actionGroup;
+            this.objectId = objectId;
+            this.objectType = objectType;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof EntityPermissionsKey)) {
+                return false;
+            }
+            EntityPermissionsKey other = (EntityPermissionsKey) obj;
+            return Objects.equals(adElementId, other.adElementId)
+                    && actionGroup == other.actionGroup
+                    && Objects.equals(objectId, other.objectId)
+                    && objectType == other.objectType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(adElementId, actionGroup, objectId, objectType);
+        }
+    }
 }
@@ -2,6 +2,7 @@ package org.ovirt.engine.core.dao;
 
 import java.util.List;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
@@ -11,6 +12,7 @@ import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.mode.ApplicationMode;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.utils.EntityCacheManager;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
@@ -21,6 +23,9 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 @Singleton
 public class RoleDaoImpl extends BaseDao implements RoleDao {
 
+    @Inject
+    private EntityCacheManager entityCacheManager;
+
     private static final RowMapper<Role> rolesRowMapper = (rs, rowNum) -> {
         Role entity = new Role();
         entity.setDescription(rs.getString("description"));
@@ -115,5 +120,6 @@ public class RoleDaoImpl extends BaseDao implements RoleDao {
                 .addValue("id", id);
 
         getCallsHandler().executeModification("DeleteRole", parameterSource);
+        entityCacheManager.invalidateAll(PermissionDaoImpl.ENTITY_PERMISSIONS_CACHE);
     }
 }
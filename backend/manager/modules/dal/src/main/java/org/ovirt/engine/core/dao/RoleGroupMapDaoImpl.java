@@ -2,12 +2,14 @@ package org.ovirt.engine.core.dao;
 
 import java.util.List;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.ovirt.engine.core.common.businessentities.ActionGroup;
 import org.ovirt.engine.core.common.businessentities.RoleGroupMap;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.utils.EntityCacheManager;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
@@ -17,6 +19,10 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 @Named
 @Singleton
 public class RoleGroupMapDaoImpl extends BaseDao implements RoleGroupMapDao {
+
+    @Inject
+    private EntityCacheManager entityCacheManager;
+
     private static final RowMapper<RoleGroupMap> roleGroupMapRowMapper =(rs, rowNum) ->
         new RoleGroupMap(ActionGroup.forValue(rs.getInt("action_group_id")), getGuidDefaultEmpty(rs, "role_id"));
 
@@ -47,6 +53,7 @@ public class RoleGroupMapDaoImpl extends BaseDao implements RoleGroupMapDao {
                 .addValue("role_id", map.getRoleId());
 
         getCallsHandler().executeModification("Insert_roles_groups", parameterSource);
+        entityCacheManager.invalidateAll(PermissionDaoImpl.ENTITY_PERMISSIONS_CACHE);
     }
 
     @Override
@@ -56,5 +63,6 @@ public class RoleGroupMapDaoImpl extends BaseDao implements RoleGroupMapDao {
                         id);
 
         getCallsHandler().executeModification("Delete_roles_groups", parameterSource);
+        entityCacheManager.invalidateAll(PermissionDaoImpl.ENTITY_PERMISSIONS_CACHE);
     }
 }
@@ -2,15 +2,20 @@ package org.ovirt.engine.core.dao;
 
 import java.util.List;
 
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.ovirt.engine.core.common.businessentities.ActionGroup;
+import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.QuotaEnforcementTypeEnum;
 import org.ovirt.engine.core.common.businessentities.StorageFormatType;
 import org.ovirt.engine.core.common.businessentities.StoragePool;
 import org.ovirt.engine.core.common.businessentities.StoragePoolStatus;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.utils.EntityCache;
+import org.ovirt.engine.core.dal.utils.EntityCacheManager;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
@@ -37,9 +42,19 @@ public class StoragePoolDaoImpl extends BaseDao implements StoragePoolDao {
         return entity;
     };
 
+    @Inject
+    private EntityCacheManager entityCacheManager;
+
+    private EntityCache<Guid, StoragePool> cache;
+
+    @PostConstruct
+    private void init() {
+        cache = entityCacheManager.createCache(StoragePool.class);
+    }
+
     @Override
     public StoragePool get(Guid id) {
-        return get(id, null, false);
+        return cache.get(id, key -> get(key, null, false));
     }
 
     @Override
@@ -131,6 +146,7 @@ public class StoragePoolDaoImpl extends BaseDao implements StoragePoolDao {
 
         getCallsHandler().executeModification("Insertstorage_pool",
                 parameterSource);
+        cache.invalidate(pool.getId());
     }
 
     @Override
@@ -152,6 +168,9 @@ public class StoragePoolDaoImpl extends BaseDao implements StoragePoolDao {
                         pool.getQuotaEnforcementType().getValue());
 
         getCallsHandler().executeModification("Updatestorage_pool", parameterSource);
+        cache.invalidate(pool.getId());
+        // the clusters hold the name of their data center
+        entityCacheManager.invalidateAll(Cluster.class);
     }
 
     @Override
@@ -169,6 +188,8 @@ public class StoragePoolDaoImpl extends BaseDao implements StoragePoolDao {
                         pool.getQuotaEnforcementType().getValue());
 
         getCallsHandler().executeModification("Updatestorage_pool_partial", parameterSource);
+        cache.invalidate(pool.getId());
+        entityCacheManager.invalidateAll(Cluster.class);
     }
 
     @Override
@@ -177,7 +198,7 @@ public class StoragePoolDaoImpl extends BaseDao implements StoragePoolDao {
                 .addValue("id", id)
                 .addValue("status", status);
         getCallsHandler().executeModification("Updatestorage_pool_status", parameterSource);
-
+        cache.invalidate(id);
     }
 
     @Override
@@ -186,6 +207,9 @@ public class StoragePoolDaoImpl extends BaseDao implements StoragePoolDao {
                 .addValue("id", id);
 
         getCallsHandler().executeModification("Deletestorage_pool", parameterSource);
+        cache.invalidate(id);
+        // the clusters of the data center are detached from it
+        entityCacheManager.invalidateAll(Cluster.class);
     }
 
     @Override
@@ -206,7 +230,10 @@ public class StoragePoolDaoImpl extends BaseDao implements StoragePoolDao {
     public int increaseStoragePoolMasterVersion(Guid id) {
         MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
                 .addValue("id", id);
-        return getCallsHandler().executeModificationReturnResult("IncreaseStoragePoolMasterVersion", parameterSource);
+        int masterVersion =
+                getCallsHandler().executeModificationReturnResult("IncreaseStoragePoolMasterVersion", parameterSource);
+        cache.invalidate(id);
+        return masterVersion;
     }
 
     @Override
@@ -2,6 +2,7 @@ package org.ovirt.engine.core.dao;
 
 import java.util.List;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
@@ -9,6 +10,7 @@ import org.ovirt.engine.core.common.businessentities.StorageDomainStatus;
 import org.ovirt.engine.core.common.businessentities.StoragePoolIsoMap;
 import org.ovirt.engine.core.common.businessentities.StoragePoolIsoMapId;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.utils.EntityCacheManager;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
@@ -16,6 +18,9 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 @Singleton
 public class StoragePoolIsoMapDaoImpl extends BaseDao implements StoragePoolIsoMapDao {
 
+    @Inject
+    private EntityCacheManager entityCacheManager;
+
     private static final RowMapper<StoragePoolIsoMap> storagePoolIsoMapRowMapper = (rs, rowNum) -> {
         StoragePoolIsoMap entity = new StoragePoolIsoMap();
         entity.setStorageId(getGuidDefaultEmpty(rs, "storage_id"));
@@ -40,6 +45,7 @@ public class StoragePoolIsoMapDaoImpl extends BaseDao implements StoragePoolIsoM
                 map.getStorageId()).addValue("storage_pool_id", map.getStoragePoolId()).addValue("status",
                 map.getStatus());
         getCallsHandler().executeModification("Insertstorage_pool_iso_map", parameterSource);
+        entityCacheManager.invalidateAll(PermissionDaoImpl.ENTITY_PERMISSIONS_CACHE);
     }
 
     @Override
@@ -53,6 +59,7 @@ public class StoragePoolIsoMapDaoImpl extends BaseDao implements StoragePoolIsoM
                 id.getStorageId()).addValue("storage_pool_id", id.getStoragePoolId());
 
         getCallsHandler().executeModification("Deletestorage_pool_iso_map", parameterSource);
+        entityCacheManager.invalidateAll(PermissionDaoImpl.ENTITY_PERMISSIONS_CACHE);
     }
 
     @SuppressWarnings("unchecked")
@@ -3,6 +3,8 @@ package org.ovirt.engine.core.dao;
 import java.io.IOException;
 import java.util.List;
 
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
@@ -14,6 +16,8 @@ import org.ovirt.engine.core.common.businessentities.VDSType;
 import org.ovirt.engine.core.common.businessentities.VdsStatic;
 import org.ovirt.engine.core.common.utils.pm.FenceProxySourceTypeHelper;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.utils.EntityCache;
+import org.ovirt.engine.core.dal.utils.EntityCacheManager;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SingleColumnRowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
@@ -26,12 +30,22 @@ import org.springframework.jdbc.core.simple.SimpleJdbcCall;
 @Singleton
 public class VdsStaticDaoImpl extends BaseDao implements VdsStaticDao {
 
+    @Inject
+    private EntityCacheManager entityCacheManager;
+
+    private EntityCache<Guid, VdsStatic> cache;
+
+    @PostConstruct
+    private void init() {
+        cache = entityCacheManager.createCache(VdsStatic.class);
+    }
+
     @Override
     public VdsStatic get(Guid id) {
-        return getCallsHandler().executeRead("GetVdsStaticByVdsId",
+        return cache.get(id, key -> getCallsHandler().executeRead("GetVdsStaticByVdsId",
                 vdsStaticRowMapper,
                 getCustomMapSqlParameterSource()
-                        .addValue("vds_id", id));
+                        .addValue("vds_id", key)));
     }
 
     @Override
@@ -67,6 +81,8 @@ public class VdsStaticDaoImpl extends BaseDao implements VdsStaticDao {
         }
         new SimpleJdbcCall(getJdbcTemplate()).withProcedureName("InsertVdsStatic")
                 .execute(getInsertOrUpdateParams(vds));
+        getCallsHandler().reportModification("InsertVdsStatic");
+        cache.invalidate(id);
     }
 
     /**
@@ -76,6 +92,9 @@ public class VdsStaticDaoImpl extends BaseDao implements VdsStaticDao {
     @Override
     public void update(VdsStatic vds) {
         getCallsHandler().executeModification("UpdateVdsStatic", getInsertOrUpdateParams(vds));
+        cache.invalidate(vds.getId());
+        // the host may have moved to another cluster
+        entityCacheManager.invalidateAll(PermissionDaoImpl.ENTITY_PERMISSIONS_CACHE);
     }
 
     private MapSqlParameterSource getInsertOrUpdateParams(final VdsStatic vds) {
@@ -113,6 +132,7 @@ public class VdsStaticDaoImpl extends BaseDao implements VdsStaticDao {
                 .addValue("vds_id", id);
 
         getCallsHandler().executeModification("DeleteVdsStatic", parameterSource);
+        cache.invalidate(id);
     }
 
     @Override
@@ -173,6 +193,7 @@ public class VdsStaticDaoImpl extends BaseDao implements VdsStaticDao {
                 getCustomMapSqlParameterSource()
                         .addValue("vds_id", vdsStaticId)
                         .addValue("last_stored_kernel_cmdline", lastStoredKernelCmdline));
+        cache.invalidate(vdsStaticId);
     }
 
     @Override
@@ -182,6 +203,7 @@ public class VdsStaticDaoImpl extends BaseDao implements VdsStaticDao {
                 getCustomMapSqlParameterSource()
                         .addValue("vds_id", vdsStaticId)
                         .addValue("reinstall_required", reinstallRequired));
+        cache.invalidate(vdsStaticId);
     }
 
     @Override
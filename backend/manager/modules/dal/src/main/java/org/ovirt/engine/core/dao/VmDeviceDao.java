@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.dao;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.ovirt.engine.core.common.businessentities.VmDevice;
@@ -20,6 +21,11 @@ public interface VmDeviceDao extends GenericDao<VmDevice, VmDeviceId>, MassOpera
 
     List<VmDevice> getVmDeviceByVmId(Guid vmId);
 
+    /**
+     * Returns the managed and unmanaged devices of the given VMs, ordered by VM and by device id.
+     */
+    List<VmDevice> getVmDevicesByVmIds(Collection<Guid> vmIds);
+
     List<VmDevice> getVmDeviceByVmId(Guid vmId, Guid userID, boolean isFiltered);
 
     List<VmDevice> getVmDevicesByDeviceId(Guid deviceId, Guid vmId);
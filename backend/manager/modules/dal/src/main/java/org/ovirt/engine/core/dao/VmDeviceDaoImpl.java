@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.dao;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -71,6 +72,13 @@ public class VmDeviceDaoImpl extends
         return getVmDeviceByVmId(vmId, null, false);
     }
 
+    @Override
+    public List<VmDevice> getVmDevicesByVmIds(Collection<Guid> vmIds) {
+        return getCallsHandler().executeReadList("GetVmDevicesByVmIds",
+                createEntityRowMapper(),
+                getCustomMapSqlParameterSource().addValue("vm_ids", createArrayOfUUIDs(vmIds)));
+    }
+
     @Override
     public List<VmDevice> getVmDeviceByVmId(Guid vmId, Guid userID, boolean isFiltered) {
         MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
@@ -32,6 +32,14 @@ public interface VmGuestAgentInterfaceDao extends Dao {
      */
     List<VmGuestAgentInterface> getAllForVm(Guid vmId, Guid userId, boolean filtered);
 
+    /**
+     * Returns a list of the VmGuestAgentInterfaces of the given VMs
+     * @param vmIds
+     *            the VMs' IDs
+     * @return the list of VmGuestAgentInterfaces
+     */
+    List<VmGuestAgentInterface> getAllForVms(Collection<Guid> vmIds);
+
     /**
      * Removes all the VmGuestAgentInterfaces of the given VMs
      * @param vmIds
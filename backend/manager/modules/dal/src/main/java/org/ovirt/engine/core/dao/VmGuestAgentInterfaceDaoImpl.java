@@ -33,6 +33,13 @@ public class VmGuestAgentInterfaceDaoImpl extends BaseDao implements VmGuestAgen
                         .addValue("filtered", filtered));
     }
 
+    @Override
+    public List<VmGuestAgentInterface> getAllForVms(Collection<Guid> vmIds) {
+        return getCallsHandler().executeReadList("GetVmGuestAgentInterfacesByVmIds",
+                vmGuestAgentInterfaceRowMapper,
+                getCustomMapSqlParameterSource().addValue("vm_ids", createArrayOfUUIDs(vmIds)));
+    }
+
     @Override
     public void save(VmGuestAgentInterface vmGuestAgentInterface) {
         getCallsHandler().executeModification("InsertVmGuestAgentInterface",
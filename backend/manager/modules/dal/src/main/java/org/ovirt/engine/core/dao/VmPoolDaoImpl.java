@@ -4,6 +4,7 @@ import static org.ovirt.engine.core.dao.VmDaoImpl.vmRowMapper;
 
 import java.util.List;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
@@ -13,6 +14,7 @@ import org.ovirt.engine.core.common.businessentities.VmPool;
 import org.ovirt.engine.core.common.businessentities.VmPoolMap;
 import org.ovirt.engine.core.common.businessentities.VmPoolType;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.utils.EntityCacheManager;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
@@ -22,12 +24,17 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 @Named
 @Singleton
 public class VmPoolDaoImpl extends BaseDao implements VmPoolDao {
+
+    @Inject
+    private EntityCacheManager entityCacheManager;
+
     @Override
     public void removeVmFromVmPool(Guid id) {
         MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
                 .addValue("vm_guid", id);
 
         getCallsHandler().executeModification("DeleteVm_pool_map", parameterSource);
+        entityCacheManager.invalidateAll(PermissionDaoImpl.ENTITY_PERMISSIONS_CACHE);
     }
 
     @Override
@@ -113,6 +120,7 @@ public class VmPoolDaoImpl extends BaseDao implements VmPoolDao {
                 .addValue("is_auto_storage_select", pool.isAutoStorageSelect());
 
         getCallsHandler().executeModification("UpdateVm_pools", parameterSource);
+        entityCacheManager.invalidateAll(PermissionDaoImpl.ENTITY_PERMISSIONS_CACHE);
     }
 
     @Override
@@ -138,6 +146,7 @@ public class VmPoolDaoImpl extends BaseDao implements VmPoolDao {
                 .addValue("vm_pool_id", map.getVmPoolId());
 
         getCallsHandler().executeModification("InsertVm_pool_map", parameterSource);
+        entityCacheManager.invalidateAll(PermissionDaoImpl.ENTITY_PERMISSIONS_CACHE);
     }
 
     @Override
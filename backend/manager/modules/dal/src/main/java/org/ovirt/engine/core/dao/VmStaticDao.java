@@ -1,6 +1,8 @@
 package org.ovirt.engine.core.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.ovirt.engine.core.common.businessentities.VmStatic;
 import org.ovirt.engine.core.compat.Guid;
@@ -69,6 +71,14 @@ public interface VmStaticDao extends GenericDao<VmStatic, Guid> {
      */
     public Long getDbGeneration(Guid id);
 
+    /**
+     * get the db generations of the vms/templates with the given guids
+     *
+     * @param ids - vm/template ids
+     * @return the db generation of every vm/template that exists, by its id
+     */
+    Map<Guid, Long> getDbGenerations(Collection<Guid> ids);
+
     /**
      * Increment the db version for all vms/templates in a specific storage pool.
      */
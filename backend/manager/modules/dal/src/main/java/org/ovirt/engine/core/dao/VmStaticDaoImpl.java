@@ -2,14 +2,19 @@ package org.ovirt.engine.core.dao;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.ovirt.engine.core.common.businessentities.VmStatic;
+import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.utils.EntityCacheManager;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SingleColumnRowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
@@ -20,6 +25,9 @@ public class VmStaticDaoImpl extends VmBaseDao<VmStatic> implements VmStaticDao
     public static final Integer USE_LATEST_VERSION_NUMBER_INDICATOR = null;
     public static final Integer DONT_USE_LATEST_VERSION_NUMBER_INDICATOR = 1;
 
+    @Inject
+    private EntityCacheManager entityCacheManager;
+
     public VmStaticDaoImpl() {
         super("VmStatic");
         setProcedureNameForGet("GetVmStaticByVmGuid");
@@ -52,6 +60,13 @@ public class VmStaticDaoImpl extends VmBaseDao<VmStatic> implements VmStaticDao
         return VMStaticRowMapper.instance;
     }
 
+    @Override
+    public void update(VmStatic vm) {
+        super.update(vm);
+        // the VM may have moved to another cluster
+        entityCacheManager.invalidateAll(PermissionDaoImpl.ENTITY_PERMISSIONS_CACHE);
+    }
+
     @Override
     public void remove(Guid id) {
         remove(id, true);
@@ -150,6 +165,15 @@ public class VmStaticDaoImpl extends VmBaseDao<VmStatic> implements VmStaticDao
                 getCustomMapSqlParameterSource().addValue("vm_guid", id));
     }
 
+    @Override
+    public Map<Guid, Long> getDbGenerations(Collection<Guid> ids) {
+        return getCallsHandler().executeReadList("GetDbGenerations",
+                (rs, rowNum) -> new Pair<>(getGuid(rs, "vm_guid"), rs.getLong("db_generation")),
+                getCustomMapSqlParameterSource().addValue("vm_guids", createArrayOfUUIDs(ids)))
+                .stream()
+                .collect(Collectors.toMap(Pair::getFirst, Pair::getSecond));
+    }
+
     public List<Guid> getOrderedVmGuidsForRunMultipleActions(List<Guid> guids) {
         return getCallsHandler().executeReadList("GetOrderedVmGuidsForRunMultipleActions", createGuidMapper()
                 , getCustomMapSqlParameterSource().addValue("vm_guids",
@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.dao.network;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.ovirt.engine.core.common.businessentities.network.VmNetworkInterface;
@@ -30,6 +31,15 @@ public interface VmNetworkInterfaceDao extends ReadDao<VmNetworkInterface, Guid>
      */
     List<VmNetworkInterface> getAllForVm(Guid id, Guid userID, boolean isFiltered);
 
+    /**
+     * Retrieves all interfaces of the given VMs.
+     *
+     * @param vmIds
+     *            the VM ids
+     * @return the list of interfaces, ordered by MAC address
+     */
+    List<VmNetworkInterface> getAllForVms(Collection<Guid> vmIds);
+
     /**
      * Retrieves all interfaces for the given template id.
      *
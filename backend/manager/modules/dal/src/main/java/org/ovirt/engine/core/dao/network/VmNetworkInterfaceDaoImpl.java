@@ -2,6 +2,7 @@ package org.ovirt.engine.core.dao.network;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -43,6 +44,19 @@ public class VmNetworkInterfaceDaoImpl extends DefaultReadDao<VmNetworkInterface
         return results;
     }
 
+    @Override
+    public List<VmNetworkInterface> getAllForVms(Collection<Guid> vmIds) {
+        MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
+                .addValue("vm_ids", createArrayOfUUIDs(vmIds));
+
+        List<VmNetworkInterface> results =
+                getCallsHandler().executeReadList("GetVmNetworkInterfaceViewByVmIds",
+                        VmNetworkInterfaceRowMapper.INSTANCE,
+                        parameterSource);
+        Collections.sort(results, Comparator.comparing(VmNetworkInterface::getMacAddress));
+        return results;
+    }
+
     @Override
     public List<VmNetworkInterface> getAllForMonitoredVm(Guid vmId) {
         MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
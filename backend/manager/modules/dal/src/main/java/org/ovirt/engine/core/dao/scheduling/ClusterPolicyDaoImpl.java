@@ -12,11 +12,13 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.validation.constraints.NotNull;
 
+import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.scheduling.ClusterPolicy;
 import org.ovirt.engine.core.common.scheduling.PolicyUnit;
 import org.ovirt.engine.core.common.scheduling.PolicyUnitType;
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.utils.EntityCacheManager;
 import org.ovirt.engine.core.dao.DefaultGenericDao;
 import org.ovirt.engine.core.utils.SerializationFactory;
 import org.springframework.jdbc.core.RowMapper;
@@ -28,6 +30,8 @@ public class ClusterPolicyDaoImpl extends DefaultGenericDao<ClusterPolicy, Guid>
 
     @Inject
     private PolicyUnitDao policyUnitDao;
+    @Inject
+    private EntityCacheManager entityCacheManager;
 
     public ClusterPolicyDaoImpl() {
         super("ClusterPolicy");
@@ -51,6 +55,8 @@ public class ClusterPolicyDaoImpl extends DefaultGenericDao<ClusterPolicy, Guid>
         if (clusterPolicyUnits != null) {
             clusterPolicyUnits.forEach(this::saveClusterPolicyUnit);
         }
+        // the clusters hold the name of their cluster policy
+        entityCacheManager.invalidateAll(Cluster.class);
     }
 
     @Override
@@ -0,0 +1,196 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.transaction.TransactionManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.common.AuditLogType;
+import org.ovirt.engine.core.common.businessentities.AuditLog;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.dao.AuditLogDao;
+import org.ovirt.engine.core.utils.InjectedMock;
+import org.ovirt.engine.core.utils.InjectorExtension;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+
+@ExtendWith({MockitoExtension.class, MockConfigExtension.class, InjectorExtension.class})
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class AuditLogDirectorTest {
+    private static final int QUEUE_SIZE = 3;
+    private static final int BATCH_SIZE = 2;
+    private static final int INTERVAL = 1000;
+
+    @Mock
+    private AuditLogDao auditLogDao;
+
+    @Mock
+    private ManagedScheduledExecutorService executor;
+
+    @Mock
+    private ScheduledFuture<?> writerJob;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    @InjectedMock
+    public TransactionManager transactionManager;
+
+    @InjectMocks
+    private AuditLogDirector auditLogDirector;
+
+    /** The events of every batch the director saved, copied as the director reuses the batch list */
+    private final List<List<String>> savedBatches = new ArrayList<>();
+
+    private Runnable writeQueuedEvents;
+
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(
+                MockConfigDescriptor.of(ConfigValues.AuditLogAsyncQueueSize, QUEUE_SIZE),
+                MockConfigDescriptor.of(ConfigValues.AuditLogAsyncBatchSize, BATCH_SIZE),
+                MockConfigDescriptor.of(ConfigValues.AuditLogAsyncIntervalInMillis, INTERVAL)
+        );
+    }
+
+    @BeforeEach
+    public void setUp() {
+        doReturn(writerJob).when(executor)
+                .scheduleWithFixedDelay(any(), eq((long) INTERVAL), eq((long) INTERVAL), eq(TimeUnit.MILLISECONDS));
+        doAnswer(invocation -> {
+            Collection<AuditLog> batch = invocation.getArgument(0);
+            savedBatches.add(batch.stream().map(AuditLog::getVmName).collect(Collectors.toList()));
+            return null;
+        }).when(auditLogDao).saveAllInBatch(any());
+
+        auditLogDirector.init();
+
+        ArgumentCaptor<Runnable> job = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).scheduleWithFixedDelay(job.capture(), anyLong(), anyLong(), any());
+        writeQueuedEvents = job.getValue();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        auditLogDirector.shutdown();
+    }
+
+    private void logEvent(String vmName) {
+        AuditLogableImpl event = new AuditLogableImpl();
+        event.setVmName(vmName);
+        auditLogDirector.log(event, AuditLogType.VDC_STOP);
+    }
+
+    private void assertEventCounts(long synchronous, long overflow, long dropped) {
+        assertEquals(String.format("Synchronous events %d, overflow events %d, dropped events %d",
+                synchronous,
+                overflow,
+                dropped),
+                auditLogDirector.showAuditLogStatistics().get(2));
+    }
+
+    @Test
+    public void testExternalAndAlertEventsWrittenSynchronously() {
+        AuditLogableImpl external = new AuditLogableImpl();
+        external.setExternal(true);
+        external.setEventFloodInSec(1);
+        auditLogDirector.log(external, AuditLogType.EXTERNAL_EVENT_NORMAL, "external");
+        auditLogDirector.log(new AuditLogableImpl(), AuditLogType.VDS_ANSIBLE_HOST_REMOVE_EXECUTION_FAILED);
+        logEvent("queued");
+
+        ArgumentCaptor<AuditLog> saved = ArgumentCaptor.forClass(AuditLog.class);
+        verify(auditLogDao, times(2)).save(saved.capture());
+        assertEquals(Arrays.asList(AuditLogType.EXTERNAL_EVENT_NORMAL,
+                AuditLogType.VDS_ANSIBLE_HOST_REMOVE_EXECUTION_FAILED),
+                saved.getAllValues().stream().map(AuditLog::getLogType).collect(Collectors.toList()));
+        verify(auditLogDao, never()).saveAllInBatch(any());
+        assertEventCounts(2, 0, 0);
+    }
+
+    @Test
+    public void testFullQueueFallsBackToSynchronousWrites() {
+        for (int i = 0; i < QUEUE_SIZE + 2; i++) {
+            logEvent("vm" + i);
+        }
+
+        ArgumentCaptor<AuditLog> saved = ArgumentCaptor.forClass(AuditLog.class);
+        verify(auditLogDao, times(2)).save(saved.capture());
+        assertEquals(Arrays.asList("vm3", "vm4"),
+                saved.getAllValues().stream().map(AuditLog::getVmName).collect(Collectors.toList()));
+        assertEventCounts(0, 2, 0);
+
+        writeQueuedEvents.run();
+        assertEquals(Arrays.asList(Arrays.asList("vm0", "vm1"), Arrays.asList("vm2")), savedBatches);
+    }
+
+    @Test
+    public void testBatchesCappedAtBatchSize() {
+        for (int i = 0; i < QUEUE_SIZE; i++) {
+            logEvent("vm" + i);
+        }
+        verify(auditLogDao, never()).saveAllInBatch(any());
+
+        writeQueuedEvents.run();
+
+        assertEquals(Arrays.asList(Arrays.asList("vm0", "vm1"), Arrays.asList("vm2")), savedBatches);
+        assertEquals("Batches 2, batched events 3, average batch size 1, max batch size 2",
+                auditLogDirector.showAuditLogStatistics().get(1));
+        verify(auditLogDao, never()).save(any());
+    }
+
+    @Test
+    public void testFailedBatchRetriedOneByOneAndCountedAsDropped() {
+        doThrow(new RuntimeException("batch failed")).when(auditLogDao).saveAllInBatch(any());
+        doThrow(new RuntimeException("event failed")).when(auditLogDao)
+                .save(argThat(auditLog -> "vm1".equals(auditLog.getVmName())));
+        logEvent("vm0");
+        logEvent("vm1");
+
+        writeQueuedEvents.run();
+
+        ArgumentCaptor<AuditLog> saved = ArgumentCaptor.forClass(AuditLog.class);
+        verify(auditLogDao, times(2)).save(saved.capture());
+        assertEquals(Arrays.asList("vm0", "vm1"),
+                saved.getAllValues().stream().map(AuditLog::getVmName).collect(Collectors.toList()));
+        assertEventCounts(0, 0, 1);
+        assertEquals("Queue depth 0", auditLogDirector.showAuditLogStatistics().get(0));
+    }
+
+    @Test
+    public void testShutdownFlushesTheQueue() {
+        logEvent("vm0");
+        logEvent("vm1");
+
+        auditLogDirector.shutdown();
+
+        verify(writerJob).cancel(false);
+        assertEquals(Arrays.asList(Arrays.asList("vm0", "vm1")), savedBatches);
+    }
+}
@@ -0,0 +1,125 @@
+package org.ovirt.engine.core.dal.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class EntityCacheTest {
+
+    private static final int MAX_SIZE = 2;
+
+    private Map<Integer, StringBuilder> database;
+    private AtomicInteger loads;
+    private Function<Integer, StringBuilder> loader;
+    private EntityCache<Integer, StringBuilder> cache;
+
+    @BeforeEach
+    public void setUp() {
+        database = new HashMap<>();
+        database.put(1, new StringBuilder("one"));
+        database.put(2, new StringBuilder("two"));
+        database.put(3, new StringBuilder("three"));
+        loads = new AtomicInteger();
+        loader = id -> {
+            loads.incrementAndGet();
+            StringBuilder entity = database.get(id);
+            return entity == null ? null : new StringBuilder(entity);
+        };
+        cache = createCache(true);
+    }
+
+    private EntityCache<Integer, StringBuilder> createCache(boolean enabled) {
+        return new EntityCache<Integer, StringBuilder>("test", enabled, MAX_SIZE, StringBuilder::new) {
+            @Override
+            protected boolean isInTransaction() {
+                return false;
+            }
+        };
+    }
+
+    @Test
+    public void testLoadsOnce() {
+        assertEquals("one", cache.get(1, loader).toString());
+        assertEquals("one", cache.get(1, loader).toString());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testHandsOutCopies() {
+        cache.get(1, loader).append(" modified");
+        StringBuilder first = cache.get(1, loader);
+        StringBuilder second = cache.get(1, loader);
+
+        assertEquals("one", first.toString());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void testInvalidate() {
+        cache.get(1, loader);
+        database.get(1).append(" updated");
+        cache.invalidate(1);
+
+        assertEquals("one updated", cache.get(1, loader).toString());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        cache.get(1, loader);
+        cache.get(2, loader);
+        cache.invalidateAll();
+        cache.get(1, loader);
+        cache.get(2, loader);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        cache.get(1, loader);
+        cache.get(2, loader);
+        cache.get(1, loader);
+        cache.get(3, loader);
+        cache.get(1, loader);
+        assertEquals(3, loads.get());
+
+        cache.get(2, loader);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void testDoesNotCacheWhenInvalidatedWhileLoading() {
+        cache.get(1, id -> {
+            cache.invalidate(id);
+            return loader.apply(id);
+        });
+        cache.get(1, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testDoesNotCacheMissingEntities() {
+        cache.get(4, loader);
+        cache.get(4, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testDisabled() {
+        cache = createCache(false);
+        cache.get(1, loader);
+        cache.get(1, loader);
+
+        assertEquals(2, loads.get());
+    }
+}
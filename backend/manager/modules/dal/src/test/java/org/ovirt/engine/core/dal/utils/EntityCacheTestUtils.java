@@ -0,0 +1,44 @@
+package org.ovirt.engine.core.dal.utils;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Enables the caches of the DAOs in the DAO tests.
+ *
+ * The DAO tests run within Spring transactions, which the caches cannot track, so the enabled caches behave as if the
+ * modifications were done outside of any transaction.
+ */
+public final class EntityCacheTestUtils {
+
+    private static final int MAX_SIZE = 1000;
+
+    private EntityCacheTestUtils() {
+    }
+
+    /**
+     * Registers an enabled cache with the given name instead of the current one
+     */
+    public static <ID, T> EntityCache<ID, T> enableCache(EntityCacheManager entityCacheManager,
+            String name,
+            UnaryOperator<T> copier) {
+        EntityCache<ID, T> cache = new EntityCache<ID, T>(name, true, MAX_SIZE, copier) {
+            @Override
+            protected boolean isInTransaction() {
+                return false;
+            }
+        };
+        entityCacheManager.register(cache);
+        return cache;
+    }
+
+    /**
+     * Registers a disabled cache with the given name instead of the current one
+     */
+    public static <ID, T> EntityCache<ID, T> disableCache(EntityCacheManager entityCacheManager,
+            String name,
+            UnaryOperator<T> copier) {
+        EntityCache<ID, T> cache = new EntityCache<>(name, false, MAX_SIZE, copier);
+        entityCacheManager.register(cache);
+        return cache;
+    }
+}
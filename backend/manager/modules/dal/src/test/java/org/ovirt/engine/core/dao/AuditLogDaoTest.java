@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -271,6 +272,21 @@ public class AuditLogDaoTest extends BaseDaoTestCase<AuditLogDao> {
         assertEquals(newAuditLog, result);
     }
 
+    @Test
+    public void testSaveAllInBatch() {
+        AuditLog other = new AuditLog();
+        other.setLogTime(newAuditLog.getLogTime());
+        other.setLogType(AuditLogType.USER_RUN_VM);
+        other.setSeverity(AuditLogSeverity.NORMAL);
+        other.setMessage("VM started");
+        other.setVmId(VM_ID);
+        other.setVmName(VM_NAME);
+
+        dao.saveAllInBatch(Arrays.asList(newAuditLog, other));
+
+        assertEquals(TOTAL_COUNT + 2, dao.getAll(null, false).size());
+    }
+
     @Test
     public void testSaveExternalEvent() {
         AuditLog newExternalEvent = new AuditLog();
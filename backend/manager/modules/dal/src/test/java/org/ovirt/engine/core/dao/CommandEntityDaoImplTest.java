@@ -0,0 +1,76 @@
+package org.ovirt.engine.core.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.ovirt.engine.core.common.businessentities.CommandEntity;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.dbbroker.DbEngineDialect;
+import org.ovirt.engine.core.dal.dbbroker.PostgresDbEngineDialect;
+import org.ovirt.engine.core.dal.dbbroker.SimpleJdbcCallsHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+/**
+ * Checks how the commands are read without a database, see {@link CommandEntityDaoTest} for the tests against one.
+ */
+@ExtendWith(MockitoExtension.class)
+public class CommandEntityDaoImplTest {
+
+    @Mock
+    private SimpleJdbcCallsHandler callsHandler;
+
+    @Spy
+    private DbEngineDialect dialect = new PostgresDbEngineDialect();
+
+    @InjectMocks
+    private CommandEntityDaoImpl dao;
+
+    private static List<CommandEntity> commands(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            CommandEntity cmdEntity = new CommandEntity();
+            cmdEntity.setId(Guid.newGuid());
+            return cmdEntity;
+        }).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testForEachWithoutPayloadReadsPagesUntilTheLastOne() {
+        List<CommandEntity> firstPage = commands(CommandEntityDaoImpl.PAGE_SIZE);
+        List<CommandEntity> lastPage = commands(1);
+        when(callsHandler.executeReadList(eq("GetMetadataFromCommandEntitiesPage"), any(), any()))
+                .thenReturn(firstPage, lastPage, Collections.emptyList());
+
+        List<CommandEntity> consumed = new ArrayList<>();
+        dao.forEachWithoutPayload(consumed::add);
+
+        List<CommandEntity> all = new ArrayList<>(firstPage);
+        all.addAll(lastPage);
+        assertEquals(all, consumed);
+
+        ArgumentCaptor<MapSqlParameterSource> parameters = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(callsHandler, times(2))
+                .executeReadList(eq("GetMetadataFromCommandEntitiesPage"), any(), parameters.capture());
+        assertEquals(Guid.Empty.getUuid(), parameters.getAllValues().get(0).getValue("v_after_command_id"));
+        // the next page starts after the last command of the previous one
+        assertEquals(firstPage.get(firstPage.size() - 1).getId().getUuid(),
+                parameters.getAllValues().get(1).getValue("v_after_command_id"));
+        assertEquals(CommandEntityDaoImpl.PAGE_SIZE, parameters.getAllValues().get(1).getValue("v_page_size"));
+    }
+}
@@ -9,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -103,6 +104,20 @@ public class CommandEntityDaoTest extends BaseGenericDaoTestCase<Guid, CommandEn
         assertThat(cmIds, hasItems(cmdEntity1.getId(), cmdEntity2.getId()));
     }
 
+    @Test
+    public void testForEachWithoutPayload() {
+        List<CommandEntity> cmds = new ArrayList<>();
+        dao.forEachWithoutPayload(cmds::add);
+        assertEquals(getEntitiesTotalCount(), cmds.size());
+        for (CommandEntity cmd : cmds) {
+            CommandEntity fullCmd = dao.get(cmd.getId());
+            assertEquals(fullCmd, cmd);
+            assertEquals(fullCmd.getCommandStatus(), cmd.getCommandStatus());
+            assertNull(cmd.getCommandParameters());
+            assertNull(cmd.getReturnValue());
+        }
+    }
+
     @Test
     public void testGetAllInsertAsyncTaskEntitities() {
         CommandEntity cmdEntity = generateNewEntity();
@@ -62,6 +62,15 @@ public class DiskVmElementDaoTest extends BaseReadDaoTestCase<VmDeviceId, DiskVm
         assertThat(dves.size(), is(0));
     }
 
+    @Test
+    public void testGetAllForVms() {
+        List<DiskVmElement> dves = dao.getAllForVms(Arrays.asList(FixturesTool.VM_RHEL5_POOL_57, Guid.newGuid()));
+        assertThat(dves.size(), is(NUM_OF_DISKS_ATTACHED_TO_VM));
+        for (DiskVmElement dve : dves) {
+            assertEquals(FixturesTool.VM_RHEL5_POOL_57, dve.getVmId());
+        }
+    }
+
     @Test
     public void testGetAllPluggedToVm() {
         List<DiskVmElement> dves = dao.getAllPluggedToVm(FixturesTool.VM_RHEL5_POOL_57);
@@ -7,21 +7,32 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.ovirt.engine.core.common.VdcObjectType;
 import org.ovirt.engine.core.common.businessentities.ActionGroup;
+import org.ovirt.engine.core.common.businessentities.EngineSession;
 import org.ovirt.engine.core.common.businessentities.Permission;
+import org.ovirt.engine.core.common.businessentities.VmStatic;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.mode.ApplicationMode;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.utils.EntityCache;
+import org.ovirt.engine.core.dal.utils.EntityCacheManager;
+import org.ovirt.engine.core.dal.utils.EntityCacheTestUtils;
+import org.ovirt.engine.core.dao.PermissionDaoImpl.EntityPermissionsKey;
 import org.ovirt.engine.core.utils.MockConfigDescriptor;
 import org.ovirt.engine.core.utils.MockConfigExtension;
 
@@ -45,8 +56,22 @@ public class PermissionDaoTest extends BaseDaoTestCase<PermissionDao> {
 
     private static final Guid DIRECTORY_ELEMENT_ID_WITH_BASIC_PERMISSIONS =
             new Guid("88D4301A-17AF-496C-A793-584640853D4B");
+    /** Allows {@link ActionGroup#RUN_VM} */
+    private static final Guid RUN_VM_ROLE_ID = new Guid("f5972bfa-7102-4d33-ad22-9dd421bfba78");
+    /** Allows {@link ActionGroup#CONFIGURE_VM_NETWORK} */
+    private static final Guid CONFIGURE_VM_NETWORK_ROLE_ID = new Guid("f5972bfa-7102-4d33-ad22-9dd421bfba70");
+
+    @Inject
+    private EntityCacheManager entityCacheManager;
+    @Inject
+    private RoleGroupMapDao roleGroupMapDao;
+    @Inject
+    private EngineSessionDao engineSessionDao;
+    @Inject
+    private VmStaticDao vmStaticDao;
 
     private Permission new_permissions;
+    private EntityCache<EntityPermissionsKey, Guid> entityPermissionsCache;
 
     @BeforeEach
     @Override
@@ -57,6 +82,27 @@ public class PermissionDaoTest extends BaseDaoTestCase<PermissionDao> {
                 VdcObjectType.StoragePool);
     }
 
+    @AfterEach
+    public void disableEntityPermissionsCache() {
+        // the DAOs are shared by the DAO tests, which expect the caches to be disabled
+        if (entityPermissionsCache != null) {
+            ((PermissionDaoImpl) dao).setEntityPermissionsCache(EntityCacheTestUtils.disableCache(entityCacheManager,
+                    PermissionDaoImpl.ENTITY_PERMISSIONS_CACHE,
+                    UnaryOperator.identity()));
+        }
+    }
+
+    private void enableEntityPermissionsCache() {
+        entityPermissionsCache = EntityCacheTestUtils.enableCache(entityCacheManager,
+                PermissionDaoImpl.ENTITY_PERMISSIONS_CACHE,
+                UnaryOperator.identity());
+        ((PermissionDaoImpl) dao).setEntityPermissionsCache(entityPermissionsCache);
+    }
+
+    private Guid getEntityPermissions(Guid adElementId, ActionGroup actionGroup, Guid objectId) {
+        return dao.getEntityPermissions(adElementId, actionGroup, objectId, VdcObjectType.VM);
+    }
+
     /**
      * Ensures that getting a permission with a bad id fails.
      */
@@ -567,6 +613,113 @@ public class PermissionDaoTest extends BaseDaoTestCase<PermissionDao> {
                 VdcObjectType.VM));
     }
 
+    @Test
+    public void testCachedEntityPermissions() {
+        enableEntityPermissionsCache();
+
+        assertNotNull(getEntityPermissions(DIRECTORY_ELEMENT_ID_WITH_BASIC_PERMISSIONS,
+                ActionGroup.RUN_VM,
+                VM_TEMPLATE_ENTITY_ID));
+        assertNotNull(getEntityPermissions(DIRECTORY_ELEMENT_ID_WITH_BASIC_PERMISSIONS,
+                ActionGroup.RUN_VM,
+                VM_TEMPLATE_ENTITY_ID));
+        assertNull(getEntityPermissions(DIRECTORY_ELEMENT_ID_WITH_BASIC_PERMISSIONS,
+                ActionGroup.CREATE_TEMPLATE,
+                VM_TEMPLATE_ENTITY_ID));
+        assertNull(getEntityPermissions(DIRECTORY_ELEMENT_ID_WITH_BASIC_PERMISSIONS,
+                ActionGroup.CREATE_TEMPLATE,
+                VM_TEMPLATE_ENTITY_ID));
+
+        assertTrue(entityPermissionsCache.toString().contains("hits 2,"));
+    }
+
+    @Test
+    public void testCachedEntityPermissionsSeeGrantedPermission() {
+        enableEntityPermissionsCache();
+        assertNull(getEntityPermissions(DIRECTORY_ELEMENT_ID_WITH_BASIC_PERMISSIONS,
+                ActionGroup.CONFIGURE_VM_NETWORK,
+                VM_TEMPLATE_ENTITY_ID));
+
+        Permission permission = new Permission(DIRECTORY_ELEMENT_ID_WITH_BASIC_PERMISSIONS,
+                CONFIGURE_VM_NETWORK_ROLE_ID,
+                VM_TEMPLATE_ENTITY_ID,
+                VdcObjectType.VmTemplate);
+        dao.save(permission);
+
+        assertEquals(permission.getId(), getEntityPermissions(DIRECTORY_ELEMENT_ID_WITH_BASIC_PERMISSIONS,
+                ActionGroup.CONFIGURE_VM_NETWORK,
+                VM_TEMPLATE_ENTITY_ID));
+    }
+
+    @Test
+    public void testCachedEntityPermissionsSeeRevokedPermission() {
+        enableEntityPermissionsCache();
+        assertEquals(EXISTING_PERMISSION_ID, getEntityPermissions(DIRECTORY_ELEMENT_ID_WITH_BASIC_PERMISSIONS,
+                ActionGroup.RUN_VM,
+                VM_TEMPLATE_ENTITY_ID));
+
+        dao.remove(EXISTING_PERMISSION_ID);
+
+        assertNull(getEntityPermissions(DIRECTORY_ELEMENT_ID_WITH_BASIC_PERMISSIONS,
+                ActionGroup.RUN_VM,
+                VM_TEMPLATE_ENTITY_ID));
+    }
+
+    @Test
+    public void testCachedEntityPermissionsSeeRoleChange() {
+        enableEntityPermissionsCache();
+        assertNotNull(getEntityPermissions(DIRECTORY_ELEMENT_ID_WITH_BASIC_PERMISSIONS,
+                ActionGroup.RUN_VM,
+                VM_TEMPLATE_ENTITY_ID));
+
+        roleGroupMapDao.remove(ActionGroup.RUN_VM, RUN_VM_ROLE_ID);
+
+        assertNull(getEntityPermissions(DIRECTORY_ELEMENT_ID_WITH_BASIC_PERMISSIONS,
+                ActionGroup.RUN_VM,
+                VM_TEMPLATE_ENTITY_ID));
+    }
+
+    @Test
+    public void testCachedEntityPermissionsSeeSessionChange() {
+        Guid userId = Guid.newGuid();
+        dao.save(new Permission(FixturesTool.EXISTING_GROUP_ID,
+                RUN_VM_ROLE_ID,
+                VM_TEMPLATE_ENTITY_ID,
+                VdcObjectType.VmTemplate));
+        enableEntityPermissionsCache();
+        assertNull(getEntityPermissions(userId, ActionGroup.RUN_VM, VM_TEMPLATE_ENTITY_ID));
+
+        // the groups of the sessions of the user take part in the decision
+        EngineSession session = new EngineSession();
+        session.setEngineSessionId(Guid.newGuid().toString());
+        session.setUserId(userId);
+        session.setGroupIds(new HashSet<>(Collections.singletonList(FixturesTool.EXISTING_GROUP_ID)));
+        session.setAuthzName("");
+        session.setUserName("");
+        engineSessionDao.save(session);
+
+        assertNotNull(getEntityPermissions(userId, ActionGroup.RUN_VM, VM_TEMPLATE_ENTITY_ID));
+    }
+
+    @Test
+    public void testCachedEntityPermissionsSeeEntityMove() {
+        Guid userId = Guid.newGuid();
+        Permission permission = new Permission(userId,
+                RUN_VM_ROLE_ID,
+                FixturesTool.CLUSTER_RHEL6_NFS,
+                VdcObjectType.Cluster);
+        dao.save(permission);
+        enableEntityPermissionsCache();
+        assertNull(getEntityPermissions(userId, ActionGroup.RUN_VM, FixturesTool.VM_WITH_NO_ATTACHED_DISKS));
+
+        VmStatic vm = vmStaticDao.get(FixturesTool.VM_WITH_NO_ATTACHED_DISKS);
+        vm.setClusterId(FixturesTool.CLUSTER_RHEL6_NFS);
+        vmStaticDao.update(vm);
+
+        assertEquals(permission.getId(),
+                getEntityPermissions(userId, ActionGroup.RUN_VM, FixturesTool.VM_WITH_NO_ATTACHED_DISKS));
+    }
+
     @Test
     public void testGetEntityPermissionsByUserAndGroups() {
         // Should not return null since the user has the relevant permission
@@ -6,8 +6,10 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang.StringUtils;
 import org.junit.jupiter.api.Test;
@@ -203,6 +205,18 @@ public class SnapshotDaoTest extends BaseGenericDaoTestCase<Guid, Snapshot, Snap
         }
     }
 
+    @Test
+    public void getAllByVmsWithConfiguration() {
+        List<Guid> vmIds = Arrays.asList(FixturesTool.VM_RHEL5_POOL_50, FixturesTool.VM_RHEL5_POOL_57);
+        List<Snapshot> snapshots = dao.getAllWithConfiguration(vmIds);
+        for (Guid vmId : vmIds) {
+            assertEquals(dao.getAllWithConfiguration(vmId),
+                    snapshots.stream().filter(s -> vmId.equals(s.getVmId())).collect(Collectors.toList()),
+                    "The snapshots of every VM should be returned as they are for the VM alone");
+        }
+        assertEquals(vmIds.stream().mapToInt(vmId -> dao.getAllWithConfiguration(vmId).size()).sum(), snapshots.size());
+    }
+
     @Test
     public void getAllByVm() {
         List<Snapshot> snapshots = dao.getAll(FixturesTool.VM_RHEL5_POOL_57);
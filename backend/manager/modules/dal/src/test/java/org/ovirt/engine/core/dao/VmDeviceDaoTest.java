@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -231,6 +232,18 @@ public class VmDeviceDaoTest extends BaseGenericDaoTestCase<VmDeviceId, VmDevice
         assertGetVMDeviceByIdResult(devices);
     }
 
+    @Test
+    public void testGetVmDevicesByVmIds() {
+        List<Guid> vmIds = Arrays.asList(EXISTING_VM_ID, EXISTING_VM_ID_3, NON_EXISTING_VM_ID);
+        List<VmDevice> devices = dao.getVmDevicesByVmIds(vmIds);
+        for (Guid vmId : vmIds) {
+            assertEquals(dao.getVmDeviceByVmId(vmId),
+                    devices.stream().filter(d -> vmId.equals(d.getVmId())).collect(Collectors.toList()));
+        }
+        assertEquals(dao.getVmDeviceByVmId(EXISTING_VM_ID).size() + dao.getVmDeviceByVmId(EXISTING_VM_ID_3).size(),
+                devices.size());
+    }
+
     @Test
     public void testGetVmDeviceByVmIdFilteringWithPermissions() {
         List<VmDevice> devices =
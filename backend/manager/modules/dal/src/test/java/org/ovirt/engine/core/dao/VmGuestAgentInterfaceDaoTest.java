@@ -46,6 +46,13 @@ public class VmGuestAgentInterfaceDaoTest extends BaseDaoTestCase<VmGuestAgentIn
         assertVmGuestAgentInterfaceForVm(interfaces);
     }
 
+    @Test
+    public void getAllForVms() {
+        List<VmGuestAgentInterface> interfaces =
+                dao.getAllForVms(Arrays.asList(FixturesTool.VM_RHEL5_POOL_50, Guid.Empty));
+        assertVmGuestAgentInterfaceForVm(interfaces);
+    }
+
     @Test
     public void removeAllForVms() {
         List<VmGuestAgentInterface> interfaces = dao.getAllForVm(FixturesTool.VM_RHEL5_POOL_50);
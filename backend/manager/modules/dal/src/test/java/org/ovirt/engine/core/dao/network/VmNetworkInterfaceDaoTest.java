@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -199,6 +200,16 @@ public class VmNetworkInterfaceDaoTest extends BaseDaoTestCase<VmNetworkInterfac
         }
     }
 
+    /**
+     * Ensures that the interfaces of all the specified VMs are returned.
+     */
+    @Test
+    public void testGetAllInterfacesForVms() {
+        List<VmNetworkInterface> result = dao.getAllForVms(Arrays.asList(VM_ID, Guid.newGuid()));
+
+        assertEquals(dao.getAllForVm(VM_ID), result);
+    }
+
     @Test
     public void testGetAll() {
         List<VmNetworkInterface> interfaces = dao.getAll();
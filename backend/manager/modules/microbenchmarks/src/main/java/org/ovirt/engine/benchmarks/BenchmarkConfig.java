@@ -0,0 +1,57 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigCommon;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.config.IConfigUtilsInterface;
+
+/**
+ * In memory configuration for the benchmarks, so the engine code they run does not need the database.
+ * The values are the same for all the versions.
+ */
+public class BenchmarkConfig implements IConfigUtilsInterface {
+
+    private final Map<ConfigValues, Object> values = new EnumMap<>(ConfigValues.class);
+
+    /**
+     * Installs a new configuration as the one used by {@link Config}
+     */
+    public static BenchmarkConfig install() {
+        BenchmarkConfig config = new BenchmarkConfig();
+        Config.setConfigUtils(config);
+        return config;
+    }
+
+    public BenchmarkConfig set(ConfigValues name, Object value) {
+        values.put(name, value);
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getValue(ConfigValues configValue, String version) {
+        if (!values.containsKey(configValue)) {
+            throw new IllegalArgumentException("The benchmark did not configure " + configValue);
+        }
+        return (T) values.get(configValue);
+    }
+
+    @Override
+    public void refresh() {
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, T> getValuesForAllVersions(ConfigValues configValue) {
+        return Collections.singletonMap(ConfigCommon.defaultConfigurationVersion, getValue(configValue, null));
+    }
+
+    @Override
+    public boolean valueExists(ConfigValues configValue, String version) {
+        return values.containsKey(configValue);
+    }
+}
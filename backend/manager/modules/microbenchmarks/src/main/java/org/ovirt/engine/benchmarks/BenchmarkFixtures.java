@@ -0,0 +1,198 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ovirt.engine.core.common.businessentities.OriginType;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.VmStatic;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkInterface;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkStatistics;
+import org.ovirt.engine.core.common.businessentities.storage.DiskImage;
+import org.ovirt.engine.core.common.businessentities.storage.DiskInterface;
+import org.ovirt.engine.core.common.businessentities.storage.DiskVmElement;
+import org.ovirt.engine.core.common.businessentities.storage.Image;
+import org.ovirt.engine.core.common.businessentities.storage.ImageStatus;
+import org.ovirt.engine.core.common.businessentities.storage.VolumeFormat;
+import org.ovirt.engine.core.common.businessentities.storage.VolumeType;
+import org.ovirt.engine.core.common.osinfo.OsRepository;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VdsProperties;
+
+/**
+ * Synthetic entities shared by the benchmarks, built in memory so the benchmarks run offline. The entities are
+ * populated like typical ones, so the results of different releases stay comparable.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static VmStatic vmStatic(int index) {
+        VmStatic vmStatic = new VmStatic();
+        vmStatic.setId(Guid.newGuid());
+        vmStatic.setName("benchmark-vm-" + index);
+        vmStatic.setDescription("Virtual machine " + index + " of the benchmark");
+        vmStatic.setClusterId(Guid.newGuid());
+        vmStatic.setVmtGuid(Guid.Empty);
+        vmStatic.setOsId(OsRepository.DEFAULT_X86_OS);
+        vmStatic.setOrigin(OriginType.OVIRT);
+        vmStatic.setMemSizeMb(4096);
+        vmStatic.setMinAllocatedMem(2048);
+        vmStatic.setNumOfSockets(2);
+        vmStatic.setCpuPerSocket(2);
+        vmStatic.setThreadsPerCpu(1);
+        vmStatic.setCreationDate(new Date());
+        return vmStatic;
+    }
+
+    public static VM vm(int index) {
+        VM vm = new VM();
+        vm.setStaticData(vmStatic(index));
+        return vm;
+    }
+
+    public static List<DiskImage> diskImages(VM vm, int count) {
+        List<DiskImage> disks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            DiskImage disk = new DiskImage();
+            Image image = new Image();
+            image.setActive(true);
+            disk.setImage(image);
+            disk.setId(Guid.newGuid());
+            disk.setImageId(Guid.newGuid());
+            disk.setParentId(Guid.Empty);
+            disk.setVmSnapshotId(Guid.newGuid());
+            disk.setStoragePoolId(Guid.newGuid());
+            disk.setStorageIds(new ArrayList<>(Collections.singletonList(Guid.newGuid())));
+            disk.setDiskAlias(vm.getName() + "_Disk" + (i + 1));
+            disk.setSize(10L * 1024 * 1024 * 1024);
+            disk.setActualSizeInBytes(1024L * 1024 * 1024);
+            disk.setVolumeType(VolumeType.Sparse);
+            disk.setVolumeFormat(VolumeFormat.COW);
+            disk.setImageStatus(ImageStatus.OK);
+            disk.setCreationDate(new Date());
+            disk.setPlugged(true);
+
+            DiskVmElement diskVmElement = new DiskVmElement(disk.getId(), vm.getId());
+            diskVmElement.setBoot(i == 0);
+            diskVmElement.setDiskInterface(DiskInterface.VirtIO_SCSI);
+            diskVmElement.setPlugged(true);
+            disk.setDiskVmElements(Collections.singletonList(diskVmElement));
+            disks.add(disk);
+        }
+        return disks;
+    }
+
+    public static List<VmNetworkInterface> interfaces(VM vm, int count) {
+        List<VmNetworkInterface> interfaces = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            VmNetworkInterface iface = new VmNetworkInterface();
+            iface.setStatistics(new VmNetworkStatistics());
+            iface.setId(Guid.newGuid());
+            iface.setVmId(vm.getId());
+            iface.setName("nic" + (i + 1));
+            iface.setNetworkName("ovirtmgmt");
+            iface.setVnicProfileName("ovirtmgmt");
+            iface.setLinked(true);
+            iface.setPlugged(true);
+            iface.setSpeed(1000);
+            iface.setType(3);
+            iface.setMacAddress(macAddress(i));
+            interfaces.add(iface);
+        }
+        return interfaces;
+    }
+
+    /**
+     * The statistics of a running VM with a guest agent, as reported by the getAllVmStats verb of VDSM
+     */
+    public static Map<String, Object> vmStats(int index) {
+        Map<String, Object> struct = new HashMap<>();
+        struct.put(VdsProperties.vm_guid, Guid.newGuid().toString());
+        struct.put(VdsProperties.status, "Up");
+        struct.put(VdsProperties.statusTime, "4295537170");
+        struct.put(VdsProperties.hash, String.valueOf(index));
+        struct.put(VdsProperties.acpiEnable, "true");
+        struct.put(VdsProperties.session, "Unknown");
+        struct.put(VdsProperties.utc_diff, "0");
+        struct.put(VdsProperties.monitorResponse, "0");
+        struct.put(VdsProperties.elapsed_time, "86400");
+        struct.put(VdsProperties.cpu_sys, "0.53");
+        struct.put(VdsProperties.cpu_user, "2.27");
+        struct.put(VdsProperties.vm_usage_mem_percent, "37");
+        struct.put(VdsProperties.GUEST_CPU_COUNT, 4);
+        struct.put(VdsProperties.vm_host, "vm-" + index);
+        struct.put(VdsProperties.VM_FQDN, "vm-" + index + ".example.com");
+        struct.put(VdsProperties.guest_cur_user_name, "None");
+        struct.put(VdsProperties.app_list, new Object[] {
+                "kernel-3.10.0-862.el7", "ovirt-guest-agent-common-1.0.14", "qemu-guest-agent-2.8.0" });
+
+        Map<String, Object> display = new HashMap<>();
+        display.put(VdsProperties.type, "spice");
+        display.put(VdsProperties.ipAddress, "0");
+        display.put(VdsProperties.port, "5900");
+        display.put(VdsProperties.tlsPort, "5901");
+        struct.put(VdsProperties.displayInfo, new Object[] { display });
+
+        Map<String, Object> memoryStats = new HashMap<>();
+        memoryStats.put(VdsProperties.vm_guest_mem_buffered, "2048");
+        memoryStats.put(VdsProperties.vm_guest_mem_cached, "1048576");
+        memoryStats.put(VdsProperties.vm_guest_mem_free, "2097152");
+        struct.put(VdsProperties.vm_guest_mem_stats, memoryStats);
+
+        Map<String, Object> balloonInfo = new HashMap<>();
+        balloonInfo.put(VdsProperties.vm_balloon_cur, "4194304");
+        balloonInfo.put(VdsProperties.vm_balloon_max, "4194304");
+        balloonInfo.put(VdsProperties.vm_balloon_min, "2097152");
+        balloonInfo.put(VdsProperties.vm_balloon_target, "4194304");
+        struct.put(VdsProperties.vm_balloonInfo, balloonInfo);
+
+        String macAddress = macAddress(index);
+        Map<String, Object> nic = new HashMap<>();
+        nic.put(VdsProperties.VM_INTERFACE_NAME, "vnet" + index);
+        nic.put(VdsProperties.MAC_ADDR, macAddress);
+        nic.put(VdsProperties.rx_dropped, "0");
+        nic.put(VdsProperties.rx_total, "9417846");
+        nic.put(VdsProperties.tx_dropped, "0");
+        nic.put(VdsProperties.tx_total, "1847263");
+        nic.put(VdsProperties.sample_time, "4295537.17");
+        Map<String, Object> network = new HashMap<>();
+        network.put("vnet" + index, nic);
+        struct.put(VdsProperties.VM_NETWORK, network);
+
+        Map<String, Object> guestNic = new HashMap<>();
+        guestNic.put(VdsProperties.VM_INTERFACE_NAME, "eth0");
+        guestNic.put(VdsProperties.VM_INTERFACE_MAC_ADDRESS, macAddress);
+        guestNic.put(VdsProperties.VM_IPV4_ADDRESSES, new Object[] { "10.0." + (index / 256 % 256) + "." + (index % 256) });
+        guestNic.put(VdsProperties.VM_IPV6_ADDRESSES, new Object[] { "fe80::546f:ff:fe00:1" });
+        struct.put(VdsProperties.VM_NETWORK_INTERFACES, new Object[] { guestNic });
+
+        Map<String, Object> disks = new HashMap<>();
+        for (String name : new String[] { "sda", "sdb" }) {
+            Map<String, Object> disk = new HashMap<>();
+            disk.put(VdsProperties.image_group_id, Guid.newGuid().toString());
+            disk.put(VdsProperties.vm_disk_read_rate, "1024.0");
+            disk.put(VdsProperties.vm_disk_write_rate, "4096.0");
+            disk.put(VdsProperties.disk_true_size, "1073741824");
+            disk.put(VdsProperties.vm_disk_read_latency, "0.000263");
+            disk.put(VdsProperties.vm_disk_write_latency, "0.001532");
+            disk.put(VdsProperties.vm_disk_flush_latency, "0.000043");
+            disks.put(name, disk);
+        }
+        struct.put(VdsProperties.vm_disks, disks);
+        return struct;
+    }
+
+    public static String macAddress(int index) {
+        return String.format("56:6f:%02x:%02x:%02x:%02x",
+                (index >> 24) & 0xff,
+                (index >> 16) & 0xff,
+                (index >> 8) & 0xff,
+                index & 0xff);
+    }
+}
@@ -0,0 +1,90 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.common.action.AddVmParameters;
+import org.ovirt.engine.core.common.action.RunVmParams;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.storage.DiskImage;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.serialization.json.JsonObjectDeserializer;
+import org.ovirt.engine.core.utils.serialization.json.JsonObjectSerializer;
+
+/**
+ * <p> Benchmark's the JSON serialization of command parameters by {@link JsonObjectSerializer} and
+ * {@link JsonObjectDeserializer}, which is done whenever a command entity is persisted or loaded.</p>
+ * <p> The parameters of adding a VM with a growing number of disks represent the large parameters, the parameters
+ * of running a VM represent the small ones.</p>
+ *
+ * @see JsonObjectSerializer
+ * @see JsonObjectDeserializer
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+    @Benchmark
+    public void serializeAddVmParameters(BenchmarkState state, Blackhole blackhole) {
+        blackhole.consume(state.serializer.serialize(state.addVmParameters));
+    }
+
+    @Benchmark
+    public void deserializeAddVmParameters(BenchmarkState state, Blackhole blackhole) {
+        blackhole.consume(state.deserializer.deserialize(state.serializedAddVmParameters, AddVmParameters.class));
+    }
+
+    @Benchmark
+    public void serializeRunVmParams(BenchmarkState state, Blackhole blackhole) {
+        blackhole.consume(state.serializer.serialize(state.runVmParams));
+    }
+
+    @Benchmark
+    public void deserializeRunVmParams(BenchmarkState state, Blackhole blackhole) {
+        blackhole.consume(state.deserializer.deserialize(state.serializedRunVmParams, RunVmParams.class));
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({ "1", "16" })
+        private int disks;
+
+        private JsonObjectSerializer serializer;
+        private JsonObjectDeserializer deserializer;
+        private AddVmParameters addVmParameters;
+        private RunVmParams runVmParams;
+        private String serializedAddVmParameters;
+        private String serializedRunVmParams;
+
+        @Setup
+        public void setup() {
+            serializer = new JsonObjectSerializer();
+            deserializer = new JsonObjectDeserializer();
+
+            VM vm = BenchmarkFixtures.vm(0);
+            addVmParameters = new AddVmParameters(vm.getStaticData());
+            Map<Guid, DiskImage> diskInfoDestinationMap = new HashMap<>();
+            BenchmarkFixtures.diskImages(vm, disks).forEach(disk -> diskInfoDestinationMap.put(disk.getId(), disk));
+            addVmParameters.setDiskInfoDestinationMap(diskInfoDestinationMap);
+            runVmParams = new RunVmParams(vm.getId());
+
+            serializedAddVmParameters = serializer.serialize(addVmParameters);
+            serializedRunVmParams = serializer.serialize(runVmParams);
+        }
+    }
+}
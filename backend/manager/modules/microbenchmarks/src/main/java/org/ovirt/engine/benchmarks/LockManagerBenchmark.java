@@ -0,0 +1,118 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.bll.lock.InMemoryLockManager;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.lock.EngineLock;
+
+/**
+ * <p> Benchmark's acquire/release throughput of {@link InMemoryLockManager} as the number of threads grows.</p>
+ * <p> The <b>exclusive</b> benchmarks let every thread lock its own entity, like commands running on different
+ * VMs do, so they should scale with the number of threads. The <b>shared</b> benchmarks let all threads take a
+ * shared lock on the same entity, like commands running on VMs of the same cluster do.</p>
+ *
+ * @see InMemoryLockManager
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LockManagerBenchmark {
+
+    @Benchmark
+    @Threads(1)
+    public void exclusive1Thread(LockManagerState manager, ThreadState state, Blackhole blackhole) {
+        acquireAndRelease(manager, state.exclusiveLock, blackhole);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void exclusive4Threads(LockManagerState manager, ThreadState state, Blackhole blackhole) {
+        acquireAndRelease(manager, state.exclusiveLock, blackhole);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void exclusive16Threads(LockManagerState manager, ThreadState state, Blackhole blackhole) {
+        acquireAndRelease(manager, state.exclusiveLock, blackhole);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void exclusive64Threads(LockManagerState manager, ThreadState state, Blackhole blackhole) {
+        acquireAndRelease(manager, state.exclusiveLock, blackhole);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void shared1Thread(LockManagerState manager, ThreadState state, Blackhole blackhole) {
+        acquireAndRelease(manager, state.sharedLock, blackhole);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void shared4Threads(LockManagerState manager, ThreadState state, Blackhole blackhole) {
+        acquireAndRelease(manager, state.sharedLock, blackhole);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void shared16Threads(LockManagerState manager, ThreadState state, Blackhole blackhole) {
+        acquireAndRelease(manager, state.sharedLock, blackhole);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void shared64Threads(LockManagerState manager, ThreadState state, Blackhole blackhole) {
+        acquireAndRelease(manager, state.sharedLock, blackhole);
+    }
+
+    private void acquireAndRelease(LockManagerState manager, EngineLock lock, Blackhole blackhole) {
+        blackhole.consume(manager.lockManager.acquireLock(lock));
+        manager.lockManager.releaseLock(lock);
+    }
+
+    @State(Scope.Benchmark)
+    public static class LockManagerState {
+
+        private InMemoryLockManager lockManager;
+        private String sharedEntityId;
+
+        @Setup
+        public void setup() {
+            lockManager = new InMemoryLockManager();
+            sharedEntityId = Guid.newGuid().toString();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private EngineLock exclusiveLock;
+        private EngineLock sharedLock;
+
+        @Setup
+        public void setup(LockManagerState manager) {
+            exclusiveLock = new EngineLock(
+                    Collections.singletonMap(Guid.newGuid().toString(), new Pair<>("VM", "benchmark")),
+                    null);
+            sharedLock = new EngineLock(
+                    null,
+                    Collections.singletonMap(manager.sharedEntityId, new Pair<>("CLUSTER", "benchmark")));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.ovirt.engine.benchmarks;
+
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.storage.FullEntityOvfData;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.osinfo.MapBackedPreferences;
+import org.ovirt.engine.core.common.osinfo.OsRepository;
+import org.ovirt.engine.core.compat.Version;
+import org.ovirt.engine.core.utils.OsRepositoryImpl;
+import org.ovirt.engine.core.utils.ovf.IOvfBuilder;
+import org.ovirt.engine.core.utils.ovf.OvfVmReader;
+import org.ovirt.engine.core.utils.ovf.OvfVmWriter;
+import org.ovirt.engine.core.utils.ovf.xml.XmlDocument;
+import org.ovirt.engine.core.utils.ovf.xml.XmlNamespaceManager;
+import org.ovirt.engine.core.utils.ovf.xml.XmlNode;
+import org.ovirt.engine.core.uutils.xml.SecureDocumentBuilderFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+/**
+ * <p> Benchmark's writing the OVF of a VM by {@link OvfVmWriter} and reading it back by {@link OvfVmReader}, which
+ * is done for every VM whose OVF is updated in the OVF stores and for every VM that is imported.</p>
+ * <p> The VMs have a growing number of disks and network interfaces.</p>
+ * <p> The <b>lookUp</b> benchmark looks up the hardware items of the OVF the way the readers do by {@link XmlDocument},
+ * the <b>lookUpByXPath</b> benchmark does the same lookups by evaluating every expression with XPath, as the readers
+ * used to.</p>
+ *
+ * @see OvfVmWriter
+ * @see OvfVmReader
+ * @see XmlDocument
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OvfBenchmark {
+
+    @Benchmark
+    public void write(BenchmarkState state, Blackhole blackhole) {
+        blackhole.consume(new OvfVmWriter(state.vm,
+                state.fullEntityOvfData,
+                Version.getLast(),
+                state.osRepository,
+                Collections.emptyMap()).build().getStringRepresentation());
+    }
+
+    @Benchmark
+    public void read(BenchmarkState state, Blackhole blackhole) throws Exception {
+        VM vm = new VM();
+        FullEntityOvfData fullEntityOvfData = new FullEntityOvfData(vm);
+        new OvfVmReader(new XmlDocument(state.ovf), vm, fullEntityOvfData, state.osRepository).build();
+        blackhole.consume(vm);
+        blackhole.consume(fullEntityOvfData);
+    }
+
+    @Benchmark
+    public void lookUp(BenchmarkState state, Blackhole blackhole) {
+        for (XmlNode section : state.document.selectNodes("//*/Content/Section")) {
+            for (XmlNode item : section.selectNodes("Item")) {
+                blackhole.consume(item.selectSingleNode("rasd:ResourceType", state.namespaces));
+                blackhole.consume(item.selectSingleNode("rasd:InstanceId", state.namespaces));
+            }
+        }
+    }
+
+    @Benchmark
+    public void lookUpByXPath(BenchmarkState state, Blackhole blackhole) throws Exception {
+        NodeList sections = (NodeList) evaluate(state, "//*/Content/Section", state.dom, XPathConstants.NODESET);
+        for (int i = 0; i < sections.getLength(); i++) {
+            NodeList items = (NodeList) evaluate(state, "Item", sections.item(i), XPathConstants.NODESET);
+            for (int j = 0; j < items.getLength(); j++) {
+                blackhole.consume(evaluate(state, "rasd:ResourceType", items.item(j), XPathConstants.NODE));
+                blackhole.consume(evaluate(state, "rasd:InstanceId", items.item(j), XPathConstants.NODE));
+            }
+        }
+    }
+
+    private static Object evaluate(BenchmarkState state, String expression, Node context, QName returnType)
+            throws Exception {
+        XPath xPath = XPathFactory.newInstance().newXPath();
+        xPath.setNamespaceContext(state.namespaces);
+        return xPath.evaluate(expression, context, returnType);
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({ "1", "8", "32" })
+        private int devices;
+
+        private OsRepository osRepository;
+        private VM vm;
+        private FullEntityOvfData fullEntityOvfData;
+        private String ovf;
+        private XmlDocument document;
+        private Document dom;
+        private XmlNamespaceManager namespaces;
+
+        @Setup
+        public void setup() {
+            BenchmarkConfig.install()
+                    .set(ConfigValues.VdcVersion, "4.3.0.0")
+                    .set(ConfigValues.OvfVirtualSystemType, "ENGINE")
+                    .set(ConfigValues.PassDiscardSupported, true)
+                    .set(ConfigValues.DefaultGeneralTimeZone, "Etc/GMT")
+                    .set(ConfigValues.DefaultWindowsTimeZone, "GMT Standard Time");
+
+            MapBackedPreferences preferences = new MapBackedPreferences(null, "");
+            preferences.node("/os/other/id").put("value", String.valueOf(OsRepository.DEFAULT_X86_OS));
+            preferences.node("/os/other/name").put("value", "Other OS");
+            preferences.node("/os/other/family").put("value", "other");
+            preferences.node("/os/other/cpuArchitecture").put("value", "x86_64");
+            preferences.node("/os/other/bus").put("value", "64");
+            preferences.node("/os/other/devices/display/protocols").put("value", "spice/qxl,vnc/vga,vnc/qxl,vnc/cirrus");
+            OsRepositoryImpl.INSTANCE.init(preferences);
+            osRepository = OsRepositoryImpl.INSTANCE;
+
+            vm = BenchmarkFixtures.vm(0);
+            vm.setInterfaces(BenchmarkFixtures.interfaces(vm, devices));
+            fullEntityOvfData = new FullEntityOvfData(vm);
+            fullEntityOvfData.setDiskImages(BenchmarkFixtures.diskImages(vm, devices));
+
+            ovf = new OvfVmWriter(vm, fullEntityOvfData, Version.getLast(), osRepository, Collections.emptyMap())
+                    .build()
+                    .getStringRepresentation();
+
+            try {
+                document = new XmlDocument(ovf);
+                DocumentBuilderFactory factory = SecureDocumentBuilderFactory.newDocumentBuilderFactory();
+                factory.setNamespaceAware(true);
+                dom = factory.newDocumentBuilder().parse(new InputSource(new StringReader(ovf)));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            namespaces = new XmlNamespaceManager();
+            namespaces.addNamespace("ovf", IOvfBuilder.OVF_URI);
+            namespaces.addNamespace("rasd", IOvfBuilder.RASD_URI);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.ovirt.engine.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.api.model.Nic;
+import org.ovirt.engine.api.restapi.types.Mapper;
+import org.ovirt.engine.api.restapi.types.MappingLocator;
+import org.ovirt.engine.api.restapi.types.NicMapper;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkInterface;
+
+/**
+ * <p> Benchmark's the dispatch of the REST API type mappers, which is done for every entity of every response.</p>
+ * <p> The mappers found by {@link MappingLocator} are compared with the reflective {@link Method#invoke} calls that
+ * it used to do, and with calling the mapping method directly, which is the best the dispatch can get.</p>
+ *
+ * @see MappingLocator
+ * @see RestInvocationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RestMappingBenchmark {
+
+    @Benchmark
+    public void directCall(BenchmarkState state, Blackhole blackhole) {
+        for (VmNetworkInterface nic : state.nics) {
+            blackhole.consume(NicMapper.map(nic, null));
+        }
+    }
+
+    @Benchmark
+    public void reflectiveInvoke(BenchmarkState state, Blackhole blackhole)
+            throws IllegalAccessException, InvocationTargetException {
+        for (VmNetworkInterface nic : state.nics) {
+            blackhole.consume(state.method.invoke(null, nic, null));
+        }
+    }
+
+    @Benchmark
+    public void mappingLocator(BenchmarkState state, Blackhole blackhole) {
+        for (VmNetworkInterface nic : state.nics) {
+            blackhole.consume(state.mapper.map(nic, null));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({ "1", "100" })
+        private int count;
+
+        private List<VmNetworkInterface> nics;
+        private Method method;
+        private Mapper<VmNetworkInterface, Nic> mapper;
+
+        @Setup
+        public void setup() throws NoSuchMethodException {
+            nics = BenchmarkFixtures.interfaces(BenchmarkFixtures.vm(0), count);
+            method = NicMapper.class.getMethod("map", VmNetworkInterface.class, Nic.class);
+
+            MappingLocator locator = new MappingLocator();
+            locator.populate();
+            mapper = locator.getMapper(VmNetworkInterface.class, Nic.class);
+        }
+    }
+}
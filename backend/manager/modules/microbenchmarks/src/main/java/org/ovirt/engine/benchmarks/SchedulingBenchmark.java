@@ -0,0 +1,173 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
+import org.ovirt.engine.core.bll.scheduling.SchedulingManager;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
+import org.ovirt.engine.core.bll.scheduling.policyunits.CPUPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.CompatibilityVersionFilterPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.EvenDistributionCPUWeightPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.EvenDistributionMemoryWeightPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.EvenGuestDistributionWeightPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.RankSelectorPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.SwapFilterPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.selector.SelectorInstance;
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.VdsSpmStatus;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.scheduling.PerHostMessages;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.compat.Version;
+
+/**
+ * <p> Benchmark's the selection of a host for a VM out of a large cluster by the internal policy units of the
+ * scheduler.</p>
+ * <p> The {@link SchedulingManager} loads the cluster, the hosts and the policy from the database, so the benchmark
+ * runs the same sequence it runs once these are loaded: the filters, one after the other, the weights of the hosts
+ * that passed them and the rank selector that picks the best host. The policy units are those of the even
+ * distribution policy that do not need the database.</p>
+ * <p> The <b>filter</b> and <b>score</b> benchmarks measure the two phases apart, the <b>schedule</b> benchmark
+ * measures the whole selection.</p>
+ *
+ * @see SchedulingManager
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SchedulingBenchmark {
+
+    @Benchmark
+    public void filter(BenchmarkState state, Blackhole blackhole) {
+        blackhole.consume(filter(state));
+    }
+
+    @Benchmark
+    public void score(BenchmarkState state, Blackhole blackhole) {
+        blackhole.consume(score(state, state.hosts));
+    }
+
+    @Benchmark
+    public void schedule(BenchmarkState state, Blackhole blackhole) {
+        blackhole.consume(score(state, filter(state)).best());
+    }
+
+    private static List<VDS> filter(BenchmarkState state) {
+        PerHostMessages messages = new PerHostMessages();
+        List<VDS> hosts = state.hosts;
+        for (PolicyUnitImpl filter : state.filters) {
+            hosts = filter.filter(state.cluster, hosts, state.vm, Collections.emptyMap(), messages);
+        }
+        return hosts;
+    }
+
+    private static SelectorInstance score(BenchmarkState state, List<VDS> hosts) {
+        SelectorInstance selector = state.selector.selector(Collections.emptyMap());
+        selector.init(state.functions, hosts.stream().map(VDS::getId).collect(Collectors.toList()));
+        for (PolicyUnitImpl function : state.weights) {
+            Guid unitId = function.getPolicyUnit().getId();
+            for (Pair<Guid, Integer> score : function.score(state.cluster, hosts, state.vm, Collections.emptyMap())) {
+                selector.record(unitId, score.getFirst(), score.getSecond());
+            }
+        }
+        return selector;
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({ "50", "500" })
+        private int hostCount;
+
+        private Cluster cluster;
+        private VM vm;
+        private List<VDS> hosts;
+        private List<PolicyUnitImpl> filters;
+        private List<PolicyUnitImpl> weights;
+        private List<Pair<Guid, Integer>> functions;
+        private PolicyUnitImpl selector;
+
+        @Setup
+        public void setup() {
+            BenchmarkConfig.install()
+                    .set(ConfigValues.MaxSchedulerWeight, 1000)
+                    .set(ConfigValues.VcpuConsumptionPercentage, 20)
+                    .set(ConfigValues.SpmVCpuConsumption, 1)
+                    .set(ConfigValues.EnableSwapCheck, true)
+                    .set(ConfigValues.BlockMigrationOnSwapUsagePercentage, 0)
+                    .set(ConfigValues.SpmVmGraceForEvenGuestDistribute, 5);
+
+            cluster = new Cluster();
+            cluster.setId(Guid.newGuid());
+            cluster.setCompatibilityVersion(Version.v4_2);
+            cluster.setCountThreadsAsCores(false);
+
+            vm = BenchmarkFixtures.vm(0);
+            vm.setClusterId(cluster.getId());
+            vm.setCustomCompatibilityVersion(Version.v4_2);
+
+            hosts = new ArrayList<>(hostCount);
+            for (int i = 0; i < hostCount; i++) {
+                hosts.add(host(i));
+            }
+
+            PendingResourceManager pendingResourceManager = new PendingResourceManager();
+            filters = Arrays.asList(
+                    new CPUPolicyUnit(null, pendingResourceManager),
+                    new CompatibilityVersionFilterPolicyUnit(null, pendingResourceManager),
+                    new SwapFilterPolicyUnit(null, pendingResourceManager));
+            weights = Arrays.asList(
+                    new EvenDistributionCPUWeightPolicyUnit(null, pendingResourceManager),
+                    new EvenDistributionMemoryWeightPolicyUnit(null, pendingResourceManager),
+                    new EvenGuestDistributionWeightPolicyUnit(null, pendingResourceManager));
+            functions = weights.stream()
+                    .map(unit -> new Pair<>(unit.getPolicyUnit().getId(), 1))
+                    .collect(Collectors.toList());
+            selector = new RankSelectorPolicyUnit(null, pendingResourceManager);
+        }
+
+        /**
+         * A host of the cluster, three in every ten hosts are filtered out, one by each filter
+         */
+        private VDS host(int index) {
+            VDS host = new VDS();
+            host.setId(Guid.newGuid());
+            host.setVdsName("host-" + index);
+            host.setClusterId(cluster.getId());
+            host.setSpmStatus(index == 0 ? VdsSpmStatus.SPM : VdsSpmStatus.None);
+            host.setSupportedClusterLevels(index % 10 == 1 ? "4.1" : "4.1,4.2");
+            host.setCpuCores(index % 10 == 2 ? 2 : 16);
+            host.setCpuThreads(32);
+            host.setUsageCpuPercent(index % 100);
+            host.setVmActive(index % 50);
+            host.setMaxVdsMemoryOverCommit(150);
+            host.setReservedMem(321);
+            host.setPhysicalMemMb(256 * 1024);
+            host.setMemCommited((index % 64) * 2048);
+            host.setMemFree(index % 10 == 3 ? 1024L : 64L * 1024);
+            host.setSwapTotal(16L * 1024);
+            host.setSwapFree(index % 10 == 3 ? 0L : 16L * 1024);
+            return host;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.searchbackend.SyntaxChecker;
+import org.ovirt.engine.core.searchbackend.SyntaxContainer;
+
+/**
+ * <p> Benchmark's the parsing of search queries by {@link SyntaxChecker} and the generation of their SQL, which is
+ * what every search done by the clients goes through when it is not cached.</p>
+ * <p> The <b>analyze</b> benchmark only parses the query, the <b>analyzeAndGenerate</b> benchmark also generates the
+ * SQL query from the parsed one, like the search query does.</p>
+ *
+ * @see SyntaxChecker
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchSyntaxBenchmark {
+
+    @Benchmark
+    public void analyze(BenchmarkState state, Blackhole blackhole) {
+        blackhole.consume(state.syntaxChecker.analyzeSyntaxState(state.query, true));
+    }
+
+    @Benchmark
+    public void analyzeAndGenerate(BenchmarkState state, Blackhole blackhole) {
+        SyntaxContainer syntax = state.syntaxChecker.analyzeSyntaxState(state.query, true);
+        syntax.setMaxCount(100);
+        blackhole.consume(state.syntaxChecker.generateQueryFromSyntaxContainer(syntax, true));
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({
+                "Vms:",
+                "Vms: status = up and cluster = Default sortby name asc page 2",
+                "Hosts: cpu_usage > 80 or mem_usage > 80 and datacenter = Default sortby cpu_usage desc",
+                "Events: severity > normal and time > Today sortby time desc"
+        })
+        private String query;
+
+        private SyntaxChecker syntaxChecker;
+
+        @Setup
+        public void setup() {
+            BenchmarkConfig.install()
+                    .set(ConfigValues.DBEngine, "Postgres")
+                    .set(ConfigValues.DBSearchTemplate,
+                            "SELECT * FROM (SELECT *, ROW_NUMBER() OVER(%1$s) as RowNum FROM (%2$s)) as T1 ) as T2 %3$s")
+                    .set(ConfigValues.DBPagingType, "Range")
+                    .set(ConfigValues.DBPagingSyntax, " WHERE RowNum BETWEEN %1$s AND %2$s")
+                    .set(ConfigValues.DBLikeSyntax, "ILIKE")
+                    .set(ConfigValues.DBI18NPrefix, "")
+                    .set(ConfigValues.PgMajorRelease, 9);
+            syntaxChecker = new SyntaxChecker();
+
+            SyntaxContainer syntax = syntaxChecker.analyzeSyntaxState(query, true);
+            if (!syntax.getvalid()) {
+                throw new IllegalStateException("The benchmark query '" + query + "' is not valid: " + syntax);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VdsBrokerObjectsBuilder;
+
+/**
+ * <p> Benchmark's building the VMs reported by the getAllVmStats verb of VDSM from its response, by
+ * {@link VdsBrokerObjectsBuilder}, which the monitoring does every few seconds for every host.</p>
+ * <p> The response is synthetic and in memory, every VM reports its status, guest agent data, balloon, memory,
+ * network and disk statistics like a running VM with a guest agent does. The benchmark builds the VMs of a whole
+ * response, so its result is the time the monitoring of a host with that many VMs spends on it.</p>
+ *
+ * @see VdsBrokerObjectsBuilder
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VdsBrokerObjectsBuilderBenchmark {
+
+    @Benchmark
+    public void buildAllVmStats(BenchmarkState state, Blackhole blackhole) {
+        for (Map<String, Object> struct : state.response) {
+            blackhole.consume(state.builder.buildVdsmVm(struct, state.host));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({ "100", "1000" })
+        private int vms;
+
+        private VdsBrokerObjectsBuilder builder;
+        private VDS host;
+        private List<Map<String, Object>> response;
+
+        @Setup
+        public void setup() {
+            builder = new VdsBrokerObjectsBuilder();
+            host = new VDS();
+            host.setId(Guid.newGuid());
+            host.setHostName("host.example.com");
+
+            response = new ArrayList<>(vms);
+            for (int i = 0; i < vms; i++) {
+                response.add(BenchmarkFixtures.vmStats(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.DeserializationConfig;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VdsBrokerObjectsBuilder;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VmStatsStreamDecoder;
+
+/**
+ * <p> Benchmark's decoding the VMs of a getAllVmStats response of VDSM, as received by the JSON-RPC client, into
+ * the VMs the monitoring works on.</p>
+ * <p> The <b>maps</b> benchmark converts every VM into maps and arrays first and builds the VM out of them by
+ * {@link VdsBrokerObjectsBuilder}, the <b>stream</b> benchmark decodes the VMs by {@link VmStatsStreamDecoder}.
+ * Run with <code>-prof gc</code> to compare the memory allocated by the two.</p>
+ *
+ * @see VmStatsStreamDecoder
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VmStatsDecodingBenchmark {
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void maps(BenchmarkState state, Blackhole blackhole) throws Exception {
+        for (JsonNode vmStats : state.statsList) {
+            Map<String, Object> struct = state.mapper.readValue(vmStats, Map.class);
+            blackhole.consume(state.builder.buildVdsmVm(struct, state.host));
+        }
+    }
+
+    @Benchmark
+    public void stream(BenchmarkState state, Blackhole blackhole) {
+        blackhole.consume(state.decoder.decode(state.statsList, state.host));
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({ "100", "1000" })
+        private int vms;
+
+        private ObjectMapper mapper;
+        private VdsBrokerObjectsBuilder builder;
+        private VmStatsStreamDecoder decoder;
+        private VDS host;
+        private JsonNode statsList;
+
+        @Setup
+        public void setup() {
+            mapper = new ObjectMapper().configure(DeserializationConfig.Feature.USE_JAVA_ARRAY_FOR_JSON_ARRAY, true);
+            builder = new VdsBrokerObjectsBuilder();
+            decoder = new VmStatsStreamDecoder(builder);
+            host = new VDS();
+            host.setId(Guid.newGuid());
+            host.setHostName("host.example.com");
+
+            List<Map<String, Object>> response = new ArrayList<>(vms);
+            for (int i = 0; i < vms; i++) {
+                response.add(BenchmarkFixtures.vmStats(i));
+            }
+            statsList = mapper.valueToTree(response);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.ovirt.engine.core.bll.network.macpool;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * <p> Benchmark's the allocation and the lookup of MACs in {@link MacsStorage}, which the MAC pool does under the lock
+ * of the pool for every NIC added to a VM.</p>
+ * <p> The storage consists of /16 sized ranges that are filled to the given percentage by MACs used at random, like
+ * a pool whose VMs were added and removed over time. The <b>allocate</b> benchmark allocates MACs for a VM and frees
+ * them, so the fill level stays the same, the <b>useAndFree</b> benchmark looks the ranges of MACs up.</p>
+ * <p> The benchmark lives in the package of {@link MacsStorage} since the storage is not public.</p>
+ *
+ * @see MacsStorage
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MacsStorageBenchmark {
+
+    private static final int MACS_IN_RANGE = 1 << 16;
+
+    @Benchmark
+    public void allocate(BenchmarkState state, Blackhole blackhole) {
+        List<Long> macs = state.macsStorage.allocateAvailableMacs(state.macs);
+        for (long mac : macs) {
+            state.macsStorage.freeMac(mac);
+        }
+        blackhole.consume(macs);
+    }
+
+    @Benchmark
+    public void useAndFree(BenchmarkState state, Blackhole blackhole) {
+        for (long mac : state.unusedMacs) {
+            blackhole.consume(state.macsStorage.useMac(mac));
+        }
+        for (long mac : state.unusedMacs) {
+            state.macsStorage.freeMac(mac);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({ "50", "90", "99" })
+        private int fillPercentage;
+
+        @Param({ "1", "16" })
+        private int ranges;
+
+        @Param({ "4" })
+        private int macs;
+
+        private MacsStorage macsStorage;
+        private long[] unusedMacs;
+
+        @Setup
+        public void setup() {
+            Random random = new Random(0);
+            macsStorage = new MacsStorage(false);
+            for (int i = 0; i < ranges; i++) {
+                long rangeStart = 0x001A4A000000L + (long) i * MACS_IN_RANGE;
+                macsStorage.addRange(rangeStart, rangeStart + MACS_IN_RANGE - 1);
+            }
+
+            long firstMac = 0x001A4A000000L;
+            int totalMacs = ranges * MACS_IN_RANGE;
+            int macsToUse = (int) ((long) totalMacs * fillPercentage / 100);
+            while (macsStorage.getAvailableMacsCount() > totalMacs - macsToUse) {
+                macsStorage.useMac(firstMac + random.nextInt(totalMacs));
+            }
+
+            unusedMacs = new long[macs];
+            for (int i = 0; i < macs;) {
+                long mac = firstMac + random.nextInt(totalMacs);
+                // the MAC is used until all the unused MACs are picked, so none is picked twice
+                if (macsStorage.useMac(mac)) {
+                    unusedMacs[i++] = mac;
+                }
+            }
+            for (long mac : unusedMacs) {
+                macsStorage.freeMac(mac);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.benchmarks.BenchmarkConfig;
+import org.ovirt.engine.benchmarks.BenchmarkFixtures;
+import org.ovirt.engine.core.common.businessentities.OriginType;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VmDynamic;
+import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkInterface;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkStatistics;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.compat.Version;
+import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
+import org.ovirt.engine.core.dao.VdsDynamicDao;
+import org.ovirt.engine.core.dao.network.VmNetworkInterfaceDao;
+import org.ovirt.engine.core.vdsbroker.ResourceManager;
+import org.ovirt.engine.core.vdsbroker.VdsManager;
+import org.ovirt.engine.core.vdsbroker.VdsSnapshot;
+import org.ovirt.engine.core.vdsbroker.VmManager;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VdsBrokerObjectsBuilder;
+
+/**
+ * <p> Benchmark's the analysis of the VMs reported by a host by {@link VmAnalyzer}, which the monitoring does for
+ * every VM of every host every few seconds.</p>
+ * <p> The VMs are up on the monitored host and reported with their statistics, so every analysis goes through the
+ * comparison of the dynamic data, the balloon and memory checks and the update of the VM, interface and disk
+ * statistics. The managers and DAOs the analysis collaborates with are stub only mocks, which don't record the
+ * millions of invocations made during a run. The lookup of their stubbed answers is still part of the measured time,
+ * so the results are comparable only between runs with the same version of Mockito.</p>
+ * <p> The benchmark lives in the package of {@link VmAnalyzer} since the analysis is not public.</p>
+ *
+ * @see VmAnalyzer
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VmAnalyzerBenchmark {
+
+    @Benchmark
+    public void analyze(BenchmarkState state, Blackhole blackhole) {
+        for (int i = 0; i < state.vms; i++) {
+            VmAnalyzer vmAnalyzer = new VmAnalyzer(
+                    state.dbVms.get(i),
+                    state.vdsmVms.get(i),
+                    true,
+                    state.vdsManager,
+                    state.auditLogDirector,
+                    state.resourceManager,
+                    state.vdsDynamicDao,
+                    state.vmNetworkInterfaceDao);
+            vmAnalyzer.analyze();
+            blackhole.consume(vmAnalyzer);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({ "100", "1000" })
+        private int vms;
+
+        private List<VmDynamic> dbVms;
+        private List<VdsmVm> vdsmVms;
+        private VdsManager vdsManager;
+        private AuditLogDirector auditLogDirector;
+        private ResourceManager resourceManager;
+        private VdsDynamicDao vdsDynamicDao;
+        private VmNetworkInterfaceDao vmNetworkInterfaceDao;
+
+        @Setup
+        public void setup() {
+            BenchmarkConfig.install()
+                    .set(ConfigValues.UsageHistoryLimit, 40)
+                    .set(ConfigValues.GuestNicNamesBlacklist, Collections.singletonList("lo"));
+
+            VDS host = new VDS();
+            host.setId(Guid.newGuid());
+            host.setVdsName("host");
+            host.setBalloonEnabled(true);
+
+            vdsManager = stub(VdsManager.class);
+            when(vdsManager.getVdsId()).thenReturn(host.getId());
+            when(vdsManager.getVdsName()).thenReturn(host.getName());
+            when(vdsManager.isInitialized()).thenReturn(true);
+            when(vdsManager.getSnapshot()).thenReturn(new VdsSnapshot(host, 1));
+            auditLogDirector = stub(AuditLogDirector.class);
+            resourceManager = stub(ResourceManager.class);
+            vdsDynamicDao = stub(VdsDynamicDao.class);
+            vmNetworkInterfaceDao = stub(VmNetworkInterfaceDao.class);
+
+            VdsBrokerObjectsBuilder builder = new VdsBrokerObjectsBuilder();
+            dbVms = new ArrayList<>(vms);
+            vdsmVms = new ArrayList<>(vms);
+            for (int i = 0; i < vms; i++) {
+                VdsmVm vdsmVm = builder.buildVdsmVm(BenchmarkFixtures.vmStats(i), host);
+                VmDynamic vmDynamic = vdsmVm.getVmDynamic();
+                Guid vmId = vmDynamic.getId();
+                vdsmVms.add(vdsmVm);
+
+                VmDynamic dbVm = new VmDynamic(vmDynamic);
+                dbVm.setRunOnVds(host.getId());
+                dbVms.add(dbVm);
+
+                mockVm(vmId, i);
+            }
+        }
+
+        private static <T> T stub(Class<T> classToMock) {
+            return mock(classToMock, withSettings().stubOnly());
+        }
+
+        private void mockVm(Guid vmId, int index) {
+            VmNetworkInterface iface = BenchmarkFixtures.interfaces(BenchmarkFixtures.vm(index), 1).get(0);
+            iface.setVmId(vmId);
+            iface.setMacAddress(BenchmarkFixtures.macAddress(index));
+            Map<Guid, VmNetworkStatistics> interfaceStatistics = new HashMap<>();
+            interfaceStatistics.put(iface.getId(), new VmNetworkStatistics(iface.getStatistics()));
+            when(vmNetworkInterfaceDao.getAllForMonitoredVm(vmId)).thenAnswer(invocation ->
+                    Collections.singletonList(new VmNetworkInterface(iface)));
+
+            VmManager vmManager = stub(VmManager.class);
+            when(vmManager.getName()).thenReturn("vm-" + index);
+            when(vmManager.getOrigin()).thenReturn(OriginType.OVIRT);
+            when(vmManager.getStatistics()).thenReturn(new VmStatistics(vmId));
+            when(vmManager.getClusterCompatibilityVersion()).thenReturn(Version.v4_2);
+            when(vmManager.getNumOfCpus()).thenReturn(4);
+            when(vmManager.getMemSizeMb()).thenReturn(4096);
+            when(vmManager.getMinAllocatedMem()).thenReturn(2048);
+            when(vmManager.getLatestInterfaceStatistics(iface.getId()))
+                    .thenReturn(interfaceStatistics.get(iface.getId()));
+            when(resourceManager.getVmManager(vmId)).thenReturn(vmManager);
+        }
+    }
+}
@@ -39,6 +39,7 @@ public class LocalConfig {
     private static final String DEFAULT_VERSION = "ENGINE_API_DEFAULT_VERSION";
     private static final String FILTER_BY_DEFAULT = "ENGINE_API_FILTER_BY_DEFAULT";
     private static final String EXPLORER_DIRECTORY = "ENGINE_API_EXPLORER_DIRECTORY";
+    private static final String COLLECTION_PAGE_SIZE = "ENGINE_API_COLLECTION_PAGE_SIZE";
 
     // Reference to the engine local configuration, as that is what is used to actually read the configuration:
     private EngineLocalConfig config;
@@ -109,4 +110,13 @@ public class LocalConfig {
     public String getExplorerDirectory() {
         return config.getProperty(EXPLORER_DIRECTORY);
     }
+
+    /**
+     * Returns the number of entities that are retrieved from the backend in each page when a large collection is
+     * written to the response while it is being retrieved. A value of zero or less means that collections are always
+     * retrieved completely before they are written.
+     */
+    public int getCollectionPageSize() {
+        return config.getInteger(COLLECTION_PAGE_SIZE, 0);
+    }
 }
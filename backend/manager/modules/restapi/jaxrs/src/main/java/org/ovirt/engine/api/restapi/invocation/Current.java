@@ -80,6 +80,11 @@ public class Current {
      */
     private BackendLocal backend;
 
+    /**
+     * The collection that will be retrieved page by page while the response is written, if any.
+     */
+    private StreamedCollection streamedCollection;
+
     /**
      * Returns the request version of the API.
      */
@@ -238,4 +243,16 @@ public class Current {
     public BackendLocal getBackend() {
         return backend;
     }
+
+    /**
+     * Returns the collection that will be retrieved page by page while the response is written, or {@code null} if
+     * the response of this request doesn't contain such a collection.
+     */
+    public StreamedCollection getStreamedCollection() {
+        return streamedCollection;
+    }
+
+    public void setStreamedCollection(StreamedCollection streamedCollection) {
+        this.streamedCollection = streamedCollection;
+    }
 }
@@ -0,0 +1,148 @@
+package org.ovirt.engine.api.restapi.invocation;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+import javax.xml.bind.annotation.XmlElement;
+
+import org.ovirt.engine.api.model.BaseResources;
+import org.ovirt.engine.api.utils.EntityHelper;
+
+/**
+ * This class describes a collection whose items aren't retrieved when the resource method returns, but page by page
+ * while the response is being written. The resource returns an empty collection object, and stores an instance of this
+ * class in the {@link Current} request, so that the JSON and XML providers can recognize that object and write the
+ * items of each page as soon as the page has been retrieved and mapped, instead of keeping the complete collection in
+ * memory.
+ */
+public class StreamedCollection implements Iterable<Object> {
+    /**
+     * The default value of the {@code name} attribute of the {@link XmlElement} annotation.
+     */
+    private static final String DEFAULT_NAME = "##default";
+
+    /**
+     * The empty collection object returned by the resource.
+     */
+    private final BaseResources collection;
+
+    /**
+     * The function that retrieves and maps the page with the given number, starting with one. It returns {@code null}
+     * when there are no more pages.
+     */
+    private final IntFunction<? extends BaseResources> pages;
+
+    /**
+     * The name of the elements used for the items of the collection, for example {@code vm} for the {@code Vms}
+     * collection.
+     */
+    private final String itemName;
+
+    public StreamedCollection(BaseResources collection, IntFunction<? extends BaseResources> pages) {
+        this.collection = collection;
+        this.pages = pages;
+        this.itemName = findItemName(collection);
+    }
+
+    /**
+     * Returns the empty collection object that was returned by the resource.
+     */
+    public BaseResources getCollection() {
+        return collection;
+    }
+
+    /**
+     * Checks if the given object is the collection object that was returned by the resource.
+     */
+    public boolean isFor(Object object) {
+        return object == collection;
+    }
+
+    /**
+     * Returns the name of the elements used for the items of the collection, for example {@code vm} for the
+     * {@code Vms} collection.
+     */
+    public String getItemName() {
+        return itemName;
+    }
+
+    /**
+     * Returns an iterator that retrieves the next page only when all the items of the previous one have been consumed.
+     * The iterator can be used only once, as it retrieves the pages from the backend.
+     */
+    @Override
+    public Iterator<Object> iterator() {
+        return new Iterator<Object>() {
+            private int page;
+            private Iterator<?> items = Collections.emptyIterator();
+            private boolean done;
+
+            @Override
+            public boolean hasNext() {
+                while (!done && !items.hasNext()) {
+                    BaseResources next = pages.apply(++page);
+                    if (next != null) {
+                        items = getItems(next).iterator();
+                    } else {
+                        done = true;
+                    }
+                }
+                return items.hasNext();
+            }
+
+            @Override
+            public Object next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return items.next();
+            }
+        };
+    }
+
+    private static Collection<?> getItems(BaseResources page) {
+        Method getter = EntityHelper.getCollectionGetter(page);
+        try {
+            return (Collection<?>) getter.invoke(page);
+        } catch (IllegalAccessException | InvocationTargetException exception) {
+            throw new IllegalStateException(
+                "Can't get the items of collection of type \"" + page.getClass().getName() + "\".", exception);
+        }
+    }
+
+    /**
+     * Finds the name of the element used for the items of the collection, using the {@link XmlElement} annotation of
+     * the field or the getter that contain the items, as that is what the JAXB and Jackson serializers use.
+     */
+    private static String findItemName(BaseResources collection) {
+        Method getter = EntityHelper.getCollectionGetter(collection);
+        for (Class<?> type = collection.getClass(); type != null; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (Collection.class.isAssignableFrom(field.getType())) {
+                    String name = getElementName(field);
+                    if (name == null) {
+                        name = getElementName(getter);
+                    }
+                    return name != null ? name : field.getName();
+                }
+            }
+        }
+        throw new IllegalStateException(
+            "Collection of type \"" + collection.getClass().getName() + "\" doesn't contain a list of items.");
+    }
+
+    private static String getElementName(AnnotatedElement element) {
+        XmlElement annotation = element.getAnnotation(XmlElement.class);
+        if (annotation == null || DEFAULT_NAME.equals(annotation.name())) {
+            return null;
+        }
+        return annotation.name();
+    }
+}
@@ -16,16 +16,23 @@
 
 package org.ovirt.engine.api.restapi.json;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.Provider;
 
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonGenerator;
 import org.codehaus.jackson.jaxrs.JacksonJsonProvider;
+import org.codehaus.jackson.map.SerializationConfig;
 import org.ovirt.engine.api.restapi.invocation.CurrentManager;
+import org.ovirt.engine.api.restapi.invocation.StreamedCollection;
 
 @Provider
 @Consumes(MediaType.APPLICATION_JSON)
@@ -34,9 +41,12 @@ public class JSONProvider extends JacksonJsonProvider {
     // The version of the API supported by this provider:
     public static final String SUPPORTED_VERSION = "4";
 
+    private final CustomObjectMapper mapper;
+
     public JSONProvider() {
         super();
-        setMapper(CustomObjectMapper.get());
+        mapper = CustomObjectMapper.get();
+        setMapper(mapper);
     }
 
     @Override
@@ -54,4 +64,41 @@ public class JSONProvider extends JacksonJsonProvider {
         }
         return super.isWriteable(type, genericType, annotations, mediaType);
     }
+
+    @Override
+    public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        StreamedCollection streamed = CurrentManager.get().getStreamedCollection();
+        if (streamed != null && streamed.isFor(value)) {
+            writeStreamed(streamed, entityStream);
+        } else {
+            super.writeTo(value, type, genericType, annotations, mediaType, httpHeaders, entityStream);
+        }
+    }
+
+    /**
+     * Writes a collection that is retrieved page by page, serializing each item as soon as its page is available. The
+     * result is the same object that would be generated for the complete collection, for example
+     * <code>{ "vm": [ ... ] }</code>.
+     */
+    private void writeStreamed(StreamedCollection streamed, OutputStream entityStream) throws IOException {
+        JsonGenerator generator = mapper.getJsonFactory().createJsonGenerator(entityStream, JsonEncoding.UTF8);
+        if (mapper.getSerializationConfig().isEnabled(SerializationConfig.Feature.INDENT_OUTPUT)) {
+            generator.useDefaultPrettyPrinter();
+        }
+        generator.writeStartObject();
+        boolean empty = true;
+        for (Object item : streamed) {
+            if (empty) {
+                generator.writeArrayFieldStart(streamed.getItemName());
+                empty = false;
+            }
+            mapper.writeValue(generator, item);
+        }
+        if (!empty) {
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+        generator.flush();
+    }
 }
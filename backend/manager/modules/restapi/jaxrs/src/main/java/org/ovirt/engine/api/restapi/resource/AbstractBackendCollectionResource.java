@@ -6,12 +6,22 @@ import static java.util.stream.Collectors.toSet;
 import java.net.URI;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import javax.ws.rs.core.Response;
 
+import org.apache.commons.lang.StringUtils;
+
 import org.ovirt.engine.api.model.ActionableResource;
 import org.ovirt.engine.api.model.BaseResource;
+import org.ovirt.engine.api.model.BaseResources;
 import org.ovirt.engine.api.model.CreationStatus;
+import org.ovirt.engine.api.restapi.LocalConfig;
+import org.ovirt.engine.api.restapi.invocation.StreamedCollection;
 import org.ovirt.engine.api.restapi.util.ExpectationHelper;
 import org.ovirt.engine.api.restapi.util.LinkHelper;
 import org.ovirt.engine.api.restapi.util.ParametersHelper;
@@ -32,6 +42,7 @@ public abstract class AbstractBackendCollectionResource<R extends BaseResource,
 
     private static final String BLOCKING_EXPECTATION = "201-created";
     private static final String CREATION_STATUS_REL = "creation_status";
+    private static final String STREAMING_VERSION = "4";
     public static final String FROM_CONSTRAINT_PARAMETER = "from";
     public static final String CASE_SENSITIVE_CONSTRAINT_PARAMETER = "case_sensitive";
     private static final Logger log = LoggerFactory.getLogger(AbstractBackendCollectionResource.class);
@@ -50,6 +61,84 @@ public abstract class AbstractBackendCollectionResource<R extends BaseResource,
                 getSearchParameters(searchType, constraint));
     }
 
+    /**
+     * Searches the entities and maps them to a collection. When the request doesn't limit the number of results, and
+     * there are more results than fit in one page, only the first page is retrieved here, and an empty collection is
+     * returned. The JSON and XML providers then retrieve and map the rest of the pages while they write the response,
+     * so that the complete collection is never kept in memory. See {@link StreamedCollection} for details.
+     *
+     * The pages are retrieved by key, each one starting after the last entity of the previous one, so that entities
+     * added or removed while the response is written don't cause other entities to be skipped or written twice.
+     *
+     * @param searchType the type of the search
+     * @param factory creates the empty collection that is returned when the results are retrieved page by page
+     * @param mapper maps a list of entities, complete or a page, to a collection
+     * @param searchAfter sets the position of the given entity in the default sort order of the search as the one
+     * that the next page starts after
+     */
+    protected <C extends BaseResources> C getBackendCollection(SearchType searchType, Supplier<C> factory,
+            Function<List<Q>, C> mapper, BiConsumer<SearchParameters, Q> searchAfter) {
+        String constraint = QueryHelper.getConstraint(httpHeaders, uriInfo, "", modelType);
+        int pageSize = getCollectionPageSize();
+        if (pageSize <= 0 || !isStreamable(constraint)) {
+            return mapper.apply(getBackendCollection(searchType, constraint));
+        }
+
+        // Retrieve the first page here, so that errors, like syntax errors in the search expression, are reported
+        // before the response is started, and small collections are returned as usual:
+        List<Q> firstPage = getBackendPage(searchType, constraint, pageSize, searchParams -> {});
+        if (firstPage.size() < pageSize) {
+            return mapper.apply(firstPage);
+        }
+        AtomicReference<List<Q>> pending = new AtomicReference<>(firstPage);
+        AtomicReference<Q> last = new AtomicReference<>();
+        C collection = factory.get();
+        getCurrent().setStreamedCollection(new StreamedCollection(collection, page -> {
+            List<Q> entities = page == 1 ?
+                    pending.getAndSet(null) :
+                    getBackendPage(searchType, constraint, pageSize,
+                            searchParams -> searchAfter.accept(searchParams, last.get()));
+            if (entities.isEmpty()) {
+                return null;
+            }
+            last.set(entities.get(entities.size() - 1));
+            return mapper.apply(entities);
+        }));
+        return collection;
+    }
+
+    /**
+     * Returns the number of entities retrieved in each page by {@link #getBackendCollection(SearchType, Supplier,
+     * Function, BiConsumer)}, zero or less if collections should always be retrieved completely.
+     */
+    protected int getCollectionPageSize() {
+        return LocalConfig.getInstance().getCollectionPageSize();
+    }
+
+    /**
+     * Checks if the collection can be retrieved page by page while the response is written. That isn't possible when
+     * the caller explicitly asked for a limited number of results or for a specific page, when links are followed, as
+     * that needs the complete collection, when the request is for version 3 of the API, as the adapters of that
+     * version convert the complete collection, or when the caller asked for a sort order, as only the default one can
+     * be paged by key.
+     */
+    private boolean isStreamable(String constraint) {
+        return STREAMING_VERSION.equals(getCurrent().getVersion())
+                && ParametersHelper.getParameter(httpHeaders, uriInfo, MAX) == null
+                && StringUtils.isEmpty(ParametersHelper.getParameter(httpHeaders, uriInfo, FOLLOW))
+                && QueryHelper.parsePageNum(constraint) == null
+                && !constraint.toLowerCase().contains("sortby");
+    }
+
+    private List<Q> getBackendPage(SearchType searchType, String constraint, int pageSize,
+            Consumer<SearchParameters> position) {
+        SearchParameters searchParams = getSearchParameters(searchType, constraint);
+        searchParams.setMaxCount(pageSize);
+        searchParams.setKeysetPaging(true);
+        position.accept(searchParams);
+        return getBackendCollection(entityType, QueryType.Search, searchParams);
+    }
+
     private SearchParameters getSearchParameters(SearchType searchType, String constraint) {
         SearchParameters searchParams = new SearchParameters(constraint, searchType);
         boolean caseSensitive = ParametersHelper.getBooleanParameter(httpHeaders, uriInfo, CASE_SENSITIVE_CONSTRAINT_PARAMETER, true, false);
@@ -30,7 +30,13 @@ public class BackendEventsResource
 
     @Override
     public Events list() {
-        return mapCollection(getBackendCollection());
+        if (isFiltered()) {
+            return mapCollection(getBackendCollection(QueryType.GetAllEventMessages, new QueryParametersBase()));
+        } else {
+            return getBackendCollection(SearchType.AuditLog, Events::new, this::mapCollection,
+                    (searchParams, event) -> searchParams.setSearchAfter(String.valueOf(event.getAuditLogId()),
+                            String.valueOf(event.getAuditLogId())));
+        }
     }
 
     private Events mapCollection(List<AuditLog> entities) {
@@ -51,14 +57,6 @@ public class BackendEventsResource
         return inject(new BackendEventResource(id));
     }
 
-    private List<AuditLog> getBackendCollection() {
-        if (isFiltered()) {
-            return getBackendCollection(QueryType.GetAllEventMessages, new QueryParametersBase());
-        } else {
-            return getBackendCollection(SearchType.AuditLog);
-        }
-    }
-
     @Override
     public Response add(Event event) {
         validateParameters(event, "origin", "severity", "customId", "description");
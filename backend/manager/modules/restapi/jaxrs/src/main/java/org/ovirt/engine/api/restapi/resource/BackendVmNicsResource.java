@@ -13,6 +13,7 @@ import org.ovirt.engine.api.resource.VmNicResource;
 import org.ovirt.engine.api.resource.VmNicsResource;
 import org.ovirt.engine.core.common.action.ActionType;
 import org.ovirt.engine.core.common.action.AddVmInterfaceParameters;
+import org.ovirt.engine.core.common.businessentities.VmGuestAgentInterface;
 import org.ovirt.engine.core.common.businessentities.network.VmNetworkInterface;
 import org.ovirt.engine.core.common.queries.IdQueryParameters;
 import org.ovirt.engine.core.common.queries.QueryType;
@@ -20,6 +21,7 @@ import org.ovirt.engine.core.compat.Guid;
 
 public class BackendVmNicsResource extends AbstractBackendNicsResource implements VmNicsResource {
     private Guid vmId;
+    private List<VmGuestAgentInterface> guestAgentInterfaces;
 
     public BackendVmNicsResource(Guid vmId) {
         super(vmId, QueryType.GetVmInterfacesByVmId);
@@ -28,11 +30,20 @@ public class BackendVmNicsResource extends AbstractBackendNicsResource implement
 
     @Override
     public Nics list() {
-        Nics nics = new Nics();
         List<VmNetworkInterface> entities = getBackendCollection(
             QueryType.GetVmInterfacesByVmId,
             new IdQueryParameters(vmId)
         );
+        return mapCollection(entities, null);
+    }
+
+    /**
+     * Maps the NICs of the VM. The guest agent interfaces of the VM are given when they were fetched together with
+     * the ones of other VMs, when following the NICs of a list of VMs, otherwise they are fetched for every NIC.
+     */
+    Nics mapCollection(List<VmNetworkInterface> entities, List<VmGuestAgentInterface> guestAgentInterfaces) {
+        this.guestAgentInterfaces = guestAgentInterfaces;
+        Nics nics = new Nics();
         for (VmNetworkInterface entity : entities) {
             Nic nic = populate(map(entity), entity);
             nics.getNics().add(addLinks(nic));
@@ -53,7 +64,11 @@ public class BackendVmNicsResource extends AbstractBackendNicsResource implement
     @Override
     protected Nic deprecatedPopulate(Nic model, VmNetworkInterface entity) {
         Set<String> details = DetailHelper.getDetails(httpHeaders, uriInfo);
-        BackendNicHelper.addReportedDevices(this, model, entity);
+        if (guestAgentInterfaces != null) {
+            BackendNicHelper.addReportedDevices(model, entity, guestAgentInterfaces);
+        } else {
+            BackendNicHelper.addReportedDevices(this, model, entity);
+        }
         if (details.contains("statistics")) {
             BackendNicHelper.addStatistics( model, entity);
         }
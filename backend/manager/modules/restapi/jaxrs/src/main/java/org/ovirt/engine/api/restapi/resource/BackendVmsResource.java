@@ -17,6 +17,7 @@ limitations under the License.
 package org.ovirt.engine.api.restapi.resource;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -32,6 +33,7 @@ import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
 
 import org.ovirt.engine.api.common.util.DetailHelper;
+import org.ovirt.engine.api.model.ActionableResource;
 import org.ovirt.engine.api.model.Configuration;
 import org.ovirt.engine.api.model.ConfigurationType;
 import org.ovirt.engine.api.model.Disk;
@@ -51,6 +53,7 @@ import org.ovirt.engine.api.model.Vms;
 import org.ovirt.engine.api.resource.VmResource;
 import org.ovirt.engine.api.resource.VmsResource;
 import org.ovirt.engine.api.restapi.logging.Messages;
+import org.ovirt.engine.api.restapi.resource.utils.LinksTreeNode;
 import org.ovirt.engine.api.restapi.types.DiskMapper;
 import org.ovirt.engine.api.restapi.types.RngDeviceMapper;
 import org.ovirt.engine.api.restapi.types.VmMapper;
@@ -71,13 +74,16 @@ import org.ovirt.engine.core.common.businessentities.InstanceType;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.businessentities.VmDevice;
 import org.ovirt.engine.core.common.businessentities.VmDeviceGeneralType;
+import org.ovirt.engine.core.common.businessentities.VmGuestAgentInterface;
 import org.ovirt.engine.core.common.businessentities.VmInit;
 import org.ovirt.engine.core.common.businessentities.VmPayload;
 import org.ovirt.engine.core.common.businessentities.VmRngDevice;
 import org.ovirt.engine.core.common.businessentities.VmStatic;
 import org.ovirt.engine.core.common.businessentities.VmTemplate;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkInterface;
 import org.ovirt.engine.core.common.businessentities.storage.BaseDisk;
 import org.ovirt.engine.core.common.businessentities.storage.DiskImage;
+import org.ovirt.engine.core.common.businessentities.storage.DiskVmElement;
 import org.ovirt.engine.core.common.interfaces.SearchType;
 import org.ovirt.engine.core.common.osinfo.OsRepository;
 import org.ovirt.engine.core.common.queries.GetFilteredAndSortedParameters;
@@ -103,6 +109,8 @@ public class BackendVmsResource extends
 
     public static final String CLONE = "clone";
     public static final String CLONE_PERMISSIONS = "clone_permissions";
+    private static final String NICS = "nics";
+    private static final String DISK_ATTACHMENTS = "disk_attachments";
 
     public BackendVmsResource() {
         super(Vm.class, org.ovirt.engine.core.common.businessentities.VM.class);
@@ -117,7 +125,8 @@ public class BackendVmsResource extends
                 return mapCollection(getBackendCollection(QueryType.GetAllVms, new QueryParametersBase(), SearchType.VM));
             }
         } else {
-            return mapCollection(getBackendCollection(SearchType.VM));
+            return getBackendCollection(SearchType.VM, Vms::new, this::mapCollection,
+                    (searchParams, vm) -> searchParams.setSearchAfter(vm.getName(), vm.getId().toString()));
         }
     }
 
@@ -643,6 +652,58 @@ public class BackendVmsResource extends
         return collection;
     }
 
+    /**
+     * Follows the NICs and the disk attachments of a list of VMs with a query per link for all the VMs, rather than a
+     * query per VM. Users follow them one VM at a time, as the queries for many VMs are not filtered by permissions.
+     */
+    @Override
+    public void follow(ActionableResource entity, LinksTreeNode linksTree) {
+        if (isFiltered() || !(entity instanceof Vms) || ((Vms) entity).getVms().isEmpty()) {
+            return;
+        }
+        List<Vm> vms = ((Vms) entity).getVms();
+        List<Guid> vmIds = vms.stream().map(vm -> asGuid(vm.getId())).collect(Collectors.toList());
+        if (linksTree.pathExists(NICS)) {
+            followNics(vms, vmIds);
+            linksTree.markAsFollowed(NICS);
+        }
+        if (linksTree.pathExists(DISK_ATTACHMENTS)) {
+            followDiskAttachments(vms, vmIds);
+            linksTree.markAsFollowed(DISK_ATTACHMENTS);
+        }
+    }
+
+    private void followNics(List<Vm> vms, List<Guid> vmIds) {
+        Map<Guid, List<VmNetworkInterface>> nicsByVm = getBackendCollection(VmNetworkInterface.class,
+                QueryType.GetVmInterfacesByVmIds,
+                new IdsQueryParameters(vmIds)).stream()
+                .collect(Collectors.groupingBy(VmNetworkInterface::getVmId));
+        Map<Guid, List<VmGuestAgentInterface>> guestAgentInterfacesByVm =
+                getBackendCollection(VmGuestAgentInterface.class,
+                        QueryType.GetVmGuestAgentInterfacesByVmIds,
+                        new IdsQueryParameters(vmIds)).stream()
+                        .collect(Collectors.groupingBy(VmGuestAgentInterface::getVmId));
+        for (Vm vm : vms) {
+            Guid vmId = asGuid(vm.getId());
+            BackendVmNicsResource nicsResource = inject(new BackendVmNicsResource(vmId));
+            vm.setNics(nicsResource.mapCollection(nicsByVm.getOrDefault(vmId, Collections.emptyList()),
+                    guestAgentInterfacesByVm.getOrDefault(vmId, Collections.emptyList())));
+        }
+    }
+
+    private void followDiskAttachments(List<Vm> vms, List<Guid> vmIds) {
+        Map<Guid, List<DiskVmElement>> diskVmElementsByVm = getBackendCollection(DiskVmElement.class,
+                QueryType.GetDiskVmElementsByVmIds,
+                new IdsQueryParameters(vmIds)).stream()
+                .collect(Collectors.groupingBy(DiskVmElement::getVmId));
+        for (Vm vm : vms) {
+            Guid vmId = asGuid(vm.getId());
+            BackendDiskAttachmentsResource attachmentsResource = inject(new BackendDiskAttachmentsResource(vmId));
+            vm.setDiskAttachments(attachmentsResource.mapCollection(
+                    diskVmElementsByVm.getOrDefault(vmId, Collections.emptyList())));
+        }
+    }
+
     protected InstanceType lookupInstance(Template template) {
         return getEntity(InstanceType.class,
                 QueryType.GetInstanceType,
@@ -19,10 +19,13 @@ package org.ovirt.engine.api.restapi.xml;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -40,6 +43,7 @@ import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.ValidationEventHandler;
+import javax.xml.namespace.QName;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
@@ -47,6 +51,7 @@ import javax.xml.stream.XMLStreamReader;
 import org.ovirt.engine.api.model.Api;
 import org.ovirt.engine.api.model.ObjectFactory;
 import org.ovirt.engine.api.restapi.invocation.CurrentManager;
+import org.ovirt.engine.api.restapi.invocation.StreamedCollection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -216,6 +221,13 @@ public class JAXBProvider implements MessageBodyReader<Object>, MessageBodyWrite
             throw new IOException("Error invoking factory method for type \"" +  type.getName() + "\".", exception);
         }
 
+        // Collections that are retrieved page by page are written item by item:
+        StreamedCollection streamed = CurrentManager.get().getStreamedCollection();
+        if (streamed != null && streamed.isFor(object)) {
+            writeStreamed(streamed, element.getName(), entityStream);
+            return;
+        }
+
         // Marshal the element:
         try {
             Marshaller marshaller = jaxbContext.createMarshaller();
@@ -226,4 +238,40 @@ public class JAXBProvider implements MessageBodyReader<Object>, MessageBodyWrite
             throw new IOException("Can't marshall JAXB element of type \"" + type.getName() + "\".", exception);
         }
     }
+
+    /**
+     * Writes a collection that is retrieved page by page. The root element is written directly, and each item is
+     * marshalled as a fragment as soon as its page is available, so the complete collection is never kept in memory.
+     */
+    private void writeStreamed(StreamedCollection streamed, QName name, OutputStream entityStream)
+            throws IOException {
+        Writer writer = new OutputStreamWriter(entityStream, StandardCharsets.UTF_8);
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+        writer.write("<" + name.getLocalPart() + ">\n");
+        QName itemName = new QName(streamed.getItemName());
+        try {
+            Marshaller marshaller = jaxbContext.createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+            for (Object item : streamed) {
+                marshaller.marshal(createItemElement(itemName, item), writer);
+                writer.write("\n");
+            }
+        } catch(JAXBException exception) {
+            throw new IOException("Can't marshall items of element \"" + name.getLocalPart() + "\".", exception);
+        }
+        writer.write("</" + name.getLocalPart() + ">\n");
+        writer.flush();
+    }
+
+    /**
+     * Wraps an item of a streamed collection in an element with the given name, typed with the class of the item.
+     */
+    private static <T> JAXBElement<T> createItemElement(QName name, T item) {
+        // the class of an object of type T is always a Class<T>
+        @SuppressWarnings("unchecked")
+        Class<T> type = (Class<T>) item.getClass();
+        return new JAXBElement<>(name, type, item);
+    }
 }
@@ -1,12 +1,18 @@
 package org.ovirt.engine.api.restapi.resource;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.ovirt.engine.api.restapi.test.util.TestHelper.eqSearchParams;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
@@ -16,7 +22,10 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.ovirt.engine.api.model.Action;
 import org.ovirt.engine.api.model.Event;
+import org.ovirt.engine.api.model.Events;
 import org.ovirt.engine.api.model.LogSeverity;
+import org.ovirt.engine.api.restapi.invocation.CurrentManager;
+import org.ovirt.engine.api.restapi.invocation.StreamedCollection;
 import org.ovirt.engine.core.common.AuditLogSeverity;
 import org.ovirt.engine.core.common.AuditLogType;
 import org.ovirt.engine.core.common.action.ActionParametersBase;
@@ -25,7 +34,9 @@ import org.ovirt.engine.core.common.action.AddExternalEventParameters;
 import org.ovirt.engine.core.common.businessentities.AuditLog;
 import org.ovirt.engine.core.common.interfaces.SearchType;
 import org.ovirt.engine.core.common.queries.GetAuditLogByIdParameters;
+import org.ovirt.engine.core.common.queries.QueryReturnValue;
 import org.ovirt.engine.core.common.queries.QueryType;
+import org.ovirt.engine.core.common.queries.SearchParameters;
 
 @MockitoSettings(strictness = Strictness.LENIENT)
 public class BackendEventsResourceTest extends AbstractBackendCollectionResourceTest<Event, AuditLog, BackendEventsResource> {
@@ -36,7 +47,19 @@ public class BackendEventsResourceTest extends AbstractBackendCollectionResource
     private static final Integer[] CUSTOMER_EVENT_IDS = { 11, 22, 33 };
 
     public BackendEventsResourceTest() {
-        super(new BackendEventsResource(), SearchType.AuditLog, "Events : ");
+        super(new PagedEventsResource(), SearchType.AuditLog, "Events : ");
+    }
+
+    /**
+     * Events resource with a configurable page size, as the real one reads it from the local configuration.
+     */
+    private static class PagedEventsResource extends BackendEventsResource {
+        private int pageSize;
+
+        @Override
+        protected int getCollectionPageSize() {
+            return pageSize;
+        }
     }
 
     static org.ovirt.engine.api.model.Event getModel(int index) {
@@ -103,6 +126,82 @@ public class BackendEventsResourceTest extends AbstractBackendCollectionResource
         verifyCollection(getCollection());
     }
 
+    @Test
+    public void testListStreamed() {
+        ((PagedEventsResource) collection).pageSize = 2;
+        UriInfo uriInfo = setUpUriExpectations(null);
+
+        setUpPageQueryExpectations(2, 1, 0);
+        collection.setUriInfo(uriInfo);
+
+        Events events = collection.list();
+        assertTrue(events.getEvents().isEmpty());
+        StreamedCollection streamed = CurrentManager.get().getStreamedCollection();
+        assertNotNull(streamed);
+        assertTrue(streamed.isFor(events));
+        assertEquals("event", streamed.getItemName());
+        int index = LOG_IDS.length;
+        for (Object item : streamed) {
+            verifyModel((Event) item, --index);
+        }
+        assertEquals(0, index);
+    }
+
+    @Test
+    public void testListStreamedWhileEventsAdded() {
+        ((PagedEventsResource) collection).pageSize = 2;
+        UriInfo uriInfo = setUpUriExpectations(null);
+
+        List<AuditLog> table = setUpPageQueryExpectations(2, 1, 0);
+        collection.setUriInfo(uriInfo);
+
+        collection.list();
+        // newer events come first, so with pages by number the next page would repeat the last event of the first one
+        AuditLog added = getEntity(0);
+        when(added.getAuditLogId()).thenReturn(LOG_IDS[LOG_IDS.length - 1] + 1);
+        table.add(0, added);
+        List<String> ids = new ArrayList<>();
+        for (Object item : CurrentManager.get().getStreamedCollection()) {
+            ids.add(((Event) item).getId());
+        }
+        assertEquals(Arrays.asList("3", "2", "1"), ids);
+    }
+
+    @Test
+    public void testListSinglePage() throws Exception {
+        ((PagedEventsResource) collection).pageSize = 5;
+        UriInfo uriInfo = setUpUriExpectations(null);
+
+        setUpPageQueryExpectations(0, 1, 2);
+        collection.setUriInfo(uriInfo);
+
+        verifyCollection(getCollection());
+        assertNull(CurrentManager.get().getStreamedCollection());
+    }
+
+    /**
+     * Answers the searches of the pages from a table of events, that can be changed while the pages are retrieved.
+     * Like the search of the events, the pages are ordered by the id of the event, descending, and each page starts
+     * after the id of the last event of the previous one.
+     */
+    private List<AuditLog> setUpPageQueryExpectations(int... indexes) {
+        List<AuditLog> table = Arrays.stream(indexes).mapToObj(this::getEntity).collect(Collectors.toList());
+        SearchParameters params = new SearchParameters(prefix, searchType);
+        when(backend.runQuery(eq(QueryType.Search), eqSearchParams(params))).thenAnswer(invocation -> {
+            SearchParameters searchParams = invocation.getArgument(1);
+            assertTrue(searchParams.isKeysetPaging());
+            String after = searchParams.getSearchAfterId();
+            QueryReturnValue queryResult = new QueryReturnValue();
+            queryResult.setSucceeded(true);
+            queryResult.setReturnValue(table.stream()
+                    .filter(entity -> after == null || entity.getAuditLogId() < Long.parseLong(after))
+                    .limit(searchParams.getMaxCount())
+                    .collect(Collectors.toList()));
+            return queryResult;
+        });
+        return table;
+    }
+
     @Test
     public void testUndelete() {
 
@@ -1,14 +1,19 @@
 package org.ovirt.engine.api.restapi.resource;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
@@ -33,12 +38,16 @@ import org.ovirt.engine.api.model.DiskAttachments;
 import org.ovirt.engine.api.model.Host;
 import org.ovirt.engine.api.model.Hosts;
 import org.ovirt.engine.api.model.Initialization;
+import org.ovirt.engine.api.model.Nic;
 import org.ovirt.engine.api.model.Snapshot;
 import org.ovirt.engine.api.model.Snapshots;
 import org.ovirt.engine.api.model.StorageDomain;
 import org.ovirt.engine.api.model.Template;
 import org.ovirt.engine.api.model.Vm;
 import org.ovirt.engine.api.model.VmPlacementPolicy;
+import org.ovirt.engine.api.model.Vms;
+import org.ovirt.engine.api.restapi.resource.utils.LinkFollower;
+import org.ovirt.engine.api.restapi.resource.utils.LinksTreeNode;
 import org.ovirt.engine.api.restapi.utils.OsTypeMockUtils;
 import org.ovirt.engine.core.common.action.ActionType;
 import org.ovirt.engine.core.common.action.AddVmFromSnapshotParameters;
@@ -55,12 +64,16 @@ import org.ovirt.engine.core.common.businessentities.GraphicsInfo;
 import org.ovirt.engine.core.common.businessentities.GraphicsType;
 import org.ovirt.engine.core.common.businessentities.OriginType;
 import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VmGuestAgentInterface;
 import org.ovirt.engine.core.common.businessentities.VmIcon;
 import org.ovirt.engine.core.common.businessentities.VmInit;
 import org.ovirt.engine.core.common.businessentities.VmPayload;
 import org.ovirt.engine.core.common.businessentities.VmStatistics;
 import org.ovirt.engine.core.common.businessentities.VmType;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkInterface;
 import org.ovirt.engine.core.common.businessentities.storage.DiskImage;
+import org.ovirt.engine.core.common.businessentities.storage.DiskInterface;
+import org.ovirt.engine.core.common.businessentities.storage.DiskVmElement;
 import org.ovirt.engine.core.common.interfaces.SearchType;
 import org.ovirt.engine.core.common.osinfo.OsRepository;
 import org.ovirt.engine.core.common.queries.GetVmFromConfigurationQueryParameters;
@@ -70,6 +83,7 @@ import org.ovirt.engine.core.common.queries.IdQueryParameters;
 import org.ovirt.engine.core.common.queries.IdsQueryParameters;
 import org.ovirt.engine.core.common.queries.NameQueryParameters;
 import org.ovirt.engine.core.common.queries.QueryParametersBase;
+import org.ovirt.engine.core.common.queries.QueryReturnValue;
 import org.ovirt.engine.core.common.queries.QueryType;
 import org.ovirt.engine.core.common.utils.SimpleDependencyInjector;
 import org.ovirt.engine.core.common.utils.VmDeviceType;
@@ -1184,6 +1198,106 @@ public class BackendVmsResourceTest
         verifyCollection(getCollection());
     }
 
+    @Test
+    public void testFollowNicsAndDiskAttachmentsOfAllVms() {
+        collection.setUriInfo(setUpUriExpectations(null));
+        String mac = "00:1a:4a:16:01:51";
+        setUpFollowQueryExpectations(QueryType.GetVmInterfacesByVmIds,
+                Arrays.asList(createNic(GUIDS[2], GUIDS[0], mac), createNic(GUIDS[3], GUIDS[1], mac)));
+        VmGuestAgentInterface guestAgentInterface = new VmGuestAgentInterface();
+        guestAgentInterface.setVmId(GUIDS[1]);
+        guestAgentInterface.setInterfaceName("eth0");
+        guestAgentInterface.setMacAddress(mac);
+        setUpFollowQueryExpectations(QueryType.GetVmGuestAgentInterfacesByVmIds,
+                Collections.singletonList(guestAgentInterface));
+        DiskVmElement diskVmElement = new DiskVmElement(GUIDS[2], GUIDS[1]);
+        diskVmElement.setDiskInterface(DiskInterface.VirtIO);
+        setUpFollowQueryExpectations(QueryType.GetDiskVmElementsByVmIds, Collections.singletonList(diskVmElement));
+        Vms vms = createVms(GUIDS[0], GUIDS[1]);
+        LinksTreeNode linksTree = new LinkFollower().createLinksTree(Vms.class, "nics,disk_attachments");
+
+        collection.follow(vms, linksTree);
+
+        verify(backend).runQuery(eq(QueryType.GetVmInterfacesByVmIds), any());
+        verify(backend).runQuery(eq(QueryType.GetVmGuestAgentInterfacesByVmIds), any());
+        verify(backend).runQuery(eq(QueryType.GetDiskVmElementsByVmIds), any());
+        verify(backend, never()).runQuery(eq(QueryType.GetVmInterfacesByVmId), any());
+        verify(backend, never()).runQuery(eq(QueryType.GetVmGuestAgentInterfacesByVmId), any());
+        verify(backend, never()).runQuery(eq(QueryType.GetDiskVmElementsByVmId), any());
+        assertTrue(linksTree.getChild("nics").get().isFollowed());
+        assertTrue(linksTree.getChild("disk_attachments").get().isFollowed());
+
+        Vm first = vms.getVms().get(0);
+        assertEquals(1, first.getNics().getNics().size());
+        Nic firstNic = first.getNics().getNics().get(0);
+        assertEquals(GUIDS[2].toString(), firstNic.getId());
+        assertEquals(GUIDS[0].toString(), firstNic.getVm().getId());
+        assertNull(firstNic.getReportedDevices());
+        assertTrue(first.getDiskAttachments().getDiskAttachments().isEmpty());
+
+        Vm second = vms.getVms().get(1);
+        assertEquals(1, second.getNics().getNics().size());
+        Nic secondNic = second.getNics().getNics().get(0);
+        assertEquals(GUIDS[3].toString(), secondNic.getId());
+        assertEquals(GUIDS[1].toString(), secondNic.getVm().getId());
+        assertEquals(1, secondNic.getReportedDevices().getReportedDevices().size());
+        assertEquals(1, second.getDiskAttachments().getDiskAttachments().size());
+        DiskAttachment attachment = second.getDiskAttachments().getDiskAttachments().get(0);
+        assertEquals(GUIDS[2].toString(), attachment.getId());
+        assertEquals(GUIDS[1].toString(), attachment.getVm().getId());
+    }
+
+    @Test
+    public void testFollowNicsAndDiskAttachmentsOfEachVmWhenFiltered() {
+        List<String> filterValue = new ArrayList<>();
+        filterValue.add("true");
+        reset(httpHeaders);
+        when(httpHeaders.getRequestHeader(USER_FILTER_HEADER)).thenReturn(filterValue);
+        collection.setUriInfo(setUpUriExpectations(null));
+        Vms vms = createVms(GUIDS[0], GUIDS[1]);
+        LinksTreeNode linksTree = new LinkFollower().createLinksTree(Vms.class, "nics,disk_attachments");
+
+        collection.follow(vms, linksTree);
+
+        // the links are left to the link follower, which follows them VM by VM
+        verify(backend, never()).runQuery(eq(QueryType.GetVmInterfacesByVmIds), any());
+        verify(backend, never()).runQuery(eq(QueryType.GetVmGuestAgentInterfacesByVmIds), any());
+        verify(backend, never()).runQuery(eq(QueryType.GetDiskVmElementsByVmIds), any());
+        assertFalse(linksTree.getChild("nics").get().isFollowed());
+        assertFalse(linksTree.getChild("disk_attachments").get().isFollowed());
+        for (Vm vm : vms.getVms()) {
+            assertNull(vm.getNics());
+            assertNull(vm.getDiskAttachments());
+        }
+    }
+
+    private void setUpFollowQueryExpectations(QueryType query, List<?> result) {
+        QueryReturnValue queryResult = new QueryReturnValue();
+        queryResult.setSucceeded(true);
+        queryResult.setReturnValue(result);
+        when(backend.runQuery(eq(query), any())).thenReturn(queryResult);
+    }
+
+    private static VmNetworkInterface createNic(Guid id, Guid vmId, String mac) {
+        VmNetworkInterface nic = new VmNetworkInterface();
+        nic.setId(id);
+        nic.setVmId(vmId);
+        nic.setName("nic1");
+        nic.setMacAddress(mac);
+        nic.setType(0);
+        return nic;
+    }
+
+    private static Vms createVms(Guid... ids) {
+        Vms vms = new Vms();
+        for (Guid id : ids) {
+            Vm vm = new Vm();
+            vm.setId(id.toString());
+            vms.getVms().add(vm);
+        }
+        return vms;
+    }
+
     private void setUpGetCertuficateExpectations(int times) {
         for (int i = 0; i < times; i++) {
             setUpGetEntityExpectations(QueryType.GetVdsCertificateSubjectByVmId,
@@ -16,12 +16,18 @@
 
 package org.ovirt.engine.api.restapi.types;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.BiFunction;
 
 import javax.ws.rs.WebApplicationException;
 
@@ -65,7 +71,8 @@ public class MappingLocator {
      * Discover mappers and populate internal registry. The classloading
      * environment is scanned for classes contained under the
      * org.ovirt.engine.api.restapi.types package and exposing methods decorated
-     * with the @Mapping annotation.
+     * with the @Mapping annotation. Each mapping method is bound to a function
+     * here, once, so that mapping doesn't use reflection.
      */
     public void populate() {
         String packageName = discoverPackageName != null? discoverPackageName: this.getClass().getPackage().getName();
@@ -77,8 +84,21 @@ public class MappingLocator {
                 for (Method method : mapperClass.getMethods()) {
                     Mapping mapping = method.getAnnotation(Mapping.class);
                     if (mapping != null) {
-                        mappers.put(new ClassPairKey(mapping.from(), mapping.to()),
-                            new MethodInvokerMapper(method, mapping.to()));
+                        if (!Modifier.isStatic(method.getModifiers())) {
+                            // REVISIT support non-static mapping methods also
+                            log.error("Mapping method \"{}\" isn't static, it will be ignored.", method);
+                            continue;
+                        }
+                        try {
+                            mappers.put(new ClassPairKey(mapping.from(), mapping.to()),
+                                new BoundMethodMapper(method, mapping.to(), bind(method)));
+                        } catch (IllegalAccessException exception) {
+                            log.error(
+                                "Error while trying to bind mapping method \"{}\", it will be ignored.",
+                                method,
+                                exception
+                            );
+                        }
                     }
                 }
             } catch (ClassNotFoundException exception) {
@@ -91,6 +111,44 @@ public class MappingLocator {
         }
     }
 
+    /**
+     * Binds a static mapping method to a function. When possible the function is generated with the lambda meta
+     * factory, the same way that the compiler does for a method reference, so it calls the mapping method directly
+     * and the JIT compiler can inline it like any other call. Otherwise, for example when the mapper class was loaded
+     * by a different class loader, the function invokes a method handle.
+     */
+    @SuppressWarnings("unchecked")
+    private static BiFunction<Object, Object, Object> bind(Method method) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle handle = lookup.unreflect(method);
+        if (method.getDeclaringClass().getClassLoader() == MappingLocator.class.getClassLoader()) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(
+                    lookup,
+                    "apply",
+                    MethodType.methodType(BiFunction.class),
+                    MethodType.genericMethodType(2),
+                    handle,
+                    handle.type().wrap()
+                );
+                return (BiFunction<Object, Object, Object>) site.getTarget().invoke();
+            } catch (Throwable throwable) {
+                log.debug("Can't generate function for mapping method \"{}\", will use a method handle.", method,
+                    throwable);
+            }
+        }
+        MethodHandle generic = handle.asType(MethodType.genericMethodType(2));
+        return (from, template) -> {
+            try {
+                return generic.invokeExact(from, template);
+            } catch (RuntimeException | Error exception) {
+                throw exception;
+            } catch (Throwable throwable) {
+                throw new MappingException(throwable);
+            }
+        };
+    }
+
     /**
      * Get an appropriate mapper mediating between the required types.
      *
@@ -142,31 +200,28 @@ public class MappingLocator {
         }
     }
 
-    private static class MethodInvokerMapper implements Mapper<Object, Object> {
-        private Method method;
-        private Class<?> to;
+    private static class BoundMethodMapper implements Mapper<Object, Object> {
+        private final Method method;
+        private final Class<?> to;
+        private final BiFunction<Object, Object, Object> function;
 
-        private MethodInvokerMapper(Method method, Class<?> to) {
+        private BoundMethodMapper(Method method, Class<?> to, BiFunction<Object, Object, Object> function) {
             this.method = method;
             this.to = to;
+            this.function = function;
         }
 
         @Override
         public Object map(Object from, Object template) {
+            Object result;
             try {
-                // REVISIT support non-static mapping methods also
-                return to.cast(method.invoke(null, from, template));
-            } catch (InvocationTargetException ite) {
-              if (ite.getTargetException() instanceof MalformedIdException) {
-                   throw (MalformedIdException) ite.getTargetException();
-              } else if (ite.getTargetException() instanceof WebApplicationException) {
-                  throw (WebApplicationException) ite.getTargetException();
-              } else {
-                  throw new MappingException(ite);
-              }
-            } catch (IllegalAccessException e) {
-                throw new MappingException(e);
+                result = function.apply(from, template);
+            } catch (MalformedIdException | WebApplicationException exception) {
+                throw exception;
+            } catch (RuntimeException exception) {
+                throw new MappingException(exception);
             }
+            return to.cast(result);
         }
 
         public String toString() {
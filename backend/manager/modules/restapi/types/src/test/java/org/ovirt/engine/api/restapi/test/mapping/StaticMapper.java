@@ -5,6 +5,7 @@ import org.ovirt.engine.api.restapi.test.mappers.api.IFoo;
 import org.ovirt.engine.api.restapi.test.mappers.impl.BarImpl;
 import org.ovirt.engine.api.restapi.test.mappers.impl.FooImpl;
 import org.ovirt.engine.api.restapi.types.Mapping;
+import org.ovirt.engine.api.restapi.utils.MalformedIdException;
 
 public class StaticMapper {
 
@@ -36,4 +37,12 @@ public class StaticMapper {
         return foo;
     }
 
+    @Mapping(from = FooImpl.class, to = String.class)
+    public static String mapFooToId(IFoo foo, String template) {
+        if (!foo.get().matches("[0-9]+")) {
+            throw new MalformedIdException(new IllegalArgumentException(foo.get()));
+        }
+        return foo.get();
+    }
+
 }
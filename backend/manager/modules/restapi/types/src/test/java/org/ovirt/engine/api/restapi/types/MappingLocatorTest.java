@@ -3,6 +3,8 @@ package org.ovirt.engine.api.restapi.types;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +12,8 @@ import org.ovirt.engine.api.restapi.test.mappers.api.IBar;
 import org.ovirt.engine.api.restapi.test.mappers.api.IFoo;
 import org.ovirt.engine.api.restapi.test.mappers.impl.BarImpl;
 import org.ovirt.engine.api.restapi.test.mappers.impl.FooImpl;
+import org.ovirt.engine.api.restapi.utils.MalformedIdException;
+import org.ovirt.engine.api.restapi.utils.MappingException;
 
 public class MappingLocatorTest {
 
@@ -77,4 +81,19 @@ public class MappingLocatorTest {
         Mapper<IFoo, IFoo> mapper = mappingLocator.getMapper(IFoo.class, IFoo.class);
         assertNull(mapper);
     }
+
+    @Test
+    public void testMalformedIdIsPropagated() {
+        Mapper<FooImpl, String> mapper = mappingLocator.getMapper(FooImpl.class, String.class);
+        assertNotNull(mapper);
+        assertEquals("123", mapper.map(new FooImpl("123"), null));
+        assertThrows(MalformedIdException.class, () -> mapper.map(new FooImpl("foo"), null));
+    }
+
+    @Test
+    public void testFailureIsWrapped() {
+        Mapper<FooImpl, String> mapper = mappingLocator.getMapper(FooImpl.class, String.class);
+        MappingException exception = assertThrows(MappingException.class, () -> mapper.map(new FooImpl(), null));
+        assertTrue(exception.getCause() instanceof NullPointerException);
+    }
 }
@@ -909,6 +909,26 @@ public class SyntaxChecker implements ISyntaxChecker {
                 sortExpr.append(searchObjectAC.getDefaultSort(searchObjStr));
             }
 
+            // paging by key needs a unique order, so the primary key breaks the ties of the default sort
+            String keysetCondition = null;
+            if (syntax.isKeysetPaging()) {
+                String[] defaultSort = getKeysetSort(searchObjStr, sortByElements);
+                String sortColumn = defaultSort[0];
+                boolean ascending = defaultSort.length < 2 || !"DESC".equalsIgnoreCase(defaultSort[1]);
+                if (!sortColumn.equals(primeryKey)) {
+                    sortExpr.append(",");
+                    sortExpr.append(primeryKey);
+                    sortExpr.append(ascending ? " ASC" : " DESC");
+                }
+                if (syntax.getSearchAfterId() != null) {
+                    keysetCondition = getKeysetCondition(syntax,
+                            searchObjectAC.getRelatedTableName(searchObjStr, false),
+                            sortColumn,
+                            primeryKey,
+                            ascending);
+                }
+            }
+
             // TODO: The database configuration PostgresSearchTemplate has an extra closing braces. Hence our
             // queries in this code have an extra opening one. Fix it in a future patch.
 
@@ -925,6 +945,12 @@ public class SyntaxChecker implements ISyntaxChecker {
             if (syntax.getSearchFrom() > 0) {
                 inQuery = StringFormat.format("%1$s and  %2$s >  %3$s", inQuery, primeryKey, syntax.getSearchFrom());
             }
+            if (keysetCondition != null) {
+                inQuery = StringFormat.format("%1$s %2$s %3$s",
+                        inQuery,
+                        useTags || wherePhrase.length() > 0 ? "AND" : "WHERE",
+                        keysetCondition);
+            }
             // Prevent duplicate records when cross reference is used.
             if (inQuery.contains("LEFT OUTER JOIN") && ! inQuery.contains("distinct")) {
                 inQuery = inQuery.replaceFirst("SELECT ", "SELECT  distinct ");
@@ -956,6 +982,49 @@ public class SyntaxChecker implements ISyntaxChecker {
         }
     }
 
+    /**
+     * Returns the column and the direction of the default sort of the given search object, which is the only one that
+     * can be paged by key
+     */
+    private String[] getKeysetSort(String searchObjStr, List<SortByElement> sortByElements) {
+        String defaultSort = searchObjectAC.getDefaultSort(searchObjStr).trim();
+        if (sortByElements != null || defaultSort.isEmpty() || defaultSort.contains(",") || defaultSort.contains("(")) {
+            throw new IllegalArgumentException(
+                    StringFormat.format("Paging by key isn't supported for the sort order of '%1$s'", searchObjStr));
+        }
+        return defaultSort.split("\\s+");
+    }
+
+    /**
+     * Generates the condition that returns only the results following the position set in the search, in the default
+     * sort order and then by the primary key
+     */
+    private String getKeysetCondition(SyntaxContainer syntax,
+            String tableName,
+            String sortColumn,
+            String primaryKey,
+            boolean ascending) {
+        String relation = ascending ? ">" : "<";
+        if (sortColumn.equals(primaryKey)) {
+            return StringFormat.format("%1$s.%2$s %3$s %4$s",
+                    tableName,
+                    primaryKey,
+                    relation,
+                    quote(syntax.getSearchAfterId()));
+        }
+        return StringFormat.format("(%1$s.%2$s, %1$s.%3$s) %4$s (%5$s, %6$s)",
+                tableName,
+                sortColumn,
+                primaryKey,
+                relation,
+                quote(syntax.getSearchAfterSortValue()),
+                quote(syntax.getSearchAfterId()));
+    }
+
+    private static String quote(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
     protected String getPagePhrase(SyntaxContainer syntax, String pageNumber) {
         String result = "";
         Integer page = IntegerCompat.tryParse(pageNumber);
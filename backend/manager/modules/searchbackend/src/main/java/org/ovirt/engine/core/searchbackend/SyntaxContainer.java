@@ -18,6 +18,9 @@ public class SyntaxContainer implements Iterable<SyntaxObject> {
     private final int[] errorPos = new int[2];
     private int privateMaxCount;
     private long searchFrom = 0;
+    private boolean keysetPaging;
+    private String searchAfterSortValue;
+    private String searchAfterId;
     private boolean caseSensitive=true;
 
     /**
@@ -50,6 +53,27 @@ public class SyntaxContainer implements Iterable<SyntaxObject> {
         searchFrom = value;
     }
 
+    public boolean isKeysetPaging() {
+        return keysetPaging;
+    }
+
+    public void setKeysetPaging(boolean value) {
+        keysetPaging = value;
+    }
+
+    public String getSearchAfterSortValue() {
+        return searchAfterSortValue;
+    }
+
+    public String getSearchAfterId() {
+        return searchAfterId;
+    }
+
+    public void setSearchAfter(String sortValue, String id) {
+        searchAfterSortValue = sortValue;
+        searchAfterId = id;
+    }
+
     public boolean getvalid() {
         return valid;
     }
@@ -93,6 +117,25 @@ public class SyntaxContainer implements Iterable<SyntaxObject> {
         valid = false;
     }
 
+    /**
+     * Copies the given container, the syntax objects are shared since they are not modified once analyzed
+     */
+    public SyntaxContainer(SyntaxContainer other) {
+        this.origText = other.origText;
+        objList.addAll(other.objList);
+        currentCompletions.addAll(other.currentCompletions);
+        valid = other.valid;
+        error = other.error;
+        errorPos[0] = other.errorPos[0];
+        errorPos[1] = other.errorPos[1];
+        privateMaxCount = other.privateMaxCount;
+        searchFrom = other.searchFrom;
+        keysetPaging = other.keysetPaging;
+        searchAfterSortValue = other.searchAfterSortValue;
+        searchAfterId = other.searchAfterId;
+        caseSensitive = other.caseSensitive;
+    }
+
     public void setErr(SyntaxError errCode, int startPos, int endPos) {
         errorPos[0] = startPos;
         errorPos[1] = endPos;
@@ -2,6 +2,7 @@ package org.ovirt.engine.core.searchbackend;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -499,6 +500,35 @@ public class SyntaxCheckerTest {
                 "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT distinct vms_with_tags.vm_guid FROM  vms_with_tags   WHERE  vms_with_tags.tag_name IN ('tag1','all') ))  ORDER BY vm_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
     }
 
+    @Test
+    public void testEventsPagedByKey() {
+        testValidKeysetSql("Events: ", null, null,
+                "SELECT * FROM ((SELECT  audit_log.* FROM  audit_log   WHERE not deleted)  ORDER BY audit_log_id DESC ) as T1 OFFSET (1 -1) LIMIT 0");
+        testValidKeysetSql("Events: ", "42", "42",
+                "SELECT * FROM ((SELECT  audit_log.* FROM  audit_log   WHERE not deleted AND audit_log.audit_log_id < '42')  ORDER BY audit_log_id DESC ) as T1 OFFSET (1 -1) LIMIT 0");
+        testValidKeysetSql("Events: severity=alert ", "42", "42",
+                "SELECT * FROM ((SELECT  audit_log.* FROM  audit_log   WHERE  audit_log.severity = '10'  AND not deleted AND audit_log.audit_log_id < '42')  ORDER BY audit_log_id DESC ) as T1 OFFSET (1 -1) LIMIT 0");
+    }
+
+    @Test
+    public void testVmsPagedByKey() {
+        testValidKeysetSql("Vms:", null, null,
+                "SELECT * FROM ((SELECT  vms.* FROM  vms  )  ORDER BY vm_name ASC ,vm_guid ASC) as T1 OFFSET (1 -1) LIMIT 0");
+        testValidKeysetSql("Vms:", "vm'1", "guid1",
+                "SELECT * FROM ((SELECT  vms.* FROM  vms   WHERE (vms.vm_name, vms.vm_guid) > ('vm''1', 'guid1'))  ORDER BY vm_name ASC ,vm_guid ASC) as T1 OFFSET (1 -1) LIMIT 0");
+        testValidKeysetSql("VMs:tag=all", "vm1", "guid1",
+                "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT distinct vms_with_tags.vm_guid FROM  vms_with_tags   WHERE  vms_with_tags.tag_name IN ('tag1','all') ) AND (vms.vm_name, vms.vm_guid) > ('vm1', 'guid1'))  ORDER BY vm_name ASC ,vm_guid ASC) as T1 OFFSET (1 -1) LIMIT 0");
+    }
+
+    @Test
+    public void testPagedByKeyWithSortBy() {
+        SyntaxContainer res = SyntaxCheckerFactory.createBackendSyntaxChecker("foo")
+                .analyzeSyntaxState("Vms: sortby cpu_usage desc", true);
+        res.setKeysetPaging(true);
+
+        assertThrows(IllegalArgumentException.class, () -> new SyntaxChecker().generateQueryFromSyntaxContainer(res, true));
+    }
+
     private void testValidSql(String dynamicQuery, String exepctedSQLResult) {
         SyntaxChecker chkr = new SyntaxChecker();
         ISyntaxChecker curSyntaxChecker = SyntaxCheckerFactory.createBackendSyntaxChecker("foo");
@@ -507,4 +537,15 @@ public class SyntaxCheckerTest {
         String query = chkr.generateQueryFromSyntaxContainer(res, true);
         assertEquals(exepctedSQLResult, query);
     }
+
+    private void testValidKeysetSql(String dynamicQuery, String sortValue, String id, String exepctedSQLResult) {
+        SyntaxChecker chkr = new SyntaxChecker();
+        ISyntaxChecker curSyntaxChecker = SyntaxCheckerFactory.createBackendSyntaxChecker("foo");
+        SyntaxContainer res = curSyntaxChecker.analyzeSyntaxState(dynamicQuery, true);
+        assertTrue(res.getvalid(), "Invalid syntax: " + dynamicQuery);
+        res.setKeysetPaging(true);
+        res.setSearchAfter(sortValue, id);
+        String query = chkr.generateQueryFromSyntaxContainer(res, true);
+        assertEquals(exepctedSQLResult, query);
+    }
 }
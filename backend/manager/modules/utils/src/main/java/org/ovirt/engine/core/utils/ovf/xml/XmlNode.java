@@ -1,9 +1,5 @@
 package org.ovirt.engine.core.utils.ovf.xml;
 
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathFactory;
-
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
@@ -21,49 +17,20 @@ public class XmlNode {
     }
 
     public XmlNode selectSingleNode(String string, XmlNamespaceManager _xmlns) {
-        try {
-            XPathFactory factory = XPathFactory.newInstance();
-            XPath xPath = factory.newXPath();
-            xPath.setNamespaceContext(_xmlns);
-            Object o = xPath.evaluate(string, node, XPathConstants.NODE);
-            return o != null ? new XmlNode((Node) o) : null;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to evaluate xpath: " + string, e);
-        }
+        Node o = XmlPath.selectSingleNode(node, string, _xmlns);
+        return o != null ? new XmlNode(o) : null;
     }
 
     public XmlNode selectSingleNode(String string) {
-        try {
-            XPathFactory factory = XPathFactory.newInstance();
-            XPath xPath = factory.newXPath();
-            Object o = xPath.evaluate(string, node, XPathConstants.NODE);
-            return o != null ? new XmlNode((Node) o) : null;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to evaluate xpath: " + string, e);
-        }
+        return selectSingleNode(string, null);
     }
 
     public XmlNodeList selectNodes(String string) {
-        try {
-            XPathFactory factory = XPathFactory.newInstance();
-            XPath xPath = factory.newXPath();
-            Object o = xPath.evaluate(string, node, XPathConstants.NODESET);
-            return new XmlNodeList((NodeList) o);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to evaluate xpath: " + string, e);
-        }
+        return selectNodes(string, null);
     }
 
     public XmlNodeList selectNodes(String string, XmlNamespaceManager xmlns) {
-        try {
-            XPathFactory factory = XPathFactory.newInstance();
-            XPath xPath = factory.newXPath();
-            xPath.setNamespaceContext(xmlns);
-            Object o = xPath.evaluate(string, node, XPathConstants.NODESET);
-            return new XmlNodeList((NodeList) o);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to evaluate xpath: " + string, e);
-        }
+        return new XmlNodeList(XmlPath.selectNodes(node, string, xmlns));
     }
 
     public NodeList getChildNodes() {
@@ -0,0 +1,219 @@
+package org.ovirt.engine.core.utils.ovf.xml;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathFactory;
+
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Evaluates the XPath expressions the OVF readers look their elements up by.
+ * <p>
+ * Almost all of these expressions are location paths made of element name tests only, like <code>Section</code>,
+ * <code>rasd:InstanceId</code> or <code>//*&#47;Content/Section</code>. Such a path is compiled once and evaluated by
+ * walking the DOM, which visits every element under the context node at most once and returns the selected elements
+ * in document order like XPath does. Any other expression, e.g. one with a predicate, and a path with a prefix that is
+ * not bound, are evaluated by XPath.
+ */
+final class XmlPath {
+
+    private static final int MAX_CACHED_PATHS = 1024;
+    private static final int MAX_STEPS = Long.SIZE - 1;
+    private static final Pattern NAME_TEST = Pattern.compile("\\*|([A-Za-z_][\\w.\\-]*:)?[A-Za-z_][\\w.\\-]*");
+    private static final XmlPath UNSUPPORTED = new XmlPath(false, new Step[0]);
+    private static final Map<String, XmlPath> paths = new ConcurrentHashMap<>();
+
+    private final boolean absolute;
+    private final Step[] steps;
+
+    private XmlPath(boolean absolute, Step[] steps) {
+        this.absolute = absolute;
+        this.steps = steps;
+    }
+
+    static Node selectSingleNode(Node context, String expression, NamespaceContext namespaces) {
+        XmlPath path = compile(expression);
+        if (path != null) {
+            List<Node> nodes = path.select(context, namespaces, true);
+            if (nodes != null) {
+                return nodes.isEmpty() ? null : nodes.get(0);
+            }
+        }
+        return (Node) evaluate(context, expression, namespaces, XPathConstants.NODE);
+    }
+
+    static List<Node> selectNodes(Node context, String expression, NamespaceContext namespaces) {
+        XmlPath path = compile(expression);
+        if (path != null) {
+            List<Node> nodes = path.select(context, namespaces, false);
+            if (nodes != null) {
+                return nodes;
+            }
+        }
+        NodeList nodeList = (NodeList) evaluate(context, expression, namespaces, XPathConstants.NODESET);
+        List<Node> nodes = new ArrayList<>(nodeList.getLength());
+        for (int i = 0; i < nodeList.getLength(); i++) {
+            nodes.add(nodeList.item(i));
+        }
+        return nodes;
+    }
+
+    private static Object evaluate(Node context, String expression, NamespaceContext namespaces, QName returnType) {
+        try {
+            XPath xPath = XPathFactory.newInstance().newXPath();
+            if (namespaces != null) {
+                xPath.setNamespaceContext(namespaces);
+            }
+            return xPath.evaluate(expression, context, returnType);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to evaluate xpath: " + expression, e);
+        }
+    }
+
+    /**
+     * @return the compiled path, or {@code null} if the expression is not a path this class evaluates
+     */
+    static XmlPath compile(String expression) {
+        XmlPath path = paths.get(expression);
+        if (path == null) {
+            path = parse(expression);
+            // the expressions of the readers are constants, the bound only protects against built ones
+            if (paths.size() < MAX_CACHED_PATHS) {
+                paths.put(expression, path);
+            }
+        }
+        return path != UNSUPPORTED ? path : null;
+    }
+
+    private static XmlPath parse(String expression) {
+        boolean absolute = expression.startsWith("/");
+        boolean descendant = expression.startsWith("//");
+        int start = descendant ? 2 : absolute ? 1 : 0;
+        List<Step> steps = new ArrayList<>();
+        while (true) {
+            int end = expression.indexOf('/', start);
+            String nameTest = expression.substring(start, end < 0 ? expression.length() : end);
+            if (!NAME_TEST.matcher(nameTest).matches() || steps.size() == MAX_STEPS) {
+                return UNSUPPORTED;
+            }
+            steps.add(new Step(descendant, nameTest));
+            if (end < 0) {
+                return new XmlPath(absolute, steps.toArray(new Step[steps.size()]));
+            }
+            descendant = expression.startsWith("//", end);
+            start = end + (descendant ? 2 : 1);
+        }
+    }
+
+    /**
+     * @param first whether only the first selected element is needed
+     * @return the selected elements in document order, or {@code null} if a prefix of the path is not bound by the
+     * given namespaces
+     */
+    List<Node> select(Node context, NamespaceContext namespaces, boolean first) {
+        String[] namespaceUris = new String[steps.length];
+        for (int i = 0; i < steps.length; i++) {
+            String prefix = steps[i].prefix;
+            if (prefix != null) {
+                namespaceUris[i] = namespaces != null ? namespaces.getNamespaceURI(prefix) : null;
+                if (namespaceUris[i] == null || namespaceUris[i].isEmpty()) {
+                    return null;
+                }
+            }
+        }
+
+        Node root = context;
+        if (absolute && context.getNodeType() != Node.DOCUMENT_NODE) {
+            root = context.getOwnerDocument();
+        }
+        if (root == null) {
+            return Collections.emptyList();
+        }
+        List<Node> nodes = new ArrayList<>();
+        select(root, 1L, namespaceUris, nodes, first);
+        return nodes;
+    }
+
+    /**
+     * Matches the children of the given parent against the steps the parent reached, each bit of the states stands
+     * for a step. A step on the descendant axis stays reached by the children so it keeps matching further down.
+     *
+     * @return whether the selection is done
+     */
+    private boolean select(Node parent, long states, String[] namespaceUris, List<Node> nodes, boolean first) {
+        int last = steps.length - 1;
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() != Node.ELEMENT_NODE) {
+                continue;
+            }
+
+            long childStates = 0;
+            boolean selected = false;
+            for (int i = 0; i <= last; i++) {
+                if ((states & (1L << i)) == 0) {
+                    continue;
+                }
+                if (steps[i].descendant) {
+                    childStates |= 1L << i;
+                }
+                if (steps[i].matches(child, namespaceUris[i])) {
+                    if (i == last) {
+                        selected = true;
+                    } else {
+                        childStates |= 1L << (i + 1);
+                    }
+                }
+            }
+
+            if (selected) {
+                nodes.add(child);
+                if (first) {
+                    return true;
+                }
+            }
+            if (childStates != 0 && select(child, childStates, namespaceUris, nodes, first)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class Step {
+
+        private final boolean descendant;
+        private final String prefix;
+        private final String localName;
+
+        Step(boolean descendant, String nameTest) {
+            this.descendant = descendant;
+            int colon = nameTest.indexOf(':');
+            prefix = colon < 0 ? null : nameTest.substring(0, colon);
+            localName = "*".equals(nameTest) ? null : nameTest.substring(colon + 1);
+        }
+
+        boolean matches(Node element, String namespaceUri) {
+            if (localName == null) {
+                return true;
+            }
+            if (!localName.equals(element.getLocalName())) {
+                return false;
+            }
+            String elementNamespaceUri = element.getNamespaceURI();
+            if (elementNamespaceUri != null && elementNamespaceUri.isEmpty()) {
+                elementNamespaceUri = null;
+            }
+            return Objects.equals(namespaceUri, elementNamespaceUri);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.ovirt.engine.core.utils.ovf.xml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathFactory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.ovirt.engine.core.uutils.xml.SecureDocumentBuilderFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+public class XmlPathTest {
+
+    private Document document;
+    private XmlNamespaceManager namespaces;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        DocumentBuilderFactory factory = SecureDocumentBuilderFactory.newDocumentBuilderFactory();
+        factory.setNamespaceAware(true);
+        try (InputStream ovf = getClass().getResourceAsStream("vmOvfData.xml")) {
+            document = factory.newDocumentBuilder().parse(ovf);
+        }
+
+        namespaces = new XmlNamespaceManager();
+        namespaces.addNamespace("ovf", "http://schemas.dmtf.org/ovf/envelope/1/");
+        namespaces.addNamespace("rasd", "http://schemas.dmtf.org/wbem/wscim/1/cim-schema/2/CIM_ResourceAllocationSettingData");
+        namespaces.addNamespace("vssd", "http://schemas.dmtf.org/wbem/wscim/1/cim-schema/2/CIM_VirtualSystemSettingData");
+        namespaces.addNamespace("xsi", "http://www.w3.org/2001/XMLSchema-instance");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "//ovf:Envelope", "//Envelope", "/ovf:Envelope", "/ovf:Envelope/Section", "//*/Content",
+            "//*/Content/TemplateId", "//*/Content/Section", "//*/Section/Disk", "//*/References", "//*/File",
+            "//*/Nic", "//Item//rasd:InstanceId", "Content//Item", "Section", "Item", "Device", "Snapshot", "Memory",
+            "Description", "rasd:InstanceId", "rasd:ResourceType", "rasd:Parent", "ovf:SnapshotsSection_Type",
+            "*", "*/*", "//*", "Section/Item/Type"
+    })
+    public void testSelectsLikeXPath(String expression) throws Exception {
+        assertNotNull(XmlPath.compile(expression));
+        for (Node context : contextNodes()) {
+            List<Node> expected = evaluate(context, expression);
+            assertEquals(expected, XmlPath.selectNodes(context, expression, namespaces), expression);
+            assertEquals(expected.isEmpty() ? null : expected.get(0),
+                    XmlPath.selectSingleNode(context, expression, namespaces),
+                    expression);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "//*/Item[rasd:ResourceType=10]", "Item[1]", "@ovf:id", ".", "..", "text()", "//*/", "" })
+    public void testUnsupportedExpressions(String expression) {
+        assertNull(XmlPath.compile(expression));
+    }
+
+    @Test
+    public void testPredicateIsEvaluatedByXPath() throws Exception {
+        byte[] ovf = Files.readAllBytes(Paths.get(getClass().getResource("vmOvfData.xml").toURI()));
+        XmlDocument xmlDocument = new XmlDocument(new String(ovf, StandardCharsets.UTF_8));
+        XmlNode disk = xmlDocument.selectSingleNode("//*/Item[rasd:ResourceType=17]", namespaces);
+        assertEquals("17", disk.selectSingleNode("rasd:ResourceType", namespaces).innerText);
+    }
+
+    @Test
+    public void testUnboundPrefixIsEvaluatedByXPath() {
+        assertNotNull(XmlPath.selectSingleNode(document, "//rasd:InstanceId", namespaces));
+        assertNull(XmlPath.selectSingleNode(document, "//rasd:InstanceId", null));
+    }
+
+    private List<Node> contextNodes() {
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(document);
+        NodeList elements = document.getElementsByTagName("*");
+        for (int i = 0; i < elements.getLength(); i++) {
+            nodes.add(elements.item(i));
+        }
+        return nodes;
+    }
+
+    private List<Node> evaluate(Node context, String expression) throws Exception {
+        XPath xPath = XPathFactory.newInstance().newXPath();
+        xPath.setNamespaceContext(namespaces);
+        NodeList nodeList = (NodeList) xPath.evaluate(expression, context, XPathConstants.NODESET);
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < nodeList.getLength(); i++) {
+            nodes.add(nodeList.item(i));
+        }
+        return nodes;
+    }
+}
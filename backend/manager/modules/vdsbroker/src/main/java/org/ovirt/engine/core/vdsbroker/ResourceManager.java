@@ -49,10 +49,10 @@ import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogable;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableImpl;
 import org.ovirt.engine.core.dao.VdsDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
-import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
 import org.ovirt.engine.core.di.Injector;
 import org.ovirt.engine.core.utils.ReflectionUtils;
 import org.ovirt.engine.core.utils.threadpool.ThreadPools;
+import org.ovirt.engine.core.vdsbroker.monitoring.VmsMonitoring;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.FutureVDSCommand;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.VdsCommandExecutor;
 import org.ovirt.vdsm.jsonrpc.client.events.EventSubscriber;
@@ -90,15 +90,15 @@ public class ResourceManager implements BackendService {
     @Inject
     private VmDynamicDao vmDynamicDao;
 
-    @Inject
-    private VmNetworkStatisticsDao vmNetworkStatisticsDao;
-
     @Inject
     Instance<VdsCommandExecutor> commandExecutor;
 
     @Inject
     private VdsManagerFactory vdsManagerFactory;
 
+    @Inject
+    private Instance<VmsMonitoring> vmsMonitoring;
+
     @PostConstruct
     private void init() {
         log.info("Start initializing {}", getClass().getSimpleName());
@@ -217,6 +217,7 @@ public class ResourceManager implements BackendService {
         if (vdsManager != null) {
             vdsManager.dispose();
             vdsManagersDict.remove(vdsId);
+            vmsMonitoring.get().removeHost(vdsId);
         }
     }
 
@@ -257,7 +258,7 @@ public class ResourceManager implements BackendService {
         if (interfaces != null) {
             for (VmNetworkInterface ifc : interfaces) {
                 VmNetworkStatistics stats = ifc.getStatistics();
-                vmNetworkStatisticsDao.update(stats);
+                getVmManager(vm.getId()).update(stats);
             }
         }
     }
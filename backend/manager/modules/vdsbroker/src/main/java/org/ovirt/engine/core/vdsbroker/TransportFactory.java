@@ -7,6 +7,7 @@ import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.vdsbroker.irsbroker.IIrsServer;
 import org.ovirt.engine.core.vdsbroker.jsonrpc.JsonRpcIIrsServer;
+import org.ovirt.engine.core.vdsbroker.jsonrpc.JsonRpcStatistics;
 import org.ovirt.engine.core.vdsbroker.jsonrpc.JsonRpcUtils;
 import org.ovirt.engine.core.vdsbroker.jsonrpc.JsonRpcVdsServer;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.IVdsServer;
@@ -32,7 +33,8 @@ public class TransportFactory {
     }
 
     public static IVdsServer createVdsServer(
-            String hostname, int port, int clientTimeOut, int connectionTimeOut, int clientRetries, int heartbeat, ScheduledExecutorService executorService) {
+            String hostname, int port, int clientTimeOut, int connectionTimeOut, int clientRetries, int heartbeat, ScheduledExecutorService executorService,
+            JsonRpcStatistics statistics) {
 
         HttpClient client = HttpUtils.getConnection(
                 connectionTimeOut,
@@ -56,6 +58,9 @@ public class TransportFactory {
                         Config.getValue(ConfigValues.VdsResponseQueueName),
                         eventQueue,
                         executorService)
-                , client);
+                , client,
+                executorService,
+                statistics,
+                Config.getValue(ConfigValues.JsonRpcBatchWindowInMillis));
     }
 }
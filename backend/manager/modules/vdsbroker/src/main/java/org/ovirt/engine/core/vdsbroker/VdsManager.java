@@ -2,6 +2,7 @@ package org.ovirt.engine.core.vdsbroker;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -51,7 +52,6 @@ import org.ovirt.engine.core.dao.SupportedHostFeatureDao;
 import org.ovirt.engine.core.dao.VdsDao;
 import org.ovirt.engine.core.dao.VdsDynamicDao;
 import org.ovirt.engine.core.dao.VdsNumaNodeDao;
-import org.ovirt.engine.core.dao.VdsStatisticsDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.dao.VmStaticDao;
 import org.ovirt.engine.core.dao.network.InterfaceDao;
@@ -66,10 +66,12 @@ import org.ovirt.engine.core.utils.transaction.TransactionSupport;
 import org.ovirt.engine.core.vdsbroker.irsbroker.IRSErrorException;
 import org.ovirt.engine.core.vdsbroker.irsbroker.IrsProxy;
 import org.ovirt.engine.core.vdsbroker.irsbroker.IrsProxyManager;
+import org.ovirt.engine.core.vdsbroker.jsonrpc.JsonRpcStatistics;
 import org.ovirt.engine.core.vdsbroker.monitoring.HostMonitoring;
 import org.ovirt.engine.core.vdsbroker.monitoring.MonitoringStrategy;
 import org.ovirt.engine.core.vdsbroker.monitoring.MonitoringStrategyFactory;
 import org.ovirt.engine.core.vdsbroker.monitoring.RefresherFactory;
+import org.ovirt.engine.core.vdsbroker.monitoring.StatisticsPersister;
 import org.ovirt.engine.core.vdsbroker.monitoring.VmStatsRefresher;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.HostNetworkTopologyPersister;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.IVdsServer;
@@ -113,7 +115,10 @@ public class VdsManager {
     private VmStaticDao vmStaticDao;
 
     @Inject
-    private VdsStatisticsDao vdsStatisticsDao;
+    private StatisticsPersister statisticsPersister;
+
+    @Inject
+    private JsonRpcStatistics jsonRpcStatistics;
 
     @Inject
     private VdsNumaNodeDao vdsNumaNodeDao;
@@ -137,6 +142,13 @@ public class VdsManager {
     private final Guid vdsId;
     private final VdsMonitor vdsMonitor = new VdsMonitor();
     private VDS cachedVds;
+    /** Built whenever cachedVds changes, so it can be read without copying or locking it */
+    private volatile VdsSnapshot snapshot;
+    /** The generation of the last published snapshot, only changed under snapshotLock */
+    private long generation;
+    private final Object snapshotLock = new Object();
+    /** The thread running a monitoring refresh of the host, whose changes are published once the refresh ends */
+    private volatile Thread refreshingThread;
     private long lastUpdate;
     private long updateStartTime;
     private long nextMaintenanceAttemptTime;
@@ -169,6 +181,7 @@ public class VdsManager {
         log.info("Entered VdsManager constructor");
         cachedVds = vds;
         vdsId = vds.getId();
+        publishSnapshot();
         unrespondedAttempts = new AtomicInteger();
         failedToRunVmAttempts = new AtomicInteger();
         autoStartVmsWithLeasesLock = new ReentrantLock();
@@ -205,6 +218,7 @@ public class VdsManager {
         } else {
             cachedVds.setPreviousStatus(VDSStatus.Up);
         }
+        publishSnapshot();
     }
 
     public void scheduleJobs() {
@@ -242,7 +256,8 @@ public class VdsManager {
                 connectionTimeOut,
                 clientRetries,
                 heartbeat,
-                resourceManager.getExecutor());
+                resourceManager.getExecutor(),
+                jsonRpcStatistics);
     }
 
     public void refresh() {
@@ -260,39 +275,46 @@ public class VdsManager {
             try {
                 setIsSetNonOperationalExecuted(false);
                 synchronized (this) {
-                    refreshCachedVds();
-                    if (cachedVds == null) {
-                        log.error("VdsManager::refreshVdsRunTimeInfo - onTimer is NULL for '{}'",
-                                getVdsId());
-                        return;
-                    }
-
+                    refreshingThread = Thread.currentThread();
                     try {
-                        updateIteration();
-                        if (isMonitoringNeeded()) {
-                            setStartTime();
-                            releaseLock = false;
-                            hostMonitoring =
-                                    new HostMonitoring(this,
-                                            cachedVds,
-                                            monitoringStrategy,
-                                            resourceManager,
-                                            vdsDynamicDao,
-                                            interfaceDao,
-                                            vdsNumaNodeDao,
-                                            networkDao,
-                                            auditLogDirector);
-                            hostMonitoring.refresh();
+                        refreshCachedVds();
+                        if (cachedVds == null) {
+                            log.error("VdsManager::refreshVdsRunTimeInfo - onTimer is NULL for '{}'",
+                                    getVdsId());
+                            return;
                         }
-                    } catch (VDSNetworkException e) {
-                        logNetworkException(e);
-                        releaseLock = true;
-                    } catch (VDSRecoveringException ex) {
-                        handleVdsRecoveringException(ex);
-                        releaseLock = true;
-                    } catch (RuntimeException ex) {
-                        logFailureMessage(ex);
-                        releaseLock = true;
+
+                        try {
+                            updateIteration();
+                            if (isMonitoringNeeded()) {
+                                setStartTime();
+                                releaseLock = false;
+                                hostMonitoring =
+                                        new HostMonitoring(this,
+                                                cachedVds,
+                                                monitoringStrategy,
+                                                resourceManager,
+                                                vdsDynamicDao,
+                                                interfaceDao,
+                                                vdsNumaNodeDao,
+                                                networkDao,
+                                                auditLogDirector);
+                                hostMonitoring.refresh();
+                            }
+                        } catch (VDSNetworkException e) {
+                            logNetworkException(e);
+                            releaseLock = true;
+                        } catch (VDSRecoveringException ex) {
+                            handleVdsRecoveringException(ex);
+                            releaseLock = true;
+                        } catch (RuntimeException ex) {
+                            logFailureMessage(ex);
+                            releaseLock = true;
+                        }
+                    } finally {
+                        // the changes of the refresh are published at once
+                        refreshingThread = null;
+                        publishSnapshot();
                     }
                 }
             } catch (Throwable t) {
@@ -320,6 +342,7 @@ public class VdsManager {
                 Guid storagePoolId = null;
                 ArrayList<VDSDomainsData> domainsList = null;
 
+                refreshingThread = Thread.currentThread();
                 try {
                     hostMonitoring.afterRefreshTreatment();
 
@@ -341,6 +364,9 @@ public class VdsManager {
                 } catch (RuntimeException ex) {
                     logAfterRefreshFailureMessage(ex);
                     logException(ex);
+                } finally {
+                    refreshingThread = null;
+                    publishSnapshot();
                 }
 
                 // Now update the status of domains, this code should not be in
@@ -369,15 +395,61 @@ public class VdsManager {
     }
 
     private void refreshCachedVds() {
+        statisticsPersister.flushVdsStatistics(getVdsId());
         cachedVds = vdsDao.get(getVdsId());
         setMonitoringNeeded();
+        publishSnapshot();
     }
 
     /**
-     * @return a safe copy of the internal VDS. mutating it must not affect internal.
+     * Publishes a snapshot of the cached host with the next generation, should be called whenever the cached host
+     * changes. The changes made by a monitoring refresh are only published once, when the refresh ends, the last
+     * snapshot is kept while the host can not be read from the database.
      */
-    public VDS getCopyVds() {
-        return cachedVds.clone();
+    private void publishSnapshot() {
+        if (Thread.currentThread() == refreshingThread) {
+            return;
+        }
+        synchronized (snapshotLock) {
+            VDS vds = cachedVds;
+            if (vds != null) {
+                snapshot = new VdsSnapshot(copyForSnapshot(vds), ++generation);
+            }
+        }
+    }
+
+    /**
+     * {@link VDS#clone()} shares the collections of the host with the copy, the snapshot gets unmodifiable copies of
+     * them instead so its readers neither see the later changes of the cached host nor can change the snapshot
+     */
+    private static VDS copyForSnapshot(VDS vds) {
+        VDS copy = vds.clone();
+        copy.setNumaNodeList(unmodifiableCopy(vds.getNumaNodeList()));
+        copy.setFenceAgents(unmodifiableCopy(vds.getFenceAgents()));
+        if (vds.getHBAs() != null) {
+            Map<String, List<Map<String, String>>> hbas = new HashMap<>();
+            vds.getHBAs().forEach((type, hbasOfType) -> hbas.put(type, hbasOfType == null ? null
+                    : Collections.unmodifiableList(hbasOfType.stream()
+                            .map(hba -> hba == null ? null : Collections.unmodifiableMap(new HashMap<>(hba)))
+                            .collect(Collectors.toList()))));
+            copy.setHBAs(Collections.unmodifiableMap(hbas));
+        }
+        if (vds.getKernelFeatures() != null) {
+            copy.setKernelFeatures(Collections.unmodifiableMap(new HashMap<>(vds.getKernelFeatures())));
+        }
+        return copy;
+    }
+
+    private static <T> List<T> unmodifiableCopy(List<T> list) {
+        return list == null ? null : Collections.unmodifiableList(new ArrayList<>(list));
+    }
+
+    /**
+     * @return the state of the host, which is shared by all the readers and must not be modified. The same snapshot
+     *         is returned until the cached host changes.
+     */
+    public VdsSnapshot getSnapshot() {
+        return snapshot;
     }
 
     public VDSStatus getStatus() {
@@ -479,25 +551,36 @@ public class VdsManager {
     public void updateDynamicData(VdsDynamic dynamicData) {
         vdsDynamicDao.updateIfNeeded(dynamicData);
         cachedVds.setDynamicData(dynamicData);
+        publishSnapshot();
     }
 
     public void updatePartialDynamicData(NonOperationalReason nonOperationalReason, String maintenanceReason) {
         cachedVds.getDynamicData().setNonOperationalReason(nonOperationalReason);
         cachedVds.getDynamicData().setMaintenanceReason(maintenanceReason);
         vdsDynamicDao.updateStatusAndReasons(cachedVds.getDynamicData());
+        publishSnapshot();
     }
 
     public void updateUpdateAvailable(boolean updatesAvailable) {
         cachedVds.getDynamicData().setUpdateAvailable(updatesAvailable);
         vdsDynamicDao.updateUpdateAvailable(cachedVds.getId(), updatesAvailable);
+        publishSnapshot();
     }
 
     /**
      * Save statistics data to cache and DB.
      */
     public void updateStatisticsData(VdsStatistics statisticsData) {
-        vdsStatisticsDao.update(statisticsData);
+        updateStatisticsData(statisticsData, true);
+    }
+
+    /**
+     * @param immediately - whether to write the statistics right away or with the next batch of statistics
+     */
+    public void updateStatisticsData(VdsStatistics statisticsData, boolean immediately) {
+        statisticsPersister.saveVdsStatistics(statisticsData, immediately);
         cachedVds.setStatisticsData(statisticsData);
+        publishSnapshot();
     }
 
     /**
@@ -617,6 +700,7 @@ public class VdsManager {
 
                 // Always check VdsVersion
                 resourceManager.getEventListener().handleVdsVersion(vds.getId());
+                publishSnapshot();
             }
         }
     }
@@ -732,6 +816,7 @@ public class VdsManager {
             default:
                 break;
             }
+            publishSnapshot();
         }
     }
 
@@ -0,0 +1,33 @@
+package org.ovirt.engine.core.vdsbroker;
+
+import org.ovirt.engine.core.common.businessentities.VDS;
+
+/**
+ * A view of the host as cached by its {@link VdsManager}.
+ *
+ * A snapshot is never modified, the {@code VdsManager} publishes a new snapshot with a higher generation whenever the
+ * cached host changes. Readers can therefore share it without copying or locking, and can tell whether the host
+ * changed since they last looked at it by comparing the generations.
+ */
+public final class VdsSnapshot {
+
+    private final VDS vds;
+    private final long generation;
+
+    public VdsSnapshot(VDS vds, long generation) {
+        this.vds = vds;
+        this.generation = generation;
+    }
+
+    /**
+     * @return the host, which is shared by all the readers of the snapshot and therefore must not be modified. The
+     *         collections of the host published by the {@code VdsManager} are unmodifiable.
+     */
+    public VDS getVds() {
+        return vds;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+}
@@ -1,6 +1,8 @@
 package org.ovirt.engine.core.vdsbroker;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -17,6 +19,7 @@ import org.ovirt.engine.core.common.businessentities.VmDynamic;
 import org.ovirt.engine.core.common.businessentities.VmStatic;
 import org.ovirt.engine.core.common.businessentities.VmStatistics;
 import org.ovirt.engine.core.common.businessentities.network.VmNetworkStatistics;
+import org.ovirt.engine.core.common.businessentities.storage.DiskImageDynamic;
 import org.ovirt.engine.core.common.scheduling.VmOverheadCalculator;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.compat.Version;
@@ -24,8 +27,8 @@ import org.ovirt.engine.core.dao.ClusterDao;
 import org.ovirt.engine.core.dao.VmDeviceDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.dao.VmStaticDao;
-import org.ovirt.engine.core.dao.VmStatisticsDao;
 import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
+import org.ovirt.engine.core.vdsbroker.monitoring.StatisticsPersister;
 import org.ovirt.engine.core.vdsbroker.monitoring.VdsmVm;
 
 public class VmManager {
@@ -55,6 +58,16 @@ public class VmManager {
     private Double lastStatusEventTimestamp;
     private Guid lastStatusEventReporterId;
     private VmStatistics statistics;
+    /**
+     * The most recent interface statistics, which may be newer than the persisted ones, by interface id. They are
+     * updated by the monitoring and reset by other flows that save interface statistics, without the manager lock
+     */
+    private final Map<Guid, VmNetworkStatistics> interfaceStatistics;
+    /** The interface statistics and disk dynamics as they were last saved by the monitoring, by their id */
+    private final Map<Guid, VmNetworkStatistics> savedInterfaceStatistics;
+    private final Map<Guid, DiskImageDynamic> savedDiskImageDynamics;
+    /** The number of statistics refreshes since the statistics of the VM were last saved */
+    private int statisticsRefreshesSinceSave;
 
     private boolean coldReboot;
 
@@ -70,7 +83,7 @@ public class VmManager {
     @Inject
     private VmDynamicDao vmDynamicDao;
     @Inject
-    private VmStatisticsDao vmStatisticsDao;
+    private StatisticsPersister statisticsPersister;
     @Inject
     private VmNetworkStatisticsDao vmNetworkStatisticsDao;
     @Inject
@@ -85,6 +98,9 @@ public class VmManager {
         lock = new ReentrantLock();
         convertOperationProgress = -1;
         statistics = new VmStatistics(vmId);
+        interfaceStatistics = new ConcurrentHashMap<>();
+        savedInterfaceStatistics = new ConcurrentHashMap<>();
+        savedDiskImageDynamics = new ConcurrentHashMap<>();
         vmMemoryWithOverheadInMB = 0;
     }
 
@@ -144,12 +160,15 @@ public class VmManager {
     }
 
     public void update(VmStatistics statistics) {
-        vmStatisticsDao.update(statistics);
+        statisticsPersister.saveVmStatistics(Collections.singletonList(statistics), true);
         setStatistics(statistics);
+        statisticsRefreshesSinceSave = 0;
     }
 
     public void update(VmNetworkStatistics networkStatistics) {
         vmNetworkStatisticsDao.update(networkStatistics);
+        interfaceStatistics.remove(networkStatistics.getId());
+        savedInterfaceStatistics.remove(networkStatistics.getId());
     }
 
     public void update(VmStatic vmStatic) {
@@ -244,6 +263,54 @@ public class VmManager {
         this.statistics = statistics;
     }
 
+    /**
+     * Counts a statistics refresh of the VM, should be called while holding the manager lock
+     * @return the number of statistics refreshes since the statistics were last saved, including this one
+     */
+    public int countStatisticsRefresh() {
+        return ++statisticsRefreshesSinceSave;
+    }
+
+    /**
+     * Marks the statistics of the VM as saved, should be called while holding the manager lock
+     */
+    public void statisticsSaved() {
+        statisticsRefreshesSinceSave = 0;
+    }
+
+    public VmNetworkStatistics getLatestInterfaceStatistics(Guid interfaceId) {
+        return interfaceStatistics.get(interfaceId);
+    }
+
+    public void setLatestInterfaceStatistics(VmNetworkStatistics networkStatistics) {
+        interfaceStatistics.put(networkStatistics.getId(), networkStatistics);
+    }
+
+    public VmNetworkStatistics getSavedInterfaceStatistics(Guid interfaceId) {
+        return savedInterfaceStatistics.get(interfaceId);
+    }
+
+    public void setSavedInterfaceStatistics(VmNetworkStatistics networkStatistics) {
+        savedInterfaceStatistics.put(networkStatistics.getId(), networkStatistics);
+    }
+
+    public DiskImageDynamic getSavedDiskImageDynamic(Guid diskImageId) {
+        return savedDiskImageDynamics.get(diskImageId);
+    }
+
+    public void setSavedDiskImageDynamic(DiskImageDynamic diskImageDynamic) {
+        savedDiskImageDynamics.put(diskImageDynamic.getId(), diskImageDynamic);
+    }
+
+    /**
+     * Forgets the last saved interface statistics and disk dynamics, so they will all be saved on the next time
+     * the statistics of the VM are saved
+     */
+    public void clearSavedStatistics() {
+        savedInterfaceStatistics.clear();
+        savedDiskImageDynamics.clear();
+    }
+
     public String getName() {
         return name;
     }
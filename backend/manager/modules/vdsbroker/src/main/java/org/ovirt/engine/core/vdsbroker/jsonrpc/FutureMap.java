@@ -53,10 +53,12 @@ public class FutureMap implements Map<String, Object> {
     private Class<?> clazz = STATUS_DONE.getClass();
     private Class<?> subTypeClazz;
     private boolean ignoreResponseKey = false;
+    private boolean rawResult = false;
     private long timeout = 0;
     private TimeUnit unit = TimeUnit.MILLISECONDS;
     private boolean cleanOnTimeout;
     private JsonRpcClient client;
+    private JsonRpcStatistics.SentRequest sentRequest;
 
     /**
      * During creation request is sent and <code>Future</code> for a response is held.
@@ -96,6 +98,20 @@ public class FutureMap implements Map<String, Object> {
         }
     }
 
+    /**
+     * Holds the <code>Future</code> for a response to a request that was already sent, or is going to be sent, by the
+     * caller.
+     *
+     * @param client - Client object used to send request.
+     * @param response - The response to the request.
+     * @param sentRequest - The request as recorded by the statistics, which is told when the response arrives.
+     */
+    FutureMap(JsonRpcClient client, Future<JsonRpcResponse> response, JsonRpcStatistics.SentRequest sentRequest) {
+        this.client = client;
+        this.response = response;
+        this.sentRequest = sentRequest;
+    }
+
     /**
      * Whenever any method is executed to obtain value of response during the first invocation it gets real response
      * from the <code>Future</code> and decompose it to object of provided type and structure.
@@ -111,10 +127,21 @@ public class FutureMap implements Map<String, Object> {
                     } else {
                         populate(this.response.get());
                     }
-                } catch (InterruptedException | ExecutionException e) {
+                } catch (ExecutionException e) {
+                    requestFailed();
+                    if (e.getCause() instanceof ClientConnectionException) {
+                        throw new TransportRunTimeException("Connection issues during send request", e.getCause());
+                    }
+                    log.error("Exception occured during response decomposition", e);
+                    throw new IllegalStateException(e);
+                } catch (InterruptedException e) {
+                    requestFailed();
                     log.error("Exception occured during response decomposition", e);
                     throw new IllegalStateException(e);
                 } catch (TimeoutException e) {
+                    if (sentRequest != null) {
+                        sentRequest.timedOut();
+                    }
                     this.responseMap.put(STATUS, TIMEOUT_STATUS);
                     if (cleanOnTimeout) {
                         client.removeCall(this.response);
@@ -128,6 +155,8 @@ public class FutureMap implements Map<String, Object> {
         ResponseDecomposer decomposer = new ResponseDecomposer(response);
         if (decomposer.isError()) {
             this.responseMap = decomposer.decomposeError();
+        } else if (rawResult) {
+            updateResponse(response.getResult());
         } else if (Object[].class.equals(clazz) && this.subtypeKey != null && !this.subtypeKey.trim().isEmpty()
                 && this.subTypeClazz != null) {
             Object[] array = (Object[]) decomposer.decomposeResponse(this.clazz);
@@ -136,6 +165,19 @@ public class FutureMap implements Map<String, Object> {
             updateResponse(decomposer.decomposeResponse(this.clazz));
         }
         checkAndUpdateStatus();
+        if (sentRequest != null) {
+            if (decomposer.isError() && JsonRpcStatistics.isTimeout(this.responseMap.get(STATUS))) {
+                sentRequest.timedOut();
+            } else {
+                sentRequest.responded();
+            }
+        }
+    }
+
+    private void requestFailed() {
+        if (sentRequest != null) {
+            sentRequest.failed();
+        }
     }
 
     /**
@@ -277,6 +319,17 @@ public class FutureMap implements Map<String, Object> {
         return this;
     }
 
+    /**
+     * The result of the response is stored as the JSON tree it was received as, without decomposing it, so that
+     * it can be decoded by the caller.
+     *
+     * @return this <code>FutureMap</code>.
+     */
+    public FutureMap withRawResult() {
+        this.rawResult = true;
+        return this;
+    }
+
     /**
      * During response decomposition we will ignore default key and use raw response structure as result
      * <code>Map</code>.
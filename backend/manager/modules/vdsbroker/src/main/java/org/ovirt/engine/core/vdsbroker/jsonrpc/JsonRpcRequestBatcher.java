@@ -0,0 +1,216 @@
+package org.ovirt.engine.core.vdsbroker.jsonrpc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.ovirt.vdsm.jsonrpc.client.JsonRpcClient;
+import org.ovirt.vdsm.jsonrpc.client.JsonRpcRequest;
+import org.ovirt.vdsm.jsonrpc.client.JsonRpcResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends the requests submitted to a host shortly after another one as a single JSON-RPC batch, so bursts of
+ * independent requests, like the ones the monitoring of a host issues every cycle, go out in one frame and are
+ * answered together.
+ * <p>
+ * A request submitted when no other request was sent during the last window is sent right away, and opens a window.
+ * The requests submitted during the window are held until it ends, and are then sent together, or on their own if
+ * there is only one, so only requests that follow another one are delayed. Errors of sending a batch are reported
+ * when the responses of its requests are read, as the callers are no longer around when it is sent.
+ */
+class JsonRpcRequestBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(JsonRpcRequestBatcher.class);
+
+    private final JsonRpcClient client;
+    private final ScheduledExecutorService executorService;
+    private final JsonRpcStatistics statistics;
+    private final long window;
+    private List<BatchedResponse> pending = new ArrayList<>();
+    private boolean windowOpen;
+
+    /**
+     * @param window - Time in milliseconds the requests following another one are held for, zero sends every
+     * request on its own.
+     */
+    JsonRpcRequestBatcher(JsonRpcClient client,
+            ScheduledExecutorService executorService,
+            JsonRpcStatistics statistics,
+            long window) {
+        this.client = client;
+        this.executorService = executorService;
+        this.statistics = statistics;
+        this.window = window;
+    }
+
+    /**
+     * @return the <code>Future</code> of the response to the request, which is sent right away or, if the window of a
+     * previous request is open, with the other requests submitted during the window
+     */
+    Future<JsonRpcResponse> submit(JsonRpcRequest request) {
+        BatchedResponse response = new BatchedResponse(request);
+        if (window <= 0) {
+            send(response);
+            return response;
+        }
+
+        synchronized (this) {
+            if (windowOpen) {
+                pending.add(response);
+                return response;
+            }
+            windowOpen = true;
+        }
+        send(response);
+        try {
+            executorService.schedule(this::flush, window, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            flush();
+        }
+        return response;
+    }
+
+    /**
+     * Sends the requests submitted during the window and closes it
+     */
+    void flush() {
+        List<BatchedResponse> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = new ArrayList<>();
+            windowOpen = false;
+        }
+        if (batch.size() == 1) {
+            send(batch.get(0));
+        } else if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private void send(BatchedResponse response) {
+        try {
+            response.sent(client.call(response.request));
+        } catch (Exception e) {
+            response.failed(e);
+        }
+    }
+
+    private void send(List<BatchedResponse> batch) {
+        List<JsonRpcRequest> requests = new ArrayList<>(batch.size());
+        for (BatchedResponse response : batch) {
+            requests.add(response.request);
+        }
+        try {
+            Future<List<JsonRpcResponse>> responses = client.batchCall(requests);
+            statistics.batchSent(client.getHostname(), requests.size());
+            for (BatchedResponse response : batch) {
+                response.sentInBatch(responses);
+            }
+        } catch (Exception e) {
+            log.debug("Failed to send a batch of {} requests to host '{}': {}",
+                    requests.size(),
+                    client.getHostname(),
+                    e.getMessage());
+            for (BatchedResponse response : batch) {
+                response.failed(e);
+            }
+        }
+    }
+
+    /**
+     * The response to a request held by the batcher. Reading it waits for the request to be sent first, and then for
+     * the response to the request, which is looked up by its id among the responses to the batch.
+     */
+    private static class BatchedResponse implements Future<JsonRpcResponse> {
+
+        private final JsonRpcRequest request;
+        private final CountDownLatch sent = new CountDownLatch(1);
+        private volatile Future<JsonRpcResponse> response;
+        private volatile Future<List<JsonRpcResponse>> batchResponses;
+        private volatile Exception failure;
+
+        BatchedResponse(JsonRpcRequest request) {
+            this.request = request;
+        }
+
+        void sent(Future<JsonRpcResponse> response) {
+            this.response = response;
+            sent.countDown();
+        }
+
+        void sentInBatch(Future<List<JsonRpcResponse>> batchResponses) {
+            this.batchResponses = batchResponses;
+            sent.countDown();
+        }
+
+        void failed(Exception failure) {
+            this.failure = failure;
+            sent.countDown();
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            if (sent.getCount() > 0) {
+                return false;
+            }
+            if (failure != null) {
+                return true;
+            }
+            return response != null ? response.isDone() : batchResponses.isDone();
+        }
+
+        @Override
+        public JsonRpcResponse get() throws InterruptedException, ExecutionException {
+            sent.await();
+            checkFailure();
+            return response != null ? response.get() : select(batchResponses.get());
+        }
+
+        @Override
+        public JsonRpcResponse get(long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            if (!sent.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+            checkFailure();
+            long remaining = deadline - System.nanoTime();
+            return response != null ? response.get(remaining, TimeUnit.NANOSECONDS)
+                    : select(batchResponses.get(remaining, TimeUnit.NANOSECONDS));
+        }
+
+        private void checkFailure() throws ExecutionException {
+            if (failure != null) {
+                throw new ExecutionException(failure);
+            }
+        }
+
+        private JsonRpcResponse select(List<JsonRpcResponse> responses) throws ExecutionException {
+            for (JsonRpcResponse batchResponse : responses) {
+                if (request.getId().equals(batchResponse.getId())) {
+                    return batchResponse;
+                }
+            }
+            throw new ExecutionException(new IllegalStateException(
+                    "No response to request " + request.getId() + " in the batch"));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.ovirt.engine.core.vdsbroker.jsonrpc;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Completes a <code>CompletableFuture</code> for the response of a request sent as a {@link FutureMap}, once the
+ * response arrived, so the caller does not hold a thread while waiting for it.
+ * <p>
+ * The responses of the client can't notify about their arrival, so the awaited responses are checked together on
+ * the executor every interval, as long as there are any. Every arrived response is read and its future is completed
+ * in a task of its own on the executor, so the stages chained on the futures of different responses run in parallel.
+ * The client completes every response, with an error if it times out, so every future is completed eventually.
+ */
+class JsonRpcResponsePoller {
+
+    private final ScheduledExecutorService executorService;
+    private final long interval;
+    private final Queue<AwaitedResponse<?>> awaited = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean checkScheduled = new AtomicBoolean();
+
+    /**
+     * @param interval - Time in milliseconds between the checks of the awaited responses.
+     */
+    JsonRpcResponsePoller(ScheduledExecutorService executorService, long interval) {
+        this.executorService = executorService;
+        this.interval = interval;
+    }
+
+    /**
+     * @param toReturn - creates the return value from the arrived response, it is completed exceptionally with what
+     * it throws, like reading the response of a request that could not be sent
+     * @return the future completed with the return value once the response arrived
+     */
+    <T> CompletableFuture<T> whenDone(FutureMap response, Function<Map<String, Object>, T> toReturn) {
+        AwaitedResponse<T> awaitedResponse = new AwaitedResponse<>(response, toReturn);
+        awaited.add(awaitedResponse);
+        scheduleCheck();
+        return awaitedResponse.result;
+    }
+
+    private void scheduleCheck() {
+        if (!checkScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executorService.schedule(this::check, interval, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            checkScheduled.set(false);
+            AwaitedResponse<?> awaitedResponse;
+            while ((awaitedResponse = awaited.poll()) != null) {
+                awaitedResponse.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Completes the futures of the arrived responses. A check is scheduled only when no other one is, so the checks
+     * don't run concurrently.
+     */
+    private void check() {
+        awaited.removeIf(this::completeIfArrived);
+        checkScheduled.set(false);
+        if (!awaited.isEmpty()) {
+            scheduleCheck();
+        }
+    }
+
+    private boolean completeIfArrived(AwaitedResponse<?> awaitedResponse) {
+        if (!awaitedResponse.response.isRequestCompleted()) {
+            return false;
+        }
+        try {
+            executorService.execute(awaitedResponse::complete);
+        } catch (RejectedExecutionException e) {
+            awaitedResponse.result.completeExceptionally(e);
+        }
+        return true;
+    }
+
+    private static class AwaitedResponse<T> {
+
+        private final FutureMap response;
+        private final Function<Map<String, Object>, T> toReturn;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        AwaitedResponse(FutureMap response, Function<Map<String, Object>, T> toReturn) {
+            this.response = response;
+            this.toReturn = toReturn;
+        }
+
+        void complete() {
+            try {
+                result.complete(toReturn.apply(response));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package org.ovirt.engine.core.vdsbroker.jsonrpc;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.ovirt.engine.core.common.errors.EngineError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the requests sent to the hosts by {@link JsonRpcVdsServer}: the requests in flight and the timeouts per
+ * host, and the round trip latency per verb, which are exposed via JMX.
+ * <p>
+ * The latency of a request is measured from sending it until its response is received by the caller, i.e. until the
+ * caller reads the response or its callback is invoked.
+ */
+@Singleton
+public class JsonRpcStatistics implements JsonRpcStatisticsMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(JsonRpcStatistics.class);
+
+    private static final String STATUS = "status";
+    private static final String CODE = "code";
+    private static final long[] LATENCY_BUCKETS = { 10, 100, 1000, 10000 };
+
+    private final Map<String, HostStatistics> hostStatistics = new ConcurrentHashMap<>();
+    private final Map<String, VerbStatistics> verbStatistics = new ConcurrentHashMap<>();
+
+    private MBeanServer platformMBeanServer;
+    private ObjectName objectName;
+
+    @PostConstruct
+    public void registerInJMX() {
+        try {
+            objectName = new ObjectName("JsonRpcStatistics:type=" + this.getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during registration of Monitoring into JMX:" + e);
+        }
+    }
+
+    @PreDestroy
+    public void unregisterFromJMX() {
+        try {
+            platformMBeanServer.unregisterMBean(objectName);
+        } catch (Exception e) {
+            log.debug("Problem during unregistration of Monitoring into JMX: {}", e);
+        }
+    }
+
+    /**
+     * Records a request sent to the host
+     *
+     * @return the request, which is to be told when it is done
+     */
+    public SentRequest requestSent(String hostName, String verb) {
+        HostStatistics host = hostStatistics.computeIfAbsent(hostName, HostStatistics::new);
+        VerbStatistics verbStats = verbStatistics.computeIfAbsent(verb, VerbStatistics::new);
+        host.sent.increment();
+        host.inFlight.increment();
+        return new SentRequest(host, verbStats);
+    }
+
+    /**
+     * Records requests sent to the host together as a single batch
+     */
+    public void batchSent(String hostName, int requests) {
+        HostStatistics host = hostStatistics.computeIfAbsent(hostName, HostStatistics::new);
+        host.batches.increment();
+        host.batchedRequests.add(requests);
+    }
+
+    /**
+     * @param status the status of a response, as decomposed from an error response
+     * @return whether the status is of a request that timed out, which the client reports as a network error
+     */
+    @SuppressWarnings("unchecked")
+    static boolean isTimeout(Object status) {
+        if (!(status instanceof Map)) {
+            return false;
+        }
+        Map<String, Object> statusMap = (Map<String, Object>) status;
+        if (statusMap.get(STATUS) instanceof Map) {
+            statusMap = (Map<String, Object>) statusMap.get(STATUS);
+        }
+        Object code = statusMap.get(CODE);
+        return code instanceof Number && ((Number) code).intValue() == EngineError.VDS_NETWORK_ERROR.getValue();
+    }
+
+    @Override
+    public List<String> showHostStatistics() {
+        return hostStatistics.values()
+                .stream()
+                .map(HostStatistics::toString)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<String> showVerbLatencies() {
+        return verbStatistics.values()
+                .stream()
+                .map(VerbStatistics::toString)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Drops the statistics of a host that is no longer managed
+     */
+    public void hostRemoved(String hostName) {
+        hostStatistics.remove(hostName);
+    }
+
+    @Override
+    public void clear() {
+        hostStatistics.clear();
+        verbStatistics.clear();
+    }
+
+    /**
+     * A request in flight. Only the first of its outcomes is recorded, so it does not matter how many times the
+     * response of the request is read.
+     */
+    public static class SentRequest {
+
+        private final HostStatistics host;
+        private final VerbStatistics verb;
+        private final long sendTime = System.nanoTime();
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private SentRequest(HostStatistics host, VerbStatistics verb) {
+            this.host = host;
+            this.verb = verb;
+        }
+
+        public void responded() {
+            if (done.compareAndSet(false, true)) {
+                host.inFlight.decrement();
+                verb.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sendTime));
+            }
+        }
+
+        public void timedOut() {
+            if (done.compareAndSet(false, true)) {
+                host.inFlight.decrement();
+                host.timeouts.increment();
+                verb.timeouts.increment();
+            }
+        }
+
+        public void failed() {
+            if (done.compareAndSet(false, true)) {
+                host.inFlight.decrement();
+            }
+        }
+    }
+
+    private static class HostStatistics {
+
+        private final String hostName;
+        private final LongAdder inFlight = new LongAdder();
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder batchedRequests = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+
+        public HostStatistics(String hostName) {
+            this.hostName = hostName;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Host %s: in flight %d, sent %d, batches %d, batched requests %d, timeouts %d",
+                    hostName,
+                    inFlight.sum(),
+                    sent.sum(),
+                    batches.sum(),
+                    batchedRequests.sum(),
+                    timeouts.sum());
+        }
+    }
+
+    private static class VerbStatistics {
+
+        private final String verb;
+        private final LongAdder responses = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder totalLatency = new LongAdder();
+        private final LongAccumulator maxLatency = new LongAccumulator(Long::max, 0);
+        private final LongAdder[] buckets = new LongAdder[LATENCY_BUCKETS.length + 1];
+
+        public VerbStatistics(String verb) {
+            this.verb = verb;
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void record(long latency) {
+            int bucket = 0;
+            while (bucket < LATENCY_BUCKETS.length && latency >= LATENCY_BUCKETS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+            responses.increment();
+            totalLatency.add(latency);
+            maxLatency.accumulate(latency);
+        }
+
+        @Override
+        public String toString() {
+            long count = responses.sum();
+            StringBuilder builder = new StringBuilder(String.format(
+                    "Verb %s: responses %d, timeouts %d, average %d ms, max %d ms",
+                    verb,
+                    count,
+                    timeouts.sum(),
+                    count == 0 ? 0 : totalLatency.sum() / count,
+                    maxLatency.get()));
+            for (int i = 0; i < LATENCY_BUCKETS.length; i++) {
+                builder.append(String.format(", <%d ms %d", LATENCY_BUCKETS[i], buckets[i].sum()));
+            }
+            builder.append(String.format(", >=%d ms %d",
+                    LATENCY_BUCKETS[LATENCY_BUCKETS.length - 1],
+                    buckets[LATENCY_BUCKETS.length].sum()));
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.ovirt.engine.core.vdsbroker.jsonrpc;
+
+import java.util.List;
+
+/**
+ * The following interface is used as interface for JMX bean
+ */
+public interface JsonRpcStatisticsMXBean {
+
+    /**
+     * The following method will return the number of requests in flight, sent, batched and timed out, per host
+     */
+    List<String> showHostStatistics();
+
+    /**
+     * The following method will return the histogram of the round trip latency of the requests, per verb
+     */
+    List<String> showVerbLatencies();
+
+    /**
+     * The following method will allow to reset the collected statistics via JMX console
+     */
+    void clear();
+}
@@ -3,15 +3,23 @@ package org.ovirt.engine.core.vdsbroker.jsonrpc;
 import java.security.cert.Certificate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import org.apache.commons.httpclient.HttpClient;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.vdsbroker.HttpUtils;
@@ -81,6 +89,7 @@ import org.ovirt.vdsm.jsonrpc.client.BrokerCommandCallback;
 import org.ovirt.vdsm.jsonrpc.client.ClientConnectionException;
 import org.ovirt.vdsm.jsonrpc.client.JsonRpcClient;
 import org.ovirt.vdsm.jsonrpc.client.JsonRpcRequest;
+import org.ovirt.vdsm.jsonrpc.client.JsonRpcResponse;
 import org.ovirt.vdsm.jsonrpc.client.RequestBuilder;
 import org.ovirt.vdsm.jsonrpc.client.internal.ClientPolicy;
 import org.slf4j.Logger;
@@ -92,23 +101,142 @@ import org.slf4j.LoggerFactory;
  * Each method uses {@link RequestBuilder} to build request object and sends it
  * using client. The response is represented as {@link FutureMap} which is lazy
  * evaluated.
+ * The requests the monitoring sends every cycle are batched by {@link JsonRpcRequestBatcher},
+ * and all requests are recorded by {@link JsonRpcStatistics}.
+ * The verbs returning a {@link CompletableFuture} complete it once the response arrives, without holding the calling
+ * thread, from the callback of the request or, for the verbs whose responses are read through a {@link FutureMap},
+ * by {@link JsonRpcResponsePoller}. The others keep returning a {@link FutureMap}.
  *
  */
 public class JsonRpcVdsServer implements IVdsServer {
 
     private static final Logger logger = LoggerFactory.getLogger(JsonRpcVdsServer.class);
+
+    /**
+     * The independent read only verbs the monitoring of a host sends every cycle, which are sent to the host
+     * together.
+     */
+    private static final Set<String> BATCHED_VERBS = new HashSet<>(Arrays.asList(
+            "Host.getStats",
+            "Host.getAllVmStats",
+            "Host.getVMList",
+            "Host.getVMFullList",
+            "Host.getJobs",
+            "Host.getAllTasksStatuses",
+            "StorageDomain.getStats"));
+
+    /** Time in milliseconds between the checks of the responses awaited by the asynchronous verbs */
+    private static final long RESPONSE_POLL_INTERVAL = 20;
+
     private final JsonRpcClient client;
     private final HttpClient httpClient;
-
-    public JsonRpcVdsServer(JsonRpcClient client, HttpClient httpClient) {
+    private final JsonRpcStatistics statistics;
+    private final JsonRpcRequestBatcher batcher;
+    private final JsonRpcResponsePoller responsePoller;
+
+    public JsonRpcVdsServer(JsonRpcClient client,
+            HttpClient httpClient,
+            ScheduledExecutorService executorService,
+            JsonRpcStatistics statistics,
+            int batchWindow) {
         this.client = client;
         this.httpClient = httpClient;
+        this.statistics = statistics;
+        this.batcher = new JsonRpcRequestBatcher(client, executorService, statistics, batchWindow);
+        this.responsePoller = new JsonRpcResponsePoller(executorService, RESPONSE_POLL_INTERVAL);
+    }
+
+    /**
+     * Sends the request, batched with the other monitoring requests if it is one of them.
+     *
+     * @return the lazy evaluated response
+     * @throws TransportRunTimeException when there are connection issues.
+     */
+    private FutureMap send(JsonRpcRequest request) {
+        JsonRpcStatistics.SentRequest sentRequest = statistics.requestSent(client.getHostname(), request.getMethod());
+        Future<JsonRpcResponse> response;
+        if (BATCHED_VERBS.contains(request.getMethod())) {
+            response = batcher.submit(request);
+        } else {
+            try {
+                response = client.call(request);
+            } catch (ClientConnectionException e) {
+                sentRequest.failed();
+                throw new TransportRunTimeException("Connection issues during send request", e);
+            }
+        }
+        return new FutureMap(client, response, sentRequest);
+    }
+
+    /**
+     * Sends the request, its response is passed to the callback.
+     *
+     * @throws TransportRunTimeException when there are connection issues.
+     */
+    private void send(JsonRpcRequest request, BrokerCommandCallback callback) {
+        JsonRpcStatistics.SentRequest sentRequest = statistics.requestSent(client.getHostname(), request.getMethod());
+        try {
+            client.call(request, new BrokerCommandCallback() {
+
+                @Override
+                public void onResponse(Map<String, Object> response) {
+                    sentRequest.responded();
+                    callback.onResponse(response);
+                }
+
+                @Override
+                public void onFailure(Map<String, Object> response) {
+                    if (JsonRpcStatistics.isTimeout(response)) {
+                        sentRequest.timedOut();
+                    } else {
+                        sentRequest.responded();
+                    }
+                    callback.onFailure(response);
+                }
+            });
+        } catch (ClientConnectionException e) {
+            sentRequest.failed();
+            throw new TransportRunTimeException("Connection issues during send request", e);
+        }
+    }
+
+    /**
+     * Sends the request, the returned future is completed with its response once it arrives.
+     *
+     * @param toReturn
+     *            creates the return value from the response, or from the status alone when the request failed
+     * @throws TransportRunTimeException when there are connection issues.
+     */
+    private <T> CompletableFuture<T> sendAsync(JsonRpcRequest request, Function<Map<String, Object>, T> toReturn) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        send(request, new BrokerCommandCallback() {
+
+            @Override
+            public void onResponse(Map<String, Object> response) {
+                try {
+                    result.complete(toReturn.apply(response));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void onFailure(Map<String, Object> response) {
+                try {
+                    result.complete(toReturn.apply(Collections.singletonMap("status", response)));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+        });
+        return result;
     }
 
     @Override
     public void close() {
         HttpUtils.shutDownConnection(this.httpClient);
         this.client.close();
+        statistics.hostRemoved(client.getHostname());
     }
 
     @Override
@@ -140,7 +268,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("vmParams", createInfo)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("vmList");
+                send(request).withResponseKey("vmList");
         return new OneVmReturn(response);
     }
 
@@ -153,7 +281,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("destination", dst)
                         .withParameter("job_id", jobId)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -165,7 +293,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("vol_info", volumeInfo)
                         .withParameter("vol_attr", volumeAttributes)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -176,7 +304,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("job_id", jobId)
                         .withParameter("move_params", moveParams)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -188,7 +316,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("job_id", jobId)
                         .withParameter("reduce_params", reduceParams)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -199,14 +327,14 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("job_id", jobId)
                         .withParameter("subchain_info", subchainInfo)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
     @Override
     public StatusOnlyReturn destroy(String vmId) {
         JsonRpcRequest request = new RequestBuilder("VM.destroy").withParameter("vmID", vmId).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -217,7 +345,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withOptionalParameter("delay", timeout)
                         .withOptionalParameter("message", message)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -229,14 +357,14 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withOptionalParameter("message", message)
                         .withParameter("reboot", reboot)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
     @Override
     public StatusOnlyReturn setDestroyOnReboot(String vmId) {
         JsonRpcRequest request = new RequestBuilder("VM.setDestroyOnReboot").withParameter("vmID", vmId).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -246,7 +374,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("VM.hibernate").withParameter("vmID", vmId)
                         .withParameter("hibernationVolHandle", hiberVolHandle)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -254,7 +382,7 @@ public class JsonRpcVdsServer implements IVdsServer {
     public OneVmReturn resume(String vmId) {
         JsonRpcRequest request = new RequestBuilder("VM.cont").withParameter("vmID", vmId).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("vmList");
+                send(request).withResponseKey("vmList");
         return new OneVmReturn(response);
     }
 
@@ -264,7 +392,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("Host.getVMList").withOptionalParameterAsList("vmList",
                         new ArrayList<>(Arrays.asList(new String[]{}))).withParameter("onlyUUID", false).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("vmList")
+                send(request).withResponseKey("vmList")
                         .withResponseType(Object[].class);
         return new VMListReturn(response);
     }
@@ -274,7 +402,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request =
                 new RequestBuilder("Host.getVMFullList").withOptionalParameterAsList("vmList", vmIds).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("vmList")
+                send(request).withResponseKey("vmList")
                         .withResponseType(Object[].class);
         return new VMListReturn(response);
     }
@@ -283,61 +411,49 @@ public class JsonRpcVdsServer implements IVdsServer {
     public VDSInfoReturn getCapabilities() {
         JsonRpcRequest request = new RequestBuilder("Host.getCapabilities").build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("info");
+                send(request).withResponseKey("info");
         return new VDSInfoReturn(response);
     }
 
     @Override
-    public void getCapabilities(BrokerCommandCallback callback) {
+    public CompletableFuture<VDSInfoReturn> getCapabilitiesAsync() {
         JsonRpcRequest request = new RequestBuilder("Host.getCapabilities").build();
-        try {
-            client.call(request, callback);
-        } catch (ClientConnectionException e) {
-            throw new TransportRunTimeException("Connection issues during send request", e);
-        }
+        return sendAsync(request, VDSInfoReturn::new);
     }
 
     @Override
     public VDSInfoReturn getHardwareInfo() {
         JsonRpcRequest request = new RequestBuilder("Host.getHardwareInfo").build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("info");
+                send(request).withResponseKey("info");
         return new VDSInfoReturn(response);
     }
 
     @Override
-    public void getHardwareInfo(BrokerCommandCallback callback) {
+    public CompletableFuture<VDSInfoReturn> getHardwareInfoAsync() {
         JsonRpcRequest request = new RequestBuilder("Host.getHardwareInfo").build();
-        try {
-            client.call(request, callback);
-        } catch (ClientConnectionException e) {
-            throw new TransportRunTimeException("Connection issues during send request", e);
-        }
+        return sendAsync(request, VDSInfoReturn::new);
     }
 
     @Override
     public VDSInfoReturn getVdsStats() {
         JsonRpcRequest request = new RequestBuilder("Host.getStats").build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("info");
+                send(request).withResponseKey("info");
         return new VDSInfoReturn(response);
     }
 
     @Override
-    public void getVdsStats(BrokerCommandCallback callback) {
+    public CompletableFuture<VDSInfoReturn> getVdsStatsAsync() {
         JsonRpcRequest request = new RequestBuilder("Host.getStats").build();
-        try {
-            client.call(request, callback);
-        } catch (ClientConnectionException e) {
-            throw new TransportRunTimeException("Connection issues during send request", e);
-        }
+        return sendAsync(request, VDSInfoReturn::new);
     }
 
     @Override
     public StatusOnlyReturn setMOMPolicyParameters(Map<String, Object> values) {
         JsonRpcRequest request =
                 new RequestBuilder("Host.setMOMPolicyParameters").withParameter("key_value_store", values).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -349,7 +465,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("username", user)
                         .withParameter("password", password)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -359,7 +475,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("VM.desktopLogoff").withParameter("vmID", vmId)
                         .withParameter("force", force)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -367,24 +483,36 @@ public class JsonRpcVdsServer implements IVdsServer {
     public VMInfoListReturn getVmStats(String vmId) {
         JsonRpcRequest request = new RequestBuilder("VM.getStats").withParameter("vmID", vmId).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("statsList");
+                send(request).withResponseKey("statsList");
         return new VMInfoListReturn(response);
     }
 
     @Override
     public VMInfoListReturn getAllVmStats() {
+        return new VMInfoListReturn(sendGetAllVmStats());
+    }
+
+    @Override
+    public CompletableFuture<VMInfoListReturn> getAllVmStatsAsync() {
+        return responsePoller.whenDone(sendGetAllVmStats(), VMInfoListReturn::new);
+    }
+
+    private FutureMap sendGetAllVmStats() {
         JsonRpcRequest request = new RequestBuilder("Host.getAllVmStats").build();
-        Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("statsList")
-                        .withResponseType(Object[].class);
-        return new VMInfoListReturn(response);
+        FutureMap response = send(request).withResponseKey("statsList");
+        if (Config.<Boolean> getValue(ConfigValues.VmStatsStreamingDecoding)) {
+            response.withRawResult();
+        } else {
+            response.withResponseType(Object[].class);
+        }
+        return response;
     }
 
     @Override
     public HostDevListReturn hostDevListByCaps() {
         JsonRpcRequest request = new RequestBuilder("Host.hostdevListByCaps").build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("deviceList");
+                send(request).withResponseKey("deviceList");
         return new HostDevListReturn(response);
     }
 
@@ -394,14 +522,14 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("VM.migrate").withParameter("vmID", getVmId(migrationInfo))
                         .withParameter("params", migrationInfo)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
     @Override
     public MigrateStatusReturn migrateStatus(String vmId) {
         JsonRpcRequest request = new RequestBuilder("VM.getMigrationStatus").withParameter("vmID", vmId).build();
-        Map<String, Object> response = new FutureMap(this.client, request).withResponseKey("response")
+        Map<String, Object> response = send(request).withResponseKey("response")
                 .withResponseType(Long.class);
         return new MigrateStatusReturn(response);
     }
@@ -409,7 +537,7 @@ public class JsonRpcVdsServer implements IVdsServer {
     @Override
     public StatusOnlyReturn migrateCancel(String vmId) {
         JsonRpcRequest request = new RequestBuilder("VM.migrateCancel").withParameter("vmID", vmId).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -419,7 +547,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 .withParameter("driveSpec", imageLocation)
                 .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("vmList");
+                send(request).withResponseKey("vmList");
         return new OneVmReturn(response);
     }
 
@@ -429,7 +557,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 .withParameter("driveSpec", driveSpec)
                 .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("vmList");
+                send(request).withResponseKey("vmList");
         return new OneVmReturn(response);
     }
 
@@ -446,7 +574,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withOptionalParameterAsList("nics", new ArrayList<>(Arrays.asList(nics)))
                         .withOptionalParameterAsMap("options", options)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -458,7 +586,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 .withOptionalParameter("bond", bond)
                 .withOptionalParameterAsList("nics", new ArrayList<>(Arrays.asList(nics)))
                 .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -477,7 +605,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withOptionalParameterAsList("nics", new ArrayList<>(Arrays.asList(nics)))
                         .withOptionalParameterAsMap("options", options)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -520,7 +648,7 @@ public class JsonRpcVdsServer implements IVdsServer {
             if (isPolicyReset) {
                 updateHeartbeatPolicy(client.getClientRetryPolicy().clone(), false);
             }
-            return new FutureMap(client, request).withResponseKey("status");
+            return send(request).withResponseKey("status");
         });
         FutureTask<Map<String, Object>> future = new FutureTask<Map<String, Object>>(callable) {
 
@@ -548,7 +676,7 @@ public class JsonRpcVdsServer implements IVdsServer {
     @Override
     public StatusOnlyReturn setSafeNetworkConfig() {
         JsonRpcRequest request = new RequestBuilder("Host.setSafeNetworkConfig").build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -574,7 +702,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withOptionalParameterAsMap("policy", fencingPolicy)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
 
         return new FenceStatusReturn(response);
     }
@@ -589,7 +717,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("connectionParams", args)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("statuslist")
+                send(request).withResponseKey("statuslist")
                         .withResponseType(Object[].class);
         return new ServerConnectionStatusReturn(response);
     }
@@ -604,7 +732,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("connectionParams", args)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("statuslist")
+                send(request).withResponseKey("statuslist")
                         .withResponseType(Object[].class);
         return new ServerConnectionStatusReturn(response);
     }
@@ -624,7 +752,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("domainClass", storageType)
                         .withOptionalParameter("version", storageFormatType)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -634,7 +762,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("StorageDomain.format").withParameter("storagedomainID", sdUUID)
                         .withParameter("autoDetach", false)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -653,7 +781,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("masterVersion", masterVersion)
                         .withOptionalParameterAsMap("domainDict", storageDomains)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -664,7 +792,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("hostID", hostSpmId)
                         .withParameter("scsiKey", SCSIKey)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -693,7 +821,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("ioOpTimeoutSec", ioOpTimeoutSec)
                         .withParameter("leaseRetries", leaseRetries)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -722,7 +850,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("ioOpTimeoutSec", ioOpTimeoutSec)
                         .withParameter("leaseRetries", leaseRetries)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -731,7 +859,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request =
                 new RequestBuilder("StorageDomain.getStats").withParameter("storagedomainID", sdUUID).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("stats");
+                send(request).withResponseKey("stats");
         return new OneStorageDomainStatsReturn(response);
     }
 
@@ -740,7 +868,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request =
                 new RequestBuilder("StorageDomain.getInfo").withParameter("storagedomainID", sdUUID).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("info");
+                send(request).withResponseKey("info");
         return new OneStorageDomainInfoReturn(response);
     }
 
@@ -756,7 +884,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("remotePath", path)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("domlist")
+                send(request).withResponseKey("domlist")
                         .withResponseType(Object[].class);
         return new StorageDomainListReturn(response);
     }
@@ -769,7 +897,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("force", force)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("uuid");
+                send(request).withResponseKey("uuid");
         return new OneUuidReturn(response);
     }
 
@@ -778,7 +906,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request =
                 new RequestBuilder("LVMVolumeGroup.getInfo").withParameter("lvmvolumegroupID", vgUUID).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("info");
+                send(request).withResponseKey("info");
         return new OneVGReturn(response);
     }
 
@@ -793,7 +921,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("checkStatus", checkStatus)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseType(Object[].class)
+                send(request).withResponseType(Object[].class)
                         .withResponseKey("devList");
         return new LUNListReturn(response);
     }
@@ -804,7 +932,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("Host.getDevicesVisibility").withParameter("guidList",
                         new ArrayList<>(Arrays.asList(devicesList))).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("visible");
+                send(request).withResponseKey("visible");
         return new DevicesVisibilityMapReturn(response);
     }
 
@@ -816,7 +944,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withOptionalParameter("user", args.get("user"))
                         .withOptionalParameter("password", args.get("password"))
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request).withResponseKey("fullTargets");
+        Map<String, Object> response = send(request).withResponseKey("fullTargets");
         return new IQNListReturn(response);
     }
 
@@ -838,7 +966,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withOptionalParameter("domVersion", storagePoolFormatType)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("uuid")
+                send(request).withResponseKey("uuid")
                         .withResponseType(String.class);
         return new OneUuidReturn(response);
     }
@@ -847,7 +975,7 @@ public class JsonRpcVdsServer implements IVdsServer {
     public StatusOnlyReturn spmStop(String spUUID) {
         JsonRpcRequest request =
                 new RequestBuilder("StoragePool.spmStop").withParameter("storagepoolID", spUUID).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -856,7 +984,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request =
                 new RequestBuilder("StoragePool.getSpmStatus").withParameter("storagepoolID", spUUID).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("spm_st");
+                send(request).withResponseKey("spm_st");
         return new SpmStatusReturn(response);
     }
 
@@ -865,7 +993,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request = new RequestBuilder("Host.getJobs").withOptionalParameter("job_type", jobType).
                 withOptionalParameterAsList("job_ids", jobIds).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("jobs");
+                send(request).withResponseKey("jobs");
         return new HostJobsReturn(response);
     }
 
@@ -873,7 +1001,7 @@ public class JsonRpcVdsServer implements IVdsServer {
     public TaskStatusReturn getTaskStatus(String taskUUID) {
         JsonRpcRequest request = new RequestBuilder("Task.getStatus").withParameter("taskID", taskUUID).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("taskStatus");
+                send(request).withResponseKey("taskStatus");
         return new TaskStatusReturn(response);
     }
 
@@ -881,7 +1009,7 @@ public class JsonRpcVdsServer implements IVdsServer {
     public TaskStatusListReturn getAllTasksStatuses() {
         JsonRpcRequest request = new RequestBuilder("Host.getAllTasksStatuses").build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("allTasksStatus");
+                send(request).withResponseKey("allTasksStatus");
         return new TaskStatusListReturn(response);
     }
 
@@ -889,28 +1017,28 @@ public class JsonRpcVdsServer implements IVdsServer {
     public TaskInfoListReturn getAllTasksInfo() {
         JsonRpcRequest request = new RequestBuilder("Host.getAllTasksInfo").build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("allTasksInfo");
+                send(request).withResponseKey("allTasksInfo");
         return new TaskInfoListReturn(response);
     }
 
     @Override
     public StatusOnlyReturn stopTask(String taskUUID) {
         JsonRpcRequest request = new RequestBuilder("Task.stop").withParameter("taskID", taskUUID).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
     @Override
     public StatusOnlyReturn clearTask(String taskUUID) {
         JsonRpcRequest request = new RequestBuilder("Task.clear").withParameter("taskID", taskUUID).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
     @Override
     public StatusOnlyReturn revertTask(String taskUUID) {
         JsonRpcRequest request = new RequestBuilder("Task.revert").withParameter("taskID", taskUUID).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -922,7 +1050,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("force", true)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request);
+                send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -933,7 +1061,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("VM.hotplugDisk").withParameter("vmID", getVmId(info))
                         .withParameter("params", info)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -944,7 +1072,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("VM.hotunplugDisk").withParameter("vmID", getVmId(info))
                         .withParameter("params", info)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -955,7 +1083,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("VM.hotplugNic").withParameter("vmID", getVmId(info))
                         .withParameter("params", info)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new VmInfoReturn(response);
     }
 
@@ -966,7 +1094,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("VM.hotunplugNic").withParameter("vmID", getVmId(info))
                         .withParameter("params", info)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -977,7 +1105,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("VM.updateDevice").withParameter("vmID", vmId)
                         .withParameter("params", device)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1045,7 +1173,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withOptionalParameter("snapMemory", memory)
                         .withParameter("frozen", frozen)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1057,7 +1185,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("newSize", newSize)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("size");
+                send(request).withResponseKey("size");
         return new ImageSizeReturn(response);
     }
 
@@ -1072,7 +1200,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("bandwidth", bandwidth)
                         .withParameter("jobUUID", jobUUID)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1094,7 +1222,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("arbiter", isArbiter)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new OneUuidReturn(response);
     }
 
@@ -1105,7 +1233,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("option", key)
                         .withParameter("value", value)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1115,7 +1243,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("GlusterVolume.start").withParameter("volumeName", volumeName)
                         .withParameter("force", force)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1125,7 +1253,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("GlusterVolume.stop").withParameter("volumeName", volumeName)
                         .withParameter("force", force)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1133,7 +1261,7 @@ public class JsonRpcVdsServer implements IVdsServer {
     public StatusOnlyReturn glusterVolumeDelete(String volumeName) {
         JsonRpcRequest request =
                 new RequestBuilder("GlusterVolume.delete").withParameter("volumeName", volumeName).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1144,7 +1272,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("option", volumeOption)
                         .withParameter("force", force)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1152,7 +1280,7 @@ public class JsonRpcVdsServer implements IVdsServer {
     public GlusterVolumeOptionsInfoReturn glusterVolumeSetOptionsList() {
         JsonRpcRequest request = new RequestBuilder("GlusterVolume.setOptionsList").build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterVolumeOptionsInfoReturn(response);
     }
 
@@ -1170,7 +1298,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("replicaCount", replicaCount)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterTaskInfoReturn(response);
     }
 
@@ -1183,7 +1311,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("brickList", new ArrayList<>(Arrays.asList(brickList)))
                         .withParameter("replicaCount", replicaCount)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new GlusterVolumeTaskReturn(response);
     }
 
@@ -1196,7 +1324,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("brickList", new ArrayList<>(Arrays.asList(brickList)))
                         .withParameter("replicaCount", replicaCount)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1213,7 +1341,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("stripeCount", stripeCount)
                         .withParameter("force", force)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1227,21 +1355,21 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("force", force)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterTaskInfoReturn(response);
     }
 
     @Override
     public BooleanReturn glusterVolumeEmptyCheck(String volumeName) {
         JsonRpcRequest request = new RequestBuilder("GlusterVolume.volumeEmptyCheck").withParameter("volumeName", volumeName).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new BooleanReturn(response, "volumeEmptyCheck");
     }
 
     @Override
     public GlusterHostsPubKeyReturn glusterGeoRepKeysGet() {
         JsonRpcRequest request = new RequestBuilder("GlusterVolume.geoRepKeysGet").build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new GlusterHostsPubKeyReturn(response);
     }
 
@@ -1251,7 +1379,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("GlusterVolume.geoRepKeysUpdate")
                         .withParameter("geoRepPubKeys", geoRepPubKeys)
                         .withOptionalParameter("userName", userName).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1262,7 +1390,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("partial", partial)
                         .withOptionalParameter("remoteUserName", userName)
                         .withOptionalParameter("remoteGroupName", remoteGroupName).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1274,7 +1402,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 .withParameter("remoteVolumeName", remotVolumeName)
                 .withParameter("force", force)
                 .withOptionalParameter("remoteUserName", userName).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1289,7 +1417,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("remoteVolumeName", slaveVolumeName)
                         .withOptionalParameter("remoteUserName", userName)
                         .withParameter("force", force).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1298,7 +1426,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request =
                 new RequestBuilder("GlusterVolume.rebalanceStop").withParameter("volumeName", volumeName).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterVolumeTaskReturn(response);
     }
 
@@ -1311,7 +1439,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("existingBrick", existingBrickDir)
                         .withParameter("newBrick", newBrickDir)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1321,14 +1449,14 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("GlusterHost.remove").withParameter("hostName", hostName)
                         .withParameter("force", force)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
     @Override
     public StatusOnlyReturn glusterHostAdd(String hostName) {
         JsonRpcRequest request = new RequestBuilder("GlusterHost.add").withParameter("hostName", hostName).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1344,7 +1472,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 .withOptionalParameter("remoteUserName", userName)
                 .build();
 
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1362,7 +1490,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 .withParameter("force", force)
                 .build();
 
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1370,7 +1498,7 @@ public class JsonRpcVdsServer implements IVdsServer {
     public GlusterServersListReturn glusterServersList() {
         JsonRpcRequest request = new RequestBuilder("GlusterHost.list").build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterServersListReturn(response);
     }
 
@@ -1382,7 +1510,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("srcDisk", srcDisk)
                         .withParameter("dstDisk", dstDisk)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1394,7 +1522,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("srcDisk", srcDisk)
                         .withParameter("dstDisk", dstDisk)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1402,7 +1530,7 @@ public class JsonRpcVdsServer implements IVdsServer {
     public StatusOnlyReturn glusterVolumeProfileStart(String volumeName) {
         JsonRpcRequest request =
                 new RequestBuilder("GlusterVolume.profileStart").withParameter("volumeName", volumeName).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1410,7 +1538,7 @@ public class JsonRpcVdsServer implements IVdsServer {
     public StatusOnlyReturn glusterVolumeProfileStop(String volumeName) {
         JsonRpcRequest request =
                 new RequestBuilder("GlusterVolume.profileStop").withParameter("volumeName", volumeName).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1425,7 +1553,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("remoteVolumeName", slaveVolumeName)
                         .withOptionalParameter("remoteUserName", userName)
                         .withParameter("force", force).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1440,7 +1568,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("remoteVolumeName", remoteVolumeName)
                         .withOptionalParameter("remoteUserName", userName)
                         .withParameter("force", force).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1458,7 +1586,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 .withParameter("optionName", configKey)
                 .withParameter("optionValue", configValue)
                 .withOptionalParameter("remoteUserName", userName).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1476,7 +1604,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 .withOptionalParameter("remoteUserName", userName)
                 .build();
 
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1491,7 +1619,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 .withParameter("remoteVolumeName", slaveVolumeName)
                 .withOptionalParameter("remoteUserName", userName)
                 .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new GlusterVolumeGeoRepConfigList(response);
     }
 
@@ -1506,7 +1634,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("statusOption", volumeStatusOption)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterVolumeStatusReturn(clusterId, response);
     }
 
@@ -1514,7 +1642,7 @@ public class JsonRpcVdsServer implements IVdsServer {
     public GlusterLocalLogicalVolumeListReturn glusterLogicalVolumeList() {
         JsonRpcRequest request = new RequestBuilder("GlusterHost.logicalVolumeList").build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterLocalLogicalVolumeListReturn(response);
     }
 
@@ -1522,14 +1650,14 @@ public class JsonRpcVdsServer implements IVdsServer {
     public GlusterLocalPhysicalVolumeListReturn glusterPhysicalVolumeList() {
         JsonRpcRequest request = new RequestBuilder("GlusterHost.physicalVolumeList").build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterLocalPhysicalVolumeListReturn(response);
     }
 
     @Override public GlusterVDOVolumeListReturn glusterVDOVolumeList() {
         JsonRpcRequest request = new RequestBuilder("GlusterHost.vdoVolumeList").build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterVDOVolumeListReturn(response);
     }
 
@@ -1537,7 +1665,7 @@ public class JsonRpcVdsServer implements IVdsServer {
     public GlusterVolumesListReturn glusterVolumesList(Guid clusterId) {
         JsonRpcRequest request = new RequestBuilder("GlusterVolume.list").build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterVolumesListReturn(clusterId, response);
     }
 
@@ -1546,7 +1674,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request =
                 new RequestBuilder("GlusterVolume.list").withParameter("volumeName", volumeName).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterVolumesListReturn(clusterId, response);
     }
 
@@ -1555,7 +1683,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request =
                 new RequestBuilder("GlusterVolume.healInfo").withParameter("volumeName", volumeName).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterVolumesHealInfoReturn(response);
     }
 
@@ -1565,7 +1693,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("GlusterVolume.profileInfo").withParameter("volumeName", volumeName)
                 .withParameter("nfs", nfs).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterVolumeProfileInfoReturn(clusterId, response);
     }
 
@@ -1576,7 +1704,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("hookLevel", stage)
                         .withParameter("hookName", hookName)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1587,7 +1715,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("hookLevel", stage)
                         .withParameter("hookName", hookName)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1595,7 +1723,7 @@ public class JsonRpcVdsServer implements IVdsServer {
     public GlusterHooksListReturn glusterHooksList() {
         JsonRpcRequest request = new RequestBuilder("GlusterHook.list").build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterHooksListReturn(response);
     }
 
@@ -1603,7 +1731,7 @@ public class JsonRpcVdsServer implements IVdsServer {
     public OneUuidReturn glusterHostUUIDGet() {
         JsonRpcRequest request = new RequestBuilder("GlusterHost.uuid").build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new OneUuidReturn(response);
     }
 
@@ -1613,7 +1741,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("GlusterService.get").withParameter("serviceNames",
                         new ArrayList<>(Arrays.asList(serviceNames))).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterServicesReturn(serverId, response);
     }
 
@@ -1625,7 +1753,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("hookName", hookName)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterHookContentInfoReturn(response);
     }
 
@@ -1642,7 +1770,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("hookData", content)
                         .withParameter("hookMd5Sum", checksum)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1661,7 +1789,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("hookMd5Sum", checksum)
                         .withParameter("enable", enabled)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1672,7 +1800,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("hookLevel", stage)
                         .withParameter("hookName", hookName)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1684,7 +1812,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("action", actionType)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterServicesReturn(serverId, response);
     }
 
@@ -1693,7 +1821,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request =
                 new RequestBuilder("StoragePool.getInfo").withParameter("storagepoolID", spUUID).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new StoragePoolInfo(response);
     }
 
@@ -1701,7 +1829,7 @@ public class JsonRpcVdsServer implements IVdsServer {
     public GlusterTasksListReturn glusterTasksList() {
         JsonRpcRequest request = new RequestBuilder("GlusterTask.list").build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterTasksListReturn(response);
     }
 
@@ -1710,14 +1838,14 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request =
                 new RequestBuilder("GlusterVolume.rebalanceStatus").withParameter("volumeName", volumeName).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterVolumeTaskReturn(response);
     }
 
     @Override
     public GlusterVolumeGeoRepStatus glusterVolumeGeoRepSessionList() {
         JsonRpcRequest request = new RequestBuilder("GlusterVolume.geoRepSessionList").build();
-        Map<String, Object> response = new FutureMap(this.client, request).withIgnoreResponseKey();
+        Map<String, Object> response = send(request).withIgnoreResponseKey();
         return new GlusterVolumeGeoRepStatus(response);
     }
 
@@ -1726,7 +1854,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request = new RequestBuilder("GlusterVolume.geoRepSessionList")
                 .withParameter("volumeName", volumeName)
                     .build();
-        Map<String, Object> response = new FutureMap(this.client, request).withIgnoreResponseKey();
+        Map<String, Object> response = send(request).withIgnoreResponseKey();
         return new GlusterVolumeGeoRepStatus(response);
     }
 
@@ -1740,7 +1868,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("remoteHost", slaveHost)
                         .withParameter("remoteVolumeName", slaveVolumeName)
                         .withOptionalParameter("remoteUserName", userName).build();
-        Map<String, Object> response = new FutureMap(this.client, request).withIgnoreResponseKey();
+        Map<String, Object> response = send(request).withIgnoreResponseKey();
         return new GlusterVolumeGeoRepStatus(response);
     }
 
@@ -1754,7 +1882,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("remoteHost", slaveHost)
                         .withParameter("remoteVolumeName", slaveVolumeName)
                         .withOptionalParameter("remoteUserName", userName).build();
-        Map<String, Object> response = new FutureMap(this.client, request).withIgnoreResponseKey();
+        Map<String, Object> response = send(request).withIgnoreResponseKey();
         return new GlusterVolumeGeoRepStatusDetail(response);
     }
 
@@ -1765,7 +1893,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("brickList", new ArrayList<>(Arrays.asList(bricksList)))
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterVolumeTaskReturn(response);
     }
 
@@ -1776,7 +1904,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("numberOfCpus", numberOfCpus)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request);
+                send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1789,7 +1917,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("params", info)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request);
+                send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1801,7 +1929,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("params", params)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request);
+                send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1813,7 +1941,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("params", params)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request);
+                send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1824,7 +1952,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("enabled", enabled)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request);
+                send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1847,7 +1975,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("ticket", ticketDict)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request);
+                send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1858,7 +1986,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("uuid", ticketId)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request);
+                send(request);
         return new StatusOnlyReturn(response);
 
     }
@@ -1871,7 +1999,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("timeout", timeout)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request);
+                send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1881,7 +2009,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("Host.get_image_ticket")
                         .withParameter("uuid", ticketId)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request)
+        Map<String, Object> response = send(request)
                 .withResponseKey("result");
         return new ImageTicketInformationReturn(response);
     }
@@ -1898,7 +2026,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("allowIllegal", allowIllegal)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request);
+                send(request);
         return new PrepareImageReturn(response);
     }
 
@@ -1912,7 +2040,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("leafVolID", volumeID)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request);
+                send(request);
         return new StatusReturn(response);
     }
 
@@ -1926,7 +2054,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("volumeID", volumeID)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request);
+                send(request);
         return new StatusReturn(response);
     }
 
@@ -1940,7 +2068,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request = requestBuilder.build();
 
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("vmList")
+                send(request).withResponseKey("vmList")
                         .withResponseType(Object[].class);
         return new VMListReturn(response);
     }
@@ -1954,7 +2082,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("password", password)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("vmNames")
+                send(request).withResponseKey("vmNames")
                         .withResponseType(Object[].class);
         return new VMNamesListReturn(response);
     }
@@ -1964,7 +2092,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request =
                 new RequestBuilder("GlusterVolume.snapshotList").withOptionalParameter("volumeName", volumeName)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request).withIgnoreResponseKey();
+        Map<String, Object> response = send(request).withIgnoreResponseKey();
         return new GlusterVolumeSnapshotInfoReturn(clusterId, response);
     }
 
@@ -1972,7 +2100,7 @@ public class JsonRpcVdsServer implements IVdsServer {
     public GlusterVolumeSnapshotConfigReturn glusterSnapshotConfigList(Guid clusterId) {
         JsonRpcRequest request =
                 new RequestBuilder("GlusterSnapshot.configList").build();
-        Map<String, Object> response = new FutureMap(this.client, request).withIgnoreResponseKey();
+        Map<String, Object> response = send(request).withIgnoreResponseKey();
         return new GlusterVolumeSnapshotConfigReturn(clusterId, response);
     }
 
@@ -1982,7 +2110,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("GlusterSnapshot.delete").withOptionalParameter("snapName", snapshotName)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request);
+                send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -1991,7 +2119,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request =
                 new RequestBuilder("GlusterVolume.snapshotDeleteAll").withParameter("volumeName", volumeName)
                     .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2002,7 +2130,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("force", force)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request);
+                send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2012,7 +2140,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("GlusterSnapshot.deactivate").withParameter("snapName", snapshotName)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request);
+                send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2021,7 +2149,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request =
                 new RequestBuilder("GlusterSnapshot.restore").withParameter("snapName", snapshotName)
                     .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2037,7 +2165,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("force", force)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withIgnoreResponseKey();
+                send(request).withIgnoreResponseKey();
         return new GlusterVolumeSnapshotCreateReturn(response);
     }
 
@@ -2049,7 +2177,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("optionValue", configValue)
                         .build();
 
-        Map<String, Object> response = new FutureMap(this.client, request).withIgnoreResponseKey();
+        Map<String, Object> response = send(request).withIgnoreResponseKey();
         return new StatusOnlyReturn(response);
     }
 
@@ -2060,14 +2188,14 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("optionValue", configValue)
                         .build();
 
-        Map<String, Object> response = new FutureMap(this.client, request).withIgnoreResponseKey();
+        Map<String, Object> response = send(request).withIgnoreResponseKey();
         return new StatusOnlyReturn(response);
     }
 
     @Override
     public StorageDeviceListReturn glusterStorageDeviceList() {
         JsonRpcRequest request = new RequestBuilder("GlusterHost.storageDevicesList").build();
-        Map<String, Object> response = new FutureMap(this.client, request).withIgnoreResponseKey();
+        Map<String, Object> response = send(request).withIgnoreResponseKey();
         return new StorageDeviceListReturn(response);
     }
 
@@ -2082,7 +2210,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 .withParameter("fsType", fsType)
                 .withOptionalParameterAsMap("raidParams", raidParams).build();
 
-        Map<String, Object> response = new FutureMap(this.client, request).withIgnoreResponseKey();
+        Map<String, Object> response = send(request).withIgnoreResponseKey();
         return new OneStorageDeviceReturn(response);
     }
 
@@ -2092,7 +2220,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("Host.hostdevChangeNumvfs").withParameter("deviceName", deviceName)
                         .withParameter("numvfs", numOfVfs)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2110,7 +2238,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         .withParameter("vminfo", vm)
         .withParameter("jobid", jobUUID)
         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2122,7 +2250,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         .withParameter("vminfo", vm)
         .withParameter("jobid", jobUUID)
         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2133,7 +2261,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         .withParameter("jobid", jobUUID)
         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request)
+                send(request)
         .withResponseKey("ovf")
         .withResponseType(String.class);
         return new OvfReturn(response);
@@ -2145,7 +2273,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("Host.deleteV2VJob")
         .withParameter("jobid", jobUUID)
         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2155,7 +2283,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("Host.abortV2VJob")
         .withParameter("jobid", jobUUID)
         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2164,7 +2292,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request =
                 new RequestBuilder("GlusterVolume.snapshotScheduleOverride").withParameter("force", force).build();
 
-        Map<String, Object> response = new FutureMap(this.client, request).withIgnoreResponseKey();
+        Map<String, Object> response = send(request).withIgnoreResponseKey();
         return new StatusOnlyReturn(response);
     }
 
@@ -2173,7 +2301,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request =
                 new RequestBuilder("GlusterVolume.snapshotScheduleReset").build();
 
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2183,7 +2311,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("Host.registerSecrets").withParameter("secrets", libvirtSecrets)
                         .withParameter("clear", clearUnusedSecrets)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2192,7 +2320,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request =
                 new RequestBuilder("Host.unregisterSecrets").withParameter("uuids", libvirtSecretsUuids)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2201,7 +2329,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request =
                 new RequestBuilder("VM.freeze").withParameter("vmID", vmId)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2210,7 +2338,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request =
                 new RequestBuilder("VM.thaw").withParameter("vmID", vmId)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2223,7 +2351,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("dstImageID", dstImageID)
                         .withParameter("volumeID", volumeID).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request);
+                send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2236,7 +2364,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 .withParameter("volumeID", volUUID)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request);
+                send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2247,7 +2375,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("ova_path", ovaPath)
                         .build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("vmList")
+                send(request).withResponseKey("vmList")
                 .withResponseType(Object[].class);
         return new OneVmReturn(response);
     }
@@ -2261,7 +2389,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("imageID", imgUUID)
                         .withParameter("volumeID", volUUID)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2274,7 +2402,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("imageID", imgUUID)
                         .withParameter("volumeID", volUUID)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new VolumeInfoReturn(response);
     }
 
@@ -2287,7 +2415,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("imageID", imgUUID)
                         .withParameter("volumeID", volUUID)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new QemuImageInfoReturn(response);
     }
 
@@ -2295,7 +2423,7 @@ public class JsonRpcVdsServer implements IVdsServer {
     public StatusOnlyReturn glusterStopProcesses() {
         JsonRpcRequest request =
                 new RequestBuilder("GlusterHost.processesStop").build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2306,7 +2434,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("job_id", jobId)
                         .withParameter("vol_info", volumeAddress)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2318,7 +2446,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("vol_info", volInfo)
                         .withParameter("qcow2_attr", qcow2_attr)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2331,7 +2459,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                         .withParameter("sp_id", storagePoolId)
                         .withOptionalParameterAsList("images", images)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2340,7 +2468,7 @@ public class JsonRpcVdsServer implements IVdsServer {
         JsonRpcRequest request =
                 new RequestBuilder("Host.dumpxmls").withOptionalParameterAsList("vmList", vmIds).build();
         Map<String, Object> response =
-                new FutureMap(this.client, request).withResponseKey("domxmls")
+                send(request).withResponseKey("domxmls")
                         .withResponseType(Object[].class);
         return new DomainXmlListReturn(response);
     }
@@ -2351,7 +2479,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("VM.hotplugLease").withParameter("vmID", vmId.toString())
                         .withParameter("lease", createLeaseDict(vmId, storageDomainId))
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2362,7 +2490,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 .withParameter("url", url)
                 .withParameter("bearerToken", bearerToken)
                 .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2372,14 +2500,14 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("VM.hotunplugLease").withParameter("vmID", vmId.toString())
                         .withParameter("lease", createLeaseDict(vmId, storageDomainId))
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
     public StatusOnlyReturn glusterWebhookSync() {
         JsonRpcRequest request =
                 new RequestBuilder("GlusterEvent.webhookSync").build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2398,7 +2526,7 @@ public class JsonRpcVdsServer implements IVdsServer {
 
         JsonRpcRequest request = new RequestBuilder("Host.getLldp")
                 .withParameter("filter", filter).build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new LldpReturn(response);
     }
 
@@ -2408,7 +2536,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("GlusterEvent.webhookDelete")
                 .withParameter("url", url)
                 .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2419,7 +2547,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 .withParameter("url", url)
                 .withParameter("bearerToken", bearerToken)
                 .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2430,7 +2558,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("GlusterVolume.resetBrickStart").withParameter("volumeName", volumeName)
                         .withParameter("existingBrick", existingBrickDir)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 
@@ -2441,7 +2569,7 @@ public class JsonRpcVdsServer implements IVdsServer {
                 new RequestBuilder("GlusterVolume.resetBrickCommitForce").withParameter("volumeName", volumeName)
                         .withParameter("existingBrick", existingBrickDir)
                         .build();
-        Map<String, Object> response = new FutureMap(this.client, request);
+        Map<String, Object> response = send(request);
         return new StatusOnlyReturn(response);
     }
 }
@@ -104,7 +104,7 @@ public class EventVmStatsRefresher extends VmStatsRefresher {
             private VdsmVm createVdsmVm(VmDynamic dbVmDynamic, Map<String, Object> struct, Double notifyTime) {
                 // send a clone of vm dynamic to be overridden with new data
                 VmDynamic clonedVmDynamic = new VmDynamic(dbVmDynamic);
-                vdsBrokerObjectsBuilder.updateVMDynamicData(clonedVmDynamic, struct, vdsManager.getCopyVds());
+                vdsBrokerObjectsBuilder.updateVMDynamicData(clonedVmDynamic, struct, vdsManager.getSnapshot().getVds());
                 return new VdsmVm(notifyTime)
                         .setVmDynamic(clonedVmDynamic)
                         .setDevicesHash(vdsBrokerObjectsBuilder.getVmDevicesHash(struct));
@@ -259,7 +259,8 @@ public class HostMonitoring {
 
         if (saveVdsStatistics) {
             VdsStatistics stat = vds.getStatisticsData();
-            vdsManager.updateStatisticsData(stat);
+            // the statistics are written along with the ones of other hosts unless the dynamic data changed
+            vdsManager.updateStatisticsData(stat, saveVdsDynamic);
             checkVdsMemoryThreshold(stat);
             checkVdsCpuThreshold(stat);
             checkVdsNetworkThreshold(stat);
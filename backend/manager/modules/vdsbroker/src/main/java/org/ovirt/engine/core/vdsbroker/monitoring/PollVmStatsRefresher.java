@@ -3,6 +3,7 @@ package org.ovirt.engine.core.vdsbroker.monitoring;
 import java.util.List;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 import javax.enterprise.concurrent.ManagedScheduledExecutorService;
@@ -30,6 +31,7 @@ public class PollVmStatsRefresher extends VmStatsRefresher {
     @ThreadPools(ThreadPools.ThreadPoolType.EngineScheduledThreadPool)
     private ManagedScheduledExecutorService schedulerService;
     private ScheduledFuture vmsMonitoringJob;
+    private final AtomicBoolean polling = new AtomicBoolean();
 
     public PollVmStatsRefresher(VdsManager vdsManager) {
         super(vdsManager);
@@ -37,17 +39,38 @@ public class PollVmStatsRefresher extends VmStatsRefresher {
 
     @OnTimerMethodAnnotation("poll")
     public void poll() {
-        if (isMonitoringNeeded(vdsManager.getStatus())) {
-            VmsListFetcher fetcher = new VmsStatisticsFetcher(vdsManager);
+        if (!isMonitoringNeeded(vdsManager.getStatus())) {
+            return;
+        }
+        // the VMs are fetched without holding the thread, skip the poll while the previous one is still running
+        if (!polling.compareAndSet(false, true)) {
+            log.debug("VMs of host '{}' are still being fetched - skipping this poll.", vdsManager.getVdsName());
+            return;
+        }
+
+        VmsStatisticsFetcher fetcher = new VmsStatisticsFetcher(vdsManager);
+        long fetchTime = System.nanoTime();
+        try {
+            fetcher.fetchAsync(fetched -> {
+                try {
+                    onFetched(fetcher, fetched, fetchTime);
+                } finally {
+                    polling.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            polling.set(false);
+            throw e;
+        }
+    }
 
-            long fetchTime = System.nanoTime();
-            if (fetcher.fetch()) {
-                getVmsMonitoring().perform(fetcher.getChangedVms(), fetchTime, vdsManager, true);
-                Stream<VdsmVm> vdsmVmsToMonitor = filterVmsToDevicesMonitoring(fetcher.getChangedVms());
-                processDevices(vdsmVmsToMonitor, fetchTime);
-            } else {
-                log.info("Failed to fetch vms info for host '{}' - skipping VMs monitoring.", vdsManager.getVdsName());
-            }
+    private void onFetched(VmsListFetcher fetcher, boolean fetched, long fetchTime) {
+        if (fetched) {
+            getVmsMonitoring().perform(fetcher.getChangedVms(), fetchTime, vdsManager, true);
+            Stream<VdsmVm> vdsmVmsToMonitor = filterVmsToDevicesMonitoring(fetcher.getChangedVms());
+            processDevices(vdsmVmsToMonitor, fetchTime);
+        } else {
+            log.info("Failed to fetch vms info for host '{}' - skipping VMs monitoring.", vdsManager.getVdsName());
         }
     }
 
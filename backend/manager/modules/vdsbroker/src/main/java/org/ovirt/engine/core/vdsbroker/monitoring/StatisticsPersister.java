@@ -0,0 +1,242 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.ovirt.engine.core.common.businessentities.VdsStatistics;
+import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.VdsStatisticsDao;
+import org.ovirt.engine.core.dao.VmStatisticsDao;
+import org.ovirt.engine.core.utils.threadpool.ThreadPools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the host and VM statistics reported by the monitoring of all the hosts and writes them to the database
+ * in a few large batches, instead of a small transaction per host and refresh.
+ *
+ * Only the most recent statistics of every host and VM are kept until they are written, every
+ * {@link ConfigValues#StatisticsPersistenceIntervalInMillis}. Statistics that are saved immediately, i.e. when the
+ * status of the host or VM changed, replace the pending ones and are written right away. When more than
+ * {@link ConfigValues#StatisticsPersistenceMaxPending} statistics are pending, the monitoring thread that adds
+ * statistics writes them by itself, slowing the monitoring down until the database catches up.
+ *
+ * The statistics of a host or VM are written by one thread at a time, so older statistics never override newer
+ * ones. Statistics saved immediately while older ones of the same host or VM are written are written by the writing
+ * thread once it is done, other hosts and VMs are not held up.
+ */
+@Singleton
+public class StatisticsPersister {
+
+    private static final Logger log = LoggerFactory.getLogger(StatisticsPersister.class);
+
+    @Inject
+    private VdsStatisticsDao vdsStatisticsDao;
+    @Inject
+    private VmStatisticsDao vmStatisticsDao;
+    @Inject
+    @ThreadPools(ThreadPools.ThreadPoolType.EngineScheduledThreadPool)
+    private ManagedScheduledExecutorService executor;
+
+    private final PendingStatistics<VdsStatistics> pendingVdsStatistics =
+            new PendingStatistics<>(VdsStatistics::getId);
+    private final PendingStatistics<VmStatistics> pendingVmStatistics = new PendingStatistics<>(VmStatistics::getId);
+
+    private int maxPending;
+    private ScheduledFuture<?> flushJob;
+
+    @PostConstruct
+    void init() {
+        maxPending = Config.<Integer> getValue(ConfigValues.StatisticsPersistenceMaxPending);
+        int interval = Config.<Integer> getValue(ConfigValues.StatisticsPersistenceIntervalInMillis);
+        if (interval > 0) {
+            flushJob = executor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (flushJob != null) {
+            flushJob.cancel(false);
+        }
+        flush();
+    }
+
+    /**
+     * Saves the statistics of a host
+     * @param statistics - the statistics to save, they are copied since the monitoring keeps updating them
+     * @param immediately - whether to write the statistics right away or let them be written with the next batch
+     */
+    public void saveVdsStatistics(VdsStatistics statistics, boolean immediately) {
+        pendingVdsStatistics.add(new VdsStatistics(statistics));
+        if (immediately || flushJob == null) {
+            pendingVdsStatistics.write(Collections.singletonList(statistics.getId()), this::updateVdsStatistics);
+        } else {
+            applyBackpressure();
+        }
+    }
+
+    /**
+     * Saves the statistics of VMs
+     * @param statistics - the statistics to save, they are copied since the monitoring keeps updating them
+     * @param immediately - whether to write the statistics right away or let them be written with the next batch
+     */
+    public void saveVmStatistics(Collection<VmStatistics> statistics, boolean immediately) {
+        if (statistics.isEmpty()) {
+            return;
+        }
+
+        statistics.forEach(stats -> pendingVmStatistics.add(new VmStatistics(stats)));
+        if (immediately || flushJob == null) {
+            pendingVmStatistics.write(statistics.stream().map(VmStatistics::getId).collect(Collectors.toList()),
+                    vmStatisticsDao::updateAllInBatch);
+        } else {
+            applyBackpressure();
+        }
+    }
+
+    /**
+     * Writes the pending statistics of the given host, if any, so they are not lost when the host
+     * is reloaded from the database
+     */
+    public void flushVdsStatistics(Guid vdsId) {
+        pendingVdsStatistics.write(Collections.singletonList(vdsId), this::updateVdsStatistics);
+    }
+
+    private void updateVdsStatistics(List<VdsStatistics> statistics) {
+        statistics.forEach(vdsStatisticsDao::update);
+    }
+
+    private void applyBackpressure() {
+        if (pendingVdsStatistics.size() + pendingVmStatistics.size() > maxPending) {
+            log.debug("Too many statistics are pending, writing them by the monitoring thread");
+            flush();
+        }
+    }
+
+    /**
+     * Writes all the pending statistics in batches, the statistics that failed to be written are kept pending
+     * unless newer ones were added meanwhile
+     */
+    public void flush() {
+        try {
+            int vdsCount = pendingVdsStatistics.writeAll(vdsStatisticsDao::updateAllInBatch);
+            int vmCount = pendingVmStatistics.writeAll(vmStatisticsDao::updateAllInBatch);
+            if (vdsCount > 0 || vmCount > 0) {
+                log.debug("Saved statistics of {} hosts and {} VMs", vdsCount, vmCount);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to save statistics: {}", e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    /**
+     * The statistics waiting to be written, by the id of their host or VM. A writer claims the ids it writes, the
+     * ids claimed by another writer are marked as deferred and that writer writes their newer statistics, if any,
+     * after its own.
+     */
+    private static class PendingStatistics<T> {
+
+        private final Map<Guid, T> pending = new ConcurrentHashMap<>();
+        private final Set<Guid> writing = ConcurrentHashMap.newKeySet();
+        private final Set<Guid> deferred = ConcurrentHashMap.newKeySet();
+        private final Function<T, Guid> getId;
+
+        PendingStatistics(Function<T, Guid> getId) {
+            this.getId = getId;
+        }
+
+        void add(T statistics) {
+            pending.put(getId.apply(statistics), statistics);
+        }
+
+        int size() {
+            return pending.size();
+        }
+
+        int writeAll(Consumer<List<T>> update) {
+            return write(new ArrayList<>(pending.keySet()), update);
+        }
+
+        /**
+         * Writes the pending statistics of the given ids that are not written by another writer. The statistics
+         * that failed to be written are kept pending unless newer ones were added meanwhile.
+         *
+         * @return the number of statistics written
+         */
+        int write(Collection<Guid> ids, Consumer<List<T>> update) {
+            int written = 0;
+            Collection<Guid> toWrite = ids;
+            while (!toWrite.isEmpty()) {
+                List<Guid> claimed = new ArrayList<>(toWrite.size());
+                List<T> statistics = new ArrayList<>(toWrite.size());
+                for (Guid id : toWrite) {
+                    if (!claim(id)) {
+                        continue;
+                    }
+                    T stats = pending.remove(id);
+                    if (stats == null) {
+                        release(id);
+                    } else {
+                        claimed.add(id);
+                        statistics.add(stats);
+                    }
+                }
+                if (statistics.isEmpty()) {
+                    break;
+                }
+
+                try {
+                    update.accept(statistics);
+                } catch (RuntimeException e) {
+                    statistics.forEach(stats -> pending.putIfAbsent(getId.apply(stats), stats));
+                    throw e;
+                } finally {
+                    claimed.forEach(this::release);
+                }
+                written += statistics.size();
+                // write the statistics other writers left to this one while it was writing
+                toWrite = claimed.stream().filter(deferred::remove).collect(Collectors.toList());
+            }
+            return written;
+        }
+
+        private boolean claim(Guid id) {
+            if (writing.add(id)) {
+                return true;
+            }
+            // mark the id before checking again, so either the writer sees the mark when it is done or the id is
+            // claimed here
+            deferred.add(id);
+            if (writing.add(id)) {
+                deferred.remove(id);
+                return true;
+            }
+            return false;
+        }
+
+        private void release(Guid id) {
+            writing.remove(id);
+        }
+    }
+}
@@ -85,6 +85,7 @@ public class VmAnalyzer {
     private boolean guestAgentUpOrBalloonDeflated;
     private List<VmJob> vmJobs;
     private VmStatistics statistics;
+    private boolean statisticsReset;
     private List<VmNetworkInterface> ifaces;
 
     private static final int TO_MEGA_BYTES = 1024;
@@ -420,6 +421,7 @@ public class VmAnalyzer {
 
     private void resetVmStatistics() {
         statistics = new VmStatistics(getVmId());
+        statisticsReset = true;
     }
 
     protected void resetVmInterfaceStatistics() {
@@ -431,6 +433,13 @@ public class VmAnalyzer {
         return statistics;
     }
 
+    /**
+     * @return whether the statistics to save were reset, e.g. since the VM went down, rather than updated
+     */
+    public boolean isVmStatisticsReset() {
+        return statisticsReset;
+    }
+
     public VmDynamic getVmDynamicToSave() {
         return vmDynamicToSave;
     }
@@ -499,7 +508,7 @@ public class VmAnalyzer {
             return;
         }
 
-        if (!vdsManager.getCopyVds().isBalloonEnabled()) {
+        if (!vdsManager.getSnapshot().getVds().isBalloonEnabled()) {
             return;
         }
 
@@ -923,6 +932,7 @@ public class VmAnalyzer {
         }
 
         loadVmNetworkInterfaces();
+        useLatestInterfaceStatistics();
         List<String> macs = new ArrayList<>();
 
         statistics.setUsageNetworkPercent(0);
@@ -983,6 +993,20 @@ public class VmAnalyzer {
         statistics.addNetworkUsageHistory(statistics.getUsageNetworkPercent(), usageHistoryLimit);
     }
 
+    /**
+     * Saving unchanged interface statistics is skipped and saving changed ones may be deferred, so the statistics
+     * kept by the VM manager, and not the persisted ones, are the base for computing the new rates
+     */
+    private void useLatestInterfaceStatistics() {
+        VmManager vmManager = getVmManager();
+        ifaces.forEach(iface -> {
+            VmNetworkStatistics latest = vmManager.getLatestInterfaceStatistics(iface.getId());
+            if (latest != null) {
+                iface.setStatistics(new VmNetworkStatistics(latest));
+            }
+        });
+    }
+
     private void updateVmJobs() {
         vmJobs = vdsmVm.getVmJobs();
     }
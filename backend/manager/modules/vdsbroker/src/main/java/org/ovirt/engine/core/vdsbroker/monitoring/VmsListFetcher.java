@@ -44,9 +44,17 @@ public class VmsListFetcher {
         this.vmDynamicDao = Injector.get(VmDynamicDao.class);
     }
 
-    @SuppressWarnings("unchecked")
     public boolean fetch() {
-        VDSReturnValue pollReturnValue = poll();
+        return onPolled(poll());
+    }
+
+    /**
+     * Keeps the VMs returned by the poll for the analysis
+     *
+     * @return true if the poll succeeded
+     */
+    @SuppressWarnings("unchecked")
+    protected boolean onPolled(VDSReturnValue pollReturnValue) {
         if (pollReturnValue.getSucceeded()) {
             vdsmVms = (Map<Guid, VdsmVm>) pollReturnValue.getReturnValue();
             onFetchVms();
@@ -60,7 +68,7 @@ public class VmsListFetcher {
     protected VDSReturnValue poll() {
         return getResourceManager().runVdsCommand(
                 VDSCommandType.List,
-                new VdsIdAndVdsVDSCommandParametersBase(vdsManager.getCopyVds()));
+                new VdsIdAndVdsVDSCommandParametersBase(vdsManager.getSnapshot().getVds()));
     }
 
     protected void onFetchVms() {
@@ -1,19 +1,32 @@
 package org.ovirt.engine.core.vdsbroker.monitoring;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import org.ovirt.engine.core.common.businessentities.IVdsEventListener;
 import org.ovirt.engine.core.common.businessentities.VmDynamic;
 import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.businessentities.network.NetworkStatistics;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkStatistics;
+import org.ovirt.engine.core.common.businessentities.storage.DiskImageDynamic;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.compat.TransactionScopeOption;
@@ -22,7 +35,6 @@ import org.ovirt.engine.core.dao.DiskImageDynamicDao;
 import org.ovirt.engine.core.dao.VdsDynamicDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.dao.VmGuestAgentInterfaceDao;
-import org.ovirt.engine.core.dao.VmStatisticsDao;
 import org.ovirt.engine.core.dao.network.VmNetworkInterfaceDao;
 import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
@@ -36,9 +48,13 @@ import org.slf4j.LoggerFactory;
  * invoke all Vm analyzers in hand and iterate over their report
  * and take actions - fire VDSM commands (destroy,run/rerun,migrate), report complete actions,
  * hand-over migration and save-to-db
+ *
+ * Statistics are saved only for rows that changed since they were last saved, and saving them may be
+ * coalesced across several refreshes (see {@link ConfigValues#NumberVmStatisticsRefreshesBeforeSave}),
+ * the number of rows written and skipped per host is exposed via JMX.
  */
 @Singleton
-public class VmsMonitoring {
+public class VmsMonitoring implements VmsMonitoringMXBean {
 
     @Inject
     private AuditLogDirector auditLogDirector;
@@ -58,7 +74,7 @@ public class VmsMonitoring {
     @Inject
     private VmNetworkStatisticsDao vmNetworkStatisticsDao;
     @Inject
-    private VmStatisticsDao vmStatisticsDao;
+    private StatisticsPersister statisticsPersister;
     @Inject
     private VmGuestAgentInterfaceDao vmGuestAgentInterfaceDao;
     @Inject
@@ -68,6 +84,31 @@ public class VmsMonitoring {
 
     private static final Logger log = LoggerFactory.getLogger(VmsMonitoring.class);
 
+    private final Map<Guid, HostFlushStatistics> flushStatistics = new ConcurrentHashMap<>();
+
+    private MBeanServer platformMBeanServer;
+    private ObjectName objectName;
+
+    @PostConstruct
+    public void registerInJMX() {
+        try {
+            objectName = new ObjectName("VmsMonitoring:type=" + this.getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during registration of Monitoring into JMX:" + e);
+        }
+    }
+
+    @PreDestroy
+    public void unregisterFromJMX() {
+        try {
+            platformMBeanServer.unregisterMBean(objectName);
+        } catch (Exception e) {
+            log.debug("Problem during unregistration of Monitoring into JMX: {}", e);
+        }
+    }
+
     /**
      * analyze and react upon changes on the monitoredVms. relevant changes would
      * be persisted and state transitions and internal commands would
@@ -94,7 +135,7 @@ public class VmsMonitoring {
             vmAnalyzers = analyzeVms(monitoredVms, fetchTime, vdsManager, updateStatistics);
             // It is important to add the unmanaged VMs before flushing the dynamic data into the database
             addUnmanagedVms(vmAnalyzers, vdsManager.getVdsId());
-            flush(vmAnalyzers);
+            flush(vmAnalyzers, vdsManager);
             postFlush(vmAnalyzers, vdsManager);
             vdsManager.vmsMonitoringInitFinished();
         } catch (RuntimeException ex) {
@@ -280,42 +321,162 @@ public class VmsMonitoring {
                 vmIdsWithGuestAgentDownAndBalloonInfalted);
     }
 
-    private void flush(List<VmAnalyzer> vmAnalyzers) {
-        saveVmDynamic(vmAnalyzers);
-        saveVmStatistics(vmAnalyzers);
-        saveVmInterfaceStatistics(vmAnalyzers);
-        saveVmDiskImageStatistics(vmAnalyzers);
+    private void flush(List<VmAnalyzer> vmAnalyzers, VdsManager vdsManager) {
+        FlushCounters counters = new FlushCounters();
+        List<VmAnalyzer> statisticsToSave = getStatisticsToSave(vmAnalyzers);
+        // the statistics of VMs that went down are reset, they are all saved rather than compared with old ones
+        vmAnalyzers.stream()
+                .filter(VmAnalyzer::isVmStatisticsReset)
+                .forEach(vmAnalyzer -> getVmManager(vmAnalyzer.getVmId()).clearSavedStatistics());
+        saveVmDynamic(vmAnalyzers, counters);
+        saveVmStatistics(vmAnalyzers, statisticsToSave, counters);
+        saveVmInterfaceStatistics(vmAnalyzers, statisticsToSave, counters);
+        saveVmDiskImageStatistics(vmAnalyzers, statisticsToSave, counters);
         saveVmGuestAgentNetworkDevices(vmAnalyzers);
+
+        log.debug("VMs monitoring of host '{}' wrote {} rows and skipped {} unchanged or deferred rows",
+                vdsManager.getVdsName(), counters.written, counters.skipped);
+        flushStatistics.computeIfAbsent(vdsManager.getVdsId(), id -> new HostFlushStatistics())
+                .record(vdsManager.getVdsName(), counters);
     }
 
-    private void saveVmDiskImageStatistics(List<VmAnalyzer> vmAnalyzers) {
-        diskImageDynamicDao.updateAllDiskImageDynamicWithDiskIdByVmId(vmAnalyzers.stream()
-                .map(VmAnalyzer::getVmDiskImageDynamicToSave)
-                .flatMap(Collection::stream)
-                .collect(Collectors.toList()));
+    /**
+     * The statistics of a VM are saved right away when they were reset or when the dynamic data of the VM
+     * changed, otherwise only once every {@link ConfigValues#NumberVmStatisticsRefreshesBeforeSave} refreshes
+     */
+    private List<VmAnalyzer> getStatisticsToSave(List<VmAnalyzer> vmAnalyzers) {
+        List<VmAnalyzer> statisticsToSave = new ArrayList<>();
+        for (VmAnalyzer vmAnalyzer : vmAnalyzers) {
+            if (vmAnalyzer.getVmStatisticsToSave() == null) {
+                continue;
+            }
+
+            int refreshes = getVmManager(vmAnalyzer.getVmId()).countStatisticsRefresh();
+            if (isStatusChanged(vmAnalyzer) || refreshes >= getNumberOfRefreshesBeforeSave()) {
+                statisticsToSave.add(vmAnalyzer);
+            }
+        }
+        return statisticsToSave;
+    }
+
+    protected int getNumberOfRefreshesBeforeSave() {
+        return Config.<Integer> getValue(ConfigValues.NumberVmStatisticsRefreshesBeforeSave);
+    }
+
+    private void saveVmDiskImageStatistics(List<VmAnalyzer> vmAnalyzers,
+            List<VmAnalyzer> statisticsToSave,
+            FlushCounters counters) {
+        counters.skip(countDiskImageStatistics(vmAnalyzers) - countDiskImageStatistics(statisticsToSave));
+
+        List<Pair<Guid, DiskImageDynamic>> diskImageDynamics = new ArrayList<>();
+        List<Runnable> markAsSaved = new ArrayList<>();
+        statisticsToSave.forEach(vmAnalyzer -> {
+            VmManager vmManager = getVmManager(vmAnalyzer.getVmId());
+            vmAnalyzer.getVmDiskImageDynamicToSave().forEach(pair -> {
+                DiskImageDynamic diskImageDynamic = pair.getSecond();
+                if (diskImageDynamic.equals(vmManager.getSavedDiskImageDynamic(diskImageDynamic.getId()))) {
+                    counters.skip(1);
+                } else {
+                    diskImageDynamics.add(pair);
+                    markAsSaved.add(() -> vmManager.setSavedDiskImageDynamic(diskImageDynamic));
+                }
+            });
+        });
+        diskImageDynamicDao.updateAllDiskImageDynamicWithDiskIdByVmId(diskImageDynamics);
+        // remembered only once written, so rows that failed to be written are not skipped next time
+        markAsSaved.forEach(Runnable::run);
+        counters.write(diskImageDynamics.size());
+    }
+
+    private static int countDiskImageStatistics(List<VmAnalyzer> vmAnalyzers) {
+        return vmAnalyzers.stream().mapToInt(vmAnalyzer -> vmAnalyzer.getVmDiskImageDynamicToSave().size()).sum();
     }
 
-    private void saveVmDynamic(List<VmAnalyzer> vmAnalyzers) {
-        vmDynamicDao.updateAllInBatch(vmAnalyzers.stream()
+    private void saveVmDynamic(List<VmAnalyzer> vmAnalyzers, FlushCounters counters) {
+        List<VmDynamic> vmDynamics = vmAnalyzers.stream()
                 .map(VmAnalyzer::getVmDynamicToSave)
                 .filter(Objects::nonNull)
-                .collect(Collectors.toList()));
+                .collect(Collectors.toList());
+        vmDynamicDao.updateAllInBatch(vmDynamics);
+        counters.write(vmDynamics.size());
+        counters.skip(vmAnalyzers.size() - vmDynamics.size());
     }
 
-    private void saveVmInterfaceStatistics(List<VmAnalyzer> vmAnalyzers) {
-        vmNetworkStatisticsDao.updateAllInBatch(vmAnalyzers.stream()
-                .map(VmAnalyzer::getVmNetworkStatistics)
-                .flatMap(List::stream)
-                .collect(Collectors.toList()));
+    private void saveVmInterfaceStatistics(List<VmAnalyzer> vmAnalyzers,
+            List<VmAnalyzer> statisticsToSave,
+            FlushCounters counters) {
+        vmAnalyzers.forEach(vmAnalyzer -> {
+            VmManager vmManager = getVmManager(vmAnalyzer.getVmId());
+            vmAnalyzer.getVmNetworkStatistics().forEach(vmManager::setLatestInterfaceStatistics);
+        });
+        counters.skip(countInterfaceStatistics(vmAnalyzers) - countInterfaceStatistics(statisticsToSave));
+
+        List<VmNetworkStatistics> interfaceStatistics = new ArrayList<>();
+        List<Runnable> markAsSaved = new ArrayList<>();
+        statisticsToSave.forEach(vmAnalyzer -> {
+            VmManager vmManager = getVmManager(vmAnalyzer.getVmId());
+            vmAnalyzer.getVmNetworkStatistics().forEach(stats -> {
+                if (isSameIgnoringSampleTime(stats, vmManager.getSavedInterfaceStatistics(stats.getId()))) {
+                    counters.skip(1);
+                } else {
+                    interfaceStatistics.add(stats);
+                    markAsSaved.add(() -> vmManager.setSavedInterfaceStatistics(stats));
+                }
+            });
+        });
+        vmNetworkStatisticsDao.updateAllInBatch(interfaceStatistics);
+        markAsSaved.forEach(Runnable::run);
+        counters.write(interfaceStatistics.size());
+    }
+
+    private static int countInterfaceStatistics(List<VmAnalyzer> vmAnalyzers) {
+        return vmAnalyzers.stream().mapToInt(vmAnalyzer -> vmAnalyzer.getVmNetworkStatistics().size()).sum();
     }
 
-    private void saveVmStatistics(List<VmAnalyzer> vmAnalyzers) {
-        List<VmStatistics> statistics = vmAnalyzers.stream()
+    /**
+     * The sample time changes on every refresh, it is not worth saving statistics that only differ in it
+     * since the rates are computed from the statistics kept in memory
+     */
+    private static boolean isSameIgnoringSampleTime(NetworkStatistics stats, NetworkStatistics saved) {
+        return saved != null
+                && Objects.equals(stats.getStatus(), saved.getStatus())
+                && Objects.equals(stats.getReceiveDropRate(), saved.getReceiveDropRate())
+                && Objects.equals(stats.getReceiveRate(), saved.getReceiveRate())
+                && Objects.equals(stats.getReceivedBytes(), saved.getReceivedBytes())
+                && Objects.equals(stats.getReceivedBytesOffset(), saved.getReceivedBytesOffset())
+                && Objects.equals(stats.getTransmitDropRate(), saved.getTransmitDropRate())
+                && Objects.equals(stats.getTransmitRate(), saved.getTransmitRate())
+                && Objects.equals(stats.getTransmittedBytes(), saved.getTransmittedBytes())
+                && Objects.equals(stats.getTransmittedBytesOffset(), saved.getTransmittedBytesOffset());
+    }
+
+    private void saveVmStatistics(List<VmAnalyzer> vmAnalyzers,
+            List<VmAnalyzer> statisticsToSave,
+            FlushCounters counters) {
+        Map<Boolean, List<VmStatistics>> statistics = statisticsToSave.stream()
+                .collect(Collectors.partitioningBy(this::isStatusChanged,
+                        Collectors.mapping(VmAnalyzer::getVmStatisticsToSave, Collectors.toList())));
+        statisticsPersister.saveVmStatistics(statistics.get(true), true);
+        statisticsPersister.saveVmStatistics(statistics.get(false), false);
+        statisticsToSave.forEach(vmAnalyzer -> getVmManager(vmAnalyzer.getVmId()).statisticsSaved());
+        counters.write(statisticsToSave.size());
+
+        vmAnalyzers.stream()
                 .map(VmAnalyzer::getVmStatisticsToSave)
                 .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-        vmStatisticsDao.updateAllInBatch(statistics);
-        statistics.forEach(stats -> getVmManager(stats.getId()).setStatistics(stats));
+                .forEach(stats -> getVmManager(stats.getId()).setStatistics(stats));
+        counters.skip((int) vmAnalyzers.stream()
+                .map(VmAnalyzer::getVmStatisticsToSave)
+                .filter(Objects::nonNull)
+                .count() - statisticsToSave.size());
+    }
+
+    /**
+     * @return whether the statistics of the VM were reset or its dynamic data changed, i.e. its status
+     * may have changed so its statistics should be written right away
+     */
+    private boolean isStatusChanged(VmAnalyzer vmAnalyzer) {
+        return vmAnalyzer.isVmStatisticsReset() || vmAnalyzer.getVmDynamicToSave() != null;
     }
 
     protected void addUnmanagedVms(List<VmAnalyzer> vmAnalyzers, Guid vdsId) {
@@ -364,4 +525,70 @@ public class VmsMonitoring {
         return resourceManager.getVmManager(vmId);
     }
 
+    /**
+     * Forgets the flush statistics of a host that was removed
+     */
+    public void removeHost(Guid vdsId) {
+        flushStatistics.remove(vdsId);
+    }
+
+    @Override
+    public List<String> showFlushStatistics() {
+        return flushStatistics.values()
+                .stream()
+                .map(HostFlushStatistics::toString)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void clear() {
+        flushStatistics.clear();
+    }
+
+    private static class FlushCounters {
+
+        private int written;
+        private int skipped;
+
+        public void write(int rows) {
+            written += rows;
+        }
+
+        public void skip(int rows) {
+            skipped += rows;
+        }
+    }
+
+    private static class HostFlushStatistics {
+
+        private final LongAdder cycles = new LongAdder();
+        private final LongAdder written = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private volatile String hostName;
+        private volatile int lastWritten;
+        private volatile int lastSkipped;
+
+        public void record(String hostName, FlushCounters counters) {
+            this.hostName = hostName;
+            lastWritten = counters.written;
+            lastSkipped = counters.skipped;
+            cycles.increment();
+            written.add(counters.written);
+            skipped.add(counters.skipped);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Host %s: cycles %d, rows written %d, rows skipped %d, last cycle written %d, "
+                            + "last cycle skipped %d",
+                    hostName,
+                    cycles.sum(),
+                    written.sum(),
+                    skipped.sum(),
+                    lastWritten,
+                    lastSkipped);
+        }
+    }
+
 }
@@ -0,0 +1,19 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import java.util.List;
+
+/**
+ * The following interface is used as interface for JMX bean
+ */
+public interface VmsMonitoringMXBean {
+
+    /**
+     * The following method will return the number of rows written and skipped by the VMs monitoring, per host
+     */
+    List<String> showFlushStatistics();
+
+    /**
+     * The following method will allow to reset the collected statistics via JMX console
+     */
+    void clear();
+}
@@ -2,9 +2,13 @@ package org.ovirt.engine.core.vdsbroker.monitoring;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
+import org.apache.commons.lang.exception.ExceptionUtils;
 import org.ovirt.engine.core.common.businessentities.VmDynamic;
 import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.common.vdscommands.BrokerCommandCallback;
 import org.ovirt.engine.core.common.vdscommands.VDSCommandType;
 import org.ovirt.engine.core.common.vdscommands.VDSReturnValue;
 import org.ovirt.engine.core.common.vdscommands.VdsIdVDSCommandParametersBase;
@@ -31,6 +35,51 @@ public class VmsStatisticsFetcher extends VmsListFetcher {
                 new VdsIdVDSCommandParametersBase(vdsManager.getVdsId()));
     }
 
+    /**
+     * Fetches the VMs like {@link #fetch()}, but without holding the calling thread while waiting for the host to
+     * reply. The VMs are kept for the analysis on an engine thread once the reply arrives.
+     *
+     * @param onFetched - told once whether the VMs were fetched, on the thread that kept them
+     */
+    public void fetchAsync(Consumer<Boolean> onFetched) {
+        AtomicBoolean notified = new AtomicBoolean();
+        Consumer<Boolean> notifyOnce = fetched -> {
+            if (notified.compareAndSet(false, true)) {
+                onFetched.accept(fetched);
+            }
+        };
+        VDSReturnValue sendReturnValue = getResourceManager().runVdsCommand(
+                VDSCommandType.GetAllVmStatsAsync,
+                new VdsIdVDSCommandParametersBase(vdsManager.getVdsId()).withCallback(new BrokerCommandCallback() {
+
+                    @Override
+                    public void onResponse(Map<String, Object> response) {
+                        boolean fetched;
+                        try {
+                            fetched = onPolled((VDSReturnValue) response.get("result"));
+                        } catch (RuntimeException e) {
+                            onFailure(e);
+                            return;
+                        }
+                        notifyOnce.accept(fetched);
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        log.debug("Failed to fetch the VMs of VDS '{}': {}",
+                                vdsManager.getVdsId(),
+                                ExceptionUtils.getRootCauseMessage(t));
+                        onError();
+                        notifyOnce.accept(false);
+                    }
+                }));
+        // the command may fail before sending the request, without telling the callback
+        if (sendReturnValue == null || !sendReturnValue.getSucceeded()) {
+            onError();
+            notifyOnce.accept(false);
+        }
+    }
+
     @Override
     protected void onFetchVms() {
         if (log.isDebugEnabled()) {
@@ -0,0 +1,39 @@
+package org.ovirt.engine.core.vdsbroker.vdsbroker;
+
+import java.util.Collections;
+
+import org.ovirt.engine.core.common.vdscommands.VdsIdVDSCommandParametersBase;
+import org.ovirt.engine.core.utils.log.Logged;
+import org.ovirt.engine.core.utils.log.Logged.LogLevel;
+
+@Logged(executionLevel = LogLevel.DEBUG)
+public class GetAllVmStatsAsyncVDSCommand<P extends VdsIdVDSCommandParametersBase> extends GetAllVmStatsVDSCommand<P> {
+
+    public GetAllVmStatsAsyncVDSCommand(P parameters) {
+        super(parameters);
+    }
+
+    @Override
+    protected void executeVdsBrokerCommand() {
+        try {
+            // the statistics are processed once they arrive, without holding the thread meanwhile
+            getBroker().getAllVmStatsAsync().whenComplete(this::onAllVmStats);
+        } catch (Throwable t) {
+            getParameters().getCallback().onFailure(t);
+            throw t;
+        }
+    }
+
+    private void onAllVmStats(VMInfoListReturn vmStats, Throwable failure) {
+        if (failure != null) {
+            getParameters().getCallback().onFailure(failure);
+            return;
+        }
+        try {
+            onVmStats(vmStats);
+            getParameters().getCallback().onResponse(Collections.singletonMap("result", getVDSReturnValue()));
+        } catch (Exception ex) {
+            getParameters().getCallback().onFailure(ex);
+        }
+    }
+}
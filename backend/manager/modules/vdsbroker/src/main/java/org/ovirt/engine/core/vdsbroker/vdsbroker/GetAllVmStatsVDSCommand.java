@@ -3,6 +3,9 @@ package org.ovirt.engine.core.vdsbroker.vdsbroker;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.inject.Inject;
 
 import org.ovirt.engine.core.common.vdscommands.VdsIdVDSCommandParametersBase;
 import org.ovirt.engine.core.compat.Guid;
@@ -13,17 +16,28 @@ import org.ovirt.engine.core.vdsbroker.monitoring.VdsmVm;
 @Logged(executionLevel = LogLevel.DEBUG)
 public class GetAllVmStatsVDSCommand<P extends VdsIdVDSCommandParametersBase> extends VmStatsVdsBrokerCommand<P> {
 
+    @Inject
+    private VmStatsStreamDecoder vmStatsStreamDecoder;
+
     public GetAllVmStatsVDSCommand(P parameters) {
         super(parameters);
     }
 
     @Override
     protected void executeVdsBrokerCommand() {
-        vmListReturn = getBroker().getAllVmStats();
+        onVmStats(getBroker().getAllVmStats());
+    }
+
+    /**
+     * Sets the VMs of the returned statistics, keyed by their IDs, as the return value
+     */
+    protected void onVmStats(VMInfoListReturn vmStats) {
+        vmListReturn = vmStats;
         proceedProxyReturnValue();
-        Map<Guid, VdsmVm> returnVMs = Arrays.stream(vmListReturn.infoList)
-                .map(this::createVdsmVm)
-                .collect(Collectors.toMap(vm -> vm.getVmDynamic().getId(), vm -> vm));
+        Stream<VdsmVm> vms = vmListReturn.infoListNode != null
+                ? vmStatsStreamDecoder.decode(vmListReturn.infoListNode, getVds()).stream()
+                : Arrays.stream(vmListReturn.infoList).map(this::createVdsmVm);
+        Map<Guid, VdsmVm> returnVMs = vms.collect(Collectors.toMap(vm -> vm.getVmDynamic().getId(), vm -> vm));
         setReturnValue(returnVMs);
     }
 
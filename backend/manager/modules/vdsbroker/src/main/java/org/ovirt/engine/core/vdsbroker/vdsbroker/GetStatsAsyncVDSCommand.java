@@ -1,14 +1,12 @@
 package org.ovirt.engine.core.vdsbroker.vdsbroker;
 
 import java.util.Collections;
-import java.util.Map;
 
 import javax.inject.Inject;
 
 import org.ovirt.engine.core.common.vdscommands.VdsIdAndVdsVDSCommandParametersBase;
 import org.ovirt.engine.core.utils.log.Logged;
 import org.ovirt.engine.core.utils.log.Logged.LogLevel;
-import org.ovirt.vdsm.jsonrpc.client.BrokerCommandCallback;
 
 @Logged(executionLevel = LogLevel.DEBUG)
 public class GetStatsAsyncVDSCommand<P extends VdsIdAndVdsVDSCommandParametersBase> extends InfoVdsBrokerCommand<P> {
@@ -27,36 +25,27 @@ public class GetStatsAsyncVDSCommand<P extends VdsIdAndVdsVDSCommandParametersBa
     @Override
     protected void executeVdsBrokerCommand() {
         try {
-            getBroker().getVdsStats(new GetStatsVDSCommandCallback());
+            // the statistics are processed once they arrive, without holding the thread meanwhile
+            getBroker().getVdsStatsAsync().whenComplete(this::onStats);
         } catch (Throwable t) {
             getParameters().getCallback().onFailure(t);
             throw t;
         }
     }
 
-    private class GetStatsVDSCommandCallback implements BrokerCommandCallback {
-
-        @Override
-        public void onResponse(Map<String, Object> response) {
-            try {
-                infoReturn = new VDSInfoReturn(response);
-                proceedProxyReturnValue();
-                vdsBrokerObjectsBuilder.updateVDSStatisticsData(getVds(), infoReturn.info);
-                vdsBrokerObjectsBuilder.checkTimeDrift(getVds(), infoReturn.info);
-                getParameters().getCallback().onResponse(Collections.singletonMap("result", getVDSReturnValue()));
-            } catch (Exception ex) {
-                getParameters().getCallback().onFailure(ex);
-            }
+    private void onStats(VDSInfoReturn stats, Throwable failure) {
+        if (failure != null) {
+            getParameters().getCallback().onFailure(failure);
+            return;
         }
-
-        @Override
-        public void onFailure(Map<String, Object> response) {
-            try {
-                infoReturn = new VDSInfoReturn().withStatus(response);
-                proceedProxyReturnValue();
-            } catch (Exception ex) {
-                getParameters().getCallback().onFailure(ex);
-            }
+        try {
+            infoReturn = stats;
+            proceedProxyReturnValue();
+            vdsBrokerObjectsBuilder.updateVDSStatisticsData(getVds(), infoReturn.info);
+            vdsBrokerObjectsBuilder.checkTimeDrift(getVds(), infoReturn.info);
+            getParameters().getCallback().onResponse(Collections.singletonMap("result", getVDSReturnValue()));
+        } catch (Exception ex) {
+            getParameters().getCallback().onFailure(ex);
         }
     }
 
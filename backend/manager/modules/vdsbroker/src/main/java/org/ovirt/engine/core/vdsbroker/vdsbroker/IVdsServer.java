@@ -3,6 +3,7 @@ package org.ovirt.engine.core.vdsbroker.vdsbroker;
 import java.security.cert.Certificate;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
@@ -36,7 +37,6 @@ import org.ovirt.engine.core.vdsbroker.gluster.StorageDeviceListReturn;
 import org.ovirt.engine.core.vdsbroker.irsbroker.OneUuidReturn;
 import org.ovirt.engine.core.vdsbroker.irsbroker.StatusReturn;
 import org.ovirt.engine.core.vdsbroker.irsbroker.StoragePoolInfo;
-import org.ovirt.vdsm.jsonrpc.client.BrokerCommandCallback;
 
 @SuppressWarnings("rawtypes")
 public interface IVdsServer {
@@ -76,15 +76,26 @@ public interface IVdsServer {
 
     VDSInfoReturn getCapabilities();
 
-    void getCapabilities(BrokerCommandCallback callback);
+    /**
+     * Like {@link #getCapabilities()}, but see {@link #getVdsStatsAsync()} for how the returned future is completed.
+     */
+    CompletableFuture<VDSInfoReturn> getCapabilitiesAsync();
 
     VDSInfoReturn getHardwareInfo();
 
-    void getHardwareInfo(BrokerCommandCallback callback);
+    /**
+     * Like {@link #getHardwareInfo()}, but see {@link #getVdsStatsAsync()} for how the returned future is completed.
+     */
+    CompletableFuture<VDSInfoReturn> getHardwareInfoAsync();
 
     VDSInfoReturn getVdsStats();
 
-    void getVdsStats(BrokerCommandCallback callback);
+    /**
+     * Like {@link #getVdsStats()}, but the returned future is completed once the response arrives, so the caller
+     * does not hold a thread while waiting for it. The stages chained on the future run on the thread that received
+     * the response, so they should not block.
+     */
+    CompletableFuture<VDSInfoReturn> getVdsStatsAsync();
 
     StatusOnlyReturn setMOMPolicyParameters(Map<String, Object> key_value_store);
 
@@ -107,6 +118,13 @@ public interface IVdsServer {
 
     VMInfoListReturn getAllVmStats();
 
+    /**
+     * Like {@link #getAllVmStats()}, but the returned future is completed once the response arrives, so the caller
+     * does not hold a thread while waiting for it. The stages chained on the future run on an engine thread, which
+     * is not shared with the stages of other responses.
+     */
+    CompletableFuture<VMInfoListReturn> getAllVmStatsAsync();
+
     HostDevListReturn hostDevListByCaps();
 
     StatusOnlyReturn migrate(Map<String, Object> migrationInfo);
@@ -3,6 +3,8 @@ package org.ovirt.engine.core.vdsbroker.vdsbroker;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.codehaus.jackson.JsonNode;
+
 @SuppressWarnings("unchecked")
 public final class VMInfoListReturn {
     private static final String STATUS = "status";
@@ -10,10 +12,19 @@ public final class VMInfoListReturn {
 
     public Status status;
     public Map<String, Object>[] infoList;
+    /**
+     * The list as it was received, when the response was not decomposed into maps
+     */
+    public JsonNode infoListNode;
 
     public VMInfoListReturn(Map<String, Object> innerMap) {
         status = new Status((Map<String, Object>) innerMap.get(STATUS));
-        Object[] temp = (Object[]) innerMap.get(STATS_LIST);
+        Object statsList = innerMap.get(STATS_LIST);
+        if (statsList instanceof JsonNode) {
+            infoListNode = (JsonNode) statsList;
+            return;
+        }
+        Object[] temp = (Object[]) statsList;
         if (temp != null) {
             infoList = new HashMap[temp.length];
             for (int i = 0; i < temp.length; i++) {
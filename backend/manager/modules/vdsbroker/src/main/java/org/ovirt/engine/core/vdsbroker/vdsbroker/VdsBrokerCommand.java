@@ -36,7 +36,8 @@ public abstract class VdsBrokerCommand<P extends VdsIdVDSCommandParametersBase>
     private VdsStaticDao vdsStaticDao;
 
     /**
-     * Construct the command using the parameters and the {@link VDS} which is loaded from the DB.
+     * Construct the command using the parameters and the {@link VDS} cached by the manager of the host, which is
+     * shared with the other readers of the host and therefore must not be modified by the command.
      *
      * @param parameters
      *            The parameters of the command.
@@ -68,7 +69,7 @@ public abstract class VdsBrokerCommand<P extends VdsIdVDSCommandParametersBase>
                     String.format("Vds with id: %1$s was not found", vdsId));
         }
 
-        setVdsAndVdsStatic(vdsmanager.getCopyVds());
+        setVdsAndVdsStatic(vdsmanager.getSnapshot().getVds());
         return vdsmanager.getVdsProxy();
     }
 
@@ -121,6 +121,7 @@ import org.ovirt.engine.core.utils.SerializationFactory;
 import org.ovirt.engine.core.utils.network.predicate.InterfaceByAddressPredicate;
 import org.ovirt.engine.core.utils.network.predicate.IpAddressPredicate;
 import org.ovirt.engine.core.vdsbroker.NetworkStatisticsBuilder;
+import org.ovirt.engine.core.vdsbroker.monitoring.VdsmVm;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -135,7 +136,7 @@ public class VdsBrokerObjectsBuilder {
     private static final Logger log = LoggerFactory.getLogger(VdsBrokerObjectsBuilder.class);
 
     private static final int VNC_START_PORT = 5900;
-    private static final double NANO_SECONDS = 1000000000;
+    static final double NANO_SECONDS = 1000000000;
 
     private static final Comparator<VdsNumaNode> numaNodeComparator = Comparator.comparing(VdsNumaNode::getIndex);
     private static final Pattern IPV6_ADDRESS_CAPTURE_PREFIX_PATTERN = Pattern.compile("^.*?/(\\d+)?$");
@@ -446,6 +447,21 @@ public class VdsBrokerObjectsBuilder {
         return null;
     }
 
+    public VdsmVm buildVdsmVm(Map<String, Object> struct, VDS host) {
+        VmDynamic vmDynamic = buildVMDynamicData(struct, host);
+        Guid vmId = vmDynamic.getId();
+        return new VdsmVm(getVdsmCallTimestamp(struct))
+                .setVmDynamic(vmDynamic)
+                .setDevicesHash(getVmDevicesHash(struct))
+                .setVmStatistics(buildVMStatisticsData(struct))
+                .setVmJobs(buildVmJobsData(struct))
+                .setInterfaceStatistics(buildInterfaceStatisticsData(struct))
+                .setVmBalloonInfo(buildVmBalloonInfo(struct))
+                .setVmGuestAgentInterfaces(buildVmGuestAgentInterfacesData(vmId, struct))
+                .setLunsMap(buildVmLunDisksData(struct))
+                .setDiskStatistics(buildVmDiskStatistics(struct));
+    }
+
     public VmDynamic buildVMDynamicData(Map<String, Object> struct, VDS host) {
         VmDynamic vmdynamic = new VmDynamic();
         updateVMDynamicData(vmdynamic, struct, host);
@@ -646,7 +662,7 @@ public class VdsBrokerObjectsBuilder {
      *
      * @param graphicsInfos - graphicsInfo to adjust
      */
-    private static void adjustDisplayIp(Map<GraphicsType, GraphicsInfo> graphicsInfos, VDS host) {
+    static void adjustDisplayIp(Map<GraphicsType, GraphicsInfo> graphicsInfos, VDS host) {
         if (graphicsInfos == null) {
             return;
         }
@@ -727,7 +743,7 @@ public class VdsBrokerObjectsBuilder {
      * @param vm - VmDynamic to update
      * @param struct - data from VDSM
      */
-    private static void updateGraphicsInfoFromConf(VmDynamic vm, Map<String, Object> struct) {
+    static void updateGraphicsInfoFromConf(VmDynamic vm, Map<String, Object> struct) {
         GraphicsType vmGraphicsType = parseGraphicsType(struct);
         if (vmGraphicsType == null) {
             log.debug("graphics data missing in XML.");
@@ -790,7 +806,7 @@ public class VdsBrokerObjectsBuilder {
         return result;
     }
 
-    private static Integer parseIntegerOrNull(String s) {
+    static Integer parseIntegerOrNull(String s) {
         try {
             return Integer.parseInt(s);
         } catch (Exception e) {
@@ -1055,7 +1071,7 @@ public class VdsBrokerObjectsBuilder {
         }
     }
 
-    private static void initDisksUsage(Map<String, Object> vmStruct, VmStatistics vm) {
+    static void initDisksUsage(Map<String, Object> vmStruct, VmStatistics vm) {
         Object[] vmDisksUsage = (Object[]) vmStruct.get(VdsProperties.VM_DISKS_USAGE);
         if (vmDisksUsage != null) {
             ArrayList<Object> disksUsageList = new ArrayList<>(Arrays.asList(vmDisksUsage));
@@ -1745,7 +1761,7 @@ public class VdsBrokerObjectsBuilder {
         }
     }
 
-    private static void initGuestContainers(Map<String, Object> vmStruct, VmDynamic vm) {
+    static void initGuestContainers(Map<String, Object> vmStruct, VmDynamic vm) {
         if (vmStruct.containsKey(VdsProperties.guest_containers)) {
             vm.setGuestContainers(new ArrayList<>());
             Object obj = vmStruct.get(VdsProperties.guest_containers);
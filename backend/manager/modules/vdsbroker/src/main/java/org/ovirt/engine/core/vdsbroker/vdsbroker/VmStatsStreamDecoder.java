@@ -0,0 +1,829 @@
+package org.ovirt.engine.core.vdsbroker.vdsbroker;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.commons.lang.StringUtils;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.map.DeserializationConfig;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.ovirt.engine.core.common.businessentities.GraphicsInfo;
+import org.ovirt.engine.core.common.businessentities.GraphicsType;
+import org.ovirt.engine.core.common.businessentities.OsType;
+import org.ovirt.engine.core.common.businessentities.SessionState;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VMStatus;
+import org.ovirt.engine.core.common.businessentities.VmBalloonInfo;
+import org.ovirt.engine.core.common.businessentities.VmDynamic;
+import org.ovirt.engine.core.common.businessentities.VmExitReason;
+import org.ovirt.engine.core.common.businessentities.VmExitStatus;
+import org.ovirt.engine.core.common.businessentities.VmGuestAgentInterface;
+import org.ovirt.engine.core.common.businessentities.VmJob;
+import org.ovirt.engine.core.common.businessentities.VmPauseStatus;
+import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkInterface;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkStatistics;
+import org.ovirt.engine.core.common.businessentities.storage.DiskImageDynamic;
+import org.ovirt.engine.core.common.businessentities.storage.LUNs;
+import org.ovirt.engine.core.common.utils.EnumUtils;
+import org.ovirt.engine.core.common.utils.SizeConverter;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.vdsbroker.monitoring.VdsmVm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decodes the VMs reported by the getAllVmStats verb of VDSM from the JSON tree of the response straight into the
+ * entities the monitoring works on, without first converting every VM into the nested maps and arrays that
+ * {@link VdsBrokerObjectsBuilder} reads.
+ * <p>
+ * The fields that are reported on every monitoring cycle are read from the token stream of the VM. The structures
+ * that are rarely reported (block jobs, guest containers, disks usage and the graphics of hosts that do not report
+ * displayInfo) are read into a small map that is handed to the builder. The result is the same as the one of
+ * {@link VdsBrokerObjectsBuilder#buildVdsmVm(Map, VDS)}, and a VM whose statistics have an unexpected shape is built
+ * by it from its map, so that the values VDSM did not use to report this way are handled as before.
+ */
+@Singleton
+public class VmStatsStreamDecoder {
+
+    private static final Logger log = LoggerFactory.getLogger(VmStatsStreamDecoder.class);
+
+    private static final ObjectMapper mapper =
+            new ObjectMapper().configure(DeserializationConfig.Feature.USE_JAVA_ARRAY_FOR_JSON_ARRAY, true);
+
+    private final VdsBrokerObjectsBuilder vdsBrokerObjectsBuilder;
+
+    @Inject
+    public VmStatsStreamDecoder(VdsBrokerObjectsBuilder vdsBrokerObjectsBuilder) {
+        this.vdsBrokerObjectsBuilder = vdsBrokerObjectsBuilder;
+    }
+
+    /**
+     * Decodes the VMs of the statsList of a getAllVmStats response
+     *
+     * @param statsList
+     *            the JSON array of the statistics of the VMs
+     * @param host
+     *            the host that reported the VMs
+     * @return the reported VMs, in the order of the response
+     */
+    public List<VdsmVm> decode(JsonNode statsList, VDS host) {
+        List<VdsmVm> vms = new ArrayList<>(statsList.size());
+        for (JsonNode vmStats : statsList) {
+            vms.add(decodeVm(vmStats, host));
+        }
+        return vms;
+    }
+
+    VdsmVm decodeVm(JsonNode vmStats, VDS host) {
+        try {
+            return new VmDecoder(vmStats.traverse(), host).decode();
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to decode the statistics of a VM from the response, building it from its map: {}",
+                    e.getMessage());
+            log.debug("Exception", e);
+            return vdsBrokerObjectsBuilder.buildVdsmVm(toMap(vmStats), host);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> toMap(JsonNode vmStats) {
+        try {
+            return mapper.readValue(vmStats, Map.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read the statistics of the VM", e);
+        }
+    }
+
+    /**
+     * The decoding of a single VM, the decoder reads the tokens of the VM once and keeps what the builder would
+     * have built out of them until the end of the VM is reached.
+     */
+    private class VmDecoder {
+
+        private final JsonParser parser;
+        private final VDS host;
+
+        private final VmDynamic vmDynamic = new VmDynamic();
+        private final VmStatistics vmStatistics = new VmStatistics();
+        private Double timestamp = -1d;
+        private String devicesHash;
+        private Integer monitorResponse;
+        private boolean hasGraphicsInfo;
+        private List<VmNetworkInterface> interfaceStatistics;
+        private final VmBalloonInfo balloonInfo = new VmBalloonInfo();
+        private List<VmGuestAgentInterface> guestAgentInterfaces;
+        private List<DiskImageDynamic> diskStatistics = Collections.emptyList();
+        private Map<String, LUNs> lunsMap = Collections.emptyMap();
+        private Map<String, Object> sections;
+
+        VmDecoder(JsonParser parser, VDS host) {
+            this.parser = parser;
+            this.host = host;
+            // the builder assigns these even when they are not reported
+            vmStatistics.setElapsedTime(null);
+            vmStatistics.setCpuSys(null);
+            vmStatistics.setCpuUser(null);
+            vmStatistics.setMigrationProgressPercent(0);
+        }
+
+        VdsmVm decode() throws IOException {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                decodeField(field);
+            }
+
+            if (sections == null) {
+                sections = Collections.emptyMap();
+            }
+            if (!hasGraphicsInfo) {
+                VdsBrokerObjectsBuilder.updateGraphicsInfoFromConf(vmDynamic, sections);
+            }
+            VdsBrokerObjectsBuilder.adjustDisplayIp(vmDynamic.getGraphicsInfos(), host);
+            VdsBrokerObjectsBuilder.initGuestContainers(sections, vmDynamic);
+            if (sections.containsKey(VdsProperties.VM_DISKS_USAGE)) {
+                VdsBrokerObjectsBuilder.initDisksUsage(sections, vmStatistics);
+            }
+            if (guestAgentInterfaces != null) {
+                guestAgentInterfaces.forEach(nic -> nic.setVmId(vmDynamic.getId()));
+            }
+            // negative monitorResponse means it is erroneous
+            if (monitorResponse != null && monitorResponse < 0 && vmDynamic.getStatus().isGuestCpuRunning()) {
+                vmDynamic.setStatus(VMStatus.NotResponding);
+            }
+
+            return new VdsmVm(timestamp)
+                    .setVmDynamic(vmDynamic)
+                    .setDevicesHash(devicesHash)
+                    .setVmStatistics(vmStatistics)
+                    .setVmJobs(decodeVmJobs())
+                    .setInterfaceStatistics(interfaceStatistics)
+                    .setVmBalloonInfo(balloonInfo)
+                    .setVmGuestAgentInterfaces(guestAgentInterfaces)
+                    .setLunsMap(lunsMap)
+                    .setDiskStatistics(diskStatistics);
+        }
+
+        private void decodeField(String field) throws IOException {
+            switch (field) {
+            case VdsProperties.vm_guid:
+                Guid vmId = new Guid(string());
+                vmDynamic.setId(vmId);
+                vmStatistics.setId(vmId);
+                break;
+            case VdsProperties.status:
+                vmDynamic.setStatus(vdsBrokerObjectsBuilder.convertToVmStatus(string()));
+                break;
+            case VdsProperties.session:
+                String session = string();
+                try {
+                    vmDynamic.setSession(SessionState.valueOf(session));
+                } catch (Exception e) {
+                    log.error("Illegal vm session '{}'.", session);
+                }
+                break;
+            case VdsProperties.acpiEnable:
+                vmDynamic.setAcpiEnable(Boolean.parseBoolean(string()));
+                break;
+            case VdsProperties.displayInfo:
+                decodeDisplayInfo();
+                break;
+            case VdsProperties.utc_diff:
+                String utcDiff = text();
+                if (utcDiff.startsWith("+")) {
+                    utcDiff = utcDiff.substring(1);
+                }
+                try {
+                    vmDynamic.setUtcDiff(Integer.parseInt(utcDiff));
+                } catch (NumberFormatException e) {
+                    log.error("Illegal vm offset (utc_diff) '{}'.", utcDiff);
+                }
+                break;
+            case VdsProperties.vm_host:
+                vmDynamic.setVmHost(stringOrNull());
+                break;
+            case VdsProperties.guest_cur_user_name:
+                vmDynamic.setGuestCurrentUserName(stringOrNull());
+                break;
+            case VdsProperties.app_list:
+                decodeAppsList();
+                break;
+            case VdsProperties.guest_os:
+                vmDynamic.setGuestOs(stringOrNull());
+                break;
+            case VdsProperties.VM_FQDN:
+                String fqdn = stringOrNull().trim();
+                boolean localhost = "localhost".equalsIgnoreCase(fqdn) || "localhost.localdomain".equalsIgnoreCase(fqdn);
+                vmDynamic.setFqdn(localhost ? null : fqdn);
+                break;
+            case VdsProperties.exit_code:
+                vmDynamic.setExitStatus(VmExitStatus.forValue(Integer.parseInt(text())));
+                break;
+            case VdsProperties.exit_message:
+                vmDynamic.setExitMessage(string());
+                break;
+            case VdsProperties.exit_reason:
+                String exitReasonStr = text();
+                VmExitReason exitReason = VmExitReason.forValue(Integer.parseInt(exitReasonStr));
+                if (exitReason == null) {
+                    log.warn("Illegal exit reason: {}, replacing with Unknown", exitReasonStr);
+                    exitReason = VmExitReason.Unknown;
+                }
+                vmDynamic.setExitReason(exitReason);
+                break;
+            case VdsProperties.monitorResponse:
+                monitorResponse = Integer.parseInt(text());
+                break;
+            case VdsProperties.clientIp:
+                vmDynamic.setClientIp(text());
+                break;
+            case VdsProperties.pauseCode:
+                try {
+                    vmDynamic.setPauseStatus(VmPauseStatus.valueOf(string()));
+                } catch (IllegalArgumentException ex) {
+                    log.error("Error in parsing vm pause status. Setting value to NONE");
+                }
+                break;
+            case VdsProperties.watchdogEvent:
+                decodeWatchdogEvent();
+                break;
+            case VdsProperties.CDRom:
+                Path fileName = Paths.get(string()).getFileName();
+                if (fileName != null) {
+                    vmDynamic.setCurrentCd(fileName.toString());
+                }
+                break;
+            case VdsProperties.GUEST_CPU_COUNT:
+                vmDynamic.setGuestCpuCount(intValue());
+                break;
+            case VdsProperties.GUEST_OS_INFO:
+                decodeGuestOsInfo();
+                break;
+            case VdsProperties.GUEST_TIMEZONE:
+                decodeGuestTimezone();
+                break;
+            case VdsProperties.elapsed_time:
+                vmStatistics.setElapsedTime(doubleValue());
+                break;
+            case VdsProperties.cpu_sys:
+                vmStatistics.setCpuSys(doubleValue());
+                break;
+            case VdsProperties.cpu_user:
+                vmStatistics.setCpuUser(doubleValue());
+                break;
+            case VdsProperties.vm_usage_mem_percent:
+                vmStatistics.setUsageMemPercent(intValue());
+                break;
+            case VdsProperties.vm_guest_mem_stats:
+                decodeMemoryStats();
+                break;
+            case VdsProperties.vm_migration_progress_percent:
+                Integer migrationProgress = intValue();
+                vmStatistics.setMigrationProgressPercent(migrationProgress != null ? migrationProgress : 0);
+                break;
+            case VdsProperties.vm_balloonInfo:
+                decodeBalloonInfo();
+                break;
+            case VdsProperties.VM_NETWORK:
+                decodeNetwork();
+                break;
+            case VdsProperties.VM_NETWORK_INTERFACES:
+                decodeGuestAgentInterfaces();
+                break;
+            case VdsProperties.vm_disks:
+                decodeDisks();
+                break;
+            case VdsProperties.statusTime:
+                timestamp = doubleValue();
+                break;
+            case VdsProperties.hash:
+                devicesHash = string();
+                break;
+            case VdsProperties.vmJobs:
+            case VdsProperties.guest_containers:
+            case VdsProperties.VM_DISKS_USAGE:
+            case VdsProperties.displayType:
+            case VdsProperties.display_port:
+            case VdsProperties.display:
+            case VdsProperties.display_secure_port:
+            case VdsProperties.displayIp:
+                if (sections == null) {
+                    sections = new HashMap<>();
+                }
+                sections.put(field, mapper.readValue(parser, Object.class));
+                break;
+            default:
+                parser.skipChildren();
+            }
+        }
+
+        private List<VmJob> decodeVmJobs() {
+            if (!sections.containsKey(VdsProperties.vmJobs)) {
+                return null;
+            }
+            Map<String, Object> struct = new HashMap<>(sections);
+            struct.put(VdsProperties.vm_guid, vmDynamic.getId().toString());
+            return vdsBrokerObjectsBuilder.buildVmJobsData(struct);
+        }
+
+        private void decodeDisplayInfo() throws IOException {
+            if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+                return;
+            }
+            expect(parser.getCurrentToken(), JsonToken.START_ARRAY);
+            hasGraphicsInfo = true;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                expect(parser.getCurrentToken(), JsonToken.START_OBJECT);
+                String type = null;
+                String ip = null;
+                String port = null;
+                String tlsPort = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    switch (field) {
+                    case VdsProperties.type:
+                        type = string();
+                        break;
+                    case VdsProperties.ipAddress:
+                        ip = string();
+                        break;
+                    case VdsProperties.port:
+                        port = string();
+                        break;
+                    case VdsProperties.tlsPort:
+                        tlsPort = string();
+                        break;
+                    default:
+                        parser.skipChildren();
+                    }
+                }
+
+                GraphicsInfo graphicsInfo = new GraphicsInfo();
+                graphicsInfo.setIp(ip)
+                        .setPort(VdsBrokerObjectsBuilder.parseIntegerOrNull(port))
+                        .setTlsPort(VdsBrokerObjectsBuilder.parseIntegerOrNull(tlsPort));
+                if (graphicsInfo.getPort() != null || graphicsInfo.getTlsPort() != null) {
+                    vmDynamic.getGraphicsInfos().put(GraphicsType.fromString(type), graphicsInfo);
+                }
+            }
+        }
+
+        private void decodeAppsList() throws IOException {
+            if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                vmDynamic.setAppList("");
+                return;
+            }
+            StringBuilder builder = new StringBuilder();
+            boolean firstTime = true;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+                    log.warn("Failed to convert app: [null] to string");
+                    continue;
+                }
+                String app = string();
+                if (!firstTime) {
+                    builder.append(",");
+                } else {
+                    firstTime = false;
+                }
+                builder.append(app);
+            }
+            vmDynamic.setAppList(builder.toString());
+        }
+
+        private void decodeWatchdogEvent() throws IOException {
+            expect(parser.getCurrentToken(), JsonToken.START_OBJECT);
+            Double time = null;
+            String action = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                case VdsProperties.time:
+                    time = parser.getCurrentToken() == JsonToken.VALUE_NUMBER_FLOAT
+                            ? parser.getDoubleValue()
+                            : Double.parseDouble(text());
+                    break;
+                case VdsProperties.action:
+                    action = text();
+                    break;
+                default:
+                    parser.skipChildren();
+                }
+            }
+            vmDynamic.setLastWatchdogEvent(time.longValue());
+            // vdsm may not send the action http://gerrit.ovirt.org/14134
+            vmDynamic.setLastWatchdogAction(action);
+        }
+
+        private void decodeGuestOsInfo() throws IOException {
+            expect(parser.getCurrentToken(), JsonToken.START_OBJECT);
+            boolean typeReported = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                case VdsProperties.GUEST_OS_INFO_ARCH:
+                    String arch = stringOrNull();
+                    try {
+                        vmDynamic.setGuestOsArch(arch);
+                    } catch (IllegalArgumentException e) {
+                        log.warn("Invalid or unknown guest architecture type '{}' received from guest agent", arch);
+                    }
+                    break;
+                case VdsProperties.GUEST_OS_INFO_CODENAME:
+                    vmDynamic.setGuestOsCodename(stringOrNull());
+                    break;
+                case VdsProperties.GUEST_OS_INFO_DISTRIBUTION:
+                    vmDynamic.setGuestOsDistribution(stringOrNull());
+                    break;
+                case VdsProperties.GUEST_OS_INFO_KERNEL:
+                    vmDynamic.setGuestOsKernelVersion(stringOrNull());
+                    break;
+                case VdsProperties.GUEST_OS_INFO_TYPE:
+                    typeReported = true;
+                    String osType = stringOrNull();
+                    try {
+                        vmDynamic.setGuestOsType(EnumUtils.valueOf(OsType.class, osType, true));
+                    } catch (IllegalArgumentException e) {
+                        log.warn("Invalid or unknown guest os type '{}' received from guest agent", osType);
+                    }
+                    break;
+                case VdsProperties.GUEST_OS_INFO_VERSION:
+                    vmDynamic.setGuestOsVersion(stringOrNull());
+                    break;
+                default:
+                    parser.skipChildren();
+                }
+            }
+            if (!typeReported) {
+                log.warn("Guest OS type not reported by guest agent but expected.");
+            }
+        }
+
+        private void decodeGuestTimezone() throws IOException {
+            expect(parser.getCurrentToken(), JsonToken.START_OBJECT);
+            vmDynamic.setGuestOsTimezoneName(null);
+            vmDynamic.setGuestOsTimezoneOffset(null);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                case VdsProperties.GUEST_TIMEZONE_ZONE:
+                    vmDynamic.setGuestOsTimezoneName(stringOrNull());
+                    break;
+                case VdsProperties.GUEST_TIMEZONE_OFFSET:
+                    vmDynamic.setGuestOsTimezoneOffset(intValue());
+                    break;
+                default:
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        private void decodeMemoryStats() throws IOException {
+            expect(parser.getCurrentToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                case VdsProperties.vm_guest_mem_buffered:
+                    vmStatistics.setGuestMemoryBuffered(Long.parseLong(text()));
+                    break;
+                case VdsProperties.vm_guest_mem_cached:
+                    vmStatistics.setGuestMemoryCached(Long.parseLong(text()));
+                    break;
+                case VdsProperties.vm_guest_mem_free:
+                    vmStatistics.setGuestMemoryFree(Long.parseLong(text()));
+                    break;
+                default:
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        private void decodeBalloonInfo() throws IOException {
+            if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+                return;
+            }
+            expect(parser.getCurrentToken(), JsonToken.START_OBJECT);
+            int reported = 0;
+            Long current = null;
+            Long max = null;
+            Long target = null;
+            Long min = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                reported++;
+                switch (field) {
+                case VdsProperties.vm_balloon_cur:
+                    current = longValue();
+                    break;
+                case VdsProperties.vm_balloon_max:
+                    max = longValue();
+                    break;
+                case VdsProperties.vm_balloon_target:
+                    target = longValue();
+                    break;
+                case VdsProperties.vm_balloon_min:
+                    min = longValue();
+                    break;
+                default:
+                    parser.skipChildren();
+                }
+            }
+            if (reported > 0) {
+                balloonInfo.setCurrentMemory(current);
+                balloonInfo.setBalloonMaxMemory(max);
+                balloonInfo.setBalloonTargetMemory(target);
+                balloonInfo.setBalloonMinMemory(min);
+                // only if all 4 properties are found the balloon is considered enabled (available from 3.3)
+                balloonInfo.setBalloonDeviceEnabled(reported >= 4);
+            }
+        }
+
+        private void decodeNetwork() throws IOException {
+            expect(parser.getCurrentToken(), JsonToken.START_OBJECT);
+            interfaceStatistics = new ArrayList<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                parser.nextToken();
+                expect(parser.getCurrentToken(), JsonToken.START_OBJECT);
+                VmNetworkInterface nic = new VmNetworkInterface();
+                VmNetworkStatistics stats = nic.getStatistics();
+                stats.setReceiveDropRate(0.0);
+                stats.setTransmitDropRate(0.0);
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    switch (field) {
+                    case VdsProperties.VM_INTERFACE_NAME:
+                        nic.setName(stringOrNull());
+                        break;
+                    case VdsProperties.MAC_ADDR:
+                        nic.setMacAddress(stringOrNull());
+                        break;
+                    case VdsProperties.rx_dropped:
+                        stats.setReceiveDropRate(doubleValueWithNullProtection());
+                        break;
+                    case VdsProperties.rx_total:
+                        stats.setReceivedBytes(longValue());
+                        break;
+                    case VdsProperties.tx_dropped:
+                        stats.setTransmitDropRate(doubleValueWithNullProtection());
+                        break;
+                    case VdsProperties.tx_total:
+                        stats.setTransmittedBytes(longValue());
+                        break;
+                    case VdsProperties.sample_time:
+                        stats.setSampleTime(doubleValue());
+                        break;
+                    case VdsProperties.INTERFACE_SPEED:
+                        nic.setSpeed(intValue());
+                        break;
+                    default:
+                        parser.skipChildren();
+                    }
+                }
+                interfaceStatistics.add(nic);
+            }
+        }
+
+        private void decodeGuestAgentInterfaces() throws IOException {
+            expect(parser.getCurrentToken(), JsonToken.START_ARRAY);
+            guestAgentInterfaces = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                expect(parser.getCurrentToken(), JsonToken.START_OBJECT);
+                VmGuestAgentInterface nic = new VmGuestAgentInterface();
+                nic.setIpv4Addresses(Collections.emptyList());
+                nic.setIpv6Addresses(Collections.emptyList());
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    switch (field) {
+                    case VdsProperties.VM_INTERFACE_NAME:
+                        nic.setInterfaceName(stringOrNull());
+                        break;
+                    case VdsProperties.VM_INTERFACE_MAC_ADDRESS:
+                        String macAddress = stringOrNull();
+                        nic.setMacAddress(macAddress != null ? macAddress.replace('-', ':') : null);
+                        break;
+                    case VdsProperties.VM_IPV4_ADDRESSES:
+                        nic.setIpv4Addresses(strings());
+                        break;
+                    case VdsProperties.VM_IPV6_ADDRESSES:
+                        nic.setIpv6Addresses(strings());
+                        break;
+                    default:
+                        parser.skipChildren();
+                    }
+                }
+                guestAgentInterfaces.add(nic);
+            }
+        }
+
+        private void decodeDisks() throws IOException {
+            if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+                return;
+            }
+            expect(parser.getCurrentToken(), JsonToken.START_OBJECT);
+            diskStatistics = new ArrayList<>();
+            lunsMap = new HashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                parser.nextToken();
+                expect(parser.getCurrentToken(), JsonToken.START_OBJECT);
+                String imageGroupId = null;
+                String lunGuid = null;
+                Integer readRate = null;
+                Integer writeRate = null;
+                boolean trueSizeReported = false;
+                Long trueSize = null;
+                Double readLatency = null;
+                Double writeLatency = null;
+                Double flushLatency = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    switch (field) {
+                    case VdsProperties.image_group_id:
+                        imageGroupId = stringOrNull();
+                        break;
+                    case VdsProperties.lun_guid:
+                        lunGuid = stringOrNull();
+                        break;
+                    case VdsProperties.vm_disk_read_rate:
+                        readRate = intValue();
+                        break;
+                    case VdsProperties.vm_disk_write_rate:
+                        writeRate = intValue();
+                        break;
+                    case VdsProperties.disk_true_size:
+                        trueSizeReported = true;
+                        trueSize = longValue();
+                        break;
+                    case VdsProperties.vm_disk_read_latency:
+                        readLatency = doubleValueWithNullProtection() / VdsBrokerObjectsBuilder.NANO_SECONDS;
+                        break;
+                    case VdsProperties.vm_disk_write_latency:
+                        writeLatency = doubleValueWithNullProtection() / VdsBrokerObjectsBuilder.NANO_SECONDS;
+                        break;
+                    case VdsProperties.vm_disk_flush_latency:
+                        flushLatency = doubleValueWithNullProtection() / VdsBrokerObjectsBuilder.NANO_SECONDS;
+                        break;
+                    default:
+                        parser.skipChildren();
+                    }
+                }
+
+                if (!StringUtils.isEmpty(imageGroupId)) {
+                    DiskImageDynamic disk = new DiskImageDynamic();
+                    disk.setId(new Guid(imageGroupId));
+                    disk.setReadRate(readRate);
+                    disk.setWriteRate(writeRate);
+                    if (trueSizeReported) {
+                        disk.setActualSize(trueSize != null ? trueSize : 0);
+                    }
+                    disk.setReadLatency(readLatency);
+                    disk.setWriteLatency(writeLatency);
+                    disk.setFlushLatency(flushLatency);
+                    diskStatistics.add(disk);
+                }
+                if (!StringUtils.isEmpty(lunGuid)) {
+                    LUNs lun = new LUNs();
+                    lun.setLUNId(lunGuid);
+                    if (trueSizeReported) {
+                        long sizeInBytes = trueSize;
+                        lun.setDeviceSize(SizeConverter.convert(
+                                sizeInBytes, SizeConverter.SizeUnit.BYTES, SizeConverter.SizeUnit.GiB).intValue());
+                    }
+                    lunsMap.put(lunGuid, lun);
+                }
+            }
+        }
+
+        /**
+         * A value the builder casts to a string, anything else is left to the builder to fail on
+         */
+        private String string() throws IOException {
+            switch (parser.getCurrentToken()) {
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NULL:
+                return null;
+            default:
+                throw unexpected();
+            }
+        }
+
+        /**
+         * A value the builder takes only if it is a string
+         */
+        private String stringOrNull() throws IOException {
+            if (parser.getCurrentToken() == JsonToken.VALUE_STRING) {
+                return parser.getText();
+            }
+            parser.skipChildren();
+            return null;
+        }
+
+        /**
+         * A scalar value the builder converts to its string representation
+         */
+        private String text() throws IOException {
+            JsonToken token = parser.getCurrentToken();
+            if (token.isScalarValue() && token != JsonToken.VALUE_NULL && token != JsonToken.VALUE_NUMBER_FLOAT) {
+                return parser.getText();
+            }
+            throw unexpected();
+        }
+
+        private List<String> strings() throws IOException {
+            expect(parser.getCurrentToken(), JsonToken.START_ARRAY);
+            List<String> strings = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                expect(parser.getCurrentToken(), JsonToken.VALUE_STRING);
+                strings.add(parser.getText());
+            }
+            return strings.isEmpty() ? Collections.emptyList() : strings;
+        }
+
+        private Integer intValue() throws IOException {
+            switch (parser.getCurrentToken()) {
+            case VALUE_NUMBER_INT:
+                if (parser.getNumberType() != JsonParser.NumberType.INT) {
+                    throw unexpected();
+                }
+                return parser.getIntValue();
+            case VALUE_STRING:
+                String value = parser.getText();
+                // in case the value is decimal and we need int
+                return StringUtils.isEmpty(value) ? null : Integer.valueOf(value.split("[.]", -1)[0]);
+            case VALUE_NULL:
+                return null;
+            default:
+                throw unexpected();
+            }
+        }
+
+        private Long longValue() throws IOException {
+            switch (parser.getCurrentToken()) {
+            case VALUE_NUMBER_INT:
+                if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                    return null;
+                }
+                return parser.getLongValue();
+            case VALUE_STRING:
+                String value = parser.getText();
+                // in case the value is decimal and we need long
+                return StringUtils.isEmpty(value) ? null : Long.valueOf(value.split("[.]", -1)[0]);
+            default:
+                parser.skipChildren();
+                return null;
+            }
+        }
+
+        private Double doubleValue() throws IOException {
+            switch (parser.getCurrentToken()) {
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+            case VALUE_STRING:
+                return Double.parseDouble(parser.getText());
+            default:
+                parser.skipChildren();
+                return null;
+            }
+        }
+
+        private Double doubleValueWithNullProtection() throws IOException {
+            Double value = doubleValue();
+            return value == null ? Double.valueOf(0.0) : value;
+        }
+
+        private void expect(JsonToken token, JsonToken expected) {
+            if (token != expected) {
+                throw unexpected();
+            }
+        }
+
+        private IllegalStateException unexpected() {
+            return new IllegalStateException(String.format("Unexpected %s at %s",
+                    parser.getCurrentToken(),
+                    parser.getCurrentName()));
+        }
+    }
+}
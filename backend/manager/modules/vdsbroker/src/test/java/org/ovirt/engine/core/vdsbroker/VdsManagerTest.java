@@ -0,0 +1,192 @@
+package org.ovirt.engine.core.vdsbroker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VDSStatus;
+import org.ovirt.engine.core.common.businessentities.VdsDynamic;
+import org.ovirt.engine.core.common.businessentities.VdsNumaNode;
+import org.ovirt.engine.core.common.businessentities.VdsStatistics;
+import org.ovirt.engine.core.common.businessentities.pm.FenceAgent;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.VdsDynamicDao;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+import org.ovirt.engine.core.vdsbroker.monitoring.StatisticsPersister;
+
+@ExtendWith(MockConfigExtension.class)
+public class VdsManagerTest {
+
+    @Mock
+    private VdsDynamicDao vdsDynamicDao;
+    @Mock
+    private StatisticsPersister statisticsPersister;
+
+    @InjectMocks
+    private VdsManager vdsManager;
+
+    private VDS host;
+
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(
+                MockConfigDescriptor.of(ConfigValues.VdsRefreshRate, 2L),
+                MockConfigDescriptor.of(ConfigValues.NumberVmRefreshesBeforeSave, 5)
+        );
+    }
+
+    @BeforeEach
+    public void setUp() {
+        host = new VDS();
+        host.setId(Guid.newGuid());
+        host.setVdsName("host");
+        host.setStatus(VDSStatus.Up);
+        host.setNumaNodeList(new ArrayList<>(Collections.singletonList(new VdsNumaNode())));
+        host.setFenceAgents(new ArrayList<>(Collections.singletonList(new FenceAgent())));
+        // the configuration is only mocked once the test instance exists, the mocks are injected into the manager
+        vdsManager = new VdsManager(host, null);
+        initMocks(this);
+    }
+
+    private static VdsStatistics statistics(Guid hostId, double cpuUser) {
+        VdsStatistics statistics = new VdsStatistics();
+        statistics.setId(hostId);
+        statistics.setCpuUser(cpuUser);
+        return statistics;
+    }
+
+    @Test
+    public void testSnapshotPublishedOnCreation() {
+        VdsSnapshot snapshot = vdsManager.getSnapshot();
+
+        assertEquals(1, snapshot.getGeneration());
+        assertNotSame(host, snapshot.getVds());
+        assertEquals(host.getId(), snapshot.getVds().getId());
+        assertEquals(VDSStatus.Up, snapshot.getVds().getStatus());
+    }
+
+    @Test
+    public void testEveryChangePublishesNewGeneration() {
+        VdsSnapshot first = vdsManager.getSnapshot();
+
+        vdsManager.updateStatisticsData(statistics(host.getId(), 10.0), false);
+        VdsSnapshot second = vdsManager.getSnapshot();
+        VdsDynamic dynamic = host.getDynamicData();
+        dynamic.setStatus(VDSStatus.Maintenance);
+        vdsManager.updateDynamicData(dynamic);
+        VdsSnapshot third = vdsManager.getSnapshot();
+
+        assertEquals(first.getGeneration() + 1, second.getGeneration());
+        assertEquals(second.getGeneration() + 1, third.getGeneration());
+        assertEquals(10.0, (double) second.getVds().getCpuUser());
+        assertEquals(VDSStatus.Maintenance, third.getVds().getStatus());
+    }
+
+    @Test
+    public void testPublishedSnapshotNotChangedByHost() {
+        VdsSnapshot snapshot = vdsManager.getSnapshot();
+
+        host.setStatus(VDSStatus.NonResponsive);
+        host.getNumaNodeList().add(new VdsNumaNode());
+        vdsManager.updateStatisticsData(statistics(host.getId(), 20.0), false);
+
+        assertEquals(VDSStatus.Up, snapshot.getVds().getStatus());
+        assertEquals(1, snapshot.getVds().getNumaNodeList().size());
+        assertEquals(VDSStatus.NonResponsive, vdsManager.getSnapshot().getVds().getStatus());
+        assertEquals(2, vdsManager.getSnapshot().getVds().getNumaNodeList().size());
+    }
+
+    @Test
+    public void testSnapshotCollectionsUnmodifiable() {
+        VDS vds = vdsManager.getSnapshot().getVds();
+
+        assertThrows(UnsupportedOperationException.class, () -> vds.getNumaNodeList().add(new VdsNumaNode()));
+        assertThrows(UnsupportedOperationException.class, () -> vds.getFenceAgents().clear());
+    }
+
+    @Test
+    public void testSnapshotReusedWhileHostUnchanged() {
+        VdsSnapshot snapshot = vdsManager.getSnapshot();
+
+        assertSame(snapshot, vdsManager.getSnapshot());
+        vdsManager.updateStatisticsData(statistics(host.getId(), 30.0), false);
+        assertNotSame(snapshot, vdsManager.getSnapshot());
+    }
+
+    @Test
+    public void testSnapshotPublishedByTheChange() {
+        long initialGeneration = vdsManager.getSnapshot().getGeneration();
+
+        vdsManager.updateStatisticsData(statistics(host.getId(), 10.0), false);
+        VdsSnapshot first = vdsManager.getSnapshot();
+        vdsManager.updateStatisticsData(statistics(host.getId(), 20.0), false);
+        VdsSnapshot second = vdsManager.getSnapshot();
+
+        assertEquals(initialGeneration + 1, first.getGeneration());
+        assertEquals(10.0, (double) first.getVds().getCpuUser());
+        assertEquals(initialGeneration + 2, second.getGeneration());
+        assertEquals(20.0, (double) second.getVds().getCpuUser());
+    }
+
+    @Test
+    public void testConcurrentPublicationsKeepGenerationsOrdered() throws Exception {
+        int threads = 4;
+        int updates = 200;
+        long initialGeneration = vdsManager.getSnapshot().getGeneration();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < updates; j++) {
+                        vdsManager.updateStatisticsData(statistics(host.getId(), j), false);
+                    }
+                    return null;
+                }));
+            }
+            Future<Boolean> reader = executor.submit(() -> {
+                start.await();
+                long last = 0;
+                while (!writers.stream().allMatch(Future::isDone)) {
+                    long generation = vdsManager.getSnapshot().getGeneration();
+                    if (generation < last) {
+                        return false;
+                    }
+                    last = generation;
+                }
+                return true;
+            });
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(10, TimeUnit.SECONDS);
+            }
+
+            assertTrue(reader.get(10, TimeUnit.SECONDS));
+            assertEquals(initialGeneration + threads * updates, vdsManager.getSnapshot().getGeneration());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package org.ovirt.engine.core.vdsbroker.jsonrpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.node.TextNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.vdsbroker.TransportRunTimeException;
+import org.ovirt.vdsm.jsonrpc.client.ClientConnectionException;
+import org.ovirt.vdsm.jsonrpc.client.JsonRpcClient;
+import org.ovirt.vdsm.jsonrpc.client.JsonRpcRequest;
+import org.ovirt.vdsm.jsonrpc.client.JsonRpcResponse;
+
+public class JsonRpcRequestBatcherTest {
+
+    private static final String HOST_NAME = "host.example.com";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private JsonRpcClient client;
+    private ScheduledExecutorService executorService;
+    private JsonRpcStatistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        client = mock(JsonRpcClient.class);
+        when(client.getHostname()).thenReturn(HOST_NAME);
+        executorService = mock(ScheduledExecutorService.class);
+        statistics = new JsonRpcStatistics();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFirstRequestIsSentRightAway() throws Exception {
+        JsonRpcRequestBatcher batcher = new JsonRpcRequestBatcher(client, executorService, statistics, 20);
+        JsonRpcRequest stats = mockRequest("stats");
+        JsonRpcResponse statsResponse = createResponse("stats");
+        Future<JsonRpcResponse> response = mock(Future.class);
+        when(response.get(anyLong(), any(TimeUnit.class))).thenReturn(statsResponse);
+        when(client.call(stats)).thenReturn(response);
+
+        Future<JsonRpcResponse> statsFuture = batcher.submit(stats);
+
+        verify(client).call(stats);
+        verify(executorService).schedule(any(Runnable.class), eq(20L), eq(TimeUnit.MILLISECONDS));
+        assertSame(statsResponse, statsFuture.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRequestsOfWindowAreSentAsBatch() throws Exception {
+        JsonRpcRequestBatcher batcher = new JsonRpcRequestBatcher(client, executorService, statistics, 20);
+        JsonRpcRequest first = mockRequest("first");
+        when(client.call(first)).thenReturn(mock(Future.class));
+        JsonRpcRequest stats = mockRequest("stats");
+        JsonRpcRequest vmStats = mockRequest("vmStats");
+        Future<List<JsonRpcResponse>> batchResponses = mock(Future.class);
+        // the responses are not in the order of the requests
+        JsonRpcResponse vmStatsResponse = createResponse("vmStats");
+        JsonRpcResponse statsResponse = createResponse("stats");
+        when(batchResponses.get()).thenReturn(Arrays.asList(vmStatsResponse, statsResponse));
+        when(batchResponses.isDone()).thenReturn(true);
+        when(client.batchCall(anyList())).thenReturn(batchResponses);
+
+        batcher.submit(first);
+        Future<JsonRpcResponse> statsFuture = batcher.submit(stats);
+        Future<JsonRpcResponse> vmStatsFuture = batcher.submit(vmStats);
+        verify(executorService).schedule(any(Runnable.class), eq(20L), eq(TimeUnit.MILLISECONDS));
+        assertFalse(statsFuture.isDone());
+
+        batcher.flush();
+
+        verify(client).batchCall(Arrays.asList(stats, vmStats));
+        verify(client, never()).call(stats);
+        verify(client, never()).call(vmStats);
+        assertTrue(statsFuture.isDone());
+        assertSame(statsResponse, statsFuture.get());
+        assertSame(vmStatsResponse, vmStatsFuture.get());
+        assertEquals(Collections.singletonList(
+                "Host host.example.com: in flight 0, sent 0, batches 1, batched requests 2, timeouts 0"),
+                statistics.showHostStatistics());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSingleRequestOfWindowIsSentOnItsOwn() throws Exception {
+        JsonRpcRequestBatcher batcher = new JsonRpcRequestBatcher(client, executorService, statistics, 20);
+        JsonRpcRequest first = mockRequest("first");
+        when(client.call(first)).thenReturn(mock(Future.class));
+        JsonRpcRequest stats = mockRequest("stats");
+        JsonRpcResponse statsResponse = createResponse("stats");
+        Future<JsonRpcResponse> response = mock(Future.class);
+        when(response.get(anyLong(), any(TimeUnit.class))).thenReturn(statsResponse);
+        when(client.call(stats)).thenReturn(response);
+
+        batcher.submit(first);
+        Future<JsonRpcResponse> statsFuture = batcher.submit(stats);
+        verify(client, never()).call(stats);
+        batcher.flush();
+
+        verify(client, never()).batchCall(anyList());
+        assertSame(statsResponse, statsFuture.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRequestAfterWindowIsSentRightAway() throws Exception {
+        JsonRpcRequestBatcher batcher = new JsonRpcRequestBatcher(client, executorService, statistics, 20);
+        JsonRpcRequest first = mockRequest("first");
+        JsonRpcRequest stats = mockRequest("stats");
+        when(client.call(any(JsonRpcRequest.class))).thenReturn(mock(Future.class));
+
+        batcher.submit(first);
+        batcher.flush();
+        batcher.submit(stats);
+
+        verify(client).call(stats);
+        verify(client, never()).batchCall(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNoWindowSendsImmediately() throws Exception {
+        JsonRpcRequestBatcher batcher = new JsonRpcRequestBatcher(client, executorService, statistics, 0);
+        JsonRpcRequest stats = mockRequest("stats");
+        when(client.call(stats)).thenReturn(mock(Future.class));
+
+        batcher.submit(stats);
+
+        verify(client).call(stats);
+        verify(executorService, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void testConnectionFailureIsReportedWhenResponseIsRead() throws Exception {
+        JsonRpcRequestBatcher batcher = new JsonRpcRequestBatcher(client, executorService, statistics, 20);
+        JsonRpcRequest stats = mockRequest("stats");
+        JsonRpcRequest vmStats = mockRequest("vmStats");
+        when(client.batchCall(anyList())).thenThrow(new ClientConnectionException("Connection failed"));
+        JsonRpcRequest first = mockRequest("first");
+        when(client.call(first)).thenReturn(mock(Future.class));
+        batcher.submit(first);
+
+        JsonRpcStatistics.SentRequest sentRequest = statistics.requestSent(HOST_NAME, "Host.getStats");
+        FutureMap statsMap = new FutureMap(client, batcher.submit(stats), sentRequest);
+        batcher.submit(vmStats);
+        batcher.flush();
+
+        assertThrows(TransportRunTimeException.class, statsMap::isEmpty);
+        assertEquals(Collections.singletonList(
+                "Host host.example.com: in flight 0, sent 1, batches 0, batched requests 0, timeouts 0"),
+                statistics.showHostStatistics());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testTimeoutIsRecorded() throws Exception {
+        JsonRpcStatistics.SentRequest sentRequest = statistics.requestSent(HOST_NAME, "Host.getStats");
+        JsonRpcResponse response = JsonRpcResponse.fromJsonNode(mapper.readTree("{\"jsonrpc\": \"2.0\", \"id\": \"stats\","
+                + " \"error\": {\"code\": 5022, \"message\": \"Message timeout which can be caused by communication"
+                + " issues\"}}"));
+        Future<JsonRpcResponse> future = mock(Future.class);
+        when(future.get()).thenReturn(response);
+
+        new FutureMap(client, future, sentRequest).isEmpty();
+
+        assertEquals(Collections.singletonList(
+                "Host host.example.com: in flight 0, sent 1, batches 0, batched requests 0, timeouts 1"),
+                statistics.showHostStatistics());
+        assertTrue(statistics.showVerbLatencies().get(0).startsWith("Verb Host.getStats: responses 0, timeouts 1,"));
+    }
+
+    @Test
+    public void testStatisticsOfRemovedHostAreDropped() {
+        statistics.requestSent(HOST_NAME, "Host.getStats").failed();
+        statistics.requestSent("other.example.com", "Host.getStats").failed();
+
+        statistics.hostRemoved(HOST_NAME);
+
+        assertEquals(Collections.singletonList(
+                "Host other.example.com: in flight 0, sent 1, batches 0, batched requests 0, timeouts 0"),
+                statistics.showHostStatistics());
+    }
+
+    private JsonRpcRequest mockRequest(String id) {
+        JsonRpcRequest request = mock(JsonRpcRequest.class);
+        when(request.getId()).thenReturn(new TextNode(id));
+        return request;
+    }
+
+    private JsonRpcResponse createResponse(String id) throws Exception {
+        return JsonRpcResponse.fromJsonNode(
+                mapper.readTree("{\"jsonrpc\": \"2.0\", \"id\": \"" + id + "\", \"result\": {}}"));
+    }
+}
@@ -0,0 +1,133 @@
+package org.ovirt.engine.core.vdsbroker.jsonrpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VDSInfoReturn;
+import org.ovirt.vdsm.jsonrpc.client.ClientConnectionException;
+import org.ovirt.vdsm.jsonrpc.client.JsonRpcClient;
+import org.ovirt.vdsm.jsonrpc.client.JsonRpcResponse;
+
+public class JsonRpcResponsePollerTest {
+
+    private static final String HOST_NAME = "host.example.com";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private JsonRpcClient client;
+    private ScheduledExecutorService executorService;
+    private JsonRpcStatistics statistics;
+    private JsonRpcResponsePoller poller;
+
+    @BeforeEach
+    public void setUp() {
+        client = mock(JsonRpcClient.class);
+        executorService = mock(ScheduledExecutorService.class);
+        statistics = new JsonRpcStatistics();
+        poller = new JsonRpcResponsePoller(executorService, 20);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Future<JsonRpcResponse> mockResponse() {
+        return mock(Future.class);
+    }
+
+    private FutureMap createFutureMap(Future<JsonRpcResponse> response) {
+        return new FutureMap(client, response, statistics.requestSent(HOST_NAME, "Host.getCapabilities"));
+    }
+
+    private Runnable scheduledCheck(int checks) {
+        ArgumentCaptor<Runnable> check = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService, times(checks)).schedule(check.capture(), eq(20L), eq(TimeUnit.MILLISECONDS));
+        return check.getValue();
+    }
+
+    private List<Runnable> executedCompletions(int completions) {
+        ArgumentCaptor<Runnable> completion = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService, times(completions)).execute(completion.capture());
+        return completion.getAllValues();
+    }
+
+    @Test
+    public void testFutureCompletedOnceTheResponseArrived() throws Exception {
+        Future<JsonRpcResponse> response = mockResponse();
+        CompletableFuture<VDSInfoReturn> capabilities = poller.whenDone(createFutureMap(response), VDSInfoReturn::new);
+
+        scheduledCheck(1).run();
+        assertFalse(capabilities.isDone());
+
+        when(response.isDone()).thenReturn(true);
+        when(response.get()).thenReturn(JsonRpcResponse.fromJsonNode(
+                mapper.readTree("{\"jsonrpc\": \"2.0\", \"id\": \"1\", \"result\": {\"cpuCores\": \"4\"}}")));
+        scheduledCheck(2).run();
+        assertFalse(capabilities.isDone());
+
+        executedCompletions(1).get(0).run();
+        VDSInfoReturn result = capabilities.get();
+        assertEquals(0, result.status.code);
+        assertEquals(Collections.singletonMap("cpuCores", "4"), result.info);
+    }
+
+    @Test
+    public void testResponsesCheckedTogether() {
+        Future<JsonRpcResponse> first = mockResponse();
+        Future<JsonRpcResponse> second = mockResponse();
+        poller.whenDone(createFutureMap(first), VDSInfoReturn::new);
+        poller.whenDone(createFutureMap(second), VDSInfoReturn::new);
+
+        when(second.isDone()).thenReturn(true);
+        scheduledCheck(1).run();
+
+        // only the second response arrived, the first one is checked again
+        executedCompletions(1);
+        when(first.isDone()).thenReturn(true);
+        scheduledCheck(2).run();
+        executedCompletions(2);
+    }
+
+    @Test
+    public void testFailureToReadTheResponseCompletesTheFutureExceptionally() throws Exception {
+        Future<JsonRpcResponse> response = mockResponse();
+        when(response.isDone()).thenReturn(true);
+        when(response.get()).thenThrow(new ExecutionException(new ClientConnectionException("connection reset")));
+        CompletableFuture<VDSInfoReturn> capabilities = poller.whenDone(createFutureMap(response), VDSInfoReturn::new);
+
+        scheduledCheck(1).run();
+        executedCompletions(1).get(0).run();
+
+        assertTrue(capabilities.isCompletedExceptionally());
+        assertThrows(ExecutionException.class, capabilities::get);
+    }
+
+    @Test
+    public void testRejectedCheckCompletesTheFutureExceptionally() {
+        doThrow(new RejectedExecutionException("shutting down")).when(executorService)
+                .schedule(any(Runnable.class), eq(20L), eq(TimeUnit.MILLISECONDS));
+
+        CompletableFuture<VDSInfoReturn> capabilities =
+                poller.whenDone(createFutureMap(mockResponse()), VDSInfoReturn::new);
+
+        assertTrue(capabilities.isCompletedExceptionally());
+    }
+}
@@ -0,0 +1,111 @@
+package org.ovirt.engine.core.vdsbroker.jsonrpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.apache.commons.httpclient.HttpClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.ovirt.engine.core.vdsbroker.TransportRunTimeException;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VDSInfoReturn;
+import org.ovirt.vdsm.jsonrpc.client.BrokerCommandCallback;
+import org.ovirt.vdsm.jsonrpc.client.ClientConnectionException;
+import org.ovirt.vdsm.jsonrpc.client.JsonRpcClient;
+import org.ovirt.vdsm.jsonrpc.client.JsonRpcRequest;
+
+public class JsonRpcVdsServerTest {
+
+    private static final String HOST_NAME = "host.example.com";
+
+    private JsonRpcClient client;
+    private JsonRpcVdsServer server;
+
+    @BeforeEach
+    public void setUp() {
+        client = mock(JsonRpcClient.class);
+        when(client.getHostname()).thenReturn(HOST_NAME);
+        server = new JsonRpcVdsServer(client,
+                mock(HttpClient.class),
+                mock(ScheduledExecutorService.class),
+                new JsonRpcStatistics(),
+                20);
+    }
+
+    private BrokerCommandCallback sentCallback() throws Exception {
+        ArgumentCaptor<JsonRpcRequest> request = ArgumentCaptor.forClass(JsonRpcRequest.class);
+        ArgumentCaptor<BrokerCommandCallback> callback = ArgumentCaptor.forClass(BrokerCommandCallback.class);
+        verify(client).call(request.capture(), callback.capture());
+        assertEquals("Host.getCapabilities", request.getValue().getMethod());
+        return callback.getValue();
+    }
+
+    private static Map<String, Object> status(int code, String message) {
+        Map<String, Object> status = new HashMap<>();
+        status.put("code", code);
+        status.put("message", message);
+        return status;
+    }
+
+    @Test
+    public void testResponseCompletesTheFuture() throws Exception {
+        CompletableFuture<VDSInfoReturn> capabilities = server.getCapabilitiesAsync();
+        assertFalse(capabilities.isDone());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", status(0, "Done"));
+        response.put("info", Collections.singletonMap("cpuCores", "4"));
+        sentCallback().onResponse(response);
+
+        assertTrue(capabilities.isDone());
+        VDSInfoReturn result = capabilities.get();
+        assertEquals(0, result.status.code);
+        assertEquals(Collections.singletonMap("cpuCores", "4"), result.info);
+    }
+
+    @Test
+    public void testFailureCompletesTheFutureWithTheStatus() throws Exception {
+        CompletableFuture<VDSInfoReturn> capabilities = server.getCapabilitiesAsync();
+
+        sentCallback().onFailure(status(5022, "Message timeout which can be caused by communication issues"));
+
+        VDSInfoReturn result = capabilities.get();
+        assertEquals(5022, result.status.code);
+        assertEquals("Message timeout which can be caused by communication issues", result.status.message);
+        assertNull(result.info);
+    }
+
+    @Test
+    public void testInvalidResponseCompletesTheFutureExceptionally() throws Exception {
+        CompletableFuture<VDSInfoReturn> capabilities = server.getCapabilitiesAsync();
+
+        // a response without a status can't be read
+        sentCallback().onResponse(Collections.singletonMap("info", Collections.emptyMap()));
+
+        assertTrue(capabilities.isCompletedExceptionally());
+        assertThrows(ExecutionException.class, capabilities::get);
+    }
+
+    @Test
+    public void testConnectionIssuesThrown() throws Exception {
+        doThrow(new ClientConnectionException("connection refused")).when(client)
+                .call(any(JsonRpcRequest.class), any(BrokerCommandCallback.class));
+
+        assertThrows(TransportRunTimeException.class, server::getCapabilitiesAsync);
+    }
+}
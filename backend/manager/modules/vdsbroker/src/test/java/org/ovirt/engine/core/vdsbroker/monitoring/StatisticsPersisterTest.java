@@ -0,0 +1,290 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.common.businessentities.VdsStatistics;
+import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.VdsStatisticsDao;
+import org.ovirt.engine.core.dao.VmStatisticsDao;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+
+@ExtendWith({MockitoExtension.class, MockConfigExtension.class})
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class StatisticsPersisterTest {
+
+    private static final int MAX_PENDING = 5;
+
+    @Mock
+    private VdsStatisticsDao vdsStatisticsDao;
+    @Mock
+    private VmStatisticsDao vmStatisticsDao;
+    @Mock
+    private ManagedScheduledExecutorService executor;
+
+    @Captor
+    private ArgumentCaptor<Collection<VdsStatistics>> vdsStatisticsCaptor;
+    @Captor
+    private ArgumentCaptor<Collection<VmStatistics>> vmStatisticsCaptor;
+
+    @InjectMocks
+    private StatisticsPersister persister;
+
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(
+                MockConfigDescriptor.of(ConfigValues.StatisticsPersistenceIntervalInMillis, 1000),
+                MockConfigDescriptor.of(ConfigValues.StatisticsPersistenceMaxPending, MAX_PENDING)
+        );
+    }
+
+    @BeforeEach
+    public void setUp() {
+        doReturn(mock(ScheduledFuture.class)).when(executor)
+                .scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+        persister.init();
+    }
+
+    private static VdsStatistics vdsStatistics(Guid id) {
+        VdsStatistics statistics = new VdsStatistics();
+        statistics.setId(id);
+        return statistics;
+    }
+
+    private static VmStatistics vmStatistics(Guid id) {
+        return new VmStatistics(id);
+    }
+
+    private static Set<Guid> ids(Collection<VmStatistics> statistics) {
+        return statistics.stream().map(VmStatistics::getId).collect(Collectors.toSet());
+    }
+
+    private Collection<VdsStatistics> lastVdsBatch() {
+        List<Collection<VdsStatistics>> batches = vdsStatisticsCaptor.getAllValues();
+        return batches.get(batches.size() - 1);
+    }
+
+    private Collection<VmStatistics> lastVmBatch() {
+        List<Collection<VmStatistics>> batches = vmStatisticsCaptor.getAllValues();
+        return batches.get(batches.size() - 1);
+    }
+
+    @Test
+    public void testStatisticsWrittenInBatchOnFlush() {
+        Guid hostId = Guid.newGuid();
+        Guid vm1 = Guid.newGuid();
+        Guid vm2 = Guid.newGuid();
+        VdsStatistics latest = vdsStatistics(hostId);
+
+        persister.saveVdsStatistics(vdsStatistics(hostId), false);
+        persister.saveVdsStatistics(latest, false);
+        persister.saveVmStatistics(Arrays.asList(vmStatistics(vm1), vmStatistics(vm2)), false);
+        persister.saveVmStatistics(Collections.singletonList(vmStatistics(vm1)), false);
+        verify(vdsStatisticsDao, never()).updateAllInBatch(any());
+        verify(vmStatisticsDao, never()).updateAllInBatch(any());
+
+        persister.flush();
+
+        verify(vdsStatisticsDao).updateAllInBatch(vdsStatisticsCaptor.capture());
+        verify(vmStatisticsDao).updateAllInBatch(vmStatisticsCaptor.capture());
+        assertEquals(1, lastVdsBatch().size());
+        assertEquals(latest, lastVdsBatch().iterator().next());
+        assertEquals(2, lastVmBatch().size());
+        assertEquals(new HashSet<>(Arrays.asList(vm1, vm2)), ids(lastVmBatch()));
+    }
+
+    @Test
+    public void testPendingStatisticsNotChangedByMonitoring() {
+        Guid hostId = Guid.newGuid();
+        Guid vmId = Guid.newGuid();
+        VdsStatistics vdsStatistics = vdsStatistics(hostId);
+        vdsStatistics.setCpuUser(1.0);
+        VmStatistics vmStatistics = vmStatistics(vmId);
+        vmStatistics.setCpuUser(1.0);
+        persister.saveVdsStatistics(vdsStatistics, false);
+        persister.saveVmStatistics(Collections.singletonList(vmStatistics), false);
+
+        // the next monitoring cycle updates the same objects before the batch is written
+        vdsStatistics.setCpuUser(2.0);
+        vmStatistics.setCpuUser(2.0);
+        persister.flush();
+
+        verify(vdsStatisticsDao).updateAllInBatch(vdsStatisticsCaptor.capture());
+        verify(vmStatisticsDao).updateAllInBatch(vmStatisticsCaptor.capture());
+        assertEquals(1.0, (double) lastVdsBatch().iterator().next().getCpuUser());
+        assertEquals(1.0, (double) lastVmBatch().iterator().next().getCpuUser());
+    }
+
+    @Test
+    public void testImmediateSaveReplacesPendingStatistics() {
+        Guid hostId = Guid.newGuid();
+        VdsStatistics immediate = vdsStatistics(hostId);
+        persister.saveVdsStatistics(vdsStatistics(hostId), false);
+
+        persister.saveVdsStatistics(immediate, true);
+        verify(vdsStatisticsDao).update(immediate);
+
+        persister.flush();
+        verify(vdsStatisticsDao, never()).updateAllInBatch(any());
+    }
+
+    @Test
+    public void testFailedImmediateSaveKeptPending() {
+        Guid vmId = Guid.newGuid();
+        doThrow(new RuntimeException()).doNothing().when(vmStatisticsDao).updateAllInBatch(any());
+
+        assertThrows(RuntimeException.class,
+                () -> persister.saveVmStatistics(Collections.singletonList(vmStatistics(vmId)), true));
+
+        persister.flush();
+        verify(vmStatisticsDao, times(2)).updateAllInBatch(vmStatisticsCaptor.capture());
+        assertEquals(Collections.singleton(vmId), ids(lastVmBatch()));
+    }
+
+    @Test
+    public void testImmediateSaveDuringFlushWrittenAfterIt() {
+        Guid hostId = Guid.newGuid();
+        Guid otherHostId = Guid.newGuid();
+        VdsStatistics older = vdsStatistics(hostId);
+        older.setCpuUser(1.0);
+        VdsStatistics newer = vdsStatistics(hostId);
+        newer.setCpuUser(2.0);
+        VdsStatistics otherStatistics = vdsStatistics(otherHostId);
+        persister.saveVdsStatistics(older, false);
+        doAnswer(invocation -> {
+            // the statistics of the flushed host wait for the flush, the ones of other hosts don't
+            persister.saveVdsStatistics(newer, true);
+            verify(vdsStatisticsDao, never()).update(newer);
+            persister.saveVdsStatistics(otherStatistics, true);
+            verify(vdsStatisticsDao).update(otherStatistics);
+            return null;
+        }).doNothing().when(vdsStatisticsDao).updateAllInBatch(any());
+
+        persister.flush();
+
+        verify(vdsStatisticsDao, times(2)).updateAllInBatch(vdsStatisticsCaptor.capture());
+        assertEquals(Arrays.asList(Collections.singletonList(older), Collections.singletonList(newer)),
+                vdsStatisticsCaptor.getAllValues());
+        assertEquals(2.0, (double) lastVdsBatch().iterator().next().getCpuUser());
+    }
+
+    @Test
+    public void testFlushOfSingleHost() {
+        Guid hostId = Guid.newGuid();
+        Guid otherHostId = Guid.newGuid();
+        VdsStatistics statistics = vdsStatistics(hostId);
+        VdsStatistics otherStatistics = vdsStatistics(otherHostId);
+        persister.saveVdsStatistics(statistics, false);
+        persister.saveVdsStatistics(otherStatistics, false);
+
+        persister.flushVdsStatistics(hostId);
+        verify(vdsStatisticsDao).update(statistics);
+        verify(vdsStatisticsDao, never()).update(otherStatistics);
+
+        persister.flush();
+        verify(vdsStatisticsDao).updateAllInBatch(vdsStatisticsCaptor.capture());
+        assertEquals(Collections.singletonList(otherStatistics), lastVdsBatch());
+    }
+
+    @Test
+    public void testTooManyPendingStatisticsWrittenByCaller() {
+        for (int i = 0; i < MAX_PENDING; i++) {
+            persister.saveVmStatistics(Collections.singletonList(vmStatistics(Guid.newGuid())), false);
+        }
+        verify(vmStatisticsDao, never()).updateAllInBatch(any());
+
+        persister.saveVmStatistics(Collections.singletonList(vmStatistics(Guid.newGuid())), false);
+        verify(vmStatisticsDao).updateAllInBatch(vmStatisticsCaptor.capture());
+        assertEquals(MAX_PENDING + 1, lastVmBatch().size());
+    }
+
+    @Test
+    public void testFailedStatisticsKeptPending() {
+        Guid hostId = Guid.newGuid();
+        Guid vmId = Guid.newGuid();
+        VdsStatistics statistics = vdsStatistics(hostId);
+        persister.saveVdsStatistics(statistics, false);
+        persister.saveVmStatistics(Collections.singletonList(vmStatistics(vmId)), false);
+        doThrow(new RuntimeException()).doNothing().when(vdsStatisticsDao).updateAllInBatch(any());
+
+        persister.flush();
+        verify(vmStatisticsDao, never()).updateAllInBatch(any());
+
+        persister.flush();
+        verify(vdsStatisticsDao, times(2)).updateAllInBatch(vdsStatisticsCaptor.capture());
+        verify(vmStatisticsDao).updateAllInBatch(vmStatisticsCaptor.capture());
+        assertEquals(Collections.singletonList(statistics), lastVdsBatch());
+        assertEquals(Collections.singleton(vmId), ids(lastVmBatch()));
+    }
+
+    @Test
+    public void testFailedStatisticsDoNotOverrideNewerOnes() {
+        Guid vmId = Guid.newGuid();
+        VmStatistics older = vmStatistics(vmId);
+        older.setCpuUser(1.0);
+        VmStatistics newer = vmStatistics(vmId);
+        newer.setCpuUser(2.0);
+        persister.saveVmStatistics(Collections.singletonList(older), false);
+        // newer statistics arrive while the failing batch is written
+        doAnswer(invocation -> {
+            persister.saveVmStatistics(Collections.singletonList(newer), false);
+            throw new RuntimeException();
+        }).when(vmStatisticsDao).updateAllInBatch(any());
+
+        persister.flush();
+
+        doNothing().when(vmStatisticsDao).updateAllInBatch(any());
+        persister.flush();
+        verify(vmStatisticsDao, times(2)).updateAllInBatch(vmStatisticsCaptor.capture());
+        assertEquals(1, lastVmBatch().size());
+        assertEquals(newer.getCpuUser(), lastVmBatch().iterator().next().getCpuUser());
+    }
+
+    @Test
+    public void testFailedFlushOfSingleHostKeptPending() {
+        Guid hostId = Guid.newGuid();
+        VdsStatistics statistics = vdsStatistics(hostId);
+        persister.saveVdsStatistics(statistics, false);
+        doThrow(new RuntimeException()).when(vdsStatisticsDao).update(statistics);
+
+        assertThrows(RuntimeException.class, () -> persister.flushVdsStatistics(hostId));
+
+        persister.flush();
+        verify(vdsStatisticsDao).updateAllInBatch(vdsStatisticsCaptor.capture());
+        assertEquals(Collections.singletonList(statistics), lastVdsBatch());
+    }
+}
@@ -50,6 +50,7 @@ import org.ovirt.engine.core.dao.VdsDynamicDao;
 import org.ovirt.engine.core.utils.InjectorExtension;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.VdsManager;
+import org.ovirt.engine.core.vdsbroker.VdsSnapshot;
 import org.ovirt.engine.core.vdsbroker.VmManager;
 
 @ExtendWith({MockitoExtension.class, InjectorExtension.class})
@@ -273,6 +274,7 @@ public class VmAnalyzerTest {
         vmAnalyzer.analyze();
         assertEquals(data.dbVm().getDynamicData(), vmAnalyzer.getVmDynamicToSave());
         assertNotNull(vmAnalyzer.getVmStatisticsToSave());
+        assertTrue(vmAnalyzer.isVmStatisticsReset());
         assertFalse(vmAnalyzer.isRerun());
         assertTrue(vmAnalyzer.isAutoVmToRun());
         assertNull(data.dbVm().getMigratingToVds());
@@ -324,7 +326,7 @@ public class VmAnalyzerTest {
         stubDaos();
         when(vdsManager.getVdsId()).thenReturn(VmTestPairs.SRC_HOST_ID);
         when(vdsManager.getClusterId()).thenReturn(VmTestPairs.CLUSTER_ID);
-        when(vdsManager.getCopyVds()).thenReturn(vdsManagerVds);
+        when(vdsManager.getSnapshot()).thenReturn(new VdsSnapshot(vdsManagerVds, 1));
         when(vmManager.isColdReboot()).thenReturn(false);
         when(vmManager.isAutoStart()).thenReturn(vmData.dbVm() != null ? vmData.dbVm().isAutoStartup() : false);
         when(vmManager.getStatistics()).thenReturn(new VmStatistics());
@@ -32,6 +32,7 @@ import org.ovirt.engine.core.utils.InjectedMock;
 import org.ovirt.engine.core.utils.InjectorExtension;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.VdsManager;
+import org.ovirt.engine.core.vdsbroker.VdsSnapshot;
 
 @ExtendWith({MockitoExtension.class, InjectorExtension.class})
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -54,7 +55,7 @@ public class VmsListFetcherTest {
     public void setup() {
         VDS vds = new VDS();
         vds.setId(VmTestPairs.SRC_HOST_ID);
-        when(vdsManager.getCopyVds()).thenReturn(vds);
+        when(vdsManager.getSnapshot()).thenReturn(new VdsSnapshot(vds, 1));
         when(vdsManager.getVdsId()).thenReturn(vds.getId());
         vmsListFetcher = new VmsListFetcher(vdsManager);
     }
@@ -0,0 +1,153 @@
+package org.ovirt.engine.core.vdsbroker.vdsbroker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.DeserializationConfig;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VMStatus;
+import org.ovirt.engine.core.common.businessentities.VmBalloonInfo;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.vdsbroker.monitoring.VdsmVm;
+
+public class VmStatsStreamDecoderTest {
+
+    private static final String VM_ID = "71ca53fb-c223-4b31-926d-de1c2ab0b0a9";
+
+    private static final String RUNNING_VM = "{'vmId': '" + VM_ID + "', 'status': 'Up', 'statusTime': '4295207350',"
+            + " 'hash': '-6940914413212493375', 'session': 'Unknown', 'acpiEnable': 'true', 'timeOffset': '+3600',"
+            + " 'elapsedTime': '86400', 'cpuSys': '1.20', 'cpuUser': '12.53', 'cpuUsage': '45230000000',"
+            + " 'memUsage': '42', 'monitorResponse': '0', 'clientIp': '', 'pauseCode': 'NOERR',"
+            + " 'guestName': 'vm.example.com', 'guestFQDN': ' vm.example.com ', 'username': 'root',"
+            + " 'guestCPUCount': 4, 'guestOs': '3.10.0-693.el7.x86_64',"
+            + " 'appsList': ['kernel-3.10.0-693.el7', 'ovirt-guest-agent-common-1.0.14', 'qemu-guest-agent-2.8.0'],"
+            + " 'guestOsInfo': {'type': 'linux', 'arch': 'x86_64', 'kernel': '3.10.0-693.el7.x86_64',"
+            + " 'distribution': 'CentOS Linux', 'version': '7.4.1708', 'codename': 'Core'},"
+            + " 'guestTimezone': {'zone': 'Europe/Prague', 'offset': 60},"
+            + " 'memoryStats': {'swap_out': '0', 'majflt': '0', 'mem_cached': '1048576', 'mem_free': '2097152',"
+            + " 'mem_buffers': '65536', 'swap_in': '0', 'pageflt': '123', 'mem_total': '4194304', 'mem_unused': '2097152'},"
+            + " 'balloonInfo': {'balloon_max': '4194304', 'balloon_min': '2097152', 'balloon_cur': '4194304',"
+            + " 'balloon_target': '4194304'},"
+            + " 'displayInfo': [{'tlsPort': '5901', 'ipAddress': '0', 'type': 'spice', 'port': '5900'},"
+            + " {'tlsPort': '-1', 'ipAddress': '0', 'type': 'vnc', 'port': '-1'}],"
+            + " 'network': {'vnet0': {'macAddr': '00:1a:4a:16:01:51', 'rxDropped': '0', 'tx': '123456', 'txDropped': '0',"
+            + " 'rxErrors': '0', 'rx': '654321', 'txErrors': '0', 'state': 'unknown', 'sampleTime': 4295207.35,"
+            + " 'speed': '1000', 'name': 'vnet0'}},"
+            + " 'netIfaces': [{'hw': '00-1a-4a-16-01-51', 'inet': ['192.168.1.10'], 'inet6': ['fe80::21a:4aff:fe16:151'],"
+            + " 'name': 'eth0'}, {'hw': '00:00:00:00:00:00', 'inet': [], 'inet6': [], 'name': 'lo'}],"
+            + " 'disks': {'vda': {'readLatency': '1500000', 'writtenBytes': '1024', 'writeOps': '2', 'apparentsize': '1073741824',"
+            + " 'readOps': '3', 'writeLatency': '2500000', 'imageID': 'ed185868-3f9e-4040-a340-e1a64726ebc0',"
+            + " 'readBytes': '2048', 'flushLatency': '100000', 'readRate': '10.5', 'truesize': '536870912', 'writeRate': '20'},"
+            + " 'sda': {'readLatency': '0', 'writeLatency': '0', 'flushLatency': '0', 'readRate': '0', 'writeRate': '0',"
+            + " 'lunGUID': '36001405c8e9b4c8b1a54bb3a8ed3e2a9', 'truesize': '10737418240'}},"
+            + " 'watchdogEvent': {'time': '1515152545.5', 'action': 'reset'},"
+            + " 'cdrom': '/rhev/data-center/mnt/iso/images/11111111-1111-1111-1111-111111111111/CentOS-7.iso',"
+            + " 'vmType': 'kvm', 'vcpuQuota': '-1', 'vcpuPeriod': 100000, 'vcpuCount': '4'}";
+
+    private static final String LEGACY_VM = "{'vmId': '" + VM_ID + "', 'status': 'Migration Source',"
+            + " 'displayType': 'qxl', 'displayPort': '5900', 'displaySecurePort': '5901', 'displayIp': '10.0.0.1',"
+            + " 'migrationProgress': '37', 'monitorResponse': '-1',"
+            + " 'vmJobs': {'2c7cbb3f-6a5e-4a56-8fe0-8e0f24c13a19': {'id': '2c7cbb3f-6a5e-4a56-8fe0-8e0f24c13a19',"
+            + " 'jobType': 'block', 'blockJobType': 'commit', 'bandwidth': 0, 'cur': '524288', 'end': '1048576',"
+            + " 'imgUUID': 'ed185868-3f9e-4040-a340-e1a64726ebc0'}},"
+            + " 'guestContainers': [{'id': 'abc', 'names': ['web'], 'image': 'nginx', 'command': 'nginx',"
+            + " 'status': 'Up 2 hours'}],"
+            + " 'disksUsage': [{'path': '/', 'total': '10724835328', 'used': '1649123328', 'fs': 'xfs'}],"
+            + " 'balloonInfo': {}, 'appsList': 'none', 'exitCode': 1, 'exitMessage': 'Lost connection with qemu',"
+            + " 'exitReason': 1, 'guestFQDN': 'localhost'}";
+
+    private final ObjectMapper mapper =
+            new ObjectMapper().configure(DeserializationConfig.Feature.USE_JAVA_ARRAY_FOR_JSON_ARRAY, true);
+    private final VdsBrokerObjectsBuilder builder = new VdsBrokerObjectsBuilder();
+    private final VmStatsStreamDecoder decoder = new VmStatsStreamDecoder(builder);
+    private VDS host;
+
+    @BeforeEach
+    public void setUp() {
+        host = new VDS();
+        host.setId(Guid.newGuid());
+        host.setHostName("host.example.com");
+    }
+
+    @Test
+    public void testRunningVm() throws Exception {
+        VdsmVm vm = assertDecodedLikeBuilder(RUNNING_VM);
+
+        assertEquals(VMStatus.Up, vm.getVmDynamic().getStatus());
+        assertEquals("vm.example.com", vm.getVmDynamic().getFqdn());
+        assertEquals("host.example.com",
+                vm.getVmDynamic().getGraphicsInfos().values().iterator().next().getIp());
+        assertTrue(vm.getVmBalloonInfo().isBalloonDeviceEnabled());
+        assertEquals(2, vm.getVmGuestAgentInterfaces().size());
+        assertEquals("00:1a:4a:16:01:51", vm.getVmGuestAgentInterfaces().get(0).getMacAddress());
+        assertEquals(1, vm.getDiskStatistics().size());
+        assertEquals(1, vm.getLunsMap().size());
+    }
+
+    @Test
+    public void testLegacyVmWithRareSections() throws Exception {
+        VdsmVm vm = assertDecodedLikeBuilder(LEGACY_VM);
+
+        assertEquals(VMStatus.NotResponding, vm.getVmDynamic().getStatus());
+        assertNull(vm.getVmDynamic().getFqdn());
+        assertEquals(1, vm.getVmJobs().size());
+        assertEquals(1, vm.getVmDynamic().getGuestContainers().size());
+        assertEquals(37, vm.getVmStatistics().getMigrationProgressPercent().intValue());
+        assertFalse(vm.getVmBalloonInfo().isBalloonDeviceEnabled());
+    }
+
+    @Test
+    public void testUnexpectedValueIsBuiltFromMap() throws Exception {
+        VdsmVm vm = assertDecodedLikeBuilder("{'vmId': '" + VM_ID + "', 'status': 'Up', 'memUsage': 'n/a',"
+                + " 'cpuUser': '12.53', 'netIfaces': [{'name': 'eth0', 'inet': [1]}]}");
+
+        assertNull(vm.getVmStatistics().getUsageMemPercent());
+        assertEquals(12.53, vm.getVmStatistics().getCpuUser().doubleValue(), 0);
+    }
+
+    @Test
+    public void testMinimalVm() throws Exception {
+        VdsmVm vm = assertDecodedLikeBuilder("{'vmId': '" + VM_ID + "', 'status': 'Down'}");
+
+        assertEquals(-1d, vm.getTimestamp().doubleValue(), 0);
+        assertNull(vm.getInterfaceStatistics());
+        assertNull(vm.getVmGuestAgentInterfaces());
+        assertTrue(vm.getDiskStatistics().isEmpty());
+    }
+
+    private VdsmVm assertDecodedLikeBuilder(String json) throws Exception {
+        JsonNode statsList = mapper.readTree("[" + json.replace('\'', '"') + "]");
+        VdsmVm expected = builder.buildVdsmVm(mapper.readValue(statsList.get(0), Map.class), host);
+        VdsmVm actual = decoder.decode(statsList, host).get(0);
+
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        assertEquals(expected.getDevicesHash(), actual.getDevicesHash());
+        assertEquals(expected.getVmDynamic(), actual.getVmDynamic());
+        assertEquals(expected.getVmDynamic().getGraphicsInfos(), actual.getVmDynamic().getGraphicsInfos());
+        assertEquals(expected.getVmDynamic().getGuestContainers(), actual.getVmDynamic().getGuestContainers());
+        assertEquals(expected.getVmStatistics(), actual.getVmStatistics());
+        assertEquals(expected.getVmJobs(), actual.getVmJobs());
+        assertEquals(expected.getInterfaceStatistics(), actual.getInterfaceStatistics());
+        assertBalloonInfo(expected.getVmBalloonInfo(), actual.getVmBalloonInfo());
+        assertEquals(expected.getVmGuestAgentInterfaces(), actual.getVmGuestAgentInterfaces());
+        assertEquals(expected.getLunsMap(), actual.getLunsMap());
+        assertEquals(expected.getDiskStatistics(), actual.getDiskStatistics());
+        return actual;
+    }
+
+    private static void assertBalloonInfo(VmBalloonInfo expected, VmBalloonInfo actual) {
+        assertEquals(expected.isBalloonDeviceEnabled(), actual.isBalloonDeviceEnabled());
+        assertEquals(expected.getCurrentMemory(), actual.getCurrentMemory());
+        assertEquals(expected.getBalloonMaxMemory(), actual.getBalloonMaxMemory());
+        assertEquals(expected.getBalloonMinMemory(), actual.getBalloonMinMemory());
+        assertEquals(expected.getBalloonTargetMemory(), actual.getBalloonTargetMemory());
+    }
+}
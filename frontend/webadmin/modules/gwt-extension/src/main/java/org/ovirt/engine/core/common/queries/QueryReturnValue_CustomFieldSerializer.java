@@ -13,6 +13,8 @@ public class QueryReturnValue_CustomFieldSerializer {
         instance.setSucceeded(streamReader.readBoolean());
         instance.setExceptionString(streamReader.readString());
         instance.setReturnValue(ObjectSerializer.deserialize(streamReader));
+        instance.setChangeGeneration(streamReader.readLong());
+        instance.setUnchanged(streamReader.readBoolean());
     }
 
     public static QueryReturnValue instantiate(SerializationStreamReader streamReader)
@@ -25,6 +27,8 @@ public class QueryReturnValue_CustomFieldSerializer {
         streamWriter.writeBoolean(instance.getSucceeded());
         streamWriter.writeString(instance.getExceptionString());
         ObjectSerializer.serialize(streamWriter, instance.getReturnValue());
+        streamWriter.writeLong(instance.getChangeGeneration());
+        streamWriter.writeBoolean(instance.isUnchanged());
     }
 
 }
@@ -14,6 +14,7 @@ import org.ovirt.engine.core.common.businessentities.Queryable;
 import org.ovirt.engine.core.common.queries.QueryParametersBase;
 import org.ovirt.engine.core.common.queries.QueryReturnValue;
 import org.ovirt.engine.core.common.queries.QueryType;
+import org.ovirt.engine.core.common.queries.SearchParameters;
 import org.ovirt.engine.core.searchbackend.ISyntaxChecker;
 import org.ovirt.engine.core.searchbackend.SyntaxChecker;
 import org.ovirt.engine.core.searchbackend.SyntaxContainer;
@@ -327,6 +328,17 @@ public abstract class SearchableListModel<E, T> extends SortedListModel<T> imple
      */
     private GridTimer timer;
     private int currentPageNumber = 1; //Default to 1
+    /**
+     * Whether the current search was started by the grid timer, such searches may be served by the backend from the
+     * results of an identical refresh that is running.
+     */
+    private boolean gridTimerSearch;
+    /**
+     * The search the displayed items were last found by, and the change generation of its type they were read at,
+     * so a periodic refresh is only searched again by the backend when something of the type changed since.
+     */
+    private String lastSearchKey;
+    private long lastChangeGeneration = -1;
 
     /**
      * Setter for the grid timer.
@@ -361,7 +373,12 @@ public abstract class SearchableListModel<E, T> extends SortedListModel<T> imple
      */
     protected void doGridTimerExecute() {
         logger.fine(SearchableListModel.this.getClass().getName() + ": Executing search"); //$NON-NLS-1$
-        syncSearch();
+        gridTimerSearch = true;
+        try {
+            syncSearch();
+        } finally {
+            gridTimerSearch = false;
+        }
     }
 
     /**
@@ -789,6 +806,17 @@ public abstract class SearchableListModel<E, T> extends SortedListModel<T> imple
             QueryParametersBase queryParametersBase,
             AsyncQuery<QueryReturnValue> asyncCallback) {
         queryParametersBase.setRefresh(getIsQueryFirstTime());
+        if (queryParametersBase instanceof SearchParameters) {
+            SearchParameters searchParameters = (SearchParameters) queryParametersBase;
+            boolean periodicRefresh = gridTimerSearch && !getIsQueryFirstTime();
+            searchParameters.setPeriodicRefresh(periodicRefresh);
+            if (asyncCallback.getConverter() == null) {
+                String searchKey = searchKey(searchParameters);
+                searchParameters.setChangeGeneration(periodicRefresh && searchKey.equals(lastSearchKey)
+                        ? lastChangeGeneration : -1);
+                asyncCallback = new ChangeGenerationAsyncQuery(searchKey, asyncCallback);
+            }
+        }
 
         Frontend.getInstance().runQuery(queryType, queryParametersBase, asyncCallback);
 
@@ -799,6 +827,38 @@ public abstract class SearchableListModel<E, T> extends SortedListModel<T> imple
         syncSearch(queryType, queryParametersBase, new SetItemsAsyncQuery());
     }
 
+    private static String searchKey(SearchParameters parameters) {
+        return parameters.getSearchTypeValue() + "|" + parameters.getSearchPattern() //$NON-NLS-1$
+                + "|" + parameters.getCaseSensitive() + "|" + parameters.getSearchFrom() //$NON-NLS-1$ //$NON-NLS-2$
+                + "|" + parameters.getMaxCount() + "|" + parameters.getSearchAfterSortValue() //$NON-NLS-1$ //$NON-NLS-2$
+                + "|" + parameters.getSearchAfterId(); //$NON-NLS-1$
+    }
+
+    /**
+     * Remembers the change generation of the found items, and keeps the displayed items when the backend reports
+     * that nothing of the searched type changed since the last refresh.
+     */
+    private class ChangeGenerationAsyncQuery extends AsyncQuery<QueryReturnValue> {
+        public ChangeGenerationAsyncQuery(final String searchKey, final AsyncQuery<QueryReturnValue> query) {
+            super(query.getModel(), new AsyncCallback<QueryReturnValue>() {
+                @Override
+                public void onSuccess(QueryReturnValue returnValue) {
+                    if (returnValue != null && returnValue.isUnchanged()) {
+                        return;
+                    }
+                    if (returnValue != null && returnValue.getSucceeded()) {
+                        lastSearchKey = searchKey;
+                        lastChangeGeneration = returnValue.getChangeGeneration();
+                    } else {
+                        lastSearchKey = null;
+                        lastChangeGeneration = -1;
+                    }
+                    query.getAsyncCallback().onSuccess(returnValue);
+                }
+            }, query.isHandleFailure());
+        }
+    }
+
     public void stopRefresh() {
         if (getTimer() != null) {
             //Timer can be null if the event bus hasn't been set yet. If the timer is null we can't stop it.
@@ -231,6 +231,52 @@ END;$PROCEDURE$
 
 LANGUAGE plpgsql;
 
+DROP TYPE IF EXISTS command_entities_metadata_rs CASCADE;
+CREATE TYPE command_entities_metadata_rs AS (
+        command_id UUID,
+        command_type INT,
+        root_command_id UUID,
+        parent_command_id UUID,
+        user_id UUID,
+        engine_session_seq_id BIGINT,
+        command_context TEXT,
+        created_at TIMESTAMP WITH TIME ZONE,
+        status VARCHAR(20),
+        executed BOOLEAN,
+        callback_enabled BOOLEAN,
+        callback_notified BOOLEAN,
+        data TEXT
+        );
+
+CREATE OR REPLACE FUNCTION GetMetadataFromCommandEntitiesPage (
+    v_after_command_id UUID,
+    v_page_size INT
+    )
+RETURNS SETOF command_entities_metadata_rs STABLE AS $PROCEDURE$
+
+BEGIN
+    RETURN QUERY
+
+    SELECT command_id,
+        command_type,
+        root_command_id,
+        parent_command_id,
+        user_id,
+        engine_session_seq_id,
+        command_context,
+        created_at,
+        status,
+        executed,
+        callback_enabled,
+        callback_notified,
+        data
+    FROM command_entities
+    WHERE command_id > v_after_command_id
+    ORDER BY command_id LIMIT v_page_size;
+END;$PROCEDURE$
+
+LANGUAGE plpgsql;
+
 CREATE OR REPLACE FUNCTION GetCommandEntitiesByParentCmdId (v_root_command_id uuid)
 RETURNS SETOF command_entities STABLE AS $PROCEDURE$
 
@@ -136,6 +136,16 @@ BEGIN
 END;$PROCEDURE$
 LANGUAGE plpgsql;
 
+CREATE OR REPLACE FUNCTION GetDiskVmElementsForVms(v_vm_ids UUID[])
+RETURNS SETOF disk_vm_element_extended STABLE AS $PROCEDURE$
+BEGIN
+    RETURN QUERY
+    SELECT *
+    FROM disk_vm_element_extended
+    WHERE vm_id = ANY(v_vm_ids);
+END;$PROCEDURE$
+LANGUAGE plpgsql;
+
 
 
 CREATE OR REPLACE FUNCTION GetDiskVmElementsPluggedToVm(
@@ -1045,6 +1045,17 @@ BEGIN
 END;$PROCEDURE$
 LANGUAGE plpgsql;
 
+CREATE OR REPLACE FUNCTION GetVmNetworkInterfaceViewByVmIds (v_vm_ids UUID[])
+RETURNS SETOF vm_interface_view STABLE AS $PROCEDURE$
+BEGIN
+    RETURN QUERY
+
+    SELECT *
+    FROM vm_interface_view
+    WHERE vm_guid = ANY(v_vm_ids);
+END;$PROCEDURE$
+LANGUAGE plpgsql;
+
 CREATE OR REPLACE FUNCTION GetVmNetworkInterfaceToMonitorByVmId (v_vm_id UUID)
 RETURNS SETOF vm_interface_monitoring_view STABLE AS $PROCEDURE$
 BEGIN
@@ -1252,6 +1263,17 @@ BEGIN
 END;$PROCEDURE$
 LANGUAGE plpgsql;
 
+CREATE OR REPLACE FUNCTION GetVmGuestAgentInterfacesByVmIds (v_vm_ids UUID[])
+RETURNS SETOF vm_guest_agent_interfaces STABLE AS $PROCEDURE$
+BEGIN
+    RETURN QUERY
+
+    SELECT *
+    FROM vm_guest_agent_interfaces
+    WHERE vm_id = ANY(v_vm_ids);
+END;$PROCEDURE$
+LANGUAGE plpgsql;
+
 CREATE OR REPLACE FUNCTION DeleteVmGuestAgentInterfacesByVmIds (v_vm_ids UUID[])
 RETURNS VOID AS $PROCEDURE$
 BEGIN
@@ -252,6 +252,31 @@ BEGIN
 END;$PROCEDURE$
 LANGUAGE plpgsql;
 
+CREATE OR REPLACE FUNCTION GetAllFromSnapshotsByVmIds (v_vm_ids UUID[])
+RETURNS SETOF GetAllFromSnapshotsByVmId_rs STABLE AS $PROCEDURE$
+BEGIN
+    RETURN QUERY
+
+    SELECT snapshot_id,
+        vm_id,
+        snapshot_type,
+        status,
+        description,
+        creation_date,
+        app_list,
+        memory_dump_disk_id,
+        memory_metadata_disk_id,
+        vm_configuration,
+        vm_configuration IS NOT NULL
+        AND LENGTH(vm_configuration) > 0,
+        vm_configuration_broken
+    FROM snapshots
+    WHERE vm_id = ANY(v_vm_ids)
+    ORDER BY vm_id,
+        creation_date ASC;
+END;$PROCEDURE$
+LANGUAGE plpgsql;
+
 CREATE OR REPLACE FUNCTION GetSnapshotBySnapshotId (
     v_snapshot_id UUID,
     v_user_id UUID,
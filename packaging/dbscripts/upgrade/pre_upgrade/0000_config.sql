@@ -59,10 +59,15 @@ select fn_db_add_config_value('AsyncTaskStatusCachingTimeInMinutes','1','general
 select fn_db_add_config_value('AsyncTaskZombieTaskLifeInMinutes','300','general');
 select fn_db_add_config_value('AuditLogAgingThreshold','30','general');
 select fn_db_add_config_value('AuditLogCleanupTime','03:35:35','general');
+select fn_db_add_config_value('AuditLogAsyncQueueSize','10000','general');
+select fn_db_add_config_value('AuditLogAsyncBatchSize','500','general');
+select fn_db_add_config_value('AuditLogAsyncIntervalInMillis','500','general');
 select fn_db_add_config_value('CoCoLifeInMinutes','3000','general');
 select fn_db_add_config_value('CoCoWaitForEventInMinutes','300','general');
+select fn_db_add_config_value('CoCoCallbackLanes','4','general');
 select fn_db_add_config_value('CommandEntityAgingThreshold','30','general');
 select fn_db_add_config_value('CommandEntityCleanupTime','03:35:35','general');
+select fn_db_add_config_value('CommandEntityPayloadCacheInMinutes','10','general');
 select fn_db_add_config_value('MaintenanceVdsIgnoreExternalVms','false','general');
 select fn_db_add_config_value('OnlyRequiredNetworksMandatoryForVdsSelection','false','general');
 select fn_db_add_config_value_for_versions_up_to('BackupSupported','true','general');
@@ -393,6 +398,9 @@ select fn_db_add_config_value('NicDHCPDelayGraceInMS','60','general');
 select fn_db_add_config_value('NumberOfFailedRunsOnVds','3','general');
 select fn_db_add_config_value('NumberOfUSBSlots','4','general');
 select fn_db_add_config_value('NumberVmRefreshesBeforeSave','5','general');
+select fn_db_add_config_value('NumberVmStatisticsRefreshesBeforeSave','1','general');
+select fn_db_add_config_value('StatisticsPersistenceIntervalInMillis','1000','general');
+select fn_db_add_config_value('StatisticsPersistenceMaxPending','10000','general');
 select fn_db_add_config_value('NumberVdsRefreshesBeforeTryToStartUnknownVms','10','general');
 select fn_db_add_config_value('NumberVdsRefreshesBeforeRetryToStartUnknownVms','100','general');
 select fn_db_add_config_value('EnableMACAntiSpoofingFilterRules','true', 'general');
@@ -400,6 +408,7 @@ select fn_db_add_config_value('MaxSchedulerWeight','1000','general');
 select fn_db_add_config_value('SpeedOptimizationSchedulingThreshold','10','general');
 select fn_db_add_config_value('SchedulerAllowOverBooking','false','general');
 select fn_db_add_config_value('SchedulerOverBookingThreshold','10','general');
+select fn_db_add_config_value('SchedulerParallelism','1','general');
 select fn_db_add_config_value('UploadFileMaxTimeInMinutes','5','general');
 select fn_db_add_config_value('RetrieveDataMaxTimeInMinutes','5','general');
 select fn_db_add_config_value('StorageDomainOvfStoreCount','2','general');
@@ -416,6 +425,7 @@ select fn_db_add_config_value('oVirtUpgradeScriptName','/usr/share/vdsm-reg/vdsm
 select fn_db_add_config_value('oVirtUploadPath','/data/updates/ovirt-node-image.iso','general');
 select fn_db_add_config_value('OvfUpdateIntervalInMinutes','60','general');
 select fn_db_add_config_value('OvfItemsCountPerUpdate','100','general');
+select fn_db_add_config_value('OvfUpdateParallelism','4','general');
 select fn_db_add_config_value('PayloadSize','8192','general');
 -- Power management health check
 select fn_db_add_config_value('PMHealthCheckEnabled','false','general');
@@ -435,6 +445,8 @@ select fn_db_add_config_value('RhevhLocalFSPath','/data/images/','general');
 select fn_db_add_config_value('SANWipeAfterDelete','false','general');
 --Handling SASL QOP
 select fn_db_add_config_value('SearchResultsLimit','100','general');
+select fn_db_add_config_value('SearchQueryCacheSize','1000','general');
+select fn_db_add_config_value('SearchQueryCacheTimeToLiveInSeconds','86400','general');
 select fn_db_add_config_value('SendSMPOnRunVm','true','general');
 select fn_db_add_config_value('ServerCPUList','3:Intel Conroe Family:vmx,nx,model_Conroe:Conroe:x86_64; 4:Intel Penryn Family:vmx,nx,model_Penryn:Penryn:x86_64; 5:Intel Nehalem Family:vmx,nx,model_Nehalem:Nehalem:x86_64; 6:Intel Westmere Family:aes,vmx,nx,model_Westmere:Westmere:x86_64; 7:Intel SandyBridge Family:vmx,nx,model_SandyBridge:SandyBridge:x86_64; 8:Intel Haswell Family:vmx,nx,model_Haswell:Haswell:x86_64; 2:AMD Opteron G1:svm,nx,model_Opteron_G1:Opteron_G1:x86_64; 3:AMD Opteron G2:svm,nx,model_Opteron_G2:Opteron_G2:x86_64; 4:AMD Opteron G3:svm,nx,model_Opteron_G3:Opteron_G3:x86_64; 5:AMD Opteron G4:svm,nx,model_Opteron_G4:Opteron_G4:x86_64; 6:AMD Opteron G5:svm,nx,model_Opteron_G5:Opteron_G5:x86_64; 3:IBM POWER8:powernv,model_power8:power8:ppc64;','3.6');
 select fn_db_add_config_value('ServerCPUList', '3:Intel Conroe Family:vmx,nx,model_Conroe:Conroe:x86_64; 4:Intel Penryn Family:vmx,nx,model_Penryn:Penryn:x86_64; 5:Intel Nehalem Family:vmx,nx,model_Nehalem:Nehalem:x86_64; 6:Intel Westmere Family:aes,vmx,nx,model_Westmere:Westmere:x86_64; 7:Intel SandyBridge Family:vmx,nx,model_SandyBridge:SandyBridge:x86_64; 8:Intel Haswell-noTSX Family:vmx,nx,model_Haswell-noTSX:Haswell-noTSX:x86_64; 9:Intel Haswell Family:vmx,nx,model_Haswell:Haswell:x86_64; 10:Intel Broadwell-noTSX Family:vmx,nx,model_Broadwell-noTSX:Broadwell-noTSX:x86_64; 11:Intel Broadwell Family:vmx,nx,model_Broadwell:Broadwell:x86_64; 2:AMD Opteron G1:svm,nx,model_Opteron_G1:Opteron_G1:x86_64; 3:AMD Opteron G2:svm,nx,model_Opteron_G2:Opteron_G2:x86_64; 4:AMD Opteron G3:svm,nx,model_Opteron_G3:Opteron_G3:x86_64; 5:AMD Opteron G4:svm,nx,model_Opteron_G4:Opteron_G4:x86_64; 6:AMD Opteron G5:svm,nx,model_Opteron_G5:Opteron_G5:x86_64; 3:IBM POWER8:powernv,model_POWER8:POWER8:ppc64;', '4.0');
@@ -511,6 +523,8 @@ select fn_db_add_config_value('VdsLocalDisksCriticallyLowFreeSpace','100','gener
 select fn_db_add_config_value('VdsLocalDisksLowFreeSpace','500','general');
 select fn_db_add_config_value('VdsRecoveryTimeoutInMinutes','3','general');
 select fn_db_add_config_value('VdsRefreshRate','2','general');
+select fn_db_add_config_value('VmStatsStreamingDecoding','true','general');
+select fn_db_add_config_value('JsonRpcBatchWindowInMillis','0','general');
 select fn_db_add_config_value('vdsRetries','0','general');
 select fn_db_add_config_value('vdsTimeout','180','general');
 --Handling Virtual Machine Domain Name
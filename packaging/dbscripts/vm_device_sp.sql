@@ -212,6 +212,19 @@ BEGIN
 END;$PROCEDURE$
 LANGUAGE plpgsql;
 
+CREATE OR REPLACE FUNCTION GetVmDevicesByVmIds (v_vm_ids UUID[])
+RETURNS SETOF vm_device_view STABLE AS $PROCEDURE$
+BEGIN
+    RETURN QUERY
+
+    SELECT *
+    FROM vm_device_view
+    WHERE vm_id = ANY(v_vm_ids)
+    ORDER BY vm_id,
+        device_id;
+END;$PROCEDURE$
+LANGUAGE plpgsql;
+
 CREATE OR REPLACE FUNCTION GetVmDeviceByVmIdAndType (
     v_vm_id UUID,
     v_type VARCHAR(30)